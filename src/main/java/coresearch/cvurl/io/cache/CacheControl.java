@@ -0,0 +1,58 @@
+package coresearch.cvurl.io.cache;
+
+import coresearch.cvurl.io.constant.HttpHeader;
+
+import java.net.http.HttpHeaders;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Directives of the Cache-Control header.
+ */
+final class CacheControl {
+
+    static final String NO_STORE = "no-store";
+    static final String NO_CACHE = "no-cache";
+    static final String MAX_AGE = "max-age";
+    static final String MUST_REVALIDATE = "must-revalidate";
+    static final String STALE_WHILE_REVALIDATE = "stale-while-revalidate";
+    static final String STALE_IF_ERROR = "stale-if-error";
+
+    private final Map<String, String> directives;
+
+    private CacheControl(Map<String, String> directives) {
+        this.directives = directives;
+    }
+
+    static CacheControl of(HttpHeaders headers) {
+        var directives = new HashMap<String, String>();
+        for (var value : headers.allValues(HttpHeader.CACHE_CONTROL)) {
+            for (var directive : value.split(",")) {
+                var parts = directive.split("=", 2);
+                var name = parts[0].trim().toLowerCase(Locale.ROOT);
+                if (!name.isEmpty()) {
+                    directives.putIfAbsent(name, parts.length == 2 ? parts[1].trim().replace("\"", "") : "");
+                }
+            }
+        }
+        return new CacheControl(directives);
+    }
+
+    boolean has(String directive) {
+        return directives.containsKey(directive);
+    }
+
+    OptionalLong seconds(String directive) {
+        var value = directives.get(directive);
+        if (value == null) {
+            return OptionalLong.empty();
+        }
+        try {
+            return OptionalLong.of(Math.max(0, Long.parseLong(value)));
+        } catch (NumberFormatException e) {
+            return OptionalLong.empty();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package coresearch.cvurl.io.cache;
+
+import java.net.http.HttpHeaders;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.List;
+
+/**
+ * Response stored in the {@link HttpCache}. Body is stored already decoded, so entries can be served
+ * without decompressing them again, and headers describing the encoding of the original body are dropped.
+ * Entries are immutable and shared between all requests served from the cache, so headers are parsed once
+ * when the entry is created rather than on every lookup.
+ */
+public final class CacheEntry {
+
+    private static final int HEADER_OVERHEAD = 32;
+
+    private final String uri;
+    private final int statusCode;
+    private final Map<String, List<String>> headers;
+    private final Map<String, List<String>> varyHeaders;
+    private final HttpHeaders httpHeaders;
+    private final CacheControl cacheControl;
+    private final ByteBuffer body;
+    private final long requestTime;
+    private final long responseTime;
+
+    /**
+     * Creates entry.
+     *
+     * @param uri          request uri
+     * @param statusCode   response status code
+     * @param headers      response headers
+     * @param varyHeaders  values of request headers listed in the Vary response header
+     * @param body         decoded response body
+     * @param requestTime  time the request was sent at, in epoch milliseconds
+     * @param responseTime time the response was received at, in epoch milliseconds
+     */
+    public CacheEntry(String uri, int statusCode, Map<String, List<String>> headers,
+                      Map<String, List<String>> varyHeaders, byte[] body, long requestTime, long responseTime) {
+        this(uri, statusCode, headers, varyHeaders, ByteBuffer.wrap(body), requestTime, responseTime);
+    }
+
+    /**
+     * Creates entry which body is held in a buffer, for example a region of a memory-mapped file.
+     * The remaining bytes of the buffer are the body, and the buffer should not be modified afterwards.
+     *
+     * @param uri          request uri
+     * @param statusCode   response status code
+     * @param headers      response headers
+     * @param varyHeaders  values of request headers listed in the Vary response header
+     * @param body         decoded response body
+     * @param requestTime  time the request was sent at, in epoch milliseconds
+     * @param responseTime time the response was received at, in epoch milliseconds
+     */
+    public CacheEntry(String uri, int statusCode, Map<String, List<String>> headers,
+                      Map<String, List<String>> varyHeaders, ByteBuffer body, long requestTime, long responseTime) {
+        this.uri = uri;
+        this.statusCode = statusCode;
+        this.headers = Map.copyOf(headers);
+        this.varyHeaders = Map.copyOf(varyHeaders);
+        this.httpHeaders = HttpHeaders.of(this.headers, (name, value) -> true);
+        this.cacheControl = CacheControl.of(httpHeaders);
+        this.body = body.slice();
+        this.requestTime = requestTime;
+        this.responseTime = responseTime;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Returns response headers as {@link HttpHeaders}, which look up names ignoring case.
+     *
+     * @return response headers
+     */
+    public HttpHeaders getHttpHeaders() {
+        return httpHeaders;
+    }
+
+    CacheControl getCacheControl() {
+        return cacheControl;
+    }
+
+    public Map<String, List<String>> getVaryHeaders() {
+        return varyHeaders;
+    }
+
+    /**
+     * Returns stored body. If the body is held in a heap array the array is shared and should not be modified,
+     * otherwise the body is copied into a new array.
+     *
+     * @return decoded body
+     */
+    public byte[] getBody() {
+        if (body.hasArray() && body.arrayOffset() == 0 && body.remaining() == body.array().length) {
+            return body.array();
+        }
+        var copy = new byte[body.remaining()];
+        body.duplicate().get(copy);
+        return copy;
+    }
+
+    /**
+     * Returns read-only view of the stored body, which can be read without copying it.
+     *
+     * @return decoded body
+     */
+    public ByteBuffer getBodyBuffer() {
+        return body.asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns entry which body is held in the heap, copying the body if it is held elsewhere,
+     * for example in a memory-mapped file.
+     *
+     * @return this entry or its copy
+     */
+    CacheEntry onHeap() {
+        if (body.hasArray()) {
+            return this;
+        }
+        return new CacheEntry(uri, statusCode, headers, varyHeaders, getBody(), requestTime, responseTime);
+    }
+
+    /**
+     * Returns entry with the same body and new headers and times, used when the entry is revalidated.
+     * The body is shared if it is held in the heap and copied into the heap otherwise.
+     *
+     * @param headers      response headers
+     * @param requestTime  time the request was sent at, in epoch milliseconds
+     * @param responseTime time the response was received at, in epoch milliseconds
+     * @return refreshed entry
+     */
+    CacheEntry refreshed(Map<String, List<String>> headers, long requestTime, long responseTime) {
+        return new CacheEntry(uri, statusCode, headers, varyHeaders, onHeap().body, requestTime, responseTime);
+    }
+
+    public int getBodyLength() {
+        return body.remaining();
+    }
+
+    public long getRequestTime() {
+        return requestTime;
+    }
+
+    public long getResponseTime() {
+        return responseTime;
+    }
+
+    /**
+     * Returns approximate number of bytes the entry occupies.
+     *
+     * @return entry weight
+     */
+    public long getWeight() {
+        long weight = body.remaining() + uri.length();
+        for (var header : headers.entrySet()) {
+            weight += HEADER_OVERHEAD + header.getKey().length();
+            for (var value : header.getValue()) {
+                weight += value.length();
+            }
+        }
+        return weight;
+    }
+}
@@ -0,0 +1,48 @@
+package coresearch.cvurl.io.cache;
+
+import java.io.Closeable;
+import java.util.Optional;
+
+/**
+ * Storage of {@link CacheEntry} used by {@link HttpCache}. Implementations should be thread safe
+ * and are free to evict entries at any time. Stores holding resources, like open files, release them on close.
+ */
+public interface CacheStore extends Closeable {
+
+    /**
+     * Returns entry stored under the key.
+     *
+     * @param key entry key
+     * @return stored entry, empty if there is none
+     */
+    Optional<CacheEntry> get(String key);
+
+    /**
+     * Stores entry under the key, replacing the previous one.
+     *
+     * @param key   entry key
+     * @param entry entry to store
+     */
+    void put(String key, CacheEntry entry);
+
+    /**
+     * Removes entry stored under the key.
+     *
+     * @param key entry key
+     */
+    void remove(String key);
+
+    /**
+     * Returns approximate number of bytes occupied by the stored entries.
+     *
+     * @return size in bytes
+     */
+    long size();
+
+    /**
+     * Releases resources of the store, does nothing by default.
+     */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,532 @@
+package coresearch.cvurl.io.cache;
+
+import coresearch.cvurl.io.exception.CacheStoreException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Persistent {@link CacheStore} keeping entries in append-only segment files mapped into memory.
+ * Every put or remove appends a checksummed record to the active segment, and an in-memory index points to the
+ * latest record of every key. Bodies of the returned entries are slices of the mapped segments, so they are read
+ * straight from the page cache without copying them into the heap.
+ * <p>
+ * When the segments outgrow the size bound, the oldest segment is compacted by copying its live records to the
+ * active segment, or, if most of it is still live, evicted together with its entries.
+ * On creation the index is rebuilt by replaying the segments found in the directory, and records torn by a crash
+ * are recognized by their checksum and skipped. Segments are forced to disk when they are sealed and when the store
+ * is closed. Segment files are created, forced and deleted outside the store lock, so lookups are never blocked
+ * by disk I/O.
+ */
+public class DiskCacheStore implements CacheStore {
+
+    private static final int DEFAULT_SEGMENT_BYTES = 64 * 1024 * 1024;
+    private static final int MAGIC = 0x43564331;
+    private static final int RECORD_HEADER_BYTES = 12;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".cache";
+    private static final double COMPACTION_THRESHOLD = 0.5;
+
+    private final Path directory;
+    private final long maxBytes;
+    private final int segmentBytes;
+    private final Map<String, Location> index = new HashMap<>();
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final Queue<Segment> evicted = new ConcurrentLinkedQueue<>();
+    private boolean rolling;
+    private long nextSegmentId;
+    private long size;
+    private long evictions;
+
+    /**
+     * Creates store with segments of at most 64 MB, recovering entries stored in the directory before.
+     *
+     * @param directory directory of the segment files, created if missing
+     * @param maxBytes  maximal total size of the segments
+     */
+    public DiskCacheStore(Path directory, long maxBytes) {
+        this(directory, maxBytes, (int) Math.min(DEFAULT_SEGMENT_BYTES, maxBytes));
+    }
+
+    /**
+     * Creates store, recovering entries stored in the directory before.
+     *
+     * @param directory    directory of the segment files, created if missing
+     * @param maxBytes     maximal total size of the segments
+     * @param segmentBytes size of a segment file, entries which don't fit into a segment are not stored
+     */
+    public DiskCacheStore(Path directory, long maxBytes, int segmentBytes) {
+        if (segmentBytes <= RECORD_HEADER_BYTES) {
+            throw new IllegalArgumentException("Segment size should be greater than " + RECORD_HEADER_BYTES + ", got " + segmentBytes);
+        }
+        if (maxBytes < segmentBytes) {
+            throw new IllegalArgumentException("Cache size should not be less than segment size, got " + maxBytes);
+        }
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.segmentBytes = segmentBytes;
+
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException e) {
+            throw new CacheStoreException("Failed to open cache directory " + directory, e);
+        }
+        synchronized (this) {
+            evictOldSegments();
+        }
+        deleteEvictedSegments();
+    }
+
+    @Override
+    public synchronized Optional<CacheEntry> get(String key) {
+        return Optional.ofNullable(index.get(key)).map(DiskCacheStore::readEntry);
+    }
+
+    @Override
+    public void put(String key, CacheEntry entry) {
+        var metadata = encodeMetadata(key, entry);
+        var body = entry.getBodyBuffer();
+        int recordBytes = RECORD_HEADER_BYTES + metadata.length + Integer.BYTES + body.remaining();
+        if (recordBytes > segmentBytes) {
+            remove(key);
+            return;
+        }
+
+        var crc = new CRC32();
+        crc.update(metadata);
+        crc.update(ByteBuffer.allocate(Integer.BYTES).putInt(0, body.remaining()));
+        crc.update(body.duplicate());
+
+        while (true) {
+            synchronized (this) {
+                var segment = segmentWithRoom(recordBytes);
+                if (segment != null) {
+                    segment.writer(recordBytes)
+                            .putInt(MAGIC)
+                            .putInt(recordBytes - RECORD_HEADER_BYTES)
+                            .putInt((int) crc.getValue())
+                            .put(metadata)
+                            .putInt(body.remaining())
+                            .put(body);
+                    index(key, new Location(segment, segment.position, recordBytes));
+                    segment.position += recordBytes;
+                    size += recordBytes;
+                    evictOldSegments();
+                    break;
+                }
+            }
+            if (!rollSegment()) {
+                return;
+            }
+        }
+        deleteEvictedSegments();
+    }
+
+    @Override
+    public void remove(String key) {
+        var tombstone = encodeTombstone(key);
+        int recordBytes = RECORD_HEADER_BYTES + tombstone.length;
+        var crc = new CRC32();
+        crc.update(tombstone);
+
+        while (true) {
+            synchronized (this) {
+                if (!index.containsKey(key)) {
+                    return;
+                }
+                var segment = segmentWithRoom(recordBytes);
+                if (segment != null) {
+                    var previous = index.remove(key);
+                    previous.segment.liveBytes -= previous.length;
+                    segment.writer(recordBytes)
+                            .putInt(MAGIC)
+                            .putInt(tombstone.length)
+                            .putInt((int) crc.getValue())
+                            .put(tombstone);
+                    segment.position += recordBytes;
+                    size += recordBytes;
+                    evictOldSegments();
+                    break;
+                }
+            }
+            if (!rollSegment()) {
+                return;
+            }
+        }
+        deleteEvictedSegments();
+    }
+
+    @Override
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Returns number of entries evicted to stay within the size bound.
+     *
+     * @return number of evictions
+     */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Forces the active segment to disk. Entries returned before stay readable after the store is closed.
+     */
+    @Override
+    public void close() {
+        Segment active;
+        synchronized (this) {
+            active = segments.peekLast();
+        }
+        if (active != null) {
+            active.buffer.force();
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (var stream = Files.list(directory)) {
+            files = stream.filter(DiskCacheStore::isSegmentFile)
+                    .sorted(Comparator.comparingLong(DiskCacheStore::segmentId))
+                    .collect(Collectors.toList());
+        }
+
+        for (int i = 0; i < files.size(); i++) {
+            var file = files.get(i);
+            var segment = new Segment(file, map(file, Files.size(file)));
+            nextSegmentId = segmentId(file) + 1;
+            replay(segment);
+            if (segment.position == 0 && i < files.size() - 1) {
+                // segment which failed to be deleted before
+                delete(segment);
+                continue;
+            }
+            segments.addLast(segment);
+            size += segment.position;
+        }
+    }
+
+    private void replay(Segment segment) {
+        var buffer = segment.buffer.duplicate();
+        int offset = 0;
+        while (buffer.capacity() - offset >= RECORD_HEADER_BYTES) {
+            buffer.position(offset);
+            int magic = buffer.getInt();
+            int payloadBytes = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (magic != MAGIC || payloadBytes <= 0 || payloadBytes > buffer.remaining()) {
+                break;
+            }
+
+            var payload = buffer.slice();
+            payload.limit(payloadBytes);
+            var crc = new CRC32();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+
+            byte type = payload.get();
+            var key = readString(payload);
+            int recordBytes = RECORD_HEADER_BYTES + payloadBytes;
+            if (type == PUT) {
+                index(key, new Location(segment, offset, recordBytes));
+            } else {
+                var previous = index.remove(key);
+                if (previous != null) {
+                    previous.segment.liveBytes -= previous.length;
+                }
+            }
+            offset += recordBytes;
+        }
+        // anything after the last valid record was torn by a crash and will be overwritten
+        segment.position = offset;
+    }
+
+    private void index(String key, Location location) {
+        var previous = index.put(key, location);
+        if (previous != null) {
+            previous.segment.liveBytes -= previous.length;
+        }
+        location.segment.liveBytes += location.length;
+    }
+
+    private Segment segmentWithRoom(int recordBytes) {
+        var active = segments.peekLast();
+        return active != null && active.buffer.capacity() - active.position >= recordBytes ? active : null;
+    }
+
+    /**
+     * Creates new active segment outside the store lock, or waits until a concurrent writer creates it.
+     * The sealed segment is forced to disk afterwards, also outside the lock.
+     *
+     * @return false if interrupted while waiting
+     */
+    private boolean rollSegment() {
+        Path file;
+        synchronized (this) {
+            if (rolling) {
+                try {
+                    while (rolling) {
+                        wait();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                return true;
+            }
+            rolling = true;
+            file = directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, nextSegmentId++, SEGMENT_SUFFIX));
+        }
+
+        Segment created = null;
+        Segment sealed;
+        try {
+            created = new Segment(file, map(file, segmentBytes));
+        } catch (IOException e) {
+            throw new CacheStoreException("Failed to create cache segment " + file, e);
+        } finally {
+            synchronized (this) {
+                rolling = false;
+                sealed = segments.peekLast();
+                if (created != null) {
+                    segments.addLast(created);
+                }
+                notifyAll();
+            }
+        }
+        if (sealed != null) {
+            sealed.buffer.force();
+        }
+        return true;
+    }
+
+    private void evictOldSegments() {
+        while (size > maxBytes && segments.size() > 1) {
+            var oldest = segments.pollFirst();
+            size -= oldest.position;
+
+            var live = index.entrySet().stream()
+                    .filter(indexEntry -> indexEntry.getValue().segment == oldest)
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+            index.keySet().removeAll(live.keySet());
+
+            // live records are copied only if they fit into the active segment, as a new one can't be created
+            // while holding the lock
+            if (oldest.liveBytes <= oldest.position * COMPACTION_THRESHOLD && segmentWithRoom((int) oldest.liveBytes) != null) {
+                live.forEach((key, location) -> copy(key, location));
+            } else {
+                evictions += live.size();
+            }
+            evicted.add(oldest);
+        }
+    }
+
+    private void copy(String key, Location location) {
+        var record = location.segment.buffer.duplicate();
+        record.position(location.offset).limit(location.offset + location.length);
+
+        var segment = segments.peekLast();
+        segment.writer(location.length).put(record);
+        index(key, new Location(segment, segment.position, location.length));
+        segment.position += location.length;
+        size += location.length;
+    }
+
+    /**
+     * Deletes evicted segments outside the store lock, in the order they were evicted, so a tombstone is never
+     * deleted before the older records it removes.
+     */
+    private void deleteEvictedSegments() {
+        synchronized (evicted) {
+            Segment segment;
+            while ((segment = evicted.poll()) != null) {
+                delete(segment);
+            }
+        }
+    }
+
+    private static void delete(Segment segment) {
+        try {
+            Files.deleteIfExists(segment.file);
+        } catch (IOException e) {
+            // tombstones are not copied by compaction, so replaying records of the segment on the next start
+            // would bring back removed entries, erase its first record to make it look empty instead
+            segment.buffer.putInt(0, 0);
+            segment.buffer.force();
+        }
+    }
+
+    private static CacheEntry readEntry(Location location) {
+        var buffer = location.segment.buffer.duplicate();
+        buffer.position(location.offset + RECORD_HEADER_BYTES).limit(location.offset + location.length);
+        buffer.get();
+        readString(buffer);
+
+        var uri = readString(buffer);
+        int statusCode = buffer.getInt();
+        long requestTime = buffer.getLong();
+        long responseTime = buffer.getLong();
+        var headers = readHeaders(buffer);
+        var varyHeaders = readHeaders(buffer);
+        int bodyBytes = buffer.getInt();
+        var body = buffer.slice();
+        body.limit(bodyBytes);
+        return new CacheEntry(uri, statusCode, headers, varyHeaders, body, requestTime, responseTime);
+    }
+
+    private static byte[] encodeMetadata(String key, CacheEntry entry) {
+        var bytes = new ByteArrayOutputStream();
+        try (var output = new DataOutputStream(bytes)) {
+            output.writeByte(PUT);
+            writeString(output, key);
+            writeString(output, entry.getUri());
+            output.writeInt(entry.getStatusCode());
+            output.writeLong(entry.getRequestTime());
+            output.writeLong(entry.getResponseTime());
+            writeHeaders(output, entry.getHeaders());
+            writeHeaders(output, entry.getVaryHeaders());
+        } catch (IOException e) {
+            throw new CacheStoreException("Failed to encode cache entry " + key, e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodeTombstone(String key) {
+        var bytes = new ByteArrayOutputStream();
+        try (var output = new DataOutputStream(bytes)) {
+            output.writeByte(REMOVE);
+            writeString(output, key);
+        } catch (IOException e) {
+            throw new CacheStoreException("Failed to encode cache entry " + key, e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeHeaders(DataOutputStream output, Map<String, List<String>> headers) throws IOException {
+        output.writeInt(headers.size());
+        for (var header : headers.entrySet()) {
+            writeString(output, header.getKey());
+            output.writeInt(header.getValue().size());
+            for (var value : header.getValue()) {
+                writeString(output, value);
+            }
+        }
+    }
+
+    private static Map<String, List<String>> readHeaders(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        var headers = new HashMap<String, List<String>>();
+        for (int i = 0; i < count; i++) {
+            var name = readString(buffer);
+            int valueCount = buffer.getInt();
+            var values = new ArrayList<String>(valueCount);
+            for (int j = 0; j < valueCount; j++) {
+                values.add(readString(buffer));
+            }
+            headers.put(name, values);
+        }
+        return headers;
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        var bytes = value.getBytes(UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        var bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private static MappedByteBuffer map(Path file, long length) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+        }
+    }
+
+    private static boolean isSegmentFile(Path file) {
+        var name = file.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX) || !Files.isRegularFile(file)) {
+            return false;
+        }
+        try {
+            segmentId(file);
+            return true;
+        } catch (NumberFormatException e) {
+            // not created by the store
+            return false;
+        }
+    }
+
+    private static long segmentId(Path file) {
+        var name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static final class Segment {
+
+        private final Path file;
+        private final MappedByteBuffer buffer;
+        private int position;
+        private long liveBytes;
+
+        private Segment(Path file, MappedByteBuffer buffer) {
+            this.file = file;
+            this.buffer = buffer;
+        }
+
+        private ByteBuffer writer(int length) {
+            var writer = buffer.duplicate();
+            writer.position(position).limit(position + length);
+            return writer;
+        }
+    }
+
+    private static final class Location {
+
+        private final Segment segment;
+        private final int offset;
+        private final int length;
+
+        private Location(Segment segment, int offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
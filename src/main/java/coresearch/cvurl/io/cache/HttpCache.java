@@ -0,0 +1,585 @@
+package coresearch.cvurl.io.cache;
+
+import coresearch.cvurl.io.constant.HttpHeader;
+import coresearch.cvurl.io.constant.HttpMethod;
+import coresearch.cvurl.io.constant.HttpStatus;
+import coresearch.cvurl.io.internal.response.CachedHttpResponse;
+import coresearch.cvurl.io.internal.util.HttpDates;
+import coresearch.cvurl.io.internal.util.HttpRequests;
+import coresearch.cvurl.io.model.CacheStatistics;
+
+import java.io.Closeable;
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Private HTTP response cache following RFC 7234. Responses to GET requests are stored when they
+ * are cacheable and either have explicit freshness (max-age or Expires) or can be revalidated
+ * (ETag or Last-Modified). Fresh responses are served without contacting the server, stale ones are
+ * revalidated with If-None-Match and If-Modified-Since, and a 304 Not Modified answer refreshes the stored
+ * response. Cache-Control no-store and no-cache of both requests and responses, and Vary are honoured,
+ * only one variant per uri is kept. Successful requests with unsafe methods invalidate the stored response.
+ * <p>
+ * Following RFC 5861, stale responses are served within their stale-while-revalidate window while a single
+ * background revalidation per uri runs on the refresh executor, and within their stale-if-error window when
+ * the server fails or can't be reached. Windows of responses without these directives are set by the builder.
+ * The default refresh executor runs at most {@value #REFRESH_THREADS} revalidations at once and is shut down
+ * when the cache is closed.
+ */
+public class HttpCache implements Closeable {
+
+    private static final Set<Integer> CACHEABLE_STATUS_CODES = Set.of(HttpStatus.OK,
+            HttpStatus.NON_AUTHORITATIVE_INFORMATION, HttpStatus.NO_CONTENT, HttpStatus.MULTIPLE_CHOICES,
+            HttpStatus.MOVED_PERMANENTLY, HttpStatus.NOT_FOUND, HttpStatus.METHOD_NOT_ALLOWED, HttpStatus.GONE,
+            HttpStatus.REQUEST_URI_TOO_LONG, HttpStatus.NOT_IMPLEMENTED);
+    private static final Set<String> SAFE_METHODS = Set.of(HttpMethod.GET.name(), HttpMethod.OPTIONS.name(),
+            HttpMethod.TRACE.name(), "HEAD");
+    private static final Set<String> UNSTORED_HEADERS = Set.of("content-encoding", "content-length", "connection",
+            "keep-alive", "transfer-encoding", "trailer", "upgrade");
+    private static final Set<Integer> SERVER_ERROR_STATUS_CODES = Set.of(HttpStatus.INTERNAL_SERVER_ERROR,
+            HttpStatus.BAD_GATEWAY, HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.GATEWAY_TIMEOUT);
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    private static final int REFRESH_THREADS = 4;
+    private static final int REFRESH_QUEUE_SIZE = 1000;
+    private static final double HEURISTIC_FRACTION = 0.1;
+    private static final long MAX_HEURISTIC_MILLIS = Duration.ofDays(1).toMillis();
+
+    private final CacheStore store;
+    private final Clock clock;
+    private final Duration staleWhileRevalidate;
+    private final Duration staleIfError;
+    private final Executor refreshExecutor;
+    private final ExecutorService defaultRefreshExecutor;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder staleIfErrorHits = new LongAdder();
+
+    private HttpCache(Builder builder) {
+        this.store = builder.store;
+        this.clock = builder.clock;
+        this.staleWhileRevalidate = builder.staleWhileRevalidate;
+        this.staleIfError = builder.staleIfError;
+        this.defaultRefreshExecutor = builder.refreshExecutor != null ? null : newRefreshExecutor();
+        this.refreshExecutor = builder.refreshExecutor != null ? builder.refreshExecutor : defaultRefreshExecutor;
+    }
+
+    private static ExecutorService newRefreshExecutor() {
+        var executor = new ThreadPoolExecutor(REFRESH_THREADS, REFRESH_THREADS, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(REFRESH_QUEUE_SIZE), runnable -> {
+                    var thread = new Thread(runnable, "cvurl-cache-refresh-" + THREAD_COUNTER.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Creates cache keeping responses in memory.
+     *
+     * @param maxBytes maximal size of the cached responses in bytes
+     * @return new cache
+     */
+    public static HttpCache inMemory(long maxBytes) {
+        return builder().store(new MemoryCacheStore(maxBytes)).build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Looks up response to the request.
+     *
+     * @param request request about to be sent
+     * @return lookup result, which should be passed to {@link #onResponse(Lookup, HttpResponse)} if request is sent
+     */
+    public Lookup lookup(HttpRequest request) {
+        var requestCacheControl = CacheControl.of(request.headers());
+        if (!HttpMethod.GET.name().equals(request.method()) || requestCacheControl.has(CacheControl.NO_STORE)) {
+            return new Lookup(request, null, clock.millis(), Lookup.Result.BYPASS);
+        }
+
+        long now = clock.millis();
+        var entry = store.get(key(request.uri())).filter(stored -> matchesVary(stored, request)).orElse(null);
+        if (entry == null) {
+            misses.increment();
+            return new Lookup(request, null, now, Lookup.Result.MISS);
+        }
+
+        if (isFresh(entry, requestCacheControl, now)) {
+            hits.increment();
+            return new Lookup(request, entry, now, Lookup.Result.HIT);
+        }
+
+        if (!requestCacheControl.has(CacheControl.NO_CACHE) &&
+                isServableStale(entry, CacheControl.STALE_WHILE_REVALIDATE, staleWhileRevalidate, now)) {
+            staleHits.increment();
+            return new Lookup(request, entry, now, Lookup.Result.STALE);
+        }
+
+        // stale entry is kept to fall back to it if the request fails
+        if (validators(entry).isEmpty()) {
+            misses.increment();
+            return new Lookup(request, entry, now, Lookup.Result.MISS);
+        }
+
+        revalidations.increment();
+        return new Lookup(request, entry, now, Lookup.Result.REVALIDATE);
+    }
+
+    /**
+     * Returns stored response to the request only if it is fresh. Used for reads which don't buffer the body
+     * and therefore can't store the response, so only hits are counted.
+     *
+     * @param request request about to be sent
+     * @return fresh stored response, empty if the request has to be sent
+     */
+    public Optional<HttpResponse<byte[]>> lookupFresh(HttpRequest request) {
+        var requestCacheControl = CacheControl.of(request.headers());
+        if (!HttpMethod.GET.name().equals(request.method()) || requestCacheControl.has(CacheControl.NO_STORE)) {
+            return Optional.empty();
+        }
+
+        long now = clock.millis();
+        var entry = store.get(key(request.uri()))
+                .filter(stored -> matchesVary(stored, request))
+                .filter(stored -> isFresh(stored, requestCacheControl, now));
+        entry.ifPresent(stored -> hits.increment());
+        return entry.map(stored -> CachedHttpResponse.of(stored, request));
+    }
+
+    /**
+     * Stores response to the request looked up before, or refreshes the stored one if response is 304 Not Modified.
+     *
+     * @param lookup   result of the lookup made before sending the request
+     * @param response received response with decoded body
+     * @return response to return to the caller, the stored one if it was revalidated
+     */
+    public HttpResponse<byte[]> onResponse(Lookup lookup, HttpResponse<byte[]> response) {
+        if (lookup.result == Lookup.Result.BYPASS) {
+            return response;
+        }
+
+        if (SERVER_ERROR_STATUS_CODES.contains(response.statusCode())) {
+            var stale = onError(lookup);
+            if (stale.isPresent()) {
+                return stale.get();
+            }
+        }
+
+        var request = lookup.request;
+        if (response.statusCode() == HttpStatus.NOT_MODIFIED && lookup.entry != null) {
+            notModified.increment();
+            var refreshed = refresh(lookup.entry, response, lookup.requestTime);
+            store.put(key(request.uri()), refreshed);
+            return CachedHttpResponse.of(refreshed, request);
+        }
+
+        store(request, response, lookup.requestTime);
+        return response;
+    }
+
+    /**
+     * Returns stale stored response to serve instead of failure of the request, if the response
+     * is within its stale-if-error window.
+     *
+     * @param lookup result of the lookup made before sending the request
+     * @return stale response, empty if the failure should be propagated
+     */
+    public Optional<HttpResponse<byte[]>> onError(Lookup lookup) {
+        var entry = lookup.entry;
+        if (lookup.result == Lookup.Result.BYPASS || entry == null ||
+                !isServableStale(entry, CacheControl.STALE_IF_ERROR, staleIfError, clock.millis())) {
+            return Optional.empty();
+        }
+
+        staleIfErrorHits.increment();
+        return Optional.of(CachedHttpResponse.of(entry, lookup.request));
+    }
+
+    /**
+     * Revalidates the stale response served by the lookup in background, unless revalidation of the same uri
+     * is already running. The request is sent on the refresh executor and its response is stored as usual,
+     * failures are ignored. Revalidation is skipped when the executor rejects it.
+     *
+     * @param lookup lookup which served stale response
+     * @param sender sends the request asynchronously
+     */
+    public void revalidateInBackground(Lookup lookup, Function<HttpRequest, CompletableFuture<HttpResponse<byte[]>>> sender) {
+        var key = key(lookup.request.uri());
+        if (lookup.result != Lookup.Result.STALE || !refreshing.add(key)) {
+            return;
+        }
+
+        revalidations.increment();
+        var revalidation = new Lookup(lookup.request, lookup.entry, clock.millis(), Lookup.Result.REVALIDATE);
+        try {
+            CompletableFuture.supplyAsync(() -> sender.apply(revalidation.getRequestToSend()), refreshExecutor)
+                    .thenCompose(Function.identity())
+                    .thenAcceptAsync(response -> onResponse(revalidation, response), refreshExecutor)
+                    .whenComplete((ignored, throwable) -> refreshing.remove(key));
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+        }
+    }
+
+    /**
+     * Shuts down the default refresh executor, revalidations already running are completed, and closes the store,
+     * so {@link DiskCacheStore} forces its segments to disk. Executor set by the builder is left to its owner.
+     */
+    @Override
+    public void close() {
+        try {
+            if (defaultRefreshExecutor != null) {
+                defaultRefreshExecutor.shutdown();
+            }
+        } finally {
+            store.close();
+        }
+    }
+
+    /**
+     * Removes stored response to the request if the request may have changed the resource.
+     *
+     * @param request  sent request
+     * @param response received response
+     */
+    public void invalidate(HttpRequest request, HttpResponse<?> response) {
+        if (!SAFE_METHODS.contains(request.method()) && response.statusCode() < HttpStatus.BAD_REQUEST) {
+            store.remove(key(request.uri()));
+        }
+    }
+
+    /**
+     * Returns usage statistics of this cache.
+     *
+     * @return statistics snapshot
+     */
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics(hits.sum(), staleHits.sum(), misses.sum(), revalidations.sum(), notModified.sum(),
+                staleIfErrorHits.sum(), store.size());
+    }
+
+    private void store(HttpRequest request, HttpResponse<byte[]> response, long requestTime) {
+        var key = key(request.uri());
+        var headers = response.headers();
+        var cacheControl = CacheControl.of(headers);
+        var vary = varyHeaderNames(headers);
+
+        boolean storable = CACHEABLE_STATUS_CODES.contains(response.statusCode()) &&
+                !cacheControl.has(CacheControl.NO_STORE) &&
+                !CacheControl.of(request.headers()).has(CacheControl.NO_STORE) &&
+                !vary.contains("*") &&
+                (hasExplicitFreshness(headers, cacheControl) ||
+                        headers.firstValue(HttpHeader.ETAG).isPresent() ||
+                        headers.firstValue(HttpHeader.LAST_MODIFIED).isPresent());
+        if (!storable) {
+            // server errors don't replace the last good response, which may still be served stale
+            if (!SERVER_ERROR_STATUS_CODES.contains(response.statusCode())) {
+                store.remove(key);
+            }
+            return;
+        }
+
+        var varyHeaders = new HashMap<String, List<String>>();
+        for (var name : vary) {
+            varyHeaders.put(name, request.headers().allValues(name));
+        }
+        var body = response.body() == null ? new byte[0] : response.body();
+        store.put(key, new CacheEntry(key, response.statusCode(), storedHeaders(headers.map()), varyHeaders, body,
+                requestTime, clock.millis()));
+    }
+
+    private CacheEntry refresh(CacheEntry entry, HttpResponse<?> notModifiedResponse, long requestTime) {
+        var headers = new TreeMap<String, List<String>>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(entry.getHeaders());
+        headers.putAll(storedHeaders(notModifiedResponse.headers().map()));
+        return entry.refreshed(headers, requestTime, clock.millis());
+    }
+
+    private boolean isFresh(CacheEntry entry, CacheControl requestCacheControl, long now) {
+        var headers = entry.getHttpHeaders();
+        var cacheControl = entry.getCacheControl();
+        if (cacheControl.has(CacheControl.NO_CACHE) || requestCacheControl.has(CacheControl.NO_CACHE)) {
+            return false;
+        }
+
+        long lifetime = freshnessLifetime(entry, headers, cacheControl);
+        var requestMaxAge = requestCacheControl.seconds(CacheControl.MAX_AGE);
+        if (requestMaxAge.isPresent()) {
+            lifetime = Math.min(lifetime, requestMaxAge.getAsLong() * 1000);
+        }
+        return currentAge(entry, headers, now) < lifetime;
+    }
+
+    private boolean isServableStale(CacheEntry entry, String directive, Duration defaultWindow, long now) {
+        var headers = entry.getHttpHeaders();
+        var cacheControl = entry.getCacheControl();
+        if (cacheControl.has(CacheControl.NO_CACHE) || cacheControl.has(CacheControl.MUST_REVALIDATE)) {
+            return false;
+        }
+
+        var window = cacheControl.seconds(directive);
+        long windowMillis = window.isPresent() ? window.getAsLong() * 1000 : defaultWindow.toMillis();
+        long staleness = currentAge(entry, headers, now) - freshnessLifetime(entry, headers, cacheControl);
+        return staleness < windowMillis;
+    }
+
+    private long freshnessLifetime(CacheEntry entry, HttpHeaders headers, CacheControl cacheControl) {
+        var maxAge = cacheControl.seconds(CacheControl.MAX_AGE);
+        if (maxAge.isPresent()) {
+            return maxAge.getAsLong() * 1000;
+        }
+
+        long date = date(headers, HttpHeader.DATE).orElse(entry.getResponseTime());
+        var expires = headers.firstValue(HttpHeader.EXPIRES);
+        if (expires.isPresent()) {
+            // malformed Expires means the response is already expired
+            return HttpDates.parse(expires.get()).map(value -> Math.max(0, value.toEpochMilli() - date)).orElse(0L);
+        }
+
+        return date(headers, HttpHeader.LAST_MODIFIED)
+                .map(lastModified -> (long) Math.min(MAX_HEURISTIC_MILLIS, (date - lastModified) * HEURISTIC_FRACTION))
+                .map(lifetime -> Math.max(0, lifetime))
+                .orElse(0L);
+    }
+
+    private long currentAge(CacheEntry entry, HttpHeaders headers, long now) {
+        long responseTime = entry.getResponseTime();
+        long apparentAge = date(headers, HttpHeader.DATE).map(date -> Math.max(0, responseTime - date)).orElse(0L);
+        long ageValue = headers.firstValue(HttpHeader.AGE).map(HttpCache::parseSeconds).orElse(0L) * 1000;
+        long correctedAge = ageValue + (responseTime - entry.getRequestTime());
+        return Math.max(apparentAge, correctedAge) + (now - responseTime);
+    }
+
+    private boolean hasExplicitFreshness(HttpHeaders headers, CacheControl cacheControl) {
+        return cacheControl.seconds(CacheControl.MAX_AGE).isPresent() || headers.firstValue(HttpHeader.EXPIRES).isPresent();
+    }
+
+    private static Map<String, String> validators(CacheEntry entry) {
+        var headers = entry.getHttpHeaders();
+        var validators = new LinkedHashMap<String, String>();
+        headers.firstValue(HttpHeader.ETAG).ifPresent(etag -> validators.put(HttpHeader.IF_NONE_MATCH, etag));
+        headers.firstValue(HttpHeader.LAST_MODIFIED)
+                .ifPresent(lastModified -> validators.put(HttpHeader.IF_MODIFIED_SINCE, lastModified));
+        return validators;
+    }
+
+    private static boolean matchesVary(CacheEntry entry, HttpRequest request) {
+        return entry.getVaryHeaders().entrySet().stream()
+                .allMatch(header -> header.getValue().equals(request.headers().allValues(header.getKey())));
+    }
+
+    private static Set<String> varyHeaderNames(HttpHeaders headers) {
+        var names = new HashSet<String>();
+        for (var value : headers.allValues(HttpHeader.VARY)) {
+            for (var name : value.split(",")) {
+                if (!name.isBlank()) {
+                    names.add(name.trim().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return names;
+    }
+
+    private static Map<String, List<String>> storedHeaders(Map<String, List<String>> headers) {
+        var stored = new HashMap<String, List<String>>();
+        headers.forEach((name, values) -> {
+            if (!UNSTORED_HEADERS.contains(name.toLowerCase(Locale.ROOT)) && !name.startsWith(":")) {
+                stored.put(name, values);
+            }
+        });
+        return stored;
+    }
+
+    private static Optional<Long> date(HttpHeaders headers, String name) {
+        return headers.firstValue(name).flatMap(HttpDates::parse).map(Instant::toEpochMilli);
+    }
+
+    private static long parseSeconds(String value) {
+        try {
+            return Math.max(0, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static String key(URI uri) {
+        return uri.toString();
+    }
+
+    /**
+     * Result of looking up the response to a request.
+     */
+    public static final class Lookup {
+
+        private enum Result {
+            BYPASS, MISS, HIT, STALE, REVALIDATE
+        }
+
+        private final HttpRequest request;
+        private final CacheEntry entry;
+        private final long requestTime;
+        private final Result result;
+
+        private Lookup(HttpRequest request, CacheEntry entry, long requestTime, Result result) {
+            this.request = request;
+            this.entry = entry;
+            this.requestTime = requestTime;
+            this.result = result;
+        }
+
+        /**
+         * Returns whether a fresh response, or a stale one that may be served while revalidating, was found,
+         * so that request doesn't have to be sent.
+         *
+         * @return whether response is served from the cache
+         */
+        public boolean isHit() {
+            return result == Result.HIT || result == Result.STALE;
+        }
+
+        /**
+         * Returns whether the served response is stale and should be revalidated with
+         * {@link #revalidateInBackground(Lookup, Function)}.
+         *
+         * @return whether the served response is stale
+         */
+        public boolean isStale() {
+            return result == Result.STALE;
+        }
+
+        /**
+         * Returns the cached response to serve.
+         *
+         * @return cached response, empty if the lookup is not a hit
+         */
+        public Optional<HttpResponse<byte[]>> getResponse() {
+            return isHit() ? Optional.of(CachedHttpResponse.of(entry, request)) : Optional.empty();
+        }
+
+        /**
+         * Returns request to send, which is conditional if a stale response should be revalidated.
+         *
+         * @return request to send
+         */
+        public HttpRequest getRequestToSend() {
+            if (result != Result.REVALIDATE) {
+                return request;
+            }
+            return HttpRequests.withHeaders(request, validators(entry));
+        }
+    }
+
+    /**
+     * Builder for {@link HttpCache}.
+     */
+    public static class Builder {
+        private CacheStore store;
+        private Clock clock = Clock.systemUTC();
+        private Duration staleWhileRevalidate = Duration.ZERO;
+        private Duration staleIfError = Duration.ZERO;
+        private Executor refreshExecutor;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets storage of the cached responses.
+         *
+         * @param store cache store
+         * @return this builder
+         */
+        public Builder store(CacheStore store) {
+            this.store = store;
+            return this;
+        }
+
+        /**
+         * Sets clock used to calculate age of the responses.
+         *
+         * @param clock clock, system UTC clock by default
+         * @return this builder
+         */
+        public Builder clock(Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * Sets how long responses without the stale-while-revalidate directive may be served stale
+         * while they are revalidated in background.
+         *
+         * @param staleWhileRevalidate stale-while-revalidate window, zero by default
+         * @return this builder
+         */
+        public Builder staleWhileRevalidate(Duration staleWhileRevalidate) {
+            this.staleWhileRevalidate = staleWhileRevalidate;
+            return this;
+        }
+
+        /**
+         * Sets how long responses without the stale-if-error directive may be served stale
+         * when the server fails or can't be reached.
+         *
+         * @param staleIfError stale-if-error window, zero by default
+         * @return this builder
+         */
+        public Builder staleIfError(Duration staleIfError) {
+            this.staleIfError = staleIfError;
+            return this;
+        }
+
+        /**
+         * Sets executor of the background revalidations.
+         *
+         * @param refreshExecutor executor, by default a dedicated bounded pool of daemon threads
+         * @return this builder
+         */
+        public Builder refreshExecutor(Executor refreshExecutor) {
+            this.refreshExecutor = refreshExecutor;
+            return this;
+        }
+
+        public HttpCache build() {
+            if (store == null) {
+                throw new IllegalStateException("Cache store is not set");
+            }
+            if (staleWhileRevalidate.isNegative() || staleIfError.isNegative()) {
+                throw new IllegalStateException("Stale windows should not be negative");
+            }
+            return new HttpCache(this);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package coresearch.cvurl.io.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory {@link CacheStore} bounded by the total weight of its entries. When the bound is exceeded
+ * the least recently used entries are evicted. Entries heavier than the bound are not stored at all.
+ *
+ * <p>Entries are spread over independently locked segments, so concurrent lookups of different keys
+ * rarely contend. Each segment keeps its entries in access order and eviction removes the eldest head
+ * among the segments, which keeps the store least recently used across segments.
+ */
+public class MemoryCacheStore implements CacheStore {
+
+    private static final int SEGMENTS = 16;
+
+    private final long maxBytes;
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong size = new AtomicLong();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates store.
+     *
+     * @param maxBytes maximal total weight of the entries
+     */
+    public MemoryCacheStore(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache size should be positive, got " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    @Override
+    public Optional<CacheEntry> get(String key) {
+        var segment = segmentFor(key);
+        synchronized (segment) {
+            var node = segment.entries.get(key);
+            if (node == null) {
+                return Optional.empty();
+            }
+            node.lastAccess = clock.incrementAndGet();
+            return Optional.of(node.entry);
+        }
+    }
+
+    @Override
+    public void put(String key, CacheEntry entry) {
+        long weight = entry.getWeight();
+        if (weight > maxBytes) {
+            remove(key);
+            return;
+        }
+
+        var segment = segmentFor(key);
+        Node previous;
+        synchronized (segment) {
+            previous = segment.entries.put(key, new Node(entry, clock.incrementAndGet()));
+        }
+        size.addAndGet(weight - (previous == null ? 0 : previous.entry.getWeight()));
+        evictIfNeeded();
+    }
+
+    @Override
+    public void remove(String key) {
+        var segment = segmentFor(key);
+        Node previous;
+        synchronized (segment) {
+            previous = segment.entries.remove(key);
+        }
+        if (previous != null) {
+            size.addAndGet(-previous.entry.getWeight());
+        }
+    }
+
+    @Override
+    public long size() {
+        return size.get();
+    }
+
+    /**
+     * Returns number of entries evicted to stay within the size bound.
+     *
+     * @return number of evictions
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private void evictIfNeeded() {
+        while (size.get() > maxBytes) {
+            Segment eldest = null;
+            long eldestAccess = Long.MAX_VALUE;
+            for (var segment : segments) {
+                synchronized (segment) {
+                    var iterator = segment.entries.values().iterator();
+                    if (iterator.hasNext()) {
+                        long lastAccess = iterator.next().lastAccess;
+                        if (lastAccess < eldestAccess) {
+                            eldest = segment;
+                            eldestAccess = lastAccess;
+                        }
+                    }
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+
+            Node evicted = null;
+            synchronized (eldest) {
+                var iterator = eldest.entries.values().iterator();
+                if (iterator.hasNext()) {
+                    evicted = iterator.next();
+                    iterator.remove();
+                }
+            }
+            if (evicted != null) {
+                size.addAndGet(-evicted.entry.getWeight());
+                evictions.increment();
+            }
+        }
+    }
+
+    private Segment segmentFor(String key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private static final class Segment {
+        private final LinkedHashMap<String, Node> entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    private static final class Node {
+        private final CacheEntry entry;
+        private long lastAccess;
+
+        private Node(CacheEntry entry, long lastAccess) {
+            this.entry = entry;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package coresearch.cvurl.io.cache;
+
+import java.util.Optional;
+
+/**
+ * {@link CacheStore} combining a small and fast first tier, usually {@link MemoryCacheStore}, with a large second
+ * tier, usually {@link DiskCacheStore}. Entries are written to both tiers, and entries found only in the second
+ * tier are promoted to the first one. Promoted bodies are copied into the heap, so the first tier doesn't keep
+ * segments of the second one mapped after they are deleted.
+ */
+public class TieredCacheStore implements CacheStore {
+
+    private final CacheStore first;
+    private final CacheStore second;
+
+    /**
+     * Creates store.
+     *
+     * @param first  first tier, which is looked up first
+     * @param second second tier, which keeps entries evicted from the first one
+     */
+    public TieredCacheStore(CacheStore first, CacheStore second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    @Override
+    public Optional<CacheEntry> get(String key) {
+        var entry = first.get(key);
+        if (entry.isPresent()) {
+            return entry;
+        }
+
+        entry = second.get(key).map(CacheEntry::onHeap);
+        entry.ifPresent(promoted -> first.put(key, promoted));
+        return entry;
+    }
+
+    @Override
+    public void put(String key, CacheEntry entry) {
+        second.put(key, entry);
+        first.put(key, entry);
+    }
+
+    @Override
+    public void remove(String key) {
+        first.remove(key);
+        second.remove(key);
+    }
+
+    @Override
+    public long size() {
+        return first.size() + second.size();
+    }
+
+    /**
+     * Closes both tiers.
+     */
+    @Override
+    public void close() {
+        try {
+            first.close();
+        } finally {
+            second.close();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package coresearch.cvurl.io.constant;
+
+/**
+ * Order in which results of a {@link coresearch.cvurl.io.request.Batch} are delivered.
+ */
+public enum BatchOrder {
+    /**
+     * Results are delivered in the order of the requests.
+     */
+    ORDERED,
+    /**
+     * Results are delivered as soon as requests complete.
+     */
+    COMPLETION
+}
@@ -1,5 +1,5 @@
 package coresearch.cvurl.io.constant;
 
 public enum HttpClientMode {
-    SINGLETONE, PROTOTYPE
+    SINGLETONE, PROTOTYPE, POOLED
 }
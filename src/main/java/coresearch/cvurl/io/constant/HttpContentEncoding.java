@@ -5,6 +5,15 @@ import static java.lang.String.format;
 public class HttpContentEncoding {
     public static final String GZIP = "gzip";
 
+    public static final String DEFLATE = "deflate";
+
+    public static final String IDENTITY = "identity";
+
+    /**
+     * Value of Accept-Encoding header sent when compressed response is accepted.
+     */
+    public static final String ACCEPTED = GZIP + ", " + DEFLATE;
+
     private HttpContentEncoding() {
         throw new IllegalStateException(format("Creating of class %s is forbidden", HttpHeader.class.getName()));
     }
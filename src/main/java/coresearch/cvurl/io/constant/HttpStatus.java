@@ -175,6 +175,10 @@ public final class HttpStatus {
      * <tt>424 Failed Dependency</tt>
      */
     public static final int FAILED_DEPENDENCY = 424;
+    /**
+     * <tt>429 Too Many Requests</tt>
+     */
+    public static final int TOO_MANY_REQUESTS = 429;
 
     // --- 5xx Server Error ---
     /**
@@ -12,6 +12,8 @@ public final class MIMEType {
 
     public static final String APPLICATION_FORM = "application/x-www-form-urlencoded";
 
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
     public static final String APPLICATION_XML = "application/xml";
 
     public static final String APPLICATION_ZIP = "application/zip";
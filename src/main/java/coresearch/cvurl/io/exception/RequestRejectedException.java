@@ -0,0 +1,20 @@
+package coresearch.cvurl.io.exception;
+
+/**
+ * Thrown when request is rejected on the client side without being sent,
+ * for example when too many requests to the same host are queued.
+ */
+public class RequestRejectedException extends RuntimeException {
+
+    /**
+     * Constructs a new exception with the specified detail message.
+     * The cause is not initialized, and may subsequently be initialized by a
+     * call to {@link #initCause}.
+     *
+     * @param message the detail message. The detail message is saved for
+     *                later retrieval by the {@link #getMessage()} method.
+     */
+    public RequestRejectedException(String message) {
+        super(message);
+    }
+}
@@ -1,30 +1,47 @@
 package coresearch.cvurl.io.internal.configuration;
 
+import coresearch.cvurl.io.resilience.HedgingPolicy;
+import coresearch.cvurl.io.resilience.RetryPolicy;
+
 import java.time.Duration;
 import java.util.Optional;
 
 public class RequestConfiguration {
     private final Duration requestTimeout;
     private final boolean acceptCompressed;
+    private final Long compressBodyThreshold;
+    private final RetryPolicy retryPolicy;
+    private final HedgingPolicy hedgingPolicy;
     private boolean logEnabled;
 
     public RequestConfiguration() {
         this.requestTimeout = null;
         this.acceptCompressed = false;
+        this.compressBodyThreshold = null;
+        this.retryPolicy = null;
+        this.hedgingPolicy = null;
         this.logEnabled = false;
     }
 
-    private RequestConfiguration(Duration requestTimeout, boolean acceptCompressed, boolean logEnabled) {
+    private RequestConfiguration(Duration requestTimeout, boolean acceptCompressed, Long compressBodyThreshold,
+                                 RetryPolicy retryPolicy, HedgingPolicy hedgingPolicy, boolean logEnabled) {
         this.requestTimeout = requestTimeout;
         this.acceptCompressed = acceptCompressed;
+        this.compressBodyThreshold = compressBodyThreshold;
+        this.retryPolicy = retryPolicy;
+        this.hedgingPolicy = hedgingPolicy;
         this.logEnabled = logEnabled;
     }
 
     public Builder preconfiguredBuilder() {
-        return builder()
+        var builder = builder()
                 .requestTimeout(requestTimeout)
                 .acceptCompressed(acceptCompressed)
+                .retryPolicy(retryPolicy)
+                .hedgingPolicy(hedgingPolicy)
                 .logEnabled(logEnabled);
+        builder.compressBodyThreshold = compressBodyThreshold;
+        return builder;
     }
 
     public Optional<Duration> getRequestTimeout() {
@@ -35,6 +52,18 @@ public class RequestConfiguration {
         return acceptCompressed;
     }
 
+    public Optional<Long> getCompressBodyThreshold() {
+        return Optional.ofNullable(compressBodyThreshold);
+    }
+
+    public Optional<RetryPolicy> getRetryPolicy() {
+        return Optional.ofNullable(retryPolicy);
+    }
+
+    public Optional<HedgingPolicy> getHedgingPolicy() {
+        return Optional.ofNullable(hedgingPolicy);
+    }
+
     public boolean isLogEnabled() {
         return logEnabled;
     }
@@ -54,6 +83,9 @@ public class RequestConfiguration {
     public static class Builder implements RequestConfigurer<Builder> {
         private Duration timeout;
         private boolean acceptCompressed;
+        private Long compressBodyThreshold;
+        private RetryPolicy retryPolicy;
+        private HedgingPolicy hedgingPolicy;
         private boolean logEnabled;
 
         @Override
@@ -68,6 +100,27 @@ public class RequestConfiguration {
             return this;
         }
 
+        @Override
+        public Builder compressBody(long threshold) {
+            if (threshold < 0) {
+                throw new IllegalArgumentException("Compression threshold shouldn't be negative, got " + threshold);
+            }
+            this.compressBodyThreshold = threshold;
+            return this;
+        }
+
+        @Override
+        public Builder retryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        @Override
+        public Builder hedgingPolicy(HedgingPolicy hedgingPolicy) {
+            this.hedgingPolicy = hedgingPolicy;
+            return this;
+        }
+
         @Override
         public Builder logEnabled(boolean logEnabled) {
             this.logEnabled = logEnabled;
@@ -75,7 +128,8 @@ public class RequestConfiguration {
         }
 
         public RequestConfiguration build() {
-            return new RequestConfiguration(timeout, acceptCompressed, logEnabled);
+            return new RequestConfiguration(timeout, acceptCompressed, compressBodyThreshold, retryPolicy, hedgingPolicy,
+                    logEnabled);
         }
     }
 }
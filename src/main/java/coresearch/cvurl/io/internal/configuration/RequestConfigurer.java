@@ -1,5 +1,8 @@
 package coresearch.cvurl.io.internal.configuration;
 
+import coresearch.cvurl.io.resilience.HedgingPolicy;
+import coresearch.cvurl.io.resilience.RetryPolicy;
+
 import java.time.Duration;
 
 /**
@@ -25,6 +28,31 @@ public interface RequestConfigurer<T> {
      */
     T acceptCompressed(boolean acceptCompressed);
 
+    /**
+     * Sets size of request body in bytes starting from which the body is sent compressed with gzip
+     * and Content-Encoding header is added to request. Bodies of unknown length are always compressed.
+     *
+     * @param threshold minimal body size to compress
+     * @return this builder
+     */
+    T compressBody(long threshold);
+
+    /**
+     * Sets policy that defines when failed requests are retried, for both sync and async calls.
+     *
+     * @param retryPolicy retry policy or null to disable retries
+     * @return this builder
+     */
+    T retryPolicy(RetryPolicy retryPolicy);
+
+    /**
+     * Sets policy that defines when a second, identical GET request is sent if the response is slow.
+     *
+     * @param hedgingPolicy hedging policy or null to disable hedging
+     * @return this builder
+     */
+    T hedgingPolicy(HedgingPolicy hedgingPolicy);
+
     /**
      * Sets flag that defines if request body and url should be logged with level INFO.
      *
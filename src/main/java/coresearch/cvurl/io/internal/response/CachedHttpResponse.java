@@ -0,0 +1,125 @@
+package coresearch.cvurl.io.internal.response;
+
+import coresearch.cvurl.io.cache.CacheEntry;
+import coresearch.cvurl.io.internal.util.ByteBufferInputStream;
+import coresearch.cvurl.io.internal.util.ByteBufferPublisher;
+import coresearch.cvurl.io.internal.util.Charsets;
+
+import javax.net.ssl.SSLSession;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+
+/**
+ * {@link HttpResponse} served from the cache. The body is read from the {@link CacheEntry} when it is first
+ * requested, and the byte array body is shared with the entry if it is held on the heap, so it is only exposed
+ * to code that reads it, like body mappers. String, stream and publisher bodies are read straight from the stored buffer,
+ * which may be a memory-mapped file region.
+ *
+ * @param <T> body type
+ */
+public class CachedHttpResponse<T> implements HttpResponse<T> {
+
+    private final CacheEntry entry;
+    private final HttpRequest request;
+    private final HttpHeaders headers;
+    private final Function<CacheEntry, T> bodyReader;
+    private volatile T body;
+
+    private CachedHttpResponse(CacheEntry entry, HttpRequest request, Function<CacheEntry, T> bodyReader) {
+        this.entry = entry;
+        this.request = request;
+        this.headers = entry.getHttpHeaders();
+        this.bodyReader = bodyReader;
+    }
+
+    public static HttpResponse<byte[]> of(CacheEntry entry, HttpRequest request) {
+        return new CachedHttpResponse<>(entry, request, CacheEntry::getBody);
+    }
+
+    /**
+     * Returns the same response with the body decoded to String with the charset of its Content-Type.
+     *
+     * @return response with String body
+     */
+    public HttpResponse<String> asString() {
+        return new CachedHttpResponse<>(entry, request,
+                cached -> Charsets.fromContentType(headers).decode(cached.getBodyBuffer()).toString());
+    }
+
+    /**
+     * Returns the same response with the body exposed as {@link InputStream}.
+     *
+     * @return response with InputStream body
+     */
+    public HttpResponse<InputStream> asStream() {
+        return new CachedHttpResponse<>(entry, request, cached -> new ByteBufferInputStream(cached.getBodyBuffer()));
+    }
+
+    /**
+     * Returns the same response with the body exposed as {@link Flow.Publisher} of byte buffers.
+     *
+     * @return response with publisher body
+     */
+    public HttpResponse<Flow.Publisher<List<ByteBuffer>>> asPublisher() {
+        return new CachedHttpResponse<>(entry, request, cached -> new ByteBufferPublisher(cached.getBodyBuffer()));
+    }
+
+    @Override
+    public int statusCode() {
+        return entry.getStatusCode();
+    }
+
+    @Override
+    public HttpRequest request() {
+        return request;
+    }
+
+    @Override
+    public Optional<HttpResponse<T>> previousResponse() {
+        return Optional.empty();
+    }
+
+    @Override
+    public HttpHeaders headers() {
+        return headers;
+    }
+
+    @Override
+    public T body() {
+        var result = body;
+        if (result == null) {
+            result = bodyReader.apply(entry);
+            body = result;
+        }
+        return result;
+    }
+
+    @Override
+    public Optional<SSLSession> sslSession() {
+        return Optional.empty();
+    }
+
+    @Override
+    public URI uri() {
+        return request.uri();
+    }
+
+    @Override
+    public HttpClient.Version version() {
+        return HttpClient.Version.HTTP_1_1;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + request.method() + " " + request.uri() + ") " + statusCode() + " (cached)";
+    }
+}
@@ -0,0 +1,77 @@
+package coresearch.cvurl.io.internal.response;
+
+import javax.net.ssl.SSLSession;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * {@link HttpResponse} sharing everything but the body with the original response.
+ * Used to hand one response over to several callers, each of them getting its own copy of a mutable body.
+ *
+ * @param <T> body type
+ */
+public class CopiedHttpResponse<T> implements HttpResponse<T> {
+
+    private final HttpResponse<T> originalResponse;
+    private final T body;
+
+    private CopiedHttpResponse(HttpResponse<T> originalResponse, T body) {
+        this.originalResponse = originalResponse;
+        this.body = body;
+    }
+
+    public static <T> HttpResponse<T> of(HttpResponse<T> originalResponse, UnaryOperator<T> bodyCopier) {
+        var body = originalResponse.body();
+        return new CopiedHttpResponse<>(originalResponse, body == null ? null : bodyCopier.apply(body));
+    }
+
+    @Override
+    public int statusCode() {
+        return originalResponse.statusCode();
+    }
+
+    @Override
+    public HttpRequest request() {
+        return originalResponse.request();
+    }
+
+    @Override
+    public Optional<HttpResponse<T>> previousResponse() {
+        return originalResponse.previousResponse();
+    }
+
+    @Override
+    public HttpHeaders headers() {
+        return originalResponse.headers();
+    }
+
+    @Override
+    public T body() {
+        return body;
+    }
+
+    @Override
+    public Optional<SSLSession> sslSession() {
+        return originalResponse.sslSession();
+    }
+
+    @Override
+    public URI uri() {
+        return originalResponse.uri();
+    }
+
+    @Override
+    public HttpClient.Version version() {
+        return originalResponse.version();
+    }
+
+    @Override
+    public String toString() {
+        return originalResponse.toString();
+    }
+}
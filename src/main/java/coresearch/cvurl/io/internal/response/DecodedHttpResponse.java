@@ -0,0 +1,77 @@
+package coresearch.cvurl.io.internal.response;
+
+import coresearch.cvurl.io.internal.util.Charsets;
+
+import javax.net.ssl.SSLSession;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Optional;
+
+/**
+ * {@link HttpResponse} with String body decoded from the body of response received as bytes.
+ * Used to expose response bodies in exceptions when the body itself was mapped directly from bytes,
+ * so decoding happens only on error paths.
+ */
+public class DecodedHttpResponse implements HttpResponse<String> {
+
+    private final HttpResponse<byte[]> rawResponse;
+    private final String body;
+
+    private DecodedHttpResponse(HttpResponse<byte[]> rawResponse) {
+        this.rawResponse = rawResponse;
+        this.body = rawResponse.body() == null ? null :
+                new String(rawResponse.body(), Charsets.fromContentType(rawResponse.headers()));
+    }
+
+    public static HttpResponse<String> of(HttpResponse<byte[]> rawResponse) {
+        return new DecodedHttpResponse(rawResponse);
+    }
+
+    @Override
+    public int statusCode() {
+        return rawResponse.statusCode();
+    }
+
+    @Override
+    public HttpRequest request() {
+        return rawResponse.request();
+    }
+
+    @Override
+    public Optional<HttpResponse<String>> previousResponse() {
+        return rawResponse.previousResponse().map(DecodedHttpResponse::of);
+    }
+
+    @Override
+    public HttpHeaders headers() {
+        return rawResponse.headers();
+    }
+
+    @Override
+    public String body() {
+        return body;
+    }
+
+    @Override
+    public Optional<SSLSession> sslSession() {
+        return rawResponse.sslSession();
+    }
+
+    @Override
+    public URI uri() {
+        return rawResponse.uri();
+    }
+
+    @Override
+    public HttpClient.Version version() {
+        return rawResponse.version();
+    }
+
+    @Override
+    public String toString() {
+        return rawResponse.toString();
+    }
+}
@@ -0,0 +1,62 @@
+package coresearch.cvurl.io.internal.util;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link Flow.Publisher} publishing the remaining bytes of a {@link ByteBuffer} as a single chunk, without copying
+ * the buffer. Like body publishers of {@link java.net.http.HttpClient}, it can be subscribed only once.
+ */
+public class ByteBufferPublisher implements Flow.Publisher<List<ByteBuffer>> {
+
+    private final ByteBuffer buffer;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    public ByteBufferPublisher(ByteBuffer buffer) {
+        this.buffer = buffer.duplicate();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super List<ByteBuffer>> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        if (!subscribed.compareAndSet(false, true)) {
+            var subscription = new Subscription(subscriber);
+            subscription.cancel();
+            subscriber.onSubscribe(subscription);
+            subscriber.onError(new IllegalStateException("Publisher of the body can only be subscribed once"));
+            return;
+        }
+        subscriber.onSubscribe(new Subscription(subscriber));
+    }
+
+    private final class Subscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super List<ByteBuffer>> subscriber;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Subscription(Flow.Subscriber<? super List<ByteBuffer>> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            if (n <= 0) {
+                subscriber.onError(new IllegalArgumentException("Requested number of chunks should be positive, got " + n));
+                return;
+            }
+            subscriber.onNext(List.of(buffer));
+            subscriber.onComplete();
+        }
+
+        @Override
+        public void cancel() {
+            done.set(true);
+        }
+    }
+}
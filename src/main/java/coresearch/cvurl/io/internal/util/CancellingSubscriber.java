@@ -0,0 +1,32 @@
+package coresearch.cvurl.io.internal.util;
+
+import java.util.concurrent.Flow;
+
+/**
+ * {@link Flow.Subscriber} cancelling its subscription right away. Subscribing it to a publisher body
+ * of a discarded response releases the connection without reading the body.
+ */
+public final class CancellingSubscriber implements Flow.Subscriber<Object> {
+
+    public static final CancellingSubscriber INSTANCE = new CancellingSubscriber();
+
+    private CancellingSubscriber() {
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        subscription.cancel();
+    }
+
+    @Override
+    public void onNext(Object item) {
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+    }
+
+    @Override
+    public void onComplete() {
+    }
+}
@@ -0,0 +1,60 @@
+package coresearch.cvurl.io.internal.util;
+
+import coresearch.cvurl.io.constant.HttpHeader;
+
+import java.net.http.HttpHeaders;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class Charsets {
+
+    private static final String CHARSET_PARAMETER = "charset=";
+
+    /**
+     * Resolves charset declared in the Content-Type header. Falls back to UTF-8, the same way
+     * {@link java.net.http.HttpResponse.BodyHandlers#ofString()} does.
+     *
+     * @param headers response headers
+     * @return declared charset or UTF-8
+     */
+    public static Charset fromContentType(HttpHeaders headers) {
+        return headers.firstValue(HttpHeader.CONTENT_TYPE)
+                .map(Charsets::fromContentType)
+                .orElse(UTF_8);
+    }
+
+    /**
+     * Checks whether bytes in the charset can be read as UTF-8, like bodies passed to
+     * {@link coresearch.cvurl.io.mapper.GenericMapper#readValue(byte[], Class)}.
+     *
+     * @param charset charset
+     * @return true for UTF-8 and its subset US-ASCII
+     */
+    public static boolean isUtf8Compatible(Charset charset) {
+        return UTF_8.equals(charset) || US_ASCII.equals(charset);
+    }
+
+    private static Charset fromContentType(String contentType) {
+        for (String parameter : contentType.split(";")) {
+            var trimmed = parameter.trim();
+            if (trimmed.regionMatches(true, 0, CHARSET_PARAMETER, 0, CHARSET_PARAMETER.length())) {
+                var name = trimmed.substring(CHARSET_PARAMETER.length()).replace("\"", "");
+                try {
+                    return Charset.forName(name);
+                } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+                    return UTF_8;
+                }
+            }
+        }
+        return UTF_8;
+    }
+
+    private Charsets() {
+        throw new IllegalStateException(format("Creating of class %s is forbidden", Charsets.class.getName()));
+    }
+}
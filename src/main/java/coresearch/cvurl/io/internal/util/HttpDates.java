@@ -0,0 +1,30 @@
+package coresearch.cvurl.io.internal.util;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+import static java.lang.String.format;
+
+public class HttpDates {
+
+    /**
+     * Parses HTTP date, like {@code Sun, 06 Nov 1994 08:49:37 GMT}.
+     *
+     * @param value header value
+     * @return parsed date, empty if value is malformed
+     */
+    public static Optional<Instant> parse(String value) {
+        try {
+            return Optional.of(ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant());
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    private HttpDates() {
+        throw new IllegalStateException(format("Creating of class %s is forbidden", HttpDates.class.getName()));
+    }
+}
@@ -0,0 +1,31 @@
+package coresearch.cvurl.io.internal.util;
+
+import java.net.http.HttpRequest;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+public class HttpRequests {
+
+    /**
+     * Creates copy of the request with additional headers, replacing headers with the same names.
+     *
+     * @param request request to copy
+     * @param headers headers to set
+     * @return new request
+     */
+    public static HttpRequest withHeaders(HttpRequest request, Map<String, String> headers) {
+        var builder = HttpRequest.newBuilder(request.uri())
+                .method(request.method(), request.bodyPublisher().orElseGet(HttpRequest.BodyPublishers::noBody))
+                .expectContinue(request.expectContinue());
+        request.timeout().ifPresent(builder::timeout);
+        request.version().ifPresent(builder::version);
+        request.headers().map().forEach((name, values) -> values.forEach(value -> builder.header(name, value)));
+        headers.forEach(builder::setHeader);
+        return builder.build();
+    }
+
+    private HttpRequests() {
+        throw new IllegalStateException(format("Creating of class %s is forbidden", HttpRequests.class.getName()));
+    }
+}
@@ -0,0 +1,48 @@
+package coresearch.cvurl.io.internal.util;
+
+import coresearch.cvurl.io.constant.HttpHeader;
+
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static java.lang.String.format;
+
+public class RetryAfter {
+
+    /**
+     * Longest delay honoured, so that a far-future value can't overflow nanosecond arithmetic of the callers.
+     */
+    public static final Duration MAX_DELAY = Duration.ofDays(1);
+
+    /**
+     * Parses Retry-After header, which is either number of seconds or HTTP date.
+     *
+     * @param headers response headers
+     * @return delay requested by the server, at most {@link #MAX_DELAY}, empty if header is absent or malformed
+     */
+    public static Optional<Duration> fromHeaders(HttpHeaders headers) {
+        return headers.firstValue(HttpHeader.RETRY_AFTER)
+                .flatMap(RetryAfter::parse)
+                .map(delay -> delay.compareTo(MAX_DELAY) > 0 ? MAX_DELAY : delay);
+    }
+
+    private static Optional<Duration> parse(String value) {
+        var trimmed = value.trim();
+        try {
+            long seconds = Long.parseLong(trimmed);
+            return seconds < 0 ? Optional.empty() : Optional.of(Duration.ofSeconds(seconds));
+        } catch (NumberFormatException e) {
+            // not delay-seconds, try HTTP date
+        }
+        return HttpDates.parse(trimmed).map(date -> {
+            var delay = Duration.between(Instant.now(), date);
+            return delay.isNegative() ? Duration.ZERO : delay;
+        });
+    }
+
+    private RetryAfter() {
+        throw new IllegalStateException(format("Creating of class %s is forbidden", RetryAfter.class.getName()));
+    }
+}
@@ -0,0 +1,35 @@
+package coresearch.cvurl.io.internal.util;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+import static java.lang.String.format;
+
+/**
+ * Access to virtual threads. This is the Java 11 version which reports virtual threads as unsupported,
+ * Java 21 version from src/main/java21 replaces it in the multi-release jar.
+ */
+public final class VirtualThreads {
+
+    private static final String UNSUPPORTED_MESSAGE = "Virtual threads require Java 21 or newer";
+
+    public static boolean isSupported() {
+        return false;
+    }
+
+    public static ExecutorService newExecutor() {
+        throw new UnsupportedOperationException(UNSUPPORTED_MESSAGE);
+    }
+
+    public static Executor executor() {
+        throw new UnsupportedOperationException(UNSUPPORTED_MESSAGE);
+    }
+
+    public static boolean isVirtual(Thread thread) {
+        return false;
+    }
+
+    private VirtualThreads() {
+        throw new IllegalStateException(format("Creating of class %s is forbidden", VirtualThreads.class.getName()));
+    }
+}
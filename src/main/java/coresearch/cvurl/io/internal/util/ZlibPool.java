@@ -0,0 +1,80 @@
+package coresearch.cvurl.io.internal.util;
+
+import coresearch.cvurl.io.model.PoolMetrics;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Bounded pool of {@link Inflater} and {@link Deflater} instances. Instances are reset when
+ * released and reused by the next acquisition, so native zlib streams are not allocated per body.
+ * When the pool is full, released instances are ended right away instead of waiting for GC.
+ *
+ * @param <T> type of pooled instances
+ */
+public final class ZlibPool<T> {
+
+    private static final int CAPACITY = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+
+    public static final ZlibPool<Inflater> INFLATERS = new ZlibPool<>(() -> new Inflater(false), Inflater::reset, Inflater::end, CAPACITY);
+    public static final ZlibPool<Inflater> RAW_INFLATERS = new ZlibPool<>(() -> new Inflater(true), Inflater::reset, Inflater::end, CAPACITY);
+    public static final ZlibPool<Deflater> RAW_DEFLATERS = new ZlibPool<>(() -> new Deflater(Deflater.DEFAULT_COMPRESSION, true),
+            Deflater::reset, Deflater::end, CAPACITY);
+
+    private final Supplier<T> factory;
+    private final Consumer<T> reset;
+    private final Consumer<T> destroy;
+    private final int capacity;
+    private final BlockingQueue<T> idle;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    ZlibPool(Supplier<T> factory, Consumer<T> reset, Consumer<T> destroy, int capacity) {
+        this.factory = factory;
+        this.reset = reset;
+        this.destroy = destroy;
+        this.capacity = capacity;
+        this.idle = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Takes an instance from the pool or creates a new one if the pool is empty.
+     *
+     * @return instance ready to use
+     */
+    public T acquire() {
+        T instance = idle.poll();
+        if (instance != null) {
+            hits.increment();
+            return instance;
+        }
+        misses.increment();
+        return factory.get();
+    }
+
+    /**
+     * Returns an instance to the pool. The instance must not be used by the caller afterwards.
+     *
+     * @param instance instance taken with {@link #acquire()}
+     */
+    public void release(T instance) {
+        try {
+            reset.accept(instance);
+        } catch (RuntimeException e) {
+            destroy.accept(instance);
+            return;
+        }
+        if (!idle.offer(instance)) {
+            destroy.accept(instance);
+        }
+    }
+
+    public PoolMetrics metrics() {
+        return new PoolMetrics(hits.sum(), misses.sum(), idle.size(), capacity);
+    }
+}
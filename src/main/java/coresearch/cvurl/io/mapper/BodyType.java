@@ -14,14 +14,26 @@ public abstract class BodyType<T> {
 
     private static final String ERROR_MESSAGE = "Type should be direct child type of BodyType";
 
-    private Type type;
+    private static final ClassValue<Type> ACTUAL_TYPES = new ClassValue<>() {
+        @Override
+        protected Type computeValue(Class<?> bodyTypeClass) {
+            ParameterizedType superclass = (ParameterizedType) bodyTypeClass.getGenericSuperclass();
+            if (superclass.getRawType() != BodyType.class) {
+                throw new IllegalStateException(ERROR_MESSAGE);
+            }
+            return superclass.getActualTypeArguments()[0];
+        }
+    };
+
+    private final Type type;
 
+    /**
+     * Resolves actual type of this BodyType. Resolved type is cached per subclass, so instantiating the same
+     * anonymous subclass repeatedly doesn't repeat the reflection. As BodyType is immutable, it can also be
+     * kept in a constant and reused for all requests.
+     */
     protected BodyType() {
-        ParameterizedType superclass = (ParameterizedType) this.getClass().getGenericSuperclass();
-        if (superclass.getRawType() != BodyType.class) {
-            throw new IllegalStateException(ERROR_MESSAGE);
-        }
-        this.type = superclass.getActualTypeArguments()[0];
+        this.type = ACTUAL_TYPES.get(this.getClass());
     }
 
     /**
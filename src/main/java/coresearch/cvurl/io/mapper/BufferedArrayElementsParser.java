@@ -0,0 +1,38 @@
+package coresearch.cvurl.io.mapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * {@link IncrementalParser} for mappers without incremental parsing. Body bytes are accumulated
+ * and the whole array is converted by the provided function once the body is complete.
+ */
+class BufferedArrayElementsParser<T> implements IncrementalParser<T> {
+
+    private final Function<byte[], List<T>> arrayMapper;
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    BufferedArrayElementsParser(Function<byte[], List<T>> arrayMapper) {
+        this.arrayMapper = arrayMapper;
+    }
+
+    @Override
+    public List<T> parse(ByteBuffer chunk) {
+        if (chunk.hasArray()) {
+            body.write(chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.remaining());
+            chunk.position(chunk.limit());
+        } else {
+            while (chunk.hasRemaining()) {
+                body.write(chunk.get());
+            }
+        }
+        return List.of();
+    }
+
+    @Override
+    public List<T> complete() {
+        return arrayMapper.apply(body.toByteArray());
+    }
+}
@@ -4,6 +4,23 @@ import coresearch.cvurl.io.exception.MappingException;
 import coresearch.cvurl.io.exception.ResponseMappingException;
 import coresearch.cvurl.io.model.Response;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 /**
  * Mapper from/to String to/from some custom type. Used by {@link coresearch.cvurl.io.request.Request}
  * to map body from response to object of some type and by {@link coresearch.cvurl.io.request.RequestBuilder}
@@ -11,6 +28,9 @@ import coresearch.cvurl.io.model.Response;
  */
 public abstract class GenericMapper {
 
+    private static final int READ_CHUNK_SIZE = 8192;
+    private static final String NULL_ELEMENT_MESSAGE = "Null element at index %d is not supported by streaming methods";
+
     public final <T> T readResponseBody(Response<String> response, Class<T> type) {
         try {
             return readValue(response.getBody(), type);
@@ -48,6 +68,157 @@ public abstract class GenericMapper {
      */
     public abstract <T> T readValue(String value, BodyType<T> valueType);
 
+    /**
+     * Deserialize UTF-8 encoded bytes to object of specified type. Default implementation decodes
+     * bytes to String, implementations are encouraged to override it and parse bytes directly.
+     *
+     * @param value     value to be converted.
+     * @param valueType type to object of which value should be converted.
+     * @param <T>       concrete type
+     * @return converted object
+     */
+    public <T> T readValue(byte[] value, Class<T> valueType) {
+        return readValue(new String(value, UTF_8), valueType);
+    }
+
+    /**
+     * Deserialize UTF-8 encoded bytes to object of specified type. Should be used when you need to deserialize
+     * to type with generics. Default implementation decodes bytes to String, implementations are encouraged
+     * to override it and parse bytes directly.
+     *
+     * @param value     value to be converted.
+     * @param valueType type to object of which value should be converted.
+     * @param <T>       concrete type
+     * @return converted object
+     */
+    public <T> T readValue(byte[] value, BodyType<T> valueType) {
+        return readValue(new String(value, UTF_8), valueType);
+    }
+
+    /**
+     * Deserialize remaining bytes of the buffer to object of specified type.
+     *
+     * @param value     value to be converted.
+     * @param valueType type to object of which value should be converted.
+     * @param <T>       concrete type
+     * @return converted object
+     */
+    public <T> T readValue(ByteBuffer value, Class<T> valueType) {
+        return readValue(toByteArray(value), valueType);
+    }
+
+    /**
+     * Deserialize remaining bytes of the buffer to object of specified type. Should be used when you need
+     * to deserialize to type with generics.
+     *
+     * @param value     value to be converted.
+     * @param valueType type to object of which value should be converted.
+     * @param <T>       concrete type
+     * @return converted object
+     */
+    public <T> T readValue(ByteBuffer value, BodyType<T> valueType) {
+        return readValue(toByteArray(value), valueType);
+    }
+
+    /**
+     * Deserialize content of the stream to object of specified type.
+     *
+     * @param value     value to be converted.
+     * @param valueType type to object of which value should be converted.
+     * @param <T>       concrete type
+     * @return converted object
+     */
+    public <T> T readValue(InputStream value, Class<T> valueType) {
+        return readValue(readAllBytes(value), valueType);
+    }
+
+    /**
+     * Deserialize content of the stream to object of specified type. Should be used when you need
+     * to deserialize to type with generics.
+     *
+     * @param value     value to be converted.
+     * @param valueType type to object of which value should be converted.
+     * @param <T>       concrete type
+     * @return converted object
+     */
+    public <T> T readValue(InputStream value, BodyType<T> valueType) {
+        return readValue(readAllBytes(value), valueType);
+    }
+
+    /**
+     * Lazily deserialize elements of the JSON array from the stream. Elements are parsed one at a time
+     * while the returned stream is consumed, so the whole array is never held in memory.
+     * Closing the returned stream closes the input stream. Stream elements are never null, so a {@code null}
+     * array element fails the stream with {@link MappingException}.
+     *
+     * @param value     stream with the array.
+     * @param valueType type of array elements.
+     * @param <T>       concrete type
+     * @return stream of array elements
+     */
+    public <T> Stream<T> readValues(InputStream value, Class<T> valueType) {
+        var spliterator = new IncrementalParserSpliterator<>(value, createArrayElementsParser(valueType));
+        return StreamSupport.stream(spliterator, false).onClose(() -> closeQuietly(value));
+    }
+
+    /**
+     * Creates parser that converts elements of the JSON array to objects of specified type
+     * as soon as bytes of each element arrive. Default implementation buffers the whole body and converts it
+     * by {@link #readValue(byte[], Class)} to an array of the element type once the body is complete,
+     * implementations are encouraged to override it and parse elements incrementally.
+     *
+     * @param valueType type of array elements.
+     * @param <T>       concrete type
+     * @return new parser
+     */
+    public <T> IncrementalParser<T> createArrayElementsParser(Class<T> valueType) {
+        @SuppressWarnings("unchecked")
+        var arrayType = (Class<T[]>) Array.newInstance(valueType, 0).getClass();
+        return new BufferedArrayElementsParser<>(body -> {
+            var elements = readValue(body, arrayType);
+            if (elements == null) {
+                throw new MappingException("Expected JSON array but got null", null);
+            }
+            return Arrays.asList(elements);
+        });
+    }
+
+    /**
+     * Lazily deserialize newline-delimited values (NDJSON) from the stream. Each line is converted
+     * by {@link #readValue(byte[], Class)} as soon as it's read. Closing the returned stream closes the input stream.
+     * Stream elements are never null, so a {@code null} line fails the stream with {@link MappingException}.
+     *
+     * @param value     stream with newline-delimited values.
+     * @param valueType type of values.
+     * @param <T>       concrete type
+     * @return stream of values
+     */
+    public <T> Stream<T> readLineValues(InputStream value, Class<T> valueType) {
+        var spliterator = new IncrementalParserSpliterator<>(value, createLineValuesParser(valueType));
+        return StreamSupport.stream(spliterator, false).onClose(() -> closeQuietly(value));
+    }
+
+    /**
+     * Creates parser that converts newline-delimited values (NDJSON) to objects of specified type
+     * as soon as each line arrives.
+     *
+     * @param valueType type of values.
+     * @param <T>       concrete type
+     * @return new parser
+     */
+    public <T> IncrementalParser<T> createLineValuesParser(Class<T> valueType) {
+        return new LineValuesParser<>(line -> readValue(line, valueType));
+    }
+
+    /**
+     * Prepares mapper to read and write values of the specified type, so the first request with such body
+     * doesn't pay for serializer construction. Default implementation does nothing.
+     *
+     * @param valueType type of values
+     */
+    public void warmUp(Class<?> valueType) {
+    }
+
     /**
      * Serialize object to String.
      *
@@ -55,4 +226,91 @@ public abstract class GenericMapper {
      * @return resulted String value.
      */
     public abstract String writeValue(Object value);
+
+    /**
+     * Serialize object to UTF-8 encoded bytes. Default implementation encodes result of {@link #writeValue(Object)},
+     * implementations are encouraged to override it and serialize to bytes directly.
+     *
+     * @param value object to be serialized
+     * @return resulted bytes.
+     */
+    public byte[] writeValueAsBytes(Object value) {
+        return writeValue(value).getBytes(UTF_8);
+    }
+
+    private static byte[] toByteArray(ByteBuffer buffer) {
+        var bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    private static void closeQuietly(InputStream inputStream) {
+        try {
+            inputStream.close();
+        } catch (IOException e) {
+            // the values were already read, failing to release the body doesn't affect them
+        }
+    }
+
+    private static byte[] readAllBytes(InputStream inputStream) {
+        try {
+            return inputStream.readAllBytes();
+        } catch (IOException e) {
+            throw new MappingException(e.getMessage(), e);
+        }
+    }
+
+    private static class IncrementalParserSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+        private final InputStream inputStream;
+        private final IncrementalParser<T> parser;
+        private final Deque<T> parsed = new ArrayDeque<>();
+        private final byte[] chunk = new byte[READ_CHUNK_SIZE];
+        private long index;
+        private boolean completed;
+
+        IncrementalParserSpliterator(InputStream inputStream, IncrementalParser<T> parser) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.inputStream = inputStream;
+            this.parser = parser;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (parsed.isEmpty() && !completed) {
+                int read = read();
+                if (read == -1) {
+                    enqueue(parser.complete());
+                    completed = true;
+                } else {
+                    enqueue(parser.parse(ByteBuffer.wrap(chunk, 0, read)));
+                }
+            }
+
+            if (parsed.isEmpty()) {
+                return false;
+            }
+
+            action.accept(parsed.poll());
+            return true;
+        }
+
+        private void enqueue(List<T> elements) {
+            for (T element : elements) {
+                if (element == null) {
+                    throw new MappingException(format(NULL_ELEMENT_MESSAGE, index), null);
+                }
+                parsed.add(element);
+                index++;
+            }
+        }
+
+        private int read() {
+            try {
+                return inputStream.read(chunk);
+            } catch (IOException e) {
+                throw new MappingException(e.getMessage(), e);
+            }
+        }
+    }
 }
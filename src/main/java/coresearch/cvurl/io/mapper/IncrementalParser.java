@@ -0,0 +1,32 @@
+package coresearch.cvurl.io.mapper;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Parser that converts body to objects chunk by chunk as bytes arrive, instead of
+ * waiting for the whole body. Created by {@link GenericMapper} and used by
+ * {@link coresearch.cvurl.io.request.Request} streaming methods. Instances are stateful and
+ * should be used for a single body only.
+ *
+ * @param <T> type of parsed elements
+ */
+public interface IncrementalParser<T> {
+
+    /**
+     * Feeds next chunk of body bytes to the parser.
+     *
+     * @param chunk next chunk of body, all remaining bytes are consumed
+     * @return elements completed by this chunk, may be empty
+     * @throws coresearch.cvurl.io.exception.MappingException if body can't be parsed
+     */
+    List<T> parse(ByteBuffer chunk);
+
+    /**
+     * Signals that there is no more body bytes.
+     *
+     * @return elements completed by the end of body, may be empty
+     * @throws coresearch.cvurl.io.exception.MappingException if body ends unexpectedly
+     */
+    List<T> complete();
+}
@@ -0,0 +1,73 @@
+package coresearch.cvurl.io.mapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * {@link IncrementalParser} for newline-delimited values (NDJSON). Bytes of the current line
+ * are accumulated until line feed arrives, then the line is converted by the provided function.
+ * Blank lines are skipped and trailing carriage return is stripped.
+ */
+class LineValuesParser<T> implements IncrementalParser<T> {
+
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    private final Function<byte[], T> lineMapper;
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+    LineValuesParser(Function<byte[], T> lineMapper) {
+        this.lineMapper = lineMapper;
+    }
+
+    @Override
+    public List<T> parse(ByteBuffer chunk) {
+        List<T> values = new ArrayList<>();
+
+        while (chunk.hasRemaining()) {
+            byte current = chunk.get();
+            if (current == LINE_FEED) {
+                completeLine(values);
+            } else {
+                line.write(current);
+            }
+        }
+
+        return values;
+    }
+
+    @Override
+    public List<T> complete() {
+        List<T> values = new ArrayList<>(1);
+        completeLine(values);
+        return values;
+    }
+
+    private void completeLine(List<T> values) {
+        byte[] bytes = line.toByteArray();
+        line.reset();
+
+        int length = bytes.length;
+        if (length > 0 && bytes[length - 1] == CARRIAGE_RETURN) {
+            length--;
+        }
+        if (isBlank(bytes, length)) {
+            return;
+        }
+
+        values.add(lineMapper.apply(length == bytes.length ? bytes : Arrays.copyOf(bytes, length)));
+    }
+
+    private boolean isBlank(byte[] bytes, int length) {
+        for (int i = 0; i < length; i++) {
+            if (!Character.isWhitespace(bytes[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
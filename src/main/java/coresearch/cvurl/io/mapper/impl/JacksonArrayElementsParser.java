@@ -0,0 +1,129 @@
+package coresearch.cvurl.io.mapper.impl;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import coresearch.cvurl.io.exception.MappingException;
+import coresearch.cvurl.io.mapper.IncrementalParser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link IncrementalParser} built on top of Jackson non-blocking parser. Tokens of each array element
+ * are collected to {@link TokenBuffer} and converted to object once the element is complete.
+ * Input after the end of the array is still consumed, and anything but whitespace is rejected.
+ */
+class JacksonArrayElementsParser<T> implements IncrementalParser<T> {
+
+    private static final String NOT_AN_ARRAY_MESSAGE = "Expected JSON array but got %s";
+    private static final String TRAILING_CONTENT_MESSAGE = "Unexpected %s after end of JSON array";
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader objectReader;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+
+    private TokenBuffer element;
+    private byte[] input = new byte[0];
+    private int depth;
+    private boolean arrayStarted;
+    private boolean arrayEnded;
+
+    JacksonArrayElementsParser(ObjectMapper objectMapper, ObjectReader objectReader) {
+        this.objectMapper = objectMapper;
+        this.objectReader = objectReader;
+        try {
+            this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new MappingException(e.getMessage(), e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    @Override
+    public List<T> parse(ByteBuffer chunk) {
+        int length = chunk.remaining();
+        if (input.length < length) {
+            input = new byte[length];
+        }
+        chunk.get(input, 0, length);
+
+        try {
+            feeder.feedInput(input, 0, length);
+            return nextElements();
+        } catch (IOException e) {
+            throw new MappingException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<T> complete() {
+        feeder.endOfInput();
+        try {
+            var elements = nextElements();
+            if (!arrayEnded) {
+                throw new MappingException("Unexpected end of JSON array", null);
+            }
+            return elements;
+        } catch (IOException e) {
+            throw new MappingException(e.getMessage(), e);
+        } finally {
+            closeParser();
+        }
+    }
+
+    private List<T> nextElements() throws IOException {
+        List<T> elements = new ArrayList<>();
+        JsonToken token;
+
+        while ((token = parser.nextToken()) != JsonToken.NOT_AVAILABLE && token != null) {
+            if (arrayEnded) {
+                throw new MappingException(String.format(TRAILING_CONTENT_MESSAGE, token), null);
+            }
+            if (!arrayStarted) {
+                if (token != JsonToken.START_ARRAY) {
+                    throw new MappingException(String.format(NOT_AN_ARRAY_MESSAGE, token), null);
+                }
+                arrayStarted = true;
+                continue;
+            }
+
+            if (depth == 0 && token == JsonToken.END_ARRAY) {
+                arrayEnded = true;
+                continue;
+            }
+
+            if (element == null) {
+                element = new TokenBuffer(objectMapper, false);
+            }
+            element.copyCurrentEvent(parser);
+
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd()) {
+                depth--;
+            }
+
+            if (depth == 0) {
+                elements.add(objectReader.readValue(element.asParser()));
+                element = null;
+            }
+        }
+
+        return elements;
+    }
+
+    private void closeParser() {
+        try {
+            parser.close();
+        } catch (IOException e) {
+            throw new MappingException(e.getMessage(), e);
+        }
+    }
+}
@@ -2,24 +2,42 @@ package coresearch.cvurl.io.mapper.impl;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 import coresearch.cvurl.io.exception.MappingException;
 import coresearch.cvurl.io.mapper.BodyType;
 import coresearch.cvurl.io.mapper.GenericMapper;
+import coresearch.cvurl.io.mapper.IncrementalParser;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * {@link GenericMapper} backed by Jackson {@link ObjectMapper}. Resolved {@link ObjectReader} per target type
+ * and {@link ObjectWriter} are cached, so type resolution is done once per type instead of once per call.
+ * As readers and writer capture configuration of the {@link ObjectMapper} when they are created, mapper
+ * should be fully configured before it's passed to this class.
+ */
 public class JacksonMapper extends GenericMapper {
 
-    private ObjectMapper objectMapper;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter objectWriter;
+    private final Map<Type, ObjectReader> objectReaders = new ConcurrentHashMap<>();
 
     public JacksonMapper(ObjectMapper objectMapper) {
         this.objectMapper = objectMapper;
+        this.objectWriter = objectMapper.writer();
     }
 
     @Override
     public <T> T readValue(String value, Class<T> valueType) {
         try {
-            return this.objectMapper.readValue(value, valueType);
+            return readerFor(valueType).readValue(value);
         } catch (IOException e) {
             throw new MappingException(e.getMessage(), e);
         }
@@ -28,19 +46,116 @@ public class JacksonMapper extends GenericMapper {
     @Override
     public <T> T readValue(String value, BodyType<T> valueType) {
         try {
-            return this.objectMapper.readValue(value,
-                    this.objectMapper.getTypeFactory().constructType(valueType.getType()));
+            return readerFor(valueType).readValue(value);
         } catch (IOException e) {
             throw new MappingException(e.getMessage(), e);
         }
     }
 
+    @Override
+    public <T> T readValue(byte[] value, Class<T> valueType) {
+        try {
+            return readerFor(valueType).readValue(value);
+        } catch (IOException e) {
+            throw new MappingException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public <T> T readValue(byte[] value, BodyType<T> valueType) {
+        try {
+            return readerFor(valueType).readValue(value);
+        } catch (IOException e) {
+            throw new MappingException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public <T> T readValue(ByteBuffer value, Class<T> valueType) {
+        if (value.hasArray()) {
+            try {
+                return readerFor(valueType).readValue(value.array(), value.arrayOffset() + value.position(),
+                        value.remaining());
+            } catch (IOException e) {
+                throw new MappingException(e.getMessage(), e);
+            }
+        }
+
+        return readValue(new ByteBufferBackedInputStream(value.duplicate()), valueType);
+    }
+
+    @Override
+    public <T> T readValue(ByteBuffer value, BodyType<T> valueType) {
+        if (value.hasArray()) {
+            try {
+                return readerFor(valueType).readValue(value.array(), value.arrayOffset() + value.position(),
+                        value.remaining());
+            } catch (IOException e) {
+                throw new MappingException(e.getMessage(), e);
+            }
+        }
+
+        return readValue(new ByteBufferBackedInputStream(value.duplicate()), valueType);
+    }
+
+    @Override
+    public <T> T readValue(InputStream value, Class<T> valueType) {
+        try {
+            return readerFor(valueType).readValue(value);
+        } catch (IOException e) {
+            throw new MappingException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public <T> T readValue(InputStream value, BodyType<T> valueType) {
+        try {
+            return readerFor(valueType).readValue(value);
+        } catch (IOException e) {
+            throw new MappingException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public <T> IncrementalParser<T> createArrayElementsParser(Class<T> valueType) {
+        return new JacksonArrayElementsParser<>(this.objectMapper, readerFor(valueType));
+    }
+
+    @Override
+    public void warmUp(Class<?> valueType) {
+        readerFor(valueType);
+        // eagerly fetched root serializer is kept in the serializer cache shared with objectWriter
+        this.objectWriter.forType(valueType);
+    }
+
     @Override
     public String writeValue(Object value) {
         try {
-            return this.objectMapper.writeValueAsString(value);
+            return this.objectWriter.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new MappingException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public byte[] writeValueAsBytes(Object value) {
+        try {
+            return this.objectWriter.writeValueAsBytes(value);
         } catch (JsonProcessingException e) {
             throw new MappingException(e.getMessage(), e);
         }
     }
+
+    private ObjectReader readerFor(Class<?> valueType) {
+        return readerFor((Type) valueType);
+    }
+
+    private ObjectReader readerFor(BodyType<?> valueType) {
+        return readerFor(valueType.getType());
+    }
+
+    private ObjectReader readerFor(Type valueType) {
+        return objectReaders.computeIfAbsent(valueType,
+                type -> this.objectMapper.readerFor(this.objectMapper.getTypeFactory().constructType(type)));
+    }
 }
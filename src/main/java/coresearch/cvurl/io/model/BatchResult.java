@@ -0,0 +1,82 @@
+package coresearch.cvurl.io.model;
+
+import coresearch.cvurl.io.request.Request;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Result of a single request of a {@link coresearch.cvurl.io.request.Batch}, either its value or its error.
+ *
+ * @param <T> type of the value
+ */
+public class BatchResult<T> {
+
+    private final long index;
+    private final Request request;
+    private final T value;
+    private final Throwable error;
+    private final Duration duration;
+
+    public BatchResult(long index, Request request, T value, Throwable error, Duration duration) {
+        this.index = index;
+        this.request = request;
+        this.value = value;
+        this.error = error;
+        this.duration = duration;
+    }
+
+    /**
+     * Returns position of the request in the batch, starting from 0.
+     *
+     * @return request index
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    public Request getRequest() {
+        return request;
+    }
+
+    /**
+     * Returns value the request completed with.
+     *
+     * @return value, empty if the request failed or completed with null
+     */
+    public Optional<T> getValue() {
+        return Optional.ofNullable(value);
+    }
+
+    /**
+     * Returns error the request failed with.
+     *
+     * @return error, empty if the request succeeded
+     */
+    public Optional<Throwable> getError() {
+        return Optional.ofNullable(error);
+    }
+
+    /**
+     * Returns time from sending the request to its completion.
+     *
+     * @return request duration
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public boolean isSuccessful() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{" +
+                "index=" + index +
+                ", value=" + value +
+                ", error=" + error +
+                ", duration=" + duration +
+                '}';
+    }
+}
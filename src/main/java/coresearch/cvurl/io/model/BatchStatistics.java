@@ -0,0 +1,97 @@
+package coresearch.cvurl.io.model;
+
+import java.time.Duration;
+
+/**
+ * Snapshot of execution statistics of a {@link coresearch.cvurl.io.request.Batch}.
+ */
+public class BatchStatistics {
+
+    private final long submitted;
+    private final long succeeded;
+    private final long failed;
+    private final long cancelled;
+    private final Duration elapsed;
+    private final Duration minDuration;
+    private final Duration averageDuration;
+    private final Duration maxDuration;
+
+    public BatchStatistics(long submitted, long succeeded, long failed, long cancelled, Duration elapsed,
+                           Duration minDuration, Duration averageDuration, Duration maxDuration) {
+        this.submitted = submitted;
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.cancelled = cancelled;
+        this.elapsed = elapsed;
+        this.minDuration = minDuration;
+        this.averageDuration = averageDuration;
+        this.maxDuration = maxDuration;
+    }
+
+    /**
+     * Returns number of requests sent so far.
+     *
+     * @return number of sent requests
+     */
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * Returns number of requests in flight whose results were dropped, because the batch was aborted or cancelled.
+     * Exchanges already started when the batch stopped are counted too, although they run to completion.
+     *
+     * @return number of cancelled requests
+     */
+    public long getCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Returns time since the batch started, until it finished if it did.
+     *
+     * @return elapsed time
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Returns duration of the fastest completed request.
+     *
+     * @return minimal request duration, zero if no request completed
+     */
+    public Duration getMinDuration() {
+        return minDuration;
+    }
+
+    public Duration getAverageDuration() {
+        return averageDuration;
+    }
+
+    public Duration getMaxDuration() {
+        return maxDuration;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchStatistics{" +
+                "submitted=" + submitted +
+                ", succeeded=" + succeeded +
+                ", failed=" + failed +
+                ", cancelled=" + cancelled +
+                ", elapsed=" + elapsed +
+                ", minDuration=" + minDuration +
+                ", averageDuration=" + averageDuration +
+                ", maxDuration=" + maxDuration +
+                '}';
+    }
+}
@@ -0,0 +1,102 @@
+package coresearch.cvurl.io.model;
+
+/**
+ * Snapshot of usage statistics of an HTTP response cache.
+ */
+public class CacheStatistics {
+
+    private final long hits;
+    private final long staleHits;
+    private final long misses;
+    private final long revalidations;
+    private final long notModified;
+    private final long staleIfErrorHits;
+    private final long size;
+
+    public CacheStatistics(long hits, long staleHits, long misses, long revalidations, long notModified,
+                           long staleIfErrorHits, long size) {
+        this.hits = hits;
+        this.staleHits = staleHits;
+        this.misses = misses;
+        this.revalidations = revalidations;
+        this.notModified = notModified;
+        this.staleIfErrorHits = staleIfErrorHits;
+        this.size = size;
+    }
+
+    /**
+     * Returns number of requests served from the cache without contacting the server.
+     *
+     * @return number of hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns number of requests served with a stale response while it was revalidated in background.
+     *
+     * @return number of stale hits
+     */
+    public long getStaleHits() {
+        return staleHits;
+    }
+
+    /**
+     * Returns number of requests that had no usable response in the cache.
+     *
+     * @return number of misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns number of conditional requests sent to revalidate stale responses.
+     *
+     * @return number of revalidations
+     */
+    public long getRevalidations() {
+        return revalidations;
+    }
+
+    /**
+     * Returns number of revalidations answered with 304 Not Modified, served from the cache.
+     *
+     * @return number of not modified responses
+     */
+    public long getNotModified() {
+        return notModified;
+    }
+
+    /**
+     * Returns number of failed requests served with a stale response instead.
+     *
+     * @return number of stale responses served on errors
+     */
+    public long getStaleIfErrorHits() {
+        return staleIfErrorHits;
+    }
+
+    /**
+     * Returns approximate number of bytes occupied by the cached responses.
+     *
+     * @return size in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatistics{" +
+                "hits=" + hits +
+                ", staleHits=" + staleHits +
+                ", misses=" + misses +
+                ", revalidations=" + revalidations +
+                ", notModified=" + notModified +
+                ", staleIfErrorHits=" + staleIfErrorHits +
+                ", size=" + size +
+                '}';
+    }
+}
@@ -1,11 +1,20 @@
 package coresearch.cvurl.io.model;
 
+import coresearch.cvurl.io.cache.HttpCache;
 import coresearch.cvurl.io.constant.HttpClientMode;
 import coresearch.cvurl.io.internal.configuration.RequestConfiguration;
 import coresearch.cvurl.io.internal.configuration.RequestConfigurer;
+import coresearch.cvurl.io.internal.util.VirtualThreads;
 import coresearch.cvurl.io.mapper.GenericMapper;
 import coresearch.cvurl.io.mapper.MapperFactory;
-import coresearch.cvurl.io.request.HttpClientSingleton;
+import coresearch.cvurl.io.request.HttpClientRegistry;
+import coresearch.cvurl.io.request.PooledHttpClient;
+import coresearch.cvurl.io.request.RequestCoalescer;
+import coresearch.cvurl.io.resilience.CircuitBreaker;
+import coresearch.cvurl.io.resilience.ConcurrencyLimiter;
+import coresearch.cvurl.io.resilience.HedgingPolicy;
+import coresearch.cvurl.io.resilience.RateLimiter;
+import coresearch.cvurl.io.resilience.RetryPolicy;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLParameters;
@@ -18,6 +27,7 @@ import java.net.http.HttpConnectTimeoutException;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Optional;
 import java.util.concurrent.Executor;
 
@@ -27,7 +37,7 @@ import static coresearch.cvurl.io.internal.util.Validation.notNullParams;
 /**
  * Data class that holds configuration of {@link coresearch.cvurl.io.request.CVurl}
  */
-public class Configuration {
+public class Configuration implements AutoCloseable {
 
     private final HttpClient httpClient;
 
@@ -37,14 +47,42 @@ public class Configuration {
 
     private final RequestConfiguration globalRequestConfiguration;
 
+    private final HttpClientRegistry.Lease clientLease;
+
+    private final ConcurrencyLimiter concurrencyLimiter;
+
+    private final RateLimiter rateLimiter;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final RequestCoalescer requestCoalescer;
+
+    private final HttpCache httpCache;
+
+    private final boolean virtualThreads;
+
     private Configuration(HttpClient httpClient, GenericMapper genericMapper, HttpClientMode httpClientMode,
-                          RequestConfiguration globalRequestConfiguration) {
+                          RequestConfiguration globalRequestConfiguration, HttpClientRegistry.Lease clientLease,
+                          ConcurrencyLimiter concurrencyLimiter, RateLimiter rateLimiter,
+                          CircuitBreaker circuitBreaker, RequestCoalescer requestCoalescer, HttpCache httpCache,
+                          boolean virtualThreads) {
         notNullParams(httpClient, genericMapper, globalRequestConfiguration);
 
         this.httpClient = httpClient;
         this.genericMapper = genericMapper;
         this.globalRequestConfiguration = globalRequestConfiguration;
         this.httpClientMode = httpClientMode;
+        this.clientLease = clientLease;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.requestCoalescer = requestCoalescer;
+        this.httpCache = httpCache;
+        this.virtualThreads = virtualThreads;
+
+        if (clientLease != null) {
+            HttpClientRegistry.releaseWhenUnreachable(this, clientLease);
+        }
     }
 
     public Configuration() {
@@ -52,6 +90,13 @@ public class Configuration {
         this.genericMapper = MapperFactory.createDefault();
         this.globalRequestConfiguration = RequestConfiguration.defaultConfiguration();
         this.httpClientMode = HttpClientMode.PROTOTYPE;
+        this.clientLease = null;
+        this.concurrencyLimiter = null;
+        this.rateLimiter = null;
+        this.circuitBreaker = null;
+        this.requestCoalescer = null;
+        this.httpCache = null;
+        this.virtualThreads = false;
     }
 
     /**
@@ -91,14 +136,40 @@ public class Configuration {
     }
 
     /**
-     * Creates {@link ConfigurationWithClientPropertiesBuilder} used to build {@link Configuration} object.
+     * Creates {@link ConfigurationBuilder} preset with the properties of this configuration. Configuration built
+     * in {@link HttpClientMode#SINGLETONE} mode holds its own reference to the shared {@link HttpClient}, so it can
+     * still be used after this configuration is closed.
      *
-     * @return new ConfigurationWithClientPropertiesBuilder
+     * @return new ConfigurationBuilder
      */
     public ConfigurationBuilder preconfiguredBuilder() {
-        return new ConfigurationBuilder(getHttpClient())
+        var builder = new ConfigurationBuilder(getHttpClient(), getGlobalRequestConfiguration().preconfiguredBuilder());
+        builder.httpClientMode = httpClientMode;
+        builder.sharedClientLease = clientLease;
+        builder.virtualThreads = virtualThreads;
+        return builder
                 .genericMapper(getGenericMapper())
-                .requestTimeout(getGlobalRequestConfiguration().getRequestTimeout().orElse(null));
+                .concurrencyLimiter(concurrencyLimiter)
+                .rateLimiter(rateLimiter)
+                .circuitBreaker(circuitBreaker)
+                .requestCoalescer(requestCoalescer)
+                .httpCache(httpCache);
+    }
+
+    /**
+     * Releases shared {@link HttpClient} of {@link HttpClientMode#SINGLETONE} configuration. The client is shut down
+     * when no other configuration uses it. If configuration is not closed explicitly, client is removed from
+     * the registry once configuration becomes unreachable, without shutting down requests still in flight.
+     * Closes the {@link HttpCache} of the configuration, if any.
+     */
+    @Override
+    public void close() {
+        if (clientLease != null) {
+            clientLease.release();
+        }
+        if (httpCache != null) {
+            httpCache.close();
+        }
     }
 
     public HttpClient getHttpClient() {
@@ -164,6 +235,36 @@ public class Configuration {
         return httpClientMode;
     }
 
+    public Optional<ConcurrencyLimiter> getConcurrencyLimiter() {
+        return Optional.ofNullable(concurrencyLimiter);
+    }
+
+    public Optional<RateLimiter> getRateLimiter() {
+        return Optional.ofNullable(rateLimiter);
+    }
+
+    public Optional<CircuitBreaker> getCircuitBreaker() {
+        return Optional.ofNullable(circuitBreaker);
+    }
+
+    public Optional<RequestCoalescer> getRequestCoalescer() {
+        return Optional.ofNullable(requestCoalescer);
+    }
+
+    public Optional<HttpCache> getHttpCache() {
+        return Optional.ofNullable(httpCache);
+    }
+
+    /**
+     * Returns whether requests created from this configuration run on virtual threads, including blocking calls
+     * like {@link coresearch.cvurl.io.request.Request#asString()}.
+     *
+     * @return whether virtual threads are used
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
     public void setIsLogEnable(boolean enabled) {
         this.getGlobalRequestConfiguration().setLogEnabled(enabled);
     }
@@ -172,14 +273,27 @@ public class Configuration {
         private GenericMapper genericMapper;
         private HttpClient httpClient;
         private HttpClientMode httpClientMode = HttpClientMode.PROTOTYPE;
+        private HttpClientRegistry.Lease sharedClientLease;
+        private ConcurrencyLimiter concurrencyLimiter;
+        private RateLimiter rateLimiter;
+        private CircuitBreaker circuitBreaker;
+        private RequestCoalescer requestCoalescer;
+        private HttpCache httpCache;
+        private boolean virtualThreads;
 
-        private final RequestConfiguration.Builder requestConfigurationBuilder = RequestConfiguration.builder();
+        private final RequestConfiguration.Builder requestConfigurationBuilder;
 
         private ConfigurationBuilder() {
+            this(null, RequestConfiguration.builder());
         }
 
         private ConfigurationBuilder(HttpClient httpClient) {
+            this(httpClient, RequestConfiguration.builder());
+        }
+
+        private ConfigurationBuilder(HttpClient httpClient, RequestConfiguration.Builder requestConfigurationBuilder) {
             this.httpClient = httpClient;
+            this.requestConfigurationBuilder = requestConfigurationBuilder;
         }
 
         @SuppressWarnings("unchecked")
@@ -194,6 +308,71 @@ public class Configuration {
             return (T) this;
         }
 
+        /**
+         * Sets limiter of concurrent requests per host applied to every request created from this configuration.
+         * By default the number of concurrent requests is not limited.
+         *
+         * @param concurrencyLimiter limiter, null to disable limiting
+         * @return this builder
+         */
+        @SuppressWarnings("unchecked")
+        public T concurrencyLimiter(ConcurrencyLimiter concurrencyLimiter) {
+            this.concurrencyLimiter = concurrencyLimiter;
+            return (T) this;
+        }
+
+        /**
+         * Sets rate limiter applied to every request created from this configuration.
+         * By default the rate of requests is not limited.
+         *
+         * @param rateLimiter limiter, null to disable limiting
+         * @return this builder
+         */
+        @SuppressWarnings("unchecked")
+        public T rateLimiter(RateLimiter rateLimiter) {
+            this.rateLimiter = rateLimiter;
+            return (T) this;
+        }
+
+        /**
+         * Sets circuit breaker applied to every request created from this configuration.
+         * Requests rejected by an open circuit fail with {@link coresearch.cvurl.io.exception.RequestRejectedException}.
+         *
+         * @param circuitBreaker circuit breaker, null to disable it
+         * @return this builder
+         */
+        @SuppressWarnings("unchecked")
+        public T circuitBreaker(CircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return (T) this;
+        }
+
+        /**
+         * Sets coalescer that lets identical concurrent GET requests created from this configuration
+         * share one response. By default every request is sent separately.
+         *
+         * @param requestCoalescer coalescer, null to disable coalescing
+         * @return this builder
+         */
+        @SuppressWarnings("unchecked")
+        public T requestCoalescer(RequestCoalescer requestCoalescer) {
+            this.requestCoalescer = requestCoalescer;
+            return (T) this;
+        }
+
+        /**
+         * Sets cache of responses to GET requests created from this configuration which bodies are read
+         * as objects or strings. By default responses are not cached.
+         *
+         * @param httpCache cache, null to disable caching
+         * @return this builder
+         */
+        @SuppressWarnings("unchecked")
+        public T httpCache(HttpCache httpCache) {
+            this.httpCache = httpCache;
+            return (T) this;
+        }
+
         /**
          * Sets a global timeout for requests created by {@link coresearch.cvurl.io.request.CVurl}
          * from this configuration.The effect
@@ -222,6 +401,45 @@ public class Configuration {
             return this;
         }
 
+        /**
+         * Sets size of request body in bytes starting from which bodies of requests created from this
+         * configuration are compressed with gzip.
+         *
+         * @param threshold minimal body size to compress
+         * @return this {@link ConfigurationBuilder}
+         */
+        @Override
+        public ConfigurationBuilder compressBody(long threshold) {
+            this.requestConfigurationBuilder.compressBody(threshold);
+            return this;
+        }
+
+        /**
+         * Sets policy that defines when failed requests created from this configuration are retried.
+         * Retry budget of the policy is shared by all of these requests.
+         *
+         * @param retryPolicy retry policy
+         * @return this {@link ConfigurationBuilder}
+         */
+        @Override
+        public ConfigurationBuilder retryPolicy(RetryPolicy retryPolicy) {
+            this.requestConfigurationBuilder.retryPolicy(retryPolicy);
+            return this;
+        }
+
+        /**
+         * Sets policy that defines when GET requests created from this configuration are hedged.
+         * Observed latencies and hedging budget of the policy are shared by all of these requests.
+         *
+         * @param hedgingPolicy hedging policy
+         * @return this {@link ConfigurationBuilder}
+         */
+        @Override
+        public ConfigurationBuilder hedgingPolicy(HedgingPolicy hedgingPolicy) {
+            this.requestConfigurationBuilder.hedgingPolicy(hedgingPolicy);
+            return this;
+        }
+
         /**
          * Sets a feature flag that defines if we logging every request url and body with level INFO or not.
          *
@@ -238,15 +456,44 @@ public class Configuration {
             return this.httpClient;
         }
 
+        protected HttpClientRegistry.Lease getSharedHttpClient() {
+            return null;
+        }
+
+        protected boolean isVirtualThreads() {
+            return virtualThreads;
+        }
+
+        protected HttpClient getPooledHttpClient() {
+            if (httpClient instanceof PooledHttpClient) {
+                return httpClient;
+            }
+            throw new IllegalStateException(HttpClientMode.POOLED + " mode requires client properties to create " +
+                    "several clients, use Configuration.builder() instead of a predefined HttpClient");
+        }
+
         public Configuration build() {
             if (genericMapper == null) {
                 genericMapper = MapperFactory.createDefault();
             }
 
-            var httpClient = httpClientMode == HttpClientMode.PROTOTYPE ?
-                    this.getHttpClient() : HttpClientSingleton.getClient(this.getHttpClient());
+            HttpClient httpClient;
+            HttpClientRegistry.Lease clientLease = null;
+            switch (httpClientMode) {
+                case SINGLETONE:
+                    clientLease = sharedClientLease != null ? sharedClientLease.share() : this.getSharedHttpClient();
+                    httpClient = clientLease != null ? clientLease.getClient() : this.getHttpClient();
+                    break;
+                case POOLED:
+                    httpClient = this.getPooledHttpClient();
+                    break;
+                default:
+                    httpClient = this.getHttpClient();
+            }
 
-            return new Configuration(httpClient, genericMapper, httpClientMode, requestConfigurationBuilder.build());
+            return new Configuration(httpClient, genericMapper, httpClientMode, requestConfigurationBuilder.build(),
+                    clientLease, concurrencyLimiter, rateLimiter, circuitBreaker,
+                    requestCoalescer, httpCache, isVirtualThreads());
         }
     }
 
@@ -257,6 +504,7 @@ public class Configuration {
             extends ConfigurationBuilder<ConfigurationWithClientPropertiesBuilder> {
 
         private static final int NO_PRIORITY = -1;
+        private static final int DEFAULT_POOL_SIZE = Runtime.getRuntime().availableProcessors();
 
         private Authenticator authenticator;
         private Duration connectTimeout;
@@ -268,6 +516,9 @@ public class Configuration {
         private SSLContext sslContext;
         private HttpClient.Version version;
         private SSLParameters sslParameters;
+        private int poolSize = DEFAULT_POOL_SIZE;
+        private String clientName;
+        private boolean virtualThreads;
 
         public ConfigurationWithClientPropertiesBuilder authenticator(Authenticator authenticator) {
             this.authenticator = authenticator;
@@ -439,8 +690,88 @@ public class Configuration {
             return this;
         }
 
+        /**
+         * Sets number of {@link HttpClient}s created in {@link HttpClientMode#POOLED} mode.
+         *
+         * <p> If this method is not invoked prior to {@linkplain #build()
+         * building}, one client per available processor is created.
+         *
+         * @param poolSize number of clients
+         * @return this builder
+         */
+        public ConfigurationWithClientPropertiesBuilder poolSize(int poolSize) {
+            if (poolSize < 1) {
+                throw new IllegalArgumentException("Pool size should be positive, got " + poolSize);
+            }
+            this.poolSize = poolSize;
+            return this;
+        }
+
+        /**
+         * Sets whether requests are executed on virtual threads. Asynchronous and dependent tasks of the client
+         * run on virtual threads, unless an executor is set with {@link #executor(Executor)}, and blocking calls
+         * like {@link coresearch.cvurl.io.request.Request#asString()} made from a platform thread send the request
+         * from a virtual thread while the caller waits for the result.
+         *
+         * <p> Blocking calls made from virtual threads run on the calling thread, which is parked while waiting
+         * for response instead of holding a platform thread, so blocking-style code scales to as many concurrent
+         * requests as virtual threads.
+         *
+         * <p> Requires Java 21 or newer, on older runtimes enabling it throws {@link IllegalStateException}.
+         * Support comes from the Java 21 part of the multi-release jar, so the jar itself should be built on JDK 21
+         * or newer, which the release profile enforces. A jar built on an older JDK doesn't support this option
+         * on any runtime.
+         *
+         * @param virtualThreads whether to use virtual threads
+         * @return this builder
+         */
+        public ConfigurationWithClientPropertiesBuilder virtualThreads(boolean virtualThreads) {
+            if (virtualThreads && !VirtualThreads.isSupported()) {
+                throw new IllegalStateException("Virtual threads require Java 21 or newer, running on Java " +
+                        Runtime.version().feature());
+            }
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        /**
+         * Sets name under which {@link HttpClient} is shared in {@link HttpClientMode#SINGLETONE} mode.
+         *
+         * <p> If this method is not invoked prior to {@linkplain #build()
+         * building}, client is shared between configurations with equal client properties.
+         * Configurations with the same name share the client created by the first of them.
+         *
+         * @param clientName name of the shared client
+         * @return this builder
+         */
+        public ConfigurationWithClientPropertiesBuilder clientName(String clientName) {
+            this.clientName = notNullParam(clientName);
+            return this;
+        }
+
+        @Override
+        protected HttpClientRegistry.Lease getSharedHttpClient() {
+            Object key = clientName != null ? clientName : Arrays.asList(authenticator, connectTimeout, cookieHandler,
+                    executor, followRedirects, priority, proxySelector, sslContext, version, sslParameters, virtualThreads);
+            return HttpClientRegistry.acquire(key, this::createHttpClient);
+        }
+
+        @Override
+        protected HttpClient getPooledHttpClient() {
+            return PooledHttpClient.of(poolSize, this::getHttpClient);
+        }
+
+        @Override
+        protected boolean isVirtualThreads() {
+            return virtualThreads;
+        }
+
         @Override
         protected HttpClient getHttpClient() {
+            return createHttpClient(null);
+        }
+
+        private HttpClient createHttpClient(Executor defaultExecutor) {
             var builder = HttpClient.newBuilder();
 
             if (connectTimeout != null) {
@@ -454,6 +785,10 @@ public class Configuration {
             }
             if (executor != null) {
                 builder.executor(executor);
+            } else if (virtualThreads) {
+                builder.executor(VirtualThreads.newExecutor());
+            } else if (defaultExecutor != null) {
+                builder.executor(defaultExecutor);
             }
             if (priority != NO_PRIORITY) {
                 builder.priority(priority);
@@ -0,0 +1,75 @@
+package coresearch.cvurl.io.model;
+
+/**
+ * Snapshot of usage statistics of a bounded object pool.
+ */
+public class PoolMetrics {
+
+    private final long hits;
+    private final long misses;
+    private final int idle;
+    private final int capacity;
+
+    public PoolMetrics(long hits, long misses, int idle, int capacity) {
+        this.hits = hits;
+        this.misses = misses;
+        this.idle = idle;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns number of acquisitions served with a pooled instance.
+     *
+     * @return number of hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns number of acquisitions that had to create a new instance because the pool was empty.
+     *
+     * @return number of misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns number of instances currently waiting in the pool.
+     *
+     * @return number of idle instances
+     */
+    public int getIdle() {
+        return idle;
+    }
+
+    /**
+     * Returns maximal number of idle instances kept by the pool.
+     *
+     * @return pool capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Combines this metrics with the metrics of another pool.
+     *
+     * @param other metrics to add
+     * @return combined metrics
+     */
+    public PoolMetrics plus(PoolMetrics other) {
+        return new PoolMetrics(hits + other.hits, misses + other.misses, idle + other.idle, capacity + other.capacity);
+    }
+
+    @Override
+    public String toString() {
+        return "PoolMetrics{" +
+                "hits=" + hits +
+                ", misses=" + misses +
+                ", idle=" + idle +
+                ", capacity=" + capacity +
+                '}';
+    }
+}
@@ -0,0 +1,46 @@
+package coresearch.cvurl.io.model;
+
+import java.util.Optional;
+
+/**
+ * Outcome of one of the requests gathered by {@link coresearch.cvurl.io.util.ScatterGather#allSettled},
+ * either its response or its error.
+ *
+ * @param <T> body type
+ */
+public class SettledResponse<T> {
+
+    private final Response<T> response;
+    private final Throwable error;
+
+    public SettledResponse(Response<T> response, Throwable error) {
+        this.response = response;
+        this.error = error;
+    }
+
+    public Optional<Response<T>> getResponse() {
+        return Optional.ofNullable(response);
+    }
+
+    /**
+     * Returns error the request failed with, {@link java.util.concurrent.TimeoutException} if it didn't complete
+     * before the deadline.
+     *
+     * @return error, empty if the request completed
+     */
+    public Optional<Throwable> getError() {
+        return Optional.ofNullable(error);
+    }
+
+    public boolean isSuccessful() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        return "SettledResponse{" +
+                "status=" + (response == null ? null : response.status()) +
+                ", error=" + error +
+                '}';
+    }
+}
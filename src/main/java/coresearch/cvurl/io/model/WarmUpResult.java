@@ -0,0 +1,83 @@
+package coresearch.cvurl.io.model;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of {@link coresearch.cvurl.io.request.CVurl#warmUp(java.util.Collection, Class[])}.
+ */
+public class WarmUpResult {
+
+    private final List<String> warmedUpOrigins;
+    private final Map<String, Throwable> failedOrigins;
+    private final Map<Class<?>, Throwable> failedBodyTypes;
+    private final Duration duration;
+
+    public WarmUpResult(List<String> warmedUpOrigins, Map<String, Throwable> failedOrigins, Duration duration) {
+        this(warmedUpOrigins, failedOrigins, Map.of(), duration);
+    }
+
+    public WarmUpResult(List<String> warmedUpOrigins, Map<String, Throwable> failedOrigins,
+                        Map<Class<?>, Throwable> failedBodyTypes, Duration duration) {
+        this.warmedUpOrigins = List.copyOf(warmedUpOrigins);
+        this.failedOrigins = Map.copyOf(failedOrigins);
+        this.failedBodyTypes = Map.copyOf(failedBodyTypes);
+        this.duration = duration;
+    }
+
+    /**
+     * Returns origins to which connections were established.
+     *
+     * @return warmed up origins
+     */
+    public List<String> getWarmedUpOrigins() {
+        return warmedUpOrigins;
+    }
+
+    /**
+     * Returns origins to which connection couldn't be established, with the cause of failure.
+     *
+     * @return failed origins
+     */
+    public Map<String, Throwable> getFailedOrigins() {
+        return failedOrigins;
+    }
+
+    /**
+     * Returns body types which serializers couldn't be resolved, with the cause of failure.
+     *
+     * @return failed body types
+     */
+    public Map<Class<?>, Throwable> getFailedBodyTypes() {
+        return failedBodyTypes;
+    }
+
+    /**
+     * Returns time the warm up took.
+     *
+     * @return warm up duration
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * Returns whether connections to all origins were established and serializers of all body types resolved.
+     *
+     * @return true if no origin or body type failed
+     */
+    public boolean isSuccessful() {
+        return failedOrigins.isEmpty() && failedBodyTypes.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "WarmUpResult{" +
+                "warmedUpOrigins=" + warmedUpOrigins +
+                ", failedOrigins=" + failedOrigins.keySet() +
+                ", failedBodyTypes=" + failedBodyTypes.keySet() +
+                ", duration=" + duration +
+                '}';
+    }
+}
@@ -0,0 +1,444 @@
+package coresearch.cvurl.io.request;
+
+import coresearch.cvurl.io.constant.BatchOrder;
+import coresearch.cvurl.io.exception.BatchExecutionException;
+import coresearch.cvurl.io.model.BatchResult;
+import coresearch.cvurl.io.model.BatchStatistics;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Executes many independent requests with bounded concurrency. Requests are pulled from the source only
+ * when there is room for them, so the batch never holds more than {@code parallelism} requests and results,
+ * and delivery of results is driven by the demand of the consumer.
+ * <p>
+ * Failures of single requests are captured in their {@link BatchResult}, unless they are fatal according to
+ * {@link #failFast(Predicate)}: then results of requests in flight are dropped, no more requests are sent and
+ * the batch fails with {@link BatchExecutionException}. A batch can be executed only once.
+ * <p>
+ * Dropping a request cancels the future returned by the call. Request still waiting for a permit of the
+ * {@link coresearch.cvurl.io.resilience.ConcurrencyLimiter} is not sent then, but the HTTP client doesn't abort
+ * an exchange already started: it runs to completion and its response is discarded.
+ *
+ * @param <T> type of the request results
+ */
+public class Batch<T> {
+
+    private static final int DEFAULT_PARALLELISM = 16;
+
+    private final Supplier<? extends Iterator<? extends Request>> source;
+    private final Function<? super Request, ? extends CompletionStage<T>> call;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final Statistics statistics = new Statistics();
+
+    private int parallelism = DEFAULT_PARALLELISM;
+    private BatchOrder order = BatchOrder.ORDERED;
+    private Predicate<? super Throwable> fatal = error -> false;
+    private volatile Execution execution;
+
+    Batch(Supplier<? extends Iterator<? extends Request>> source, Function<? super Request, ? extends CompletionStage<T>> call) {
+        this.source = source;
+        this.call = call;
+    }
+
+    /**
+     * Sets maximal number of requests in flight.
+     *
+     * @param parallelism maximal number of concurrent requests, 16 by default
+     * @return this batch
+     */
+    public Batch<T> parallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism should be positive, got " + parallelism);
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Sets order of the results. In {@link BatchOrder#ORDERED} mode a slow request holds back results and
+     * new requests behind it, as at most {@code parallelism} requests and results are held at once.
+     *
+     * @param order order of the results, {@link BatchOrder#ORDERED} by default
+     * @return this batch
+     */
+    public Batch<T> order(BatchOrder order) {
+        this.order = order;
+        return this;
+    }
+
+    /**
+     * Sets which request errors abort the whole batch. Errors are passed unwrapped from
+     * {@link CompletionException}.
+     *
+     * @param fatal predicate of fatal errors, by default no error is fatal
+     * @return this batch
+     */
+    public Batch<T> failFast(Predicate<? super Throwable> fatal) {
+        this.fatal = fatal;
+        return this;
+    }
+
+    /**
+     * Executes the batch, returning results as a lazy stream. Closing the stream cancels the batch.
+     *
+     * @return stream of results, which throws {@link BatchExecutionException} if the batch is aborted
+     */
+    public Stream<BatchResult<T>> stream() {
+        var subscriber = new BlockingSubscriber();
+        publisher().subscribe(subscriber);
+        return StreamSupport.stream(subscriber, false).onClose(subscriber::cancel);
+    }
+
+    /**
+     * Returns publisher executing the batch when subscribed. Only one subscription is allowed.
+     *
+     * @return publisher of results, which signals {@link BatchExecutionException} if the batch is aborted
+     */
+    public Flow.Publisher<BatchResult<T>> publisher() {
+        return subscriber -> {
+            if (!started.compareAndSet(false, true)) {
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override
+                    public void request(long n) {
+                    }
+
+                    @Override
+                    public void cancel() {
+                    }
+                });
+                subscriber.onError(new IllegalStateException("Batch can be executed only once"));
+                return;
+            }
+            execution = new Execution(subscriber);
+            execution.start();
+        };
+    }
+
+    /**
+     * Drops results of requests in flight and stops sending new ones. The consumer gets no more results.
+     * Exchanges already started run to completion in the background.
+     */
+    public void cancel() {
+        var current = execution;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+
+    /**
+     * Returns statistics of the execution so far.
+     *
+     * @return statistics snapshot
+     */
+    public BatchStatistics getStatistics() {
+        return statistics.snapshot();
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+    }
+
+    private final class Execution implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super BatchResult<T>> subscriber;
+        private final Map<Long, CompletableFuture<T>> inFlight = new ConcurrentHashMap<>();
+        private final Map<Long, BatchResult<T>> ready = new ConcurrentHashMap<>();
+        private final Queue<BatchResult<T>> completed = new ConcurrentLinkedQueue<>();
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        private volatile boolean cancelled;
+        private Iterator<? extends Request> requests;
+        private boolean exhausted;
+        private boolean terminated;
+        private long launched;
+        private long delivered;
+
+        private Execution(Flow.Subscriber<? super BatchResult<T>> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        private void start() {
+            statistics.start();
+            subscriber.onSubscribe(this);
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                failure.compareAndSet(null, new IllegalArgumentException("Requested number of elements should be positive, got " + n));
+            } else {
+                demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+
+            do {
+                if (terminated) {
+                    continue;
+                }
+                if (cancelled || failure.get() != null) {
+                    terminate();
+                    continue;
+                }
+
+                launch();
+                BatchResult<T> result;
+                while (demand.get() > 0 && !cancelled && (result = next()) != null) {
+                    delivered++;
+                    demand.decrementAndGet();
+                    subscriber.onNext(result);
+                    launch();
+                }
+
+                if (exhausted && delivered == launched && failure.get() == null && !cancelled) {
+                    terminated = true;
+                    statistics.finish();
+                    subscriber.onComplete();
+                }
+            } while (wip.decrementAndGet() != 0);
+        }
+
+        private void launch() {
+            while (!exhausted && launched - delivered < parallelism && !cancelled && failure.get() == null) {
+                Request request;
+                try {
+                    if (requests == null) {
+                        requests = source.get();
+                    }
+                    if (!requests.hasNext()) {
+                        exhausted = true;
+                        return;
+                    }
+                    request = requests.next();
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                    return;
+                }
+
+                long index = launched++;
+                long start = System.nanoTime();
+                statistics.submitted.increment();
+
+                CompletableFuture<T> future;
+                try {
+                    future = call.apply(request).toCompletableFuture();
+                } catch (RuntimeException e) {
+                    future = CompletableFuture.failedFuture(e);
+                }
+                inFlight.put(index, future);
+                future.whenComplete((value, throwable) -> complete(index, request, start, value, throwable));
+            }
+        }
+
+        private void complete(long index, Request request, long start, T value, Throwable throwable) {
+            if (inFlight.remove(index) == null) {
+                // cancelled when the batch was terminated
+                return;
+            }
+
+            var error = throwable == null ? null : unwrap(throwable);
+            var duration = Duration.ofNanos(System.nanoTime() - start);
+            statistics.record(duration, error == null);
+            if (error != null && fatal.test(error)) {
+                failure.compareAndSet(null, error);
+            }
+
+            var result = new BatchResult<>(index, request, value, error, duration);
+            if (order == BatchOrder.ORDERED) {
+                ready.put(index, result);
+            } else {
+                completed.add(result);
+            }
+            drain();
+        }
+
+        private BatchResult<T> next() {
+            return order == BatchOrder.ORDERED ? ready.remove(delivered) : completed.poll();
+        }
+
+        private void terminate() {
+            terminated = true;
+            for (var index : inFlight.keySet()) {
+                var future = inFlight.remove(index);
+                if (future != null) {
+                    statistics.cancelled.increment();
+                    // only drops the result, an exchange already started is not aborted by the HTTP client
+                    future.cancel(true);
+                }
+            }
+            ready.clear();
+            completed.clear();
+            statistics.finish();
+
+            var error = failure.get();
+            if (error != null && !cancelled) {
+                subscriber.onError(new BatchExecutionException("Batch aborted after " + delivered + " results", error));
+            }
+        }
+    }
+
+    /**
+     * Adapts the publisher to a blocking {@link Spliterator}, keeping at most {@code parallelism} results queued.
+     */
+    private final class BlockingSubscriber extends Spliterators.AbstractSpliterator<BatchResult<T>>
+            implements Flow.Subscriber<BatchResult<T>> {
+
+        private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+        private final Object completion = new Object();
+        private volatile Flow.Subscription subscription;
+        private boolean done;
+
+        private BlockingSubscriber() {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(parallelism);
+        }
+
+        @Override
+        public void onNext(BatchResult<T> item) {
+            queue.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            queue.add(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            queue.add(completion);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super BatchResult<T>> action) {
+            if (done) {
+                return false;
+            }
+
+            Object item;
+            try {
+                item = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel();
+                throw new BatchExecutionException("Interrupted while waiting for batch results", e);
+            }
+
+            if (item == completion) {
+                done = true;
+                return false;
+            }
+            if (item instanceof Throwable) {
+                done = true;
+                if (item instanceof BatchExecutionException) {
+                    throw (BatchExecutionException) item;
+                }
+                throw new BatchExecutionException("Batch failed", (Throwable) item);
+            }
+
+            action.accept((BatchResult<T>) item);
+            subscription.request(1);
+            return true;
+        }
+
+        private void cancel() {
+            done = true;
+            var current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+    }
+
+    private static final class Statistics {
+
+        private final LongAdder submitted = new LongAdder();
+        private final LongAdder cancelled = new LongAdder();
+        private long succeeded;
+        private long failed;
+        private long totalNanos;
+        private long minNanos = Long.MAX_VALUE;
+        private long maxNanos;
+        private long startNanos;
+        private long endNanos;
+        private boolean started;
+        private boolean finished;
+
+        private synchronized void start() {
+            startNanos = System.nanoTime();
+            started = true;
+        }
+
+        private synchronized void finish() {
+            if (!finished) {
+                endNanos = System.nanoTime();
+                finished = true;
+            }
+        }
+
+        private synchronized void record(Duration duration, boolean success) {
+            long nanos = duration.toNanos();
+            if (success) {
+                succeeded++;
+            } else {
+                failed++;
+            }
+            totalNanos += nanos;
+            minNanos = Math.min(minNanos, nanos);
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        private synchronized BatchStatistics snapshot() {
+            long completed = succeeded + failed;
+            long elapsed = started ? (finished ? endNanos : System.nanoTime()) - startNanos : 0;
+            return new BatchStatistics(submitted.sum(), succeeded, failed, cancelled.sum(), Duration.ofNanos(elapsed),
+                    Duration.ofNanos(completed == 0 ? 0 : minNanos),
+                    Duration.ofNanos(completed == 0 ? 0 : totalNanos / completed),
+                    Duration.ofNanos(maxNanos));
+        }
+    }
+}
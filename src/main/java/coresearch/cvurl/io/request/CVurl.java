@@ -1,13 +1,32 @@
 package coresearch.cvurl.io.request;
 
+import coresearch.cvurl.io.constant.HttpClientMode;
 import coresearch.cvurl.io.constant.HttpMethod;
 import coresearch.cvurl.io.mapper.GenericMapper;
 import coresearch.cvurl.io.mapper.MapperFactory;
 import coresearch.cvurl.io.model.Configuration;
+import coresearch.cvurl.io.model.WarmUpResult;
 
+import java.net.URI;
 import java.net.URL;
 import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodyHandlers;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static coresearch.cvurl.io.internal.util.Validation.notNullParam;
 
@@ -232,6 +251,90 @@ public class CVurl {
         return createRequestWBody(url.toString(), HttpMethod.PATCH);
     }
 
+    /**
+     * Prepares this CVurl for the first requests: resolves mapper serializers of the body types and
+     * sends OPTIONS request to every origin, so TCP connection, TLS handshake and HTTP/2 negotiation are done
+     * in advance. Any response counts as success, as only the connection matters. In {@link HttpClientMode#POOLED}
+     * mode one request per pooled client is sent. Blocks until all requests complete. Invalid origins and body types
+     * which serializers can't be resolved are reported as failed, without stopping the warm up of the others.
+     *
+     * @param origins   origins to connect to, like https://example.com
+     * @param bodyTypes types of request and response bodies
+     * @return result with warmed up and failed origins and the time it took
+     */
+    public WarmUpResult warmUp(Collection<String> origins, Class<?>... bodyTypes) {
+        long start = System.nanoTime();
+
+        Map<Class<?>, Throwable> failedBodyTypes = new LinkedHashMap<>();
+        for (Class<?> bodyType : bodyTypes) {
+            try {
+                configuration.getGenericMapper().warmUp(bodyType);
+            } catch (RuntimeException e) {
+                failedBodyTypes.put(bodyType, e);
+            }
+        }
+
+        var httpClient = configuration.getHttpClient();
+        int connections = httpClient instanceof PooledHttpClient ? ((PooledHttpClient) httpClient).size() : 1;
+
+        Map<String, List<CompletableFuture<?>>> requests = new LinkedHashMap<>();
+        Map<String, Throwable> failedOrigins = new HashMap<>();
+        for (String origin : origins) {
+            try {
+                var builder = HttpRequest.newBuilder(URI.create(origin)).method(HttpMethod.OPTIONS.name(), BodyPublishers.noBody());
+                configuration.getGlobalRequestConfiguration().getRequestTimeout().ifPresent(builder::timeout);
+                var request = builder.build();
+
+                requests.put(origin, IntStream.range(0, connections)
+                        .<CompletableFuture<?>>mapToObj(i -> httpClient.sendAsync(request, BodyHandlers.discarding()))
+                        .collect(Collectors.toList()));
+            } catch (RuntimeException e) {
+                failedOrigins.put(origin, e);
+            }
+        }
+
+        List<String> warmedUpOrigins = new ArrayList<>();
+        requests.forEach((origin, responses) -> {
+            try {
+                CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+                warmedUpOrigins.add(origin);
+            } catch (CompletionException e) {
+                failedOrigins.put(origin, e.getCause() != null ? e.getCause() : e);
+            }
+        });
+
+        return new WarmUpResult(warmedUpOrigins, failedOrigins, failedBodyTypes, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * Creates batch executing the requests with bounded concurrency. Requests are consumed lazily, so the
+     * iterable may produce them on the fly.
+     *
+     * @param requests requests to execute
+     * @param call     sends the request, like {@code request -> request.asyncAsObject(User.class)}
+     * @param <T>      type of the request results
+     * @return batch to configure and execute
+     */
+    public <T> Batch<T> batch(Iterable<? extends Request> requests, Function<? super Request, ? extends CompletionStage<T>> call) {
+        notNullParam(requests);
+        notNullParam(call);
+        return new Batch<>(requests::iterator, call);
+    }
+
+    /**
+     * Creates batch executing the requests with bounded concurrency. The stream is consumed lazily.
+     *
+     * @param requests requests to execute
+     * @param call     sends the request, like {@code request -> request.asyncAsObject(User.class)}
+     * @param <T>      type of the request results
+     * @return batch to configure and execute
+     */
+    public <T> Batch<T> batch(Stream<? extends Request> requests, Function<? super Request, ? extends CompletionStage<T>> call) {
+        notNullParam(requests);
+        notNullParam(call);
+        return new Batch<>(requests::iterator, call);
+    }
+
     private RequestBuilder<?> createGetRequest(String url) {
         return new RequestBuilder<>(url, HttpMethod.GET, configuration);
     }
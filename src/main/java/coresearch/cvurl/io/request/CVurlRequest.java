@@ -1,13 +1,32 @@
 package coresearch.cvurl.io.request;
 
+import coresearch.cvurl.io.cache.HttpCache;
+import coresearch.cvurl.io.constant.HttpMethod;
+import coresearch.cvurl.io.exception.MappingException;
 import coresearch.cvurl.io.exception.RequestExecutionException;
+import coresearch.cvurl.io.exception.RequestRejectedException;
+import coresearch.cvurl.io.exception.ResponseMappingException;
 import coresearch.cvurl.io.exception.UnexpectedResponseException;
 import coresearch.cvurl.io.mapper.BodyType;
+import coresearch.cvurl.io.mapper.IncrementalParser;
 import coresearch.cvurl.io.model.Configuration;
 import coresearch.cvurl.io.internal.configuration.RequestConfiguration;
+import coresearch.cvurl.io.internal.response.CachedHttpResponse;
+import coresearch.cvurl.io.internal.response.DecodedHttpResponse;
+import coresearch.cvurl.io.internal.util.CancellingSubscriber;
+import coresearch.cvurl.io.internal.util.Charsets;
+import coresearch.cvurl.io.internal.util.VirtualThreads;
 import coresearch.cvurl.io.model.Response;
+import coresearch.cvurl.io.request.handler.CompressedByteArrayBodyHandler;
 import coresearch.cvurl.io.request.handler.CompressedInputStreamBodyHandler;
+import coresearch.cvurl.io.request.handler.CompressedPublisherBodyHandler;
 import coresearch.cvurl.io.request.handler.CompressedStringBodyHandler;
+import coresearch.cvurl.io.request.handler.DecodingBodySubscriber;
+import coresearch.cvurl.io.request.handler.ParsingBodySubscriber;
+import coresearch.cvurl.io.request.publisher.OneShotBodyPublisher;
+import coresearch.cvurl.io.resilience.CircuitBreaker;
+import coresearch.cvurl.io.resilience.HedgingPolicy;
+import coresearch.cvurl.io.resilience.RetryPolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,9 +36,21 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 /**
  * Class responsible for sending HTTP requests and parsing responses.
@@ -35,85 +66,111 @@ public final class CVurlRequest implements Request {
 
     private HttpRequest httpRequest;
 
+    /**
+     * Completed when the caller cancels the future of this call, null if the call is not cancellable
+     * or its response may be shared with other callers.
+     */
+    private final CompletableFuture<Void> cancellation;
+
     CVurlRequest(HttpRequest httpRequest, Configuration configuration,
                  RequestConfiguration requestConfiguration) {
+        this(httpRequest, configuration, requestConfiguration, null);
+    }
+
+    private CVurlRequest(HttpRequest httpRequest, Configuration configuration,
+                         RequestConfiguration requestConfiguration, CompletableFuture<Void> cancellation) {
         this.httpRequest = httpRequest;
         this.configuration = configuration;
         this.requestConfiguration = requestConfiguration;
         this.httpClient = configuration.getHttpClient();
+        this.cancellation = cancellation;
     }
 
     @Override
     public <T> CompletableFuture<T> asyncAsObject(Class<T> type, int statusCode) {
-        return httpClient.sendAsync(httpRequest, getStringBodyHandler())
-                .thenApply((response -> parseResponse(response, type, statusCode)));
+        return cancellable(call -> call.sendAsync(getByteArrayBodyHandler())
+                .thenApply(response -> parseResponse(response, type, statusCode)));
     }
 
     @Override
     public <T> CompletableFuture<T> asyncAsObject(BodyType<T> type, int statusCode) {
-        return httpClient.sendAsync(httpRequest, getStringBodyHandler())
-                .thenApply((response -> parseResponse(response, type, statusCode)));
+        return cancellable(call -> call.sendAsync(getByteArrayBodyHandler())
+                .thenApply(response -> parseResponse(response, type, statusCode)));
     }
 
     @Override
     public <T> CompletableFuture<T> asyncAsObject(Class<T> type) {
-        return httpClient.sendAsync(httpRequest, getStringBodyHandler())
-                .thenApply((response -> configuration.getGenericMapper().readResponseBody(new Response<>(response), type)));
+        return cancellable(call -> call.sendAsync(getByteArrayBodyHandler())
+                .thenApply(response -> readResponseBody(response, type)));
     }
 
     @Override
     public <T> CompletableFuture<T> asyncAsObject(BodyType<T> type) {
-        return httpClient.sendAsync(httpRequest, getStringBodyHandler())
-                .thenApply((response -> configuration.getGenericMapper().readResponseBody(new Response<>(response), type)));
+        return cancellable(call -> call.sendAsync(getByteArrayBodyHandler())
+                .thenApply(response -> readResponseBody(response, type)));
+    }
+
+    @Override
+    public <T> Flow.Publisher<T> asyncAsPublisher(Class<T> type) {
+        return parsingPublisher(() -> configuration.getGenericMapper().createArrayElementsParser(type));
+    }
+
+    @Override
+    public <T> Flow.Publisher<T> asyncAsNdJsonPublisher(Class<T> type) {
+        return parsingPublisher(() -> configuration.getGenericMapper().createLineValuesParser(type));
     }
 
     @Override
     public CompletableFuture<Response<String>> asyncAsString() {
-        return httpClient.sendAsync(httpRequest, getStringBodyHandler()).thenApply(Response::new);
+        return cancellable(call -> call.sendAsync(getStringBodyHandler()).thenApply(Response::new));
     }
 
     @Override
     public CompletableFuture<Response<String>> asyncAsString(HttpResponse.PushPromiseHandler<String> pph) {
-        return httpClient.sendAsync(httpRequest, getStringBodyHandler(), pph).thenApply(Response::new);
+        return cancellable(call -> call.sendAsync(getStringBodyHandler(), pph).thenApply(Response::new));
     }
 
     @Override
     public CompletableFuture<Response<InputStream>> asyncAsStream() {
-        return httpClient.sendAsync(httpRequest, getStreamBodyHandler()).thenApply(Response::new);
+        return cancellable(call -> releasingOnCancel(call.sendAsync(getStreamBodyHandler())));
     }
 
     @Override
     public CompletableFuture<Response<InputStream>> asyncAsStream(HttpResponse.PushPromiseHandler<InputStream> pph) {
-        return httpClient.sendAsync(httpRequest, getStreamBodyHandler(), pph).thenApply(Response::new);
+        return cancellable(call -> releasingOnCancel(call.sendAsync(getStreamBodyHandler(), pph)));
+    }
+
+    @Override
+    public CompletableFuture<Response<Flow.Publisher<List<ByteBuffer>>>> asyncAsPublisher() {
+        return cancellable(call -> releasingOnCancel(call.sendAsync(getPublisherBodyHandler())));
     }
 
     @Override
     public <T> CompletableFuture<Response<T>> asyncAs(HttpResponse.BodyHandler<T> bodyHandler) {
-        return httpClient.sendAsync(httpRequest, bodyHandler).thenApply(Response::new);
+        return cancellable(call -> releasingOnCancel(call.sendAsync(bodyHandler)));
     }
 
     @Override
     public <T> CompletableFuture<Response<T>> asyncAs(HttpResponse.BodyHandler<T> bodyHandler, HttpResponse.PushPromiseHandler<T> pph) {
-        return httpClient.sendAsync(httpRequest, bodyHandler, pph).thenApply(Response::new);
+        return cancellable(call -> releasingOnCancel(call.sendAsync(bodyHandler, pph)));
     }
 
     @Override
     public <T> Optional<T> asObject(Class<T> type, int statusCode) {
-        return sendRequestAndWrapInOptional(getStringBodyHandler(),
+        return sendRequestAndWrapInOptional(getByteArrayBodyHandler(),
                 (response) -> parseResponse(response, type, statusCode));
     }
 
     @Override
     public <T> Optional<T> asObject(BodyType<T> type, int statusCode) {
-        return sendRequestAndWrapInOptional(getStringBodyHandler(),
+        return sendRequestAndWrapInOptional(getByteArrayBodyHandler(),
                 (response) -> parseResponse(response, type, statusCode));
     }
 
     @Override
     public <T> T asObject(Class<T> type) {
         try {
-            return sendRequest(getStringBodyHandler(),
-                    response -> configuration.getGenericMapper().readResponseBody(new Response<>(response), type));
+            return sendRequest(getByteArrayBodyHandler(), response -> readResponseBody(response, type));
         } catch (IOException | InterruptedException e) {
             throw new RequestExecutionException(e.getMessage(), e);
         }
@@ -122,8 +179,27 @@ public final class CVurlRequest implements Request {
     @Override
     public <T> T asObject(BodyType<T> type) {
         try {
-            return sendRequest(getStringBodyHandler(),
-                    response -> configuration.getGenericMapper().readResponseBody(new Response<>(response), type));
+            return sendRequest(getByteArrayBodyHandler(), response -> readResponseBody(response, type));
+        } catch (IOException | InterruptedException e) {
+            throw new RequestExecutionException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public <T> Stream<T> asObjectStream(Class<T> type) {
+        try {
+            return sendRequest(getStreamBodyHandler(),
+                    response -> configuration.getGenericMapper().readValues(response.body(), type));
+        } catch (IOException | InterruptedException e) {
+            throw new RequestExecutionException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public <T> Stream<T> asNdJsonStream(Class<T> type) {
+        try {
+            return sendRequest(getStreamBodyHandler(),
+                    response -> configuration.getGenericMapper().readLineValues(response.body(), type));
         } catch (IOException | InterruptedException e) {
             throw new RequestExecutionException(e.getMessage(), e);
         }
@@ -145,11 +221,85 @@ public final class CVurlRequest implements Request {
     }
 
     private HttpResponse.BodyHandler<String> getStringBodyHandler() {
-        return requestConfiguration.isAcceptCompressed() ? new CompressedStringBodyHandler() : BodyHandlers.ofString();
+        return shareable(requestConfiguration.isAcceptCompressed() ? new CompressedStringBodyHandler() :
+                BodyHandlers.ofString(), "string", UnaryOperator.identity(), CVurlRequest::decode);
+    }
+
+    private HttpResponse.BodyHandler<byte[]> getByteArrayBodyHandler() {
+        return shareable(getRawByteArrayBodyHandler(), "bytes", byte[]::clone, Function.identity());
+    }
+
+    private HttpResponse.BodyHandler<byte[]> getRawByteArrayBodyHandler() {
+        return requestConfiguration.isAcceptCompressed() ? new CompressedByteArrayBodyHandler() : BodyHandlers.ofByteArray();
     }
 
     private HttpResponse.BodyHandler<InputStream> getStreamBodyHandler() {
-        return requestConfiguration.isAcceptCompressed() ? new CompressedInputStreamBodyHandler() : BodyHandlers.ofInputStream();
+        HttpResponse.BodyHandler<InputStream> bodyHandler = requestConfiguration.isAcceptCompressed() ?
+                new CompressedInputStreamBodyHandler() : BodyHandlers.ofInputStream();
+        if (configuration.getHttpCache().isEmpty() || !HttpMethod.GET.name().equals(httpRequest.method())) {
+            return bodyHandler;
+        }
+        // streams are not buffered, so they are only served from the cache and never stored
+        return new SharedBodyHandler<>(bodyHandler, "stream", null, CVurlRequest::toStream);
+    }
+
+    private HttpResponse.BodyHandler<Flow.Publisher<List<ByteBuffer>>> getPublisherBodyHandler() {
+        HttpResponse.BodyHandler<Flow.Publisher<List<ByteBuffer>>> bodyHandler = requestConfiguration.isAcceptCompressed() ?
+                new CompressedPublisherBodyHandler() : BodyHandlers.ofPublisher();
+        if (configuration.getHttpCache().isEmpty() || !HttpMethod.GET.name().equals(httpRequest.method())) {
+            return bodyHandler;
+        }
+        return new SharedBodyHandler<>(bodyHandler, "publisher", null, CVurlRequest::toPublisher);
+    }
+
+    private <T> HttpResponse.BodyHandler<T> shareable(HttpResponse.BodyHandler<T> bodyHandler, String bodyKind,
+                                                      UnaryOperator<T> bodyCopier,
+                                                      Function<HttpResponse<byte[]>, HttpResponse<T>> fromBytes) {
+        boolean sharing = configuration.getRequestCoalescer().isPresent() || configuration.getHttpCache().isPresent();
+        if (!sharing || !HttpMethod.GET.name().equals(httpRequest.method())) {
+            return bodyHandler;
+        }
+        return new SharedBodyHandler<>(bodyHandler, bodyKind, bodyCopier, fromBytes);
+    }
+
+    private CVurlRequest withRequest(HttpRequest request) {
+        return request == httpRequest && cancellation == null ? this :
+                new CVurlRequest(request, configuration, requestConfiguration);
+    }
+
+    /**
+     * Sends the call with a copy of this request which learns when the returned future is cancelled,
+     * so that a permit of the concurrency limiter the call still waits for is given up.
+     */
+    private <T> CompletableFuture<T> cancellable(Function<CVurlRequest, CompletableFuture<T>> call) {
+        if (configuration.getConcurrencyLimiter().isEmpty()) {
+            return call.apply(this);
+        }
+
+        var cancellation = new CompletableFuture<Void>();
+        var result = call.apply(new CVurlRequest(httpRequest, configuration, requestConfiguration, cancellation));
+        result.whenComplete((value, throwable) -> {
+            if (result.isCancelled()) {
+                cancellation.complete(null);
+            }
+        });
+        return result;
+    }
+
+    private <T> Flow.Publisher<T> parsingPublisher(Supplier<IncrementalParser<T>> parserSupplier) {
+        return subscriber -> {
+            var bodySubscriber = new ParsingBodySubscriber<T>(subscriber, parserSupplier.get());
+            subscriber.onSubscribe(bodySubscriber);
+
+            // neither retried nor hedged, as elements may already have been published to the subscriber
+            sendAsyncWithCircuitBreaker(responseInfo -> requestConfiguration.isAcceptCompressed() ?
+                    DecodingBodySubscriber.of(responseInfo, bodySubscriber) : bodySubscriber, null)
+                    .whenComplete((response, throwable) -> {
+                        if (throwable != null) {
+                            bodySubscriber.fail(throwable);
+                        }
+                    });
+        };
     }
 
     private <T, U> Optional<T> sendRequestAndWrapInOptional(HttpResponse.BodyHandler<U> bodyHandler,
@@ -162,21 +312,54 @@ public final class CVurlRequest implements Request {
         }
     }
 
-    private <T> T parseResponse(HttpResponse<String> response, Class<T> type, int statusCode) {
+    private <T> T parseResponse(HttpResponse<byte[]> response, Class<T> type, int statusCode) {
         checkIfStatusCodesAreEqual(response, statusCode);
-        return configuration.getGenericMapper().readValue(response.body(), type);
+        return readValue(response, type);
     }
 
-    private <T> T parseResponse(HttpResponse<String> response, BodyType<T> type, int statusCode) {
+    private <T> T parseResponse(HttpResponse<byte[]> response, BodyType<T> type, int statusCode) {
         checkIfStatusCodesAreEqual(response, statusCode);
-        return configuration.getGenericMapper().readValue(response.body(), type);
+        return readValue(response, type);
+    }
+
+    /**
+     * Maps body bytes directly when they are UTF-8, and decodes them with the charset declared
+     * in the Content-Type header otherwise.
+     */
+    private <T> T readValue(HttpResponse<byte[]> response, Class<T> type) {
+        var charset = Charsets.fromContentType(response.headers());
+        return Charsets.isUtf8Compatible(charset) ? configuration.getGenericMapper().readValue(response.body(), type) :
+                configuration.getGenericMapper().readValue(new String(response.body(), charset), type);
     }
 
-    private void checkIfStatusCodesAreEqual(HttpResponse<String> response, int statusCode) {
+    private <T> T readValue(HttpResponse<byte[]> response, BodyType<T> type) {
+        var charset = Charsets.fromContentType(response.headers());
+        return Charsets.isUtf8Compatible(charset) ? configuration.getGenericMapper().readValue(response.body(), type) :
+                configuration.getGenericMapper().readValue(new String(response.body(), charset), type);
+    }
+
+    private <T> T readResponseBody(HttpResponse<byte[]> response, Class<T> type) {
+        try {
+            return readValue(response, type);
+        } catch (MappingException e) {
+            throw new ResponseMappingException(e.getMessage(), e, new Response<>(DecodedHttpResponse.of(response)));
+        }
+    }
+
+    private <T> T readResponseBody(HttpResponse<byte[]> response, BodyType<T> type) {
+        try {
+            return readValue(response, type);
+        } catch (MappingException e) {
+            throw new ResponseMappingException(e.getMessage(), e, new Response<>(DecodedHttpResponse.of(response)));
+        }
+    }
+
+    private void checkIfStatusCodesAreEqual(HttpResponse<byte[]> response, int statusCode) {
         if (response.statusCode() != statusCode) {
+            var decodedResponse = DecodedHttpResponse.of(response);
             throw new UnexpectedResponseException("Received response with status code: " + response.statusCode() +
-                    ",expected: " + statusCode + ";Response: " + response.body(),
-                    new Response<>(response));
+                    ",expected: " + statusCode + ";Response: " + decodedResponse.body(),
+                    new Response<>(decodedResponse));
         }
     }
 
@@ -185,7 +368,492 @@ public final class CVurlRequest implements Request {
         if (requestConfiguration.isLogEnabled()) {
             LOGGER.info("Sending request {}", this.httpRequest);
         }
-        HttpResponse<U> response = httpClient.send(this.httpRequest, bodyHandler);
+        HttpResponse<U> response = configuration.isVirtualThreads() && !VirtualThreads.isVirtual(Thread.currentThread()) ?
+                sendOnVirtualThread(bodyHandler) : send(bodyHandler);
         return responseMapper.apply(response);
     }
+
+    private <T> HttpResponse<T> sendOnVirtualThread(HttpResponse.BodyHandler<T> bodyHandler)
+            throws IOException, InterruptedException {
+        return await(CompletableFuture.supplyAsync(() -> {
+            try {
+                return send(bodyHandler);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+        }, VirtualThreads.executor()));
+    }
+
+    private <T> HttpResponse<T> send(HttpResponse.BodyHandler<T> bodyHandler) throws IOException, InterruptedException {
+        if (!(bodyHandler instanceof SharedBodyHandler)) {
+            var response = sendWithRetryPolicy(bodyHandler);
+            invalidateCache(response);
+            return response;
+        }
+
+        var sharedBodyHandler = (SharedBodyHandler<T>) bodyHandler;
+        var cache = configuration.getHttpCache();
+        if (!sharedBodyHandler.isBuffered()) {
+            var cached = cache.orElseThrow().lookupFresh(httpRequest);
+            if (cached.isPresent()) {
+                return sharedBodyHandler.fromBytes.apply(cached.get());
+            }
+            return sendWithRetryPolicy(sharedBodyHandler.delegate);
+        }
+        if (cache.isEmpty()) {
+            return sendCoalesced(sharedBodyHandler);
+        }
+
+        var lookup = cache.get().lookup(httpRequest);
+        if (lookup.isHit()) {
+            return serveCached(cache.get(), lookup, sharedBodyHandler);
+        }
+
+        HttpResponse<byte[]> response;
+        try {
+            response = withRequest(lookup.getRequestToSend()).sendCoalesced(getSharedByteArrayBodyHandler());
+        } catch (IOException | RuntimeException e) {
+            var stale = cache.get().onError(lookup);
+            if (stale.isEmpty()) {
+                throw e;
+            }
+            LOGGER.debug("Serving stale response to {} {} after failure: {}", httpRequest.method(), httpRequest.uri(), e.toString());
+            return sharedBodyHandler.fromBytes.apply(stale.get());
+        }
+        return sharedBodyHandler.fromBytes.apply(cache.get().onResponse(lookup, response));
+    }
+
+    private <T> HttpResponse<T> sendCoalesced(SharedBodyHandler<T> sharedBodyHandler)
+            throws IOException, InterruptedException {
+        var coalescer = configuration.getRequestCoalescer();
+        if (coalescer.isEmpty()) {
+            return sendWithRetryPolicy(sharedBodyHandler.delegate);
+        }
+
+        return await(coalescer.get().coalesce(httpRequest, sharedBodyHandler.bodyKind, sharedBodyHandler.bodyCopier, () -> {
+            try {
+                return CompletableFuture.completedFuture(sendWithRetryPolicy(sharedBodyHandler.delegate));
+            } catch (IOException | RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return CompletableFuture.failedFuture(e);
+            }
+        }));
+    }
+
+    private boolean isBodyReplayable() {
+        return httpRequest.bodyPublisher().map(OneShotBodyPublisher::isReplayable).orElse(true);
+    }
+
+    private <T> HttpResponse<T> sendWithRetryPolicy(HttpResponse.BodyHandler<T> bodyHandler)
+            throws IOException, InterruptedException {
+        var retryPolicy = requestConfiguration.getRetryPolicy();
+        if (retryPolicy.isEmpty() || !isBodyReplayable()) {
+            return sendWithHedging(bodyHandler);
+        }
+
+        retryPolicy.get().onRequest();
+        for (int attempt = 1; ; attempt++) {
+            HttpResponse<T> response = null;
+            Exception failure = null;
+            try {
+                response = sendWithHedging(bodyHandler);
+            } catch (IOException | RuntimeException e) {
+                failure = e;
+            }
+
+            var delay = retryPolicy.get().nextDelay(httpRequest.method(), attempt, response, failure);
+            if (delay.isEmpty()) {
+                if (failure instanceof IOException) {
+                    throw (IOException) failure;
+                } else if (failure != null) {
+                    throw (RuntimeException) failure;
+                }
+                return response;
+            }
+
+            logRetry(attempt, delay.get(), response, failure);
+            discard(response);
+            Thread.sleep(delay.get().toMillis());
+        }
+    }
+
+    private <T> HttpResponse<T> sendWithHedging(HttpResponse.BodyHandler<T> bodyHandler)
+            throws IOException, InterruptedException {
+        var hedgingPolicy = requestConfiguration.getHedgingPolicy();
+        if (hedgingPolicy.isEmpty() || !hedgingPolicy.get().isHedgeable(httpRequest.method())) {
+            return sendWithCircuitBreaker(bodyHandler);
+        }
+
+        return await(sendAsyncWithHedging(bodyHandler, null));
+    }
+
+    private SharedBodyHandler<byte[]> getSharedByteArrayBodyHandler() {
+        return new SharedBodyHandler<>(getRawByteArrayBodyHandler(), "bytes", byte[]::clone, Function.identity());
+    }
+
+    private static HttpResponse<String> decode(HttpResponse<byte[]> response) {
+        if (response instanceof CachedHttpResponse) {
+            return ((CachedHttpResponse<?>) response).asString();
+        }
+        return DecodedHttpResponse.of(response);
+    }
+
+    private static HttpResponse<InputStream> toStream(HttpResponse<byte[]> response) {
+        return ((CachedHttpResponse<?>) response).asStream();
+    }
+
+    private static HttpResponse<Flow.Publisher<List<ByteBuffer>>> toPublisher(HttpResponse<byte[]> response) {
+        return ((CachedHttpResponse<?>) response).asPublisher();
+    }
+
+    private void invalidateCache(HttpResponse<?> response) {
+        configuration.getHttpCache().ifPresent(cache -> cache.invalidate(httpRequest, response));
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            var cause = unwrap(e.getCause());
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof InterruptedException) {
+                throw (InterruptedException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+
+    private <T> HttpResponse<T> sendWithCircuitBreaker(HttpResponse.BodyHandler<T> bodyHandler)
+            throws IOException, InterruptedException {
+        var circuitBreaker = configuration.getCircuitBreaker();
+        if (circuitBreaker.isEmpty()) {
+            return sendWithRateLimit(bodyHandler);
+        }
+
+        var permit = circuitBreaker.get().acquire(httpRequest.uri());
+        try {
+            var response = sendWithRateLimit(bodyHandler);
+            permit.release(response, null);
+            return response;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            permit.release(null, e);
+            throw e;
+        }
+    }
+
+    private <T> HttpResponse<T> sendWithRateLimit(HttpResponse.BodyHandler<T> bodyHandler)
+            throws IOException, InterruptedException {
+        var rateLimiter = configuration.getRateLimiter();
+        if (rateLimiter.isEmpty()) {
+            return sendWithConcurrencyLimit(bodyHandler);
+        }
+
+        rateLimiter.get().acquireBlocking(httpRequest.uri());
+        var response = sendWithConcurrencyLimit(bodyHandler);
+        rateLimiter.get().onResponse(httpRequest.uri(), response);
+        return response;
+    }
+
+    private <T> HttpResponse<T> sendWithConcurrencyLimit(HttpResponse.BodyHandler<T> bodyHandler)
+            throws IOException, InterruptedException {
+        var concurrencyLimiter = configuration.getConcurrencyLimiter();
+        if (concurrencyLimiter.isEmpty()) {
+            return httpClient.send(httpRequest, bodyHandler);
+        }
+
+        var permit = concurrencyLimiter.get().acquireBlocking(httpRequest.uri());
+        try {
+            var response = httpClient.send(httpRequest, bodyHandler);
+            permit.release(response, null);
+            return response;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            permit.release(null, e);
+            throw e;
+        }
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpResponse.BodyHandler<T> bodyHandler) {
+        return sendAsync(bodyHandler, null);
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpResponse.BodyHandler<T> bodyHandler,
+                                                             HttpResponse.PushPromiseHandler<T> pph) {
+        if (!(bodyHandler instanceof SharedBodyHandler) || pph != null) {
+            var response = sendAsyncWithRetryPolicy(bodyHandler, pph);
+            return configuration.getHttpCache().isEmpty() ? response : response.whenComplete((result, throwable) -> {
+                if (result != null) {
+                    invalidateCache(result);
+                }
+            });
+        }
+
+        var sharedBodyHandler = (SharedBodyHandler<T>) bodyHandler;
+        var cache = configuration.getHttpCache();
+        if (!sharedBodyHandler.isBuffered()) {
+            return cache.orElseThrow().lookupFresh(httpRequest)
+                    .map(cached -> CompletableFuture.completedFuture(sharedBodyHandler.fromBytes.apply(cached)))
+                    .orElseGet(() -> sendAsyncWithRetryPolicy(sharedBodyHandler.delegate, null));
+        }
+        if (cache.isEmpty()) {
+            return sendAsyncCoalesced(sharedBodyHandler);
+        }
+
+        var lookup = cache.get().lookup(httpRequest);
+        if (lookup.isHit()) {
+            return CompletableFuture.completedFuture(serveCached(cache.get(), lookup, sharedBodyHandler));
+        }
+        return withRequest(lookup.getRequestToSend()).sendAsyncCoalesced(getSharedByteArrayBodyHandler())
+                .handle((response, throwable) -> {
+                    if (throwable == null) {
+                        return cache.get().onResponse(lookup, response);
+                    }
+                    LOGGER.debug("Request {} {} failed, looking up stale response: {}", httpRequest.method(), httpRequest.uri(), throwable.toString());
+                    return cache.get().onError(lookup).orElseThrow(() -> throwable instanceof CompletionException ?
+                            (CompletionException) throwable : new CompletionException(throwable));
+                })
+                .thenApply(sharedBodyHandler.fromBytes);
+    }
+
+    private <T> HttpResponse<T> serveCached(HttpCache cache, HttpCache.Lookup lookup, SharedBodyHandler<T> sharedBodyHandler) {
+        if (lookup.isStale()) {
+            cache.revalidateInBackground(lookup,
+                    request -> withRequest(request).sendAsyncCoalesced(getSharedByteArrayBodyHandler()));
+        }
+        return sharedBodyHandler.fromBytes.apply(lookup.getResponse().orElseThrow());
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendAsyncCoalesced(SharedBodyHandler<T> sharedBodyHandler) {
+        var coalescer = configuration.getRequestCoalescer();
+        if (coalescer.isEmpty()) {
+            return sendAsyncWithRetryPolicy(sharedBodyHandler.delegate, null);
+        }
+
+        var shared = withRequest(httpRequest);
+        return coalescer.get().coalesce(httpRequest, sharedBodyHandler.bodyKind, sharedBodyHandler.bodyCopier,
+                () -> shared.sendAsyncWithRetryPolicy(sharedBodyHandler.delegate, null));
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendAsyncWithRetryPolicy(HttpResponse.BodyHandler<T> bodyHandler,
+                                                                            HttpResponse.PushPromiseHandler<T> pph) {
+        var retryPolicy = requestConfiguration.getRetryPolicy();
+        if (retryPolicy.isEmpty() || !isBodyReplayable()) {
+            return sendAsyncWithHedging(bodyHandler, pph);
+        }
+
+        retryPolicy.get().onRequest();
+        return sendAsyncWithRetry(bodyHandler, pph, retryPolicy.get(), 1);
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendAsyncWithRetry(HttpResponse.BodyHandler<T> bodyHandler,
+                                                                      HttpResponse.PushPromiseHandler<T> pph,
+                                                                      RetryPolicy retryPolicy, int attempt) {
+        return sendAsyncWithHedging(bodyHandler, pph)
+                .handle((response, throwable) -> {
+                    var failure = unwrap(throwable);
+                    var delay = retryPolicy.nextDelay(httpRequest.method(), attempt, response, failure);
+                    if (delay.isEmpty()) {
+                        return response != null ? CompletableFuture.completedFuture(response) :
+                                CompletableFuture.<HttpResponse<T>>failedFuture(failure);
+                    }
+
+                    logRetry(attempt, delay.get(), response, failure);
+                    discard(response);
+                    var delayedExecutor = CompletableFuture.delayedExecutor(delay.get().toNanos(), TimeUnit.NANOSECONDS);
+                    return CompletableFuture.runAsync(() -> { }, delayedExecutor)
+                            .thenCompose(ignored -> sendAsyncWithRetry(bodyHandler, pph, retryPolicy, attempt + 1));
+                })
+                .thenCompose(Function.identity());
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendAsyncWithHedging(HttpResponse.BodyHandler<T> bodyHandler,
+                                                                        HttpResponse.PushPromiseHandler<T> pph) {
+        var hedgingPolicy = requestConfiguration.getHedgingPolicy();
+        if (hedgingPolicy.isEmpty() || !hedgingPolicy.get().isHedgeable(httpRequest.method())) {
+            return sendAsyncWithCircuitBreaker(bodyHandler, pph);
+        }
+
+        var policy = hedgingPolicy.get();
+        policy.onRequest();
+
+        var result = new CompletableFuture<HttpResponse<T>>();
+        var pending = new AtomicInteger(1);
+        sendAsyncHedgeable(bodyHandler, pph, policy, result, pending);
+
+        var delay = policy.getDelay();
+        CompletableFuture.delayedExecutor(delay.toNanos(), TimeUnit.NANOSECONDS).execute(() -> {
+            if (result.isDone() || !policy.tryHedge()) {
+                return;
+            }
+            pending.incrementAndGet();
+            LOGGER.debug("Hedging request {} after {} ms without response", httpRequest, delay.toMillis());
+            sendAsyncHedgeable(bodyHandler, pph, policy, result, pending);
+        });
+
+        return result;
+    }
+
+    /**
+     * Sends one of the hedged requests. The first response completes the result and responses
+     * received later are discarded, while failure completes the result only if no other request is pending.
+     */
+    private <T> void sendAsyncHedgeable(HttpResponse.BodyHandler<T> bodyHandler, HttpResponse.PushPromiseHandler<T> pph,
+                                        HedgingPolicy policy, CompletableFuture<HttpResponse<T>> result,
+                                        AtomicInteger pending) {
+        long start = System.nanoTime();
+        sendAsyncWithCircuitBreaker(bodyHandler, pph).whenComplete((response, throwable) -> {
+            if (response != null) {
+                policy.recordLatency(Duration.ofNanos(System.nanoTime() - start));
+                if (!result.complete(response)) {
+                    discard(response);
+                }
+            } else if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(unwrap(throwable));
+            }
+        });
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ?
+                throwable.getCause() : throwable;
+    }
+
+    private void logRetry(int attempt, Duration delay, HttpResponse<?> response, Throwable failure) {
+        LOGGER.warn("Retrying request {} in {} ms after attempt {} {}", httpRequest, delay.toMillis(), attempt,
+                response != null ? "returned status code " + response.statusCode() : "failed with " + failure);
+    }
+
+    /**
+     * Wraps the response, closing its body if the returned future is cancelled before the response arrives,
+     * so that the connection held by a stream body is released.
+     */
+    private static <T> CompletableFuture<Response<T>> releasingOnCancel(CompletableFuture<HttpResponse<T>> response) {
+        var wrapped = response.thenApply(Response::new);
+        response.thenAccept(rawResponse -> {
+            if (wrapped.isCancelled()) {
+                discard(rawResponse);
+            }
+        });
+        return wrapped;
+    }
+
+    private static void discard(HttpResponse<?> response) {
+        if (response != null && response.body() instanceof InputStream) {
+            try {
+                ((InputStream) response.body()).close();
+            } catch (IOException e) {
+                LOGGER.debug("Error while closing body of discarded response", e);
+            }
+        } else if (response != null && response.body() instanceof Flow.Publisher) {
+            ((Flow.Publisher<?>) response.body()).subscribe(CancellingSubscriber.INSTANCE);
+        }
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendAsyncWithCircuitBreaker(HttpResponse.BodyHandler<T> bodyHandler,
+                                                                               HttpResponse.PushPromiseHandler<T> pph) {
+        var circuitBreaker = configuration.getCircuitBreaker();
+        if (circuitBreaker.isEmpty()) {
+            return sendAsyncWithRateLimit(bodyHandler, pph);
+        }
+
+        CircuitBreaker.Permit permit;
+        try {
+            permit = circuitBreaker.get().acquire(httpRequest.uri());
+        } catch (RequestRejectedException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        try {
+            return sendAsyncWithRateLimit(bodyHandler, pph)
+                    .whenComplete((response, throwable) -> permit.release(response, unwrap(throwable)));
+        } catch (RuntimeException e) {
+            permit.release(null, e);
+            throw e;
+        }
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendAsyncWithRateLimit(HttpResponse.BodyHandler<T> bodyHandler,
+                                                                          HttpResponse.PushPromiseHandler<T> pph) {
+        var rateLimiter = configuration.getRateLimiter();
+        if (rateLimiter.isEmpty()) {
+            return sendAsyncWithConcurrencyLimit(bodyHandler, pph);
+        }
+
+        return rateLimiter.get().acquire(httpRequest.uri())
+                .thenCompose(ignored -> sendAsyncWithConcurrencyLimit(bodyHandler, pph))
+                .whenComplete((response, throwable) -> {
+                    if (response != null) {
+                        rateLimiter.get().onResponse(httpRequest.uri(), response);
+                    }
+                });
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendAsyncWithConcurrencyLimit(HttpResponse.BodyHandler<T> bodyHandler,
+                                                                                 HttpResponse.PushPromiseHandler<T> pph) {
+        var concurrencyLimiter = configuration.getConcurrencyLimiter();
+        if (concurrencyLimiter.isEmpty()) {
+            return sendAsyncWithClient(bodyHandler, pph);
+        }
+
+        var permitFuture = concurrencyLimiter.get().acquire(httpRequest.uri());
+        if (cancellation != null) {
+            cancellation.thenRun(() -> permitFuture.cancel(false));
+        }
+        return permitFuture
+                .thenCompose(permit -> {
+                    if (cancellation != null && cancellation.isDone()) {
+                        permit.abandon();
+                        return CompletableFuture.failedFuture(new CancellationException("Request was cancelled"));
+                    }
+                    try {
+                        return sendAsyncWithClient(bodyHandler, pph).whenComplete(permit::release);
+                    } catch (RuntimeException e) {
+                        permit.release(null, e);
+                        throw e;
+                    }
+                });
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendAsyncWithClient(HttpResponse.BodyHandler<T> bodyHandler,
+                                                                       HttpResponse.PushPromiseHandler<T> pph) {
+        return pph == null ? httpClient.sendAsync(httpRequest, bodyHandler) :
+                httpClient.sendAsync(httpRequest, bodyHandler, pph);
+    }
+
+    /**
+     * Body handler which responses can be shared by identical requests through {@link RequestCoalescer}
+     * and {@link coresearch.cvurl.io.cache.HttpCache}. Cached responses are stored as bytes and converted
+     * to the body type of the handler when served. Handlers without body copier don't buffer the body,
+     * so their responses are only served from the cache, but neither stored nor shared.
+     */
+    private static final class SharedBodyHandler<T> implements HttpResponse.BodyHandler<T> {
+
+        private final HttpResponse.BodyHandler<T> delegate;
+        private final String bodyKind;
+        private final UnaryOperator<T> bodyCopier;
+        private final Function<HttpResponse<byte[]>, HttpResponse<T>> fromBytes;
+
+        private SharedBodyHandler(HttpResponse.BodyHandler<T> delegate, String bodyKind, UnaryOperator<T> bodyCopier,
+                                  Function<HttpResponse<byte[]>, HttpResponse<T>> fromBytes) {
+            this.delegate = delegate;
+            this.bodyKind = bodyKind;
+            this.bodyCopier = bodyCopier;
+            this.fromBytes = fromBytes;
+        }
+
+        private boolean isBuffered() {
+            return bodyCopier != null;
+        }
+
+        @Override
+        public HttpResponse.BodySubscriber<T> apply(HttpResponse.ResponseInfo responseInfo) {
+            return delegate.apply(responseInfo);
+        }
+    }
 }
@@ -0,0 +1,156 @@
+package coresearch.cvurl.io.request;
+
+import java.lang.ref.Cleaner;
+import java.net.http.HttpClient;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+
+/**
+ * Registry of {@link HttpClient}s shared between configurations. Clients are registered under a key,
+ * which is either an explicit client name or the set of client properties, so configurations with
+ * the same key share connections while configurations with different settings get their own client.
+ * Every {@link Lease} holds a reference to the client; when the last lease is released the client is
+ * removed from the registry and the executor created for it is shut down. Leases of owners that became
+ * unreachable only remove the client from the registry, as its requests may still be in flight.
+ */
+public final class HttpClientRegistry {
+
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    private static final Map<Object, Entry> CLIENTS = new HashMap<>();
+
+    /**
+     * Returns client registered under the key, creating it if there is none.
+     *
+     * @param key           key of the client
+     * @param clientFactory creates new client with provided default executor, which is shut down
+     *                      together with the client
+     * @return lease of the client, that should be released when the client is not used anymore
+     */
+    public static Lease acquire(Object key, Function<ExecutorService, HttpClient> clientFactory) {
+        synchronized (CLIENTS) {
+            var entry = CLIENTS.get(key);
+            if (entry == null) {
+                var executor = Executors.newCachedThreadPool(runnable -> {
+                    var thread = new Thread(runnable, "cvurl-http-client-" + THREAD_COUNTER.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                entry = new Entry(clientFactory.apply(executor), executor);
+                CLIENTS.put(key, entry);
+            }
+            entry.references++;
+            return new Lease(key, entry.client);
+        }
+    }
+
+    /**
+     * Returns number of clients currently held by the registry.
+     *
+     * @return number of registered clients
+     */
+    public static int size() {
+        synchronized (CLIENTS) {
+            return CLIENTS.size();
+        }
+    }
+
+    /**
+     * Registers action that releases the lease once the owner becomes unreachable, so clients of forgotten
+     * owners are not held by the registry forever. Requests don't hold their configuration while in flight,
+     * so the executor of such client is not shut down: its threads end once they are idle, and the client
+     * itself is collected when its last exchange completes.
+     *
+     * @param owner object using the lease
+     * @param lease lease to release
+     */
+    public static void releaseWhenUnreachable(Object owner, Lease lease) {
+        CLEANER.register(owner, lease::abandon);
+    }
+
+    private static void release(Object key, boolean shutdown) {
+        ExecutorService executor = null;
+        synchronized (CLIENTS) {
+            var entry = CLIENTS.get(key);
+            if (entry != null && --entry.references == 0) {
+                CLIENTS.remove(key);
+                executor = entry.executor;
+            }
+        }
+        if (executor != null && shutdown) {
+            executor.shutdown();
+        }
+    }
+
+    private HttpClientRegistry() {
+        throw new IllegalStateException(format("Creating of class %s is forbidden", HttpClientRegistry.class.getName()));
+    }
+
+    /**
+     * Reference to a client held by the registry.
+     */
+    public static final class Lease {
+
+        private final Object key;
+        private final HttpClient client;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Lease(Object key, HttpClient client) {
+            this.key = key;
+            this.client = client;
+        }
+
+        public HttpClient getClient() {
+            return client;
+        }
+
+        /**
+         * Acquires one more reference to the same client.
+         *
+         * @return new lease
+         */
+        public Lease share() {
+            synchronized (CLIENTS) {
+                var entry = CLIENTS.get(key);
+                if (released.get() || entry == null) {
+                    throw new IllegalStateException("Client " + key + " was already released");
+                }
+                entry.references++;
+                return new Lease(key, client);
+            }
+        }
+
+        /**
+         * Releases this reference, calling it more than once has no effect.
+         */
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                HttpClientRegistry.release(key, true);
+            }
+        }
+
+        private void abandon() {
+            if (released.compareAndSet(false, true)) {
+                HttpClientRegistry.release(key, false);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final HttpClient client;
+        private final ExecutorService executor;
+        private int references;
+
+        private Entry(HttpClient client, ExecutorService executor) {
+            this.client = client;
+            this.executor = executor;
+        }
+    }
+}
@@ -2,6 +2,11 @@ package coresearch.cvurl.io.request;
 
 import java.net.http.HttpClient;
 
+/**
+ * @deprecated {@link coresearch.cvurl.io.constant.HttpClientMode#SINGLETONE} configurations share clients
+ * through {@link HttpClientRegistry} now, this class is not used anymore.
+ */
+@Deprecated(since = "1.3", forRemoval = true)
 public class HttpClientSingleton {
 
     private static volatile HttpClient httpClient;
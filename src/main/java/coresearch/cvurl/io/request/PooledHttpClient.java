@@ -0,0 +1,187 @@
+package coresearch.cvurl.io.request;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * {@link HttpClient} that spreads requests across several identically configured clients,
+ * so traffic to a single host is not limited by one connection and one selector thread.
+ * Every request is sent with the client that has the least requests in flight, ties are
+ * resolved in round-robin order. Request is in flight until its response future completes.
+ */
+public final class PooledHttpClient extends HttpClient {
+
+    private final List<Slot> slots;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private PooledHttpClient(List<HttpClient> clients) {
+        this.slots = clients.stream().map(Slot::new).collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * Creates pool of clients.
+     *
+     * @param size          number of clients
+     * @param clientFactory factory that creates new client on every call
+     * @return new pooled client
+     */
+    public static PooledHttpClient of(int size, Supplier<HttpClient> clientFactory) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Pool size should be positive, got " + size);
+        }
+        return new PooledHttpClient(IntStream.range(0, size)
+                .mapToObj(i -> clientFactory.get())
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Returns number of clients in this pool.
+     *
+     * @return pool size
+     */
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * Returns total number of requests in flight over all clients of this pool.
+     *
+     * @return number of requests in flight
+     */
+    public int inFlight() {
+        return slots.stream().mapToInt(slot -> slot.inFlight.get()).sum();
+    }
+
+    @Override
+    public Optional<CookieHandler> cookieHandler() {
+        return first().cookieHandler();
+    }
+
+    @Override
+    public Optional<Duration> connectTimeout() {
+        return first().connectTimeout();
+    }
+
+    @Override
+    public Redirect followRedirects() {
+        return first().followRedirects();
+    }
+
+    @Override
+    public Optional<ProxySelector> proxy() {
+        return first().proxy();
+    }
+
+    @Override
+    public SSLContext sslContext() {
+        return first().sslContext();
+    }
+
+    @Override
+    public SSLParameters sslParameters() {
+        return first().sslParameters();
+    }
+
+    @Override
+    public Optional<Authenticator> authenticator() {
+        return first().authenticator();
+    }
+
+    @Override
+    public Version version() {
+        return first().version();
+    }
+
+    @Override
+    public Optional<Executor> executor() {
+        return first().executor();
+    }
+
+    @Override
+    public WebSocket.Builder newWebSocketBuilder() {
+        return select().client.newWebSocketBuilder();
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler)
+            throws IOException, InterruptedException {
+        var slot = select();
+        slot.inFlight.incrementAndGet();
+        try {
+            return slot.client.send(request, responseBodyHandler);
+        } finally {
+            slot.inFlight.decrementAndGet();
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                                                            HttpResponse.BodyHandler<T> responseBodyHandler) {
+        var slot = select();
+        slot.inFlight.incrementAndGet();
+        return track(slot, () -> slot.client.sendAsync(request, responseBodyHandler));
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                                                            HttpResponse.BodyHandler<T> responseBodyHandler,
+                                                            HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        var slot = select();
+        slot.inFlight.incrementAndGet();
+        return track(slot, () -> slot.client.sendAsync(request, responseBodyHandler, pushPromiseHandler));
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> track(Slot slot, Supplier<CompletableFuture<HttpResponse<T>>> send) {
+        CompletableFuture<HttpResponse<T>> response;
+        try {
+            response = send.get();
+        } catch (RuntimeException e) {
+            slot.inFlight.decrementAndGet();
+            throw e;
+        }
+        return response.whenComplete((result, throwable) -> slot.inFlight.decrementAndGet());
+    }
+
+    private Slot select() {
+        int size = slots.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        var selected = slots.get(start);
+        for (int i = 1; i < size && selected.inFlight.get() > 0; i++) {
+            var candidate = slots.get((start + i) % size);
+            if (candidate.inFlight.get() < selected.inFlight.get()) {
+                selected = candidate;
+            }
+        }
+        return selected;
+    }
+
+    private HttpClient first() {
+        return slots.get(0).client;
+    }
+
+    private static final class Slot {
+        private final HttpClient client;
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private Slot(HttpClient client) {
+            this.client = client;
+        }
+    }
+}
@@ -7,8 +7,12 @@ import coresearch.cvurl.io.model.Response;
 
 import java.io.InputStream;
 import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.stream.Stream;
 
 /**
  * Interface that describes protocol for sending HTTP requests.
@@ -66,6 +70,31 @@ public interface Request {
      */
     <T> CompletableFuture<T> asyncAsObject(BodyType<T> type);
 
+    /**
+     * Returns publisher that sends current request asynchronously on subscription and publishes
+     * elements of the JSON array from response body one at a time as bytes arrive. Body chunks are
+     * read from the connection according to subscriber demand, so the whole array is never
+     * held in memory.
+     *
+     * @param type type of array elements.
+     * @param <T>  type of array elements
+     * @return {@link Flow.Publisher} of array elements that finishes with {@link coresearch.cvurl.io.exception.MappingException}
+     * if body can't be parsed or with the cause of the request failure.
+     */
+    <T> Flow.Publisher<T> asyncAsPublisher(Class<T> type);
+
+    /**
+     * Returns publisher that sends current request asynchronously on subscription and publishes
+     * records of newline-delimited JSON (NDJSON) response body as soon as each line arrives.
+     * Body chunks are read from the connection according to subscriber demand.
+     *
+     * @param type type of records.
+     * @param <T>  type of records
+     * @return {@link Flow.Publisher} of records that finishes with {@link coresearch.cvurl.io.exception.MappingException}
+     * if some line can't be parsed or with the cause of the request failure.
+     */
+    <T> Flow.Publisher<T> asyncAsNdJsonPublisher(Class<T> type);
+
     /**
      * Sends current request asynchronously.
      *
@@ -94,6 +123,15 @@ public interface Request {
      */
     CompletableFuture<Response<InputStream>> asyncAsStream(HttpResponse.PushPromiseHandler<InputStream> pph);
 
+    /**
+     * Sends current request asynchronously. Returns response with body as {@link Flow.Publisher} of byte buffers.
+     * Body chunks are read from the connection only as the subscriber requests them, and are decompressed
+     * if compressed responses are accepted. The publisher can be subscribed only once.
+     *
+     * @return {@link CompletableFuture} with returned response.
+     */
+    CompletableFuture<Response<Flow.Publisher<List<ByteBuffer>>>> asyncAsPublisher();
+
     /**
      * Sends current request asynchronously. Applies provided bodyHandler to the response body.
      *
@@ -158,6 +196,34 @@ public interface Request {
      */
     <T> T asObject(BodyType<T> type);
 
+    /**
+     * Sends current request blocking if necessary to get the response headers and returns
+     * elements of the JSON array from response body as lazily parsed {@link Stream}. Elements are
+     * parsed while the stream is consumed, so the whole array is never held in memory.
+     * Returned stream should be closed to release the connection.
+     *
+     * @param type type of array elements.
+     * @param <T>  type of array elements
+     * @return stream of array elements, that throws {@link coresearch.cvurl.io.exception.MappingException}
+     * if body can't be parsed
+     * @throws RequestExecutionException if error happens during request sending
+     */
+    <T> Stream<T> asObjectStream(Class<T> type);
+
+    /**
+     * Sends current request blocking if necessary to get the response headers and returns
+     * records of newline-delimited JSON (NDJSON) response body as lazily parsed {@link Stream}.
+     * Each line is parsed while the stream is consumed. Returned stream should be closed to release
+     * the connection.
+     *
+     * @param type type of records.
+     * @param <T>  type of records
+     * @return stream of records, that throws {@link coresearch.cvurl.io.exception.MappingException}
+     * if some line can't be parsed
+     * @throws RequestExecutionException if error happens during request sending
+     */
+    <T> Stream<T> asNdJsonStream(Class<T> type);
+
     /**
      * Sends current request blocking if necessary to get
      * the response.
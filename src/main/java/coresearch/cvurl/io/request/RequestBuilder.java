@@ -8,19 +8,26 @@ import coresearch.cvurl.io.mapper.BodyType;
 import coresearch.cvurl.io.model.Configuration;
 import coresearch.cvurl.io.internal.configuration.RequestConfiguration;
 import coresearch.cvurl.io.model.Response;
+import coresearch.cvurl.io.request.publisher.GzipBodyPublisher;
+import coresearch.cvurl.io.resilience.HedgingPolicy;
+import coresearch.cvurl.io.resilience.RetryPolicy;
 
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
 import java.util.stream.Collector;
+import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.joining;
 
@@ -137,6 +144,27 @@ public class RequestBuilder<T extends RequestBuilder<T>> implements Request, Req
         return (T) this;
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public T compressBody(long threshold) {
+        this.requestConfigurationBuilder.compressBody(threshold);
+        return (T) this;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T retryPolicy(RetryPolicy retryPolicy) {
+        this.requestConfigurationBuilder.retryPolicy(retryPolicy);
+        return (T) this;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T hedgingPolicy(HedgingPolicy hedgingPolicy) {
+        this.requestConfigurationBuilder.hedgingPolicy(hedgingPolicy);
+        return (T) this;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public T logEnabled(boolean logEnabled) {
@@ -155,21 +183,40 @@ public class RequestBuilder<T extends RequestBuilder<T>> implements Request, Req
     }
 
     private HttpRequest.Builder setUpHttpRequestBuilder(RequestConfiguration requestConfiguration) {
+        boolean compressBody = shouldCompressBody(requestConfiguration);
         var builder = HttpRequest.newBuilder()
                 .uri(prepareURI())
-                .method(method.name(), bodyPublisher);
+                .method(method.name(), compressBody ? new GzipBodyPublisher(bodyPublisher) : bodyPublisher);
 
         if (requestConfiguration.isAcceptCompressed()) {
-            this.header(HttpHeader.ACCEPT_ENCODING, HttpContentEncoding.GZIP);
+            this.header(HttpHeader.ACCEPT_ENCODING, HttpContentEncoding.ACCEPTED);
         }
 
         requestConfiguration.getRequestTimeout().ifPresent(builder::timeout);
 
         headers.forEach(builder::header);
 
+        if (compressBody) {
+            builder.header(HttpHeader.CONTENT_ENCODING, HttpContentEncoding.GZIP);
+        }
+
         return builder;
     }
 
+    private boolean shouldCompressBody(RequestConfiguration requestConfiguration) {
+        var compressBodyThreshold = requestConfiguration.getCompressBodyThreshold();
+        if (compressBodyThreshold.isEmpty() || hasHeader(HttpHeader.CONTENT_ENCODING)) {
+            return false;
+        }
+
+        long contentLength = bodyPublisher.contentLength();
+        return contentLength < 0 || (contentLength > 0 && contentLength >= compressBodyThreshold.get());
+    }
+
+    private boolean hasHeader(String name) {
+        return headers.keySet().stream().anyMatch(name::equalsIgnoreCase);
+    }
+
     private URI prepareURI() {
         return queryParams.isEmpty() ? URI.create(uri) :
                 URI.create(uri +
@@ -208,6 +255,16 @@ public class RequestBuilder<T extends RequestBuilder<T>> implements Request, Req
         return create().asyncAsObject(type);
     }
 
+    @Override
+    public <U> Flow.Publisher<U> asyncAsPublisher(Class<U> type) {
+        return create().asyncAsPublisher(type);
+    }
+
+    @Override
+    public <U> Flow.Publisher<U> asyncAsNdJsonPublisher(Class<U> type) {
+        return create().asyncAsNdJsonPublisher(type);
+    }
+
     @Override
     public CompletableFuture<Response<String>> asyncAsString() {
         return create().asyncAsString();
@@ -228,6 +285,11 @@ public class RequestBuilder<T extends RequestBuilder<T>> implements Request, Req
         return create().asyncAsStream(pph);
     }
 
+    @Override
+    public CompletableFuture<Response<Flow.Publisher<List<ByteBuffer>>>> asyncAsPublisher() {
+        return create().asyncAsPublisher();
+    }
+
     @Override
     public <U> CompletableFuture<Response<U>> asyncAs(HttpResponse.BodyHandler<U> bodyHandler) {
         return create().asyncAs(bodyHandler);
@@ -258,6 +320,16 @@ public class RequestBuilder<T extends RequestBuilder<T>> implements Request, Req
         return create().asObject(type);
     }
 
+    @Override
+    public <U> Stream<U> asObjectStream(Class<U> type) {
+        return create().asObjectStream(type);
+    }
+
+    @Override
+    public <U> Stream<U> asNdJsonStream(Class<U> type) {
+        return create().asNdJsonStream(type);
+    }
+
     @Override
     public Optional<Response<String>> asString() {
         return create().asString();
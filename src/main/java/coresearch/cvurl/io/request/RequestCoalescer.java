@@ -0,0 +1,85 @@
+package coresearch.cvurl.io.request;
+
+import coresearch.cvurl.io.internal.response.CopiedHttpResponse;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Coalesces identical concurrent GET requests, so that only one of them is sent and its response
+ * is handed over to all callers ("single flight"). Requests are identical when they have the same uri
+ * and headers and their bodies are read in the same way. Only responses read as bytes or as String
+ * are shared, every caller gets its own copy of a byte array body and maps it independently,
+ * so mapped objects are never shared. Requests are coalesced only while in flight, nothing is cached.
+ * One coalescer is meant to be shared by all requests of a {@link coresearch.cvurl.io.model.Configuration}.
+ */
+public class RequestCoalescer {
+
+    private final Map<List<Object>, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Returns number of distinct requests currently in flight.
+     *
+     * @return number of requests in flight
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * Returns number of requests that were not sent because an identical request was in flight.
+     *
+     * @return number of coalesced requests
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Sends request with the sender unless an identical request is in flight, in which case
+     * a copy of its response is returned.
+     *
+     * @param request    request to send
+     * @param bodyKind   how response body is read, requests with different body kinds are not coalesced
+     * @param bodyCopier creates copy of response body for every caller that joined the request
+     * @param sender     sends the request, may send it synchronously
+     * @param <T>        body type
+     * @return future of the response
+     */
+    @SuppressWarnings("unchecked")
+    <T> CompletableFuture<HttpResponse<T>> coalesce(HttpRequest request, String bodyKind, UnaryOperator<T> bodyCopier,
+                                                    Supplier<CompletableFuture<HttpResponse<T>>> sender) {
+        var key = List.of(bodyKind, request.uri(), request.headers().map());
+        var leader = new CompletableFuture<HttpResponse<T>>();
+
+        var existing = (CompletableFuture<HttpResponse<T>>) inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.thenApply(response -> CopiedHttpResponse.of(response, bodyCopier));
+        }
+
+        CompletableFuture<HttpResponse<T>> response;
+        try {
+            response = sender.get();
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete((result, throwable) -> {
+            inFlight.remove(key, leader);
+            if (throwable != null) {
+                leader.completeExceptionally(throwable);
+            } else {
+                leader.complete(result);
+            }
+        });
+        return leader;
+    }
+}
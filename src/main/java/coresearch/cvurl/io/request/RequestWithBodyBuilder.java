@@ -5,10 +5,16 @@ import coresearch.cvurl.io.constant.HttpMethod;
 import coresearch.cvurl.io.constant.MIMEType;
 import coresearch.cvurl.io.model.Configuration;
 import coresearch.cvurl.io.multipart.MultipartBody;
+import coresearch.cvurl.io.request.publisher.MappingPublisher;
+import coresearch.cvurl.io.request.publisher.OneShotBodyPublisher;
 
 import java.net.URLEncoder;
 import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.Flow;
+import java.util.stream.Stream;
 
 import static java.lang.String.format;
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -20,6 +26,7 @@ import static java.util.stream.Collectors.joining;
 public class RequestWithBodyBuilder extends RequestBuilder<RequestWithBodyBuilder> {
 
     private static final String MULTIPART_HEADER_TEMPLATE = "multipart/%s;boundary=%s";
+    private static final byte[] NDJSON_LINE_SEPARATOR = {'\n'};
 
     RequestWithBodyBuilder(String uri, HttpMethod method, Configuration configuration) {
         super(uri, method, configuration);
@@ -54,11 +61,43 @@ public class RequestWithBodyBuilder extends RequestBuilder<RequestWithBodyBuilde
      * @return this builder
      */
     public RequestWithBodyBuilder body(Object body) {
-        bodyPublisher = HttpRequest.BodyPublishers.ofString(configuration.getGenericMapper().writeValue(body));
+        bodyPublisher = HttpRequest.BodyPublishers.ofByteArray(configuration.getGenericMapper().writeValueAsBytes(body));
         header(HttpHeader.CONTENT_TYPE, MIMEType.APPLICATION_JSON);
         return this;
     }
 
+    /**
+     * Sets request body as newline-delimited JSON (NDJSON). Records are serialized lazily while the body
+     * is sent, so the stream is never buffered in full. Sets Content-type header to application/x-ndjson.
+     * As the stream can be consumed only once, such request is not retried, and sending it again fails
+     * with {@link IllegalStateException}.
+     *
+     * @param records records to be sent, one per line
+     * @return this builder
+     */
+    public RequestWithBodyBuilder body(Stream<?> records) {
+        Stream<byte[]> lines = records.map(this::toNdJsonLine);
+        bodyPublisher = OneShotBodyPublisher.ofByteArrays(lines);
+        header(HttpHeader.CONTENT_TYPE, MIMEType.APPLICATION_NDJSON);
+        return this;
+    }
+
+    /**
+     * Sets request body as newline-delimited JSON (NDJSON). Records are serialized as they are
+     * published and requested from the publisher according to the connection demand.
+     * Sets Content-type header to application/x-ndjson. As the records are published only once,
+     * such request is not retried, and sending it again fails with {@link IllegalStateException}.
+     *
+     * @param records publisher of records to be sent, one per line
+     * @return this builder
+     */
+    public RequestWithBodyBuilder body(Flow.Publisher<?> records) {
+        var lines = new MappingPublisher<Object, ByteBuffer>(records, record -> ByteBuffer.wrap(toNdJsonLine(record)));
+        bodyPublisher = new OneShotBodyPublisher(HttpRequest.BodyPublishers.fromPublisher(lines));
+        header(HttpHeader.CONTENT_TYPE, MIMEType.APPLICATION_NDJSON);
+        return this;
+    }
+
     /**
      * Sets request body as multipart data. Sets content-type header as multipart/{multipartType}
      *
@@ -93,6 +132,13 @@ public class RequestWithBodyBuilder extends RequestBuilder<RequestWithBodyBuilde
         return this;
     }
 
+    private byte[] toNdJsonLine(Object record) {
+        byte[] value = configuration.getGenericMapper().writeValueAsBytes(record);
+        byte[] line = Arrays.copyOf(value, value.length + NDJSON_LINE_SEPARATOR.length);
+        System.arraycopy(NDJSON_LINE_SEPARATOR, 0, line, value.length, NDJSON_LINE_SEPARATOR.length);
+        return line;
+    }
+
     private String encodeToUTF8(Object obj) {
         return URLEncoder.encode(obj.toString(), UTF_8);
     }
@@ -0,0 +1,53 @@
+package coresearch.cvurl.io.request.handler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link ContentDecoder} for stacked content encodings. Output of every decoder is passed
+ * as input to the next one.
+ */
+public class ChainedContentDecoder implements ContentDecoder {
+
+    private final List<ContentDecoder> decoders;
+
+    /**
+     * @param decoders decoders in order of decoding, i.e. reversed order of encodings in Content-Encoding header
+     */
+    public ChainedContentDecoder(List<ContentDecoder> decoders) {
+        this.decoders = decoders;
+    }
+
+    @Override
+    public List<ByteBuffer> decode(ByteBuffer chunk) throws IOException {
+        List<ByteBuffer> decoded = List.of(chunk);
+
+        for (ContentDecoder decoder : decoders) {
+            List<ByteBuffer> next = new ArrayList<>();
+            for (ByteBuffer buffer : decoded) {
+                next.addAll(decoder.decode(buffer));
+            }
+            decoded = next;
+        }
+
+        return decoded;
+    }
+
+    @Override
+    public void finish() throws IOException {
+        try {
+            for (ContentDecoder decoder : decoders) {
+                decoder.finish();
+            }
+        } finally {
+            close();
+        }
+    }
+
+    @Override
+    public void close() {
+        decoders.forEach(ContentDecoder::close);
+    }
+}
@@ -0,0 +1,14 @@
+package coresearch.cvurl.io.request.handler;
+
+import java.net.http.HttpResponse;
+
+/**
+ * Body handler that decompresses body chunk by chunk as it arrives and collects decompressed bytes.
+ */
+public class CompressedByteArrayBodyHandler implements HttpResponse.BodyHandler<byte[]> {
+
+    @Override
+    public HttpResponse.BodySubscriber<byte[]> apply(HttpResponse.ResponseInfo responseInfo) {
+        return DecodingBodySubscriber.of(responseInfo, HttpResponse.BodySubscribers.ofByteArray());
+    }
+}
@@ -1,34 +1,16 @@
 package coresearch.cvurl.io.request.handler;
 
-import coresearch.cvurl.io.constant.HttpContentEncoding;
-import coresearch.cvurl.io.constant.HttpHeader;
-import coresearch.cvurl.io.exception.ResponseBodyHandlingException;
-
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
 import java.io.InputStream;
 import java.net.http.HttpResponse;
-import java.util.Optional;
-import java.util.zip.GZIPInputStream;
 
+/**
+ * Body handler that exposes body as {@link InputStream}, decompressing it chunk by chunk as it arrives.
+ * Caller can start reading before the whole body is received, and only chunks not yet read are held in memory.
+ */
 public class CompressedInputStreamBodyHandler implements HttpResponse.BodyHandler<InputStream> {
 
     @Override
     public HttpResponse.BodySubscriber<InputStream> apply(HttpResponse.ResponseInfo responseInfo) {
-        Optional<String> encoding = responseInfo.headers().firstValue(HttpHeader.CONTENT_ENCODING);
-
-        if (encoding.isPresent() && encoding.get().equals(HttpContentEncoding.GZIP)) {
-            return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArray(), this::getGZIPInputStream);
-        }
-
-        return HttpResponse.BodySubscribers.ofInputStream();
-    }
-
-    private InputStream getGZIPInputStream(byte[] bytes) {
-        try {
-            return new GZIPInputStream(new ByteArrayInputStream(bytes));
-        } catch (IOException e) {
-            throw new ResponseBodyHandlingException(e.getMessage(), e);
-        }
+        return DecodingBodySubscriber.of(responseInfo, HttpResponse.BodySubscribers.ofInputStream());
     }
 }
@@ -0,0 +1,18 @@
+package coresearch.cvurl.io.request.handler;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+/**
+ * Body handler that exposes body as {@link Flow.Publisher} of byte buffers, decompressing them chunk by chunk.
+ * Subscriber demand is passed to the connection, so chunks are only read and decompressed when requested.
+ */
+public class CompressedPublisherBodyHandler implements HttpResponse.BodyHandler<Flow.Publisher<List<ByteBuffer>>> {
+
+    @Override
+    public HttpResponse.BodySubscriber<Flow.Publisher<List<ByteBuffer>>> apply(HttpResponse.ResponseInfo responseInfo) {
+        return DecodingBodySubscriber.of(responseInfo, HttpResponse.BodySubscribers.ofPublisher());
+    }
+}
@@ -0,0 +1,33 @@
+package coresearch.cvurl.io.request.handler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Incremental decoder of content-encoded response body. Decodes body chunk by chunk
+ * as they arrive, so encoded body is never buffered in full.
+ */
+public interface ContentDecoder {
+
+    /**
+     * Decodes next chunk of encoded body.
+     *
+     * @param chunk next chunk of encoded body, all remaining bytes are consumed
+     * @return decoded bytes produced by this chunk, may be empty
+     * @throws IOException if body is malformed
+     */
+    List<ByteBuffer> decode(ByteBuffer chunk) throws IOException;
+
+    /**
+     * Signals end of encoded body and releases decoder resources.
+     *
+     * @throws IOException if body ends unexpectedly
+     */
+    void finish() throws IOException;
+
+    /**
+     * Releases decoder resources without validating the body. Calling it more than once has no effect.
+     */
+    void close();
+}
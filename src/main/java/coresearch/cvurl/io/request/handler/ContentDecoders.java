@@ -0,0 +1,71 @@
+package coresearch.cvurl.io.request.handler;
+
+import coresearch.cvurl.io.constant.HttpContentEncoding;
+import coresearch.cvurl.io.constant.HttpHeader;
+
+import java.net.http.HttpHeaders;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+import static java.lang.String.format;
+
+/**
+ * Factory of {@link ContentDecoder} for Content-Encoding of the response.
+ */
+public class ContentDecoders {
+
+    /**
+     * Creates decoder for encodings listed in Content-Encoding header. Encodings may be stacked,
+     * e.g. {@code gzip, deflate}, and are decoded in reverse order. Identity encoding is skipped.
+     *
+     * @param headers response headers
+     * @return decoder, or empty optional if body is not encoded or any of the encodings is unsupported
+     */
+    public static Optional<ContentDecoder> forEncodings(HttpHeaders headers) {
+        List<ContentDecoder> decoders = new ArrayList<>();
+
+        for (String headerValue : headers.allValues(HttpHeader.CONTENT_ENCODING)) {
+            for (String encoding : headerValue.split(",")) {
+                var normalized = encoding.trim().toLowerCase(Locale.ROOT);
+                if (normalized.isEmpty() || normalized.equals(HttpContentEncoding.IDENTITY)) {
+                    continue;
+                }
+
+                var decoder = forEncoding(normalized);
+                if (decoder.isEmpty()) {
+                    decoders.forEach(ContentDecoder::close);
+                    return Optional.empty();
+                }
+                decoders.add(decoder.get());
+            }
+        }
+
+        if (decoders.isEmpty()) {
+            return Optional.empty();
+        }
+        if (decoders.size() == 1) {
+            return Optional.of(decoders.get(0));
+        }
+
+        Collections.reverse(decoders);
+        return Optional.of(new ChainedContentDecoder(decoders));
+    }
+
+    private static Optional<ContentDecoder> forEncoding(String encoding) {
+        switch (encoding) {
+            case HttpContentEncoding.GZIP:
+                return Optional.of(new GzipContentDecoder());
+            case HttpContentEncoding.DEFLATE:
+                return Optional.of(new DeflateContentDecoder());
+            default:
+                return Optional.empty();
+        }
+    }
+
+    private ContentDecoders() {
+        throw new IllegalStateException(format("Creating of class %s is forbidden", ContentDecoders.class.getName()));
+    }
+}
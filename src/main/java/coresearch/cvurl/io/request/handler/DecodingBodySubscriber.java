@@ -0,0 +1,136 @@
+package coresearch.cvurl.io.request.handler;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * {@link HttpResponse.BodySubscriber} that decodes content-encoded body chunk by chunk with
+ * {@link ContentDecoder} and passes decoded chunks to the downstream body subscriber.
+ * Every received list of chunks is converted to exactly one decoded list, so the downstream
+ * subscriber demand goes straight to the connection. The decoder is closed when the body ends, fails
+ * or is cancelled by the downstream subscriber.
+ *
+ * @param <T> body type of the downstream subscriber
+ */
+public class DecodingBodySubscriber<T> implements HttpResponse.BodySubscriber<T> {
+
+    private final HttpResponse.BodySubscriber<T> downstream;
+    private final ContentDecoder decoder;
+
+    private Flow.Subscription subscription;
+    private boolean done;
+    private boolean decoderClosed;
+
+    public DecodingBodySubscriber(HttpResponse.BodySubscriber<T> downstream, ContentDecoder decoder) {
+        this.downstream = downstream;
+        this.decoder = decoder;
+    }
+
+    /**
+     * Wraps downstream subscriber with decoding one if response body is encoded with supported encodings.
+     *
+     * @param responseInfo response info
+     * @param downstream   subscriber to receive decoded body
+     * @param <T>          body type
+     * @return decoding subscriber, or downstream itself if body is not encoded or encoding is unsupported
+     */
+    public static <T> HttpResponse.BodySubscriber<T> of(HttpResponse.ResponseInfo responseInfo,
+                                                         HttpResponse.BodySubscriber<T> downstream) {
+        return ContentDecoders.forEncodings(responseInfo.headers())
+                .<HttpResponse.BodySubscriber<T>>map(decoder -> new DecodingBodySubscriber<>(downstream, decoder))
+                .orElse(downstream);
+    }
+
+    @Override
+    public CompletionStage<T> getBody() {
+        return downstream.getBody();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        downstream.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                subscription.request(n);
+            }
+
+            @Override
+            public void cancel() {
+                subscription.cancel();
+                closeDecoder();
+            }
+        });
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> chunks) {
+        if (done) {
+            return;
+        }
+
+        List<ByteBuffer> decoded = new ArrayList<>();
+        try {
+            synchronized (this) {
+                if (decoderClosed) {
+                    // cancelled by the downstream subscriber
+                    return;
+                }
+                for (ByteBuffer chunk : chunks) {
+                    decoded.addAll(decoder.decode(chunk));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            done = true;
+            subscription.cancel();
+            closeDecoder();
+            downstream.onError(e);
+            return;
+        }
+
+        downstream.onNext(decoded);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        if (done) {
+            return;
+        }
+        done = true;
+        closeDecoder();
+        downstream.onError(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        if (done) {
+            return;
+        }
+        done = true;
+        try {
+            synchronized (this) {
+                if (decoderClosed) {
+                    return;
+                }
+                decoderClosed = true;
+                decoder.finish();
+            }
+        } catch (IOException | RuntimeException e) {
+            downstream.onError(e);
+            return;
+        }
+        downstream.onComplete();
+    }
+
+    private synchronized void closeDecoder() {
+        if (!decoderClosed) {
+            decoderClosed = true;
+            decoder.close();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package coresearch.cvurl.io.request.handler;
+
+import coresearch.cvurl.io.internal.util.ZlibPool;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * {@link ContentDecoder} for deflate content encoding. HTTP deflate is zlib wrapped data (RFC 1950),
+ * but as some servers send raw deflate data instead, wrapper presence is detected from the first two bytes.
+ */
+public class DeflateContentDecoder extends InflatingContentDecoder {
+
+    private static final int ZLIB_HEADER_SIZE = 2;
+    private static final int DEFLATE_METHOD = 8;
+    private static final int ZLIB_HEADER_CHECK = 31;
+
+    private final byte[] header = new byte[ZLIB_HEADER_SIZE];
+    private int headerLength;
+    private ZlibPool<Inflater> pool;
+    private Inflater inflater;
+
+    @Override
+    public List<ByteBuffer> decode(ByteBuffer chunk) throws IOException {
+        List<ByteBuffer> decoded = new ArrayList<>();
+
+        if (inflater == null) {
+            while (headerLength < ZLIB_HEADER_SIZE && chunk.hasRemaining()) {
+                header[headerLength++] = chunk.get();
+            }
+            if (headerLength < ZLIB_HEADER_SIZE) {
+                return decoded;
+            }
+            pool = isZlibHeader() ? ZlibPool.INFLATERS : ZlibPool.RAW_INFLATERS;
+            inflater = pool.acquire();
+            inflate(inflater, ByteBuffer.wrap(header), decoded);
+        }
+
+        if (!inflater.finished()) {
+            inflate(inflater, chunk, decoded);
+        }
+        // data after the end of compressed stream is ignored, the same way InflaterInputStream does
+        chunk.position(chunk.limit());
+
+        return decoded;
+    }
+
+    @Override
+    public void finish() throws IOException {
+        try {
+            if (inflater == null || !inflater.finished()) {
+                throw new ZipException("Unexpected end of deflate content");
+            }
+        } finally {
+            close();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (inflater != null) {
+            pool.release(inflater);
+            inflater = null;
+        }
+    }
+
+    private boolean isZlibHeader() {
+        int cmf = header[0] & 0xff;
+        int flg = header[1] & 0xff;
+        return (cmf & 0x0f) == DEFLATE_METHOD && (cmf << 8 | flg) % ZLIB_HEADER_CHECK == 0;
+    }
+}
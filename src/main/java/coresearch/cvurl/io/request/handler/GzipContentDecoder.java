@@ -0,0 +1,191 @@
+package coresearch.cvurl.io.request.handler;
+
+import coresearch.cvurl.io.internal.util.ZlibPool;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * {@link ContentDecoder} for gzip content encoding (RFC 1952). Header and trailer are parsed
+ * byte by byte, while compressed data is inflated straight from arrived chunks.
+ * Supports multi-member bodies the same way {@link java.util.zip.GZIPInputStream} does.
+ */
+public class GzipContentDecoder extends InflatingContentDecoder {
+
+    private static final int GZIP_MAGIC_FIRST = 0x1f;
+    private static final int GZIP_MAGIC_SECOND = 0x8b;
+    private static final int DEFLATE_METHOD = 8;
+    private static final int FIXED_HEADER_SIZE = 10;
+    private static final int TRAILER_SIZE = 8;
+
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private enum State {
+        HEADER, EXTRA_LENGTH, EXTRA, NAME, COMMENT, HEADER_CRC, DATA, TRAILER
+    }
+
+    private Inflater inflater = ZlibPool.RAW_INFLATERS.acquire();
+    private final CRC32 crc = new CRC32();
+    private final byte[] trailer = new byte[TRAILER_SIZE];
+
+    private State state = State.HEADER;
+    private int flags;
+    private int position;
+    private int remaining;
+    private boolean memberDecoded;
+
+    @Override
+    public List<ByteBuffer> decode(ByteBuffer chunk) throws IOException {
+        List<ByteBuffer> decoded = new ArrayList<>();
+
+        while (chunk.hasRemaining()) {
+            if (state == State.DATA) {
+                inflateMember(chunk, decoded);
+            } else {
+                readHeaderOrTrailer(chunk.get() & 0xff);
+            }
+        }
+
+        return decoded;
+    }
+
+    @Override
+    public void finish() throws IOException {
+        try {
+            if (state != State.HEADER || position != 0 || !memberDecoded) {
+                throw new ZipException("Unexpected end of gzip content");
+            }
+        } finally {
+            close();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (inflater != null) {
+            ZlibPool.RAW_INFLATERS.release(inflater);
+            inflater = null;
+        }
+    }
+
+    @Override
+    protected void onInflated(byte[] output, int length) {
+        crc.update(output, 0, length);
+    }
+
+    private void inflateMember(ByteBuffer chunk, List<ByteBuffer> decoded) throws IOException {
+        inflate(inflater, chunk, decoded);
+
+        if (inflater.finished()) {
+            state = State.TRAILER;
+            position = 0;
+        }
+    }
+
+    private void readHeaderOrTrailer(int value) throws ZipException {
+        switch (state) {
+            case HEADER:
+                readFixedHeader(value);
+                break;
+            case EXTRA_LENGTH:
+                remaining |= value << (8 * position++);
+                if (position == 2) {
+                    state = remaining == 0 ? nextHeaderState(State.EXTRA) : State.EXTRA;
+                }
+                break;
+            case EXTRA:
+                if (--remaining == 0) {
+                    state = nextHeaderState(State.EXTRA);
+                }
+                break;
+            case NAME:
+                if (value == 0) {
+                    state = nextHeaderState(State.NAME);
+                }
+                break;
+            case COMMENT:
+                if (value == 0) {
+                    state = nextHeaderState(State.COMMENT);
+                }
+                break;
+            case HEADER_CRC:
+                if (++position == 2) {
+                    state = nextHeaderState(State.HEADER_CRC);
+                }
+                break;
+            case TRAILER:
+                trailer[position++] = (byte) value;
+                if (position == TRAILER_SIZE) {
+                    verifyTrailer();
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unexpected gzip decoder state " + state);
+        }
+    }
+
+    private void readFixedHeader(int value) throws ZipException {
+        if ((position == 0 && value != GZIP_MAGIC_FIRST) || (position == 1 && value != GZIP_MAGIC_SECOND)) {
+            throw new ZipException("Not in gzip format");
+        }
+        if (position == 2 && value != DEFLATE_METHOD) {
+            throw new ZipException("Unsupported compression method " + value);
+        }
+        if (position == 3) {
+            flags = value;
+        }
+
+        if (++position == FIXED_HEADER_SIZE) {
+            state = nextHeaderState(State.HEADER);
+        }
+    }
+
+    private State nextHeaderState(State completed) {
+        position = 0;
+        remaining = 0;
+
+        if (completed.compareTo(State.EXTRA) < 0 && (flags & FEXTRA) != 0) {
+            return State.EXTRA_LENGTH;
+        }
+        if (completed.compareTo(State.NAME) < 0 && (flags & FNAME) != 0) {
+            return State.NAME;
+        }
+        if (completed.compareTo(State.COMMENT) < 0 && (flags & FCOMMENT) != 0) {
+            return State.COMMENT;
+        }
+        if (completed.compareTo(State.HEADER_CRC) < 0 && (flags & FHCRC) != 0) {
+            return State.HEADER_CRC;
+        }
+        return State.DATA;
+    }
+
+    private void verifyTrailer() throws ZipException {
+        if (readInt(0) != (int) crc.getValue()) {
+            throw new ZipException("Corrupt gzip trailer");
+        }
+        if (readInt(4) != (int) inflater.getBytesWritten()) {
+            throw new ZipException("Corrupt gzip trailer");
+        }
+
+        memberDecoded = true;
+        inflater.reset();
+        crc.reset();
+        state = State.HEADER;
+        position = 0;
+    }
+
+    private int readInt(int offset) {
+        return (trailer[offset] & 0xff)
+                | (trailer[offset + 1] & 0xff) << 8
+                | (trailer[offset + 2] & 0xff) << 16
+                | (trailer[offset + 3] & 0xff) << 24;
+    }
+}
@@ -0,0 +1,60 @@
+package coresearch.cvurl.io.request.handler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Base {@link ContentDecoder} for deflate based encodings. Inflates arrived chunks straight
+ * into exactly filled output chunks, that are passed downstream without further copying.
+ */
+abstract class InflatingContentDecoder implements ContentDecoder {
+
+    private static final int OUTPUT_CHUNK_SIZE = 8192;
+
+    private byte[] output;
+
+    /**
+     * Inflates bytes of the chunk until either chunk is consumed or compressed data ends.
+     * In the latter case remaining bytes are left in the chunk.
+     *
+     * @param inflater inflater to use
+     * @param chunk    compressed data
+     * @param decoded  list to add inflated bytes to
+     * @throws IOException if data is malformed
+     */
+    protected void inflate(Inflater inflater, ByteBuffer chunk, List<ByteBuffer> decoded) throws IOException {
+        inflater.setInput(chunk);
+        try {
+            while (!inflater.finished()) {
+                if (output == null) {
+                    output = new byte[OUTPUT_CHUNK_SIZE];
+                }
+                int inflated = inflater.inflate(output);
+                if (inflated > 0) {
+                    onInflated(output, inflated);
+                    decoded.add(ByteBuffer.wrap(output, 0, inflated));
+                    output = null;
+                } else if (inflater.needsDictionary()) {
+                    throw new ZipException("Compressed content requires preset dictionary");
+                } else {
+                    break;
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new ZipException(e.getMessage());
+        }
+    }
+
+    /**
+     * Called for every inflated output chunk.
+     *
+     * @param output inflated bytes
+     * @param length number of inflated bytes
+     */
+    protected void onInflated(byte[] output, int length) {
+    }
+}
@@ -0,0 +1,194 @@
+package coresearch.cvurl.io.request.handler;
+
+import coresearch.cvurl.io.exception.MappingException;
+import coresearch.cvurl.io.mapper.IncrementalParser;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+
+/**
+ * {@link HttpResponse.BodySubscriber} that parses body with {@link IncrementalParser} and
+ * publishes parsed elements to the downstream {@link Flow.Subscriber}. Body chunks are requested
+ * from the connection only when downstream has outstanding demand and all previously parsed
+ * elements were delivered, so memory usage doesn't depend on body size. Failures are signalled as soon
+ * as they happen, even without outstanding demand, and elements parsed but not delivered yet are dropped.
+ * Elements are never null, so a parser producing {@code null} fails the subscriber with {@link MappingException}.
+ *
+ * @param <T> type of parsed elements
+ */
+public class ParsingBodySubscriber<T> implements HttpResponse.BodySubscriber<Void>, Flow.Subscription {
+
+    private static final String NULL_ELEMENT_MESSAGE = "Null element at index %d can't be published";
+
+    private final Flow.Subscriber<? super T> downstream;
+    private final IncrementalParser<T> parser;
+    private final Queue<T> parsed = new ConcurrentLinkedQueue<>();
+    private final CompletableFuture<Void> body = new CompletableFuture<>();
+
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicBoolean chunkRequested = new AtomicBoolean();
+
+    private volatile Flow.Subscription upstream;
+    private volatile boolean upstreamDone;
+    private volatile boolean cancelled;
+    private volatile Throwable error;
+    private long index;
+    private boolean terminated;
+
+    public ParsingBodySubscriber(Flow.Subscriber<? super T> downstream, IncrementalParser<T> parser) {
+        this.downstream = downstream;
+        this.parser = parser;
+    }
+
+    @Override
+    public CompletionStage<Void> getBody() {
+        return body;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (upstream != null || cancelled || error != null) {
+            subscription.cancel();
+            return;
+        }
+        upstream = subscription;
+        drain();
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> chunks) {
+        try {
+            for (ByteBuffer chunk : chunks) {
+                enqueue(parser.parse(chunk));
+            }
+        } catch (RuntimeException e) {
+            upstream.cancel();
+            fail(e);
+            return;
+        }
+        chunkRequested.set(false);
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        fail(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        try {
+            enqueue(parser.complete());
+        } catch (RuntimeException e) {
+            fail(e);
+            return;
+        }
+        upstreamDone = true;
+        body.complete(null);
+        drain();
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            // the error is signalled even if the body is already complete, then the body is no longer needed
+            signalError(new IllegalArgumentException("Requested number of elements should be positive, got " + n));
+            cancelUpstream();
+            return;
+        }
+        demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+        drain();
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        cancelUpstream();
+    }
+
+    private void cancelUpstream() {
+        var subscription = upstream;
+        if (subscription != null) {
+            subscription.cancel();
+        }
+    }
+
+    /**
+     * Fails this subscriber, used when the request itself fails before any body is received.
+     *
+     * @param throwable cause of failure
+     */
+    public void fail(Throwable throwable) {
+        if (upstreamDone) {
+            return;
+        }
+        signalError(throwable);
+    }
+
+    private void signalError(Throwable throwable) {
+        error = throwable;
+        upstreamDone = true;
+        body.completeExceptionally(throwable);
+        drain();
+    }
+
+    private void enqueue(List<T> elements) {
+        for (T element : elements) {
+            if (element == null) {
+                throw new MappingException(format(NULL_ELEMENT_MESSAGE, index), null);
+            }
+            parsed.add(element);
+            index++;
+        }
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+
+        do {
+            if (terminated) {
+                continue;
+            }
+            if (cancelled) {
+                parsed.clear();
+                continue;
+            }
+            if (upstreamDone && error != null) {
+                terminated = true;
+                parsed.clear();
+                downstream.onError(error);
+                continue;
+            }
+
+            while (demand.get() > 0 && !parsed.isEmpty() && !cancelled) {
+                downstream.onNext(parsed.poll());
+                demand.decrementAndGet();
+            }
+
+            if (upstreamDone && parsed.isEmpty()) {
+                terminated = true;
+                downstream.onComplete();
+                continue;
+            }
+
+            var subscription = upstream;
+            if (parsed.isEmpty() && demand.get() > 0 && subscription != null && chunkRequested.compareAndSet(false, true)) {
+                subscription.request(1);
+            }
+        } while (wip.decrementAndGet() != 0);
+    }
+}
@@ -0,0 +1,207 @@
+package coresearch.cvurl.io.request.publisher;
+
+import coresearch.cvurl.io.internal.util.ZlibPool;
+
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * {@link HttpRequest.BodyPublisher} that compresses the body of the source publisher with gzip.
+ * Every chunk of the source body is deflated as soon as it is published, and the next chunk is requested
+ * only when all compressed data was delivered, so the body is never buffered in full.
+ * As the compressed size is not known in advance, {@link #contentLength()} is always -1.
+ * The pooled deflater is released when the body ends, fails or is cancelled.
+ */
+public class GzipBodyPublisher implements HttpRequest.BodyPublisher {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final byte[] HEADER = {
+            (byte) 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+    };
+
+    private final HttpRequest.BodyPublisher source;
+
+    public GzipBodyPublisher(HttpRequest.BodyPublisher source) {
+        this.source = source;
+    }
+
+    @Override
+    public long contentLength() {
+        return -1;
+    }
+
+    HttpRequest.BodyPublisher getSource() {
+        return source;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        source.subscribe(new GzipSubscription(subscriber));
+    }
+
+    private static class GzipSubscription implements Flow.Subscriber<ByteBuffer>, Flow.Subscription {
+
+        private final Flow.Subscriber<? super ByteBuffer> downstream;
+        private final Deflater deflater = ZlibPool.RAW_DEFLATERS.acquire();
+        private final CRC32 crc = new CRC32();
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private final Queue<ByteBuffer> compressed = new ConcurrentLinkedQueue<>();
+
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicBoolean chunkRequested = new AtomicBoolean();
+
+        private volatile Flow.Subscription upstream;
+        private volatile boolean upstreamDone;
+        private volatile boolean cancelled;
+        private volatile Throwable error;
+        private boolean terminated;
+        private boolean deflaterReleased;
+        private long size;
+
+        GzipSubscription(Flow.Subscriber<? super ByteBuffer> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (upstream != null) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            compressed.add(ByteBuffer.wrap(HEADER.clone()));
+            downstream.onSubscribe(this);
+            drain();
+        }
+
+        @Override
+        public void onNext(ByteBuffer chunk) {
+            synchronized (this) {
+                if (deflaterReleased) {
+                    // cancelled by the downstream subscriber
+                    return;
+                }
+                size += chunk.remaining();
+                crc.update(chunk.duplicate());
+                deflater.setInput(chunk);
+                while (!deflater.needsInput()) {
+                    deflate();
+                }
+            }
+            chunkRequested.set(false);
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            releaseDeflater();
+            error = throwable;
+            upstreamDone = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (this) {
+                if (deflaterReleased) {
+                    return;
+                }
+                deflater.finish();
+                while (!deflater.finished()) {
+                    deflate();
+                }
+                releaseDeflater();
+            }
+
+            var trailer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            trailer.putInt((int) crc.getValue()).putInt((int) size).flip();
+            compressed.add(trailer);
+
+            upstreamDone = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                error = new IllegalArgumentException("Requested number of elements should be positive, got " + n);
+                upstreamDone = true;
+                drain();
+                return;
+            }
+            demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            var subscription = upstream;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+            releaseDeflater();
+        }
+
+        private synchronized void releaseDeflater() {
+            if (!deflaterReleased) {
+                deflaterReleased = true;
+                ZlibPool.RAW_DEFLATERS.release(deflater);
+            }
+        }
+
+        private void deflate() {
+            int length = deflater.deflate(buffer);
+            if (length > 0) {
+                compressed.add(ByteBuffer.wrap(Arrays.copyOf(buffer, length)));
+            }
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+
+            do {
+                if (terminated) {
+                    return;
+                }
+                if (cancelled) {
+                    compressed.clear();
+                    return;
+                }
+
+                while (demand.get() > 0 && !compressed.isEmpty() && !cancelled) {
+                    downstream.onNext(compressed.poll());
+                    demand.decrementAndGet();
+                }
+
+                if (upstreamDone && (compressed.isEmpty() || error != null)) {
+                    terminated = true;
+                    if (error != null) {
+                        downstream.onError(error);
+                    } else {
+                        downstream.onComplete();
+                    }
+                    return;
+                }
+
+                if (compressed.isEmpty() && demand.get() > 0 && !upstreamDone && chunkRequested.compareAndSet(false, true)) {
+                    upstream.request(1);
+                }
+            } while (wip.decrementAndGet() != 0);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package coresearch.cvurl.io.request.publisher;
+
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+
+/**
+ * {@link Flow.Publisher} that converts every item of the source publisher with provided function.
+ * Subscription of the source is passed to the subscriber as is, so demand is propagated one to one.
+ *
+ * @param <T> type of source items
+ * @param <R> type of published items
+ */
+public class MappingPublisher<T, R> implements Flow.Publisher<R> {
+
+    private final Flow.Publisher<? extends T> source;
+    private final Function<? super T, ? extends R> mapper;
+
+    public MappingPublisher(Flow.Publisher<? extends T> source, Function<? super T, ? extends R> mapper) {
+        this.source = source;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super R> subscriber) {
+        source.subscribe(new MappingSubscriber(subscriber));
+    }
+
+    private class MappingSubscriber implements Flow.Subscriber<T> {
+
+        private final Flow.Subscriber<? super R> downstream;
+        private Flow.Subscription subscription;
+        private boolean done;
+
+        MappingSubscriber(Flow.Subscriber<? super R> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            downstream.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (done) {
+                return;
+            }
+
+            R mapped;
+            try {
+                mapped = mapper.apply(item);
+            } catch (RuntimeException e) {
+                done = true;
+                subscription.cancel();
+                downstream.onError(e);
+                return;
+            }
+            downstream.onNext(mapped);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (!done) {
+                done = true;
+                downstream.onError(throwable);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (!done) {
+                done = true;
+                downstream.onComplete();
+            }
+        }
+    }
+}
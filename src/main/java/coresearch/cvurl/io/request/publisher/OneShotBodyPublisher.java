@@ -0,0 +1,142 @@
+package coresearch.cvurl.io.request.publisher;
+
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * {@link HttpRequest.BodyPublisher} of a body that can be produced only once, like records of a {@link Stream}
+ * or items of a hot publisher. It may be subscribed again as long as nothing was requested from it, e.g. when
+ * the connection failed before the body was sent. Once the body was requested, later subscribers fail with
+ * {@link IllegalStateException} instead of sending a truncated or empty body, and requests with such body
+ * are not retried.
+ */
+public class OneShotBodyPublisher implements HttpRequest.BodyPublisher {
+
+    private final HttpRequest.BodyPublisher source;
+    private final AtomicBoolean consumed = new AtomicBoolean();
+
+    public OneShotBodyPublisher(HttpRequest.BodyPublisher source) {
+        this.source = source;
+    }
+
+    /**
+     * Creates publisher of the byte arrays of the stream. The stream is consumed lazily, when the body is sent.
+     *
+     * @param chunks chunks of the body
+     * @return new publisher
+     */
+    public static OneShotBodyPublisher ofByteArrays(Stream<byte[]> chunks) {
+        var iterator = new LazyIterator(chunks);
+        return new OneShotBodyPublisher(HttpRequest.BodyPublishers.ofByteArrays(() -> iterator));
+    }
+
+    /**
+     * Checks whether the body can be sent more than once.
+     *
+     * @param publisher body publisher
+     * @return false if the body is published by {@link OneShotBodyPublisher}, maybe compressed, true otherwise
+     */
+    public static boolean isReplayable(HttpRequest.BodyPublisher publisher) {
+        if (publisher instanceof GzipBodyPublisher) {
+            return isReplayable(((GzipBodyPublisher) publisher).getSource());
+        }
+        return !(publisher instanceof OneShotBodyPublisher);
+    }
+
+    @Override
+    public long contentLength() {
+        return source.contentLength();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        if (consumed.get()) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("Request body can be sent only once and was already sent"));
+            return;
+        }
+        source.subscribe(new ConsumptionTrackingSubscriber(subscriber));
+    }
+
+    private final class ConsumptionTrackingSubscriber implements Flow.Subscriber<ByteBuffer> {
+
+        private final Flow.Subscriber<? super ByteBuffer> downstream;
+
+        private ConsumptionTrackingSubscriber(Flow.Subscriber<? super ByteBuffer> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            downstream.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    consumed.set(true);
+                    subscription.request(n);
+                }
+
+                @Override
+                public void cancel() {
+                    subscription.cancel();
+                }
+            });
+        }
+
+        @Override
+        public void onNext(ByteBuffer item) {
+            downstream.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            downstream.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            downstream.onComplete();
+        }
+    }
+
+    /**
+     * Iterator of the stream, which is only opened when the first element is requested.
+     */
+    private static final class LazyIterator implements Iterator<byte[]> {
+
+        private final Stream<byte[]> stream;
+        private Iterator<byte[]> delegate;
+
+        private LazyIterator(Stream<byte[]> stream) {
+            this.stream = stream;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate().hasNext();
+        }
+
+        @Override
+        public byte[] next() {
+            return delegate().next();
+        }
+
+        private Iterator<byte[]> delegate() {
+            if (delegate == null) {
+                delegate = stream.iterator();
+            }
+            return delegate;
+        }
+    }
+}
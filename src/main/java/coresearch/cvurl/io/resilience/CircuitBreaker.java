@@ -0,0 +1,434 @@
+package coresearch.cvurl.io.resilience;
+
+import coresearch.cvurl.io.constant.HttpStatus;
+import coresearch.cvurl.io.exception.RequestRejectedException;
+
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Circuit breaker keyed by host or by route, so a host that is down fails requests fast instead of
+ * letting each of them wait out the timeout. Outcomes of the last {@code windowSize} requests per key are
+ * recorded. Once at least {@code minimumCalls} are recorded and either the failure rate or the slow call rate
+ * reaches its threshold, the circuit opens and requests are rejected with {@link RequestRejectedException}
+ * without being sent. After {@code openDuration} the circuit becomes half-open and lets
+ * {@code halfOpenCalls} probe requests through: if their rates stay below the thresholds the circuit closes,
+ * otherwise it opens again. Request is failed when it throws or is answered with one of the failure status codes.
+ */
+public class CircuitBreaker {
+
+    /**
+     * State of the circuit of one key.
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Listener of circuit state transitions.
+     */
+    @FunctionalInterface
+    public interface StateListener {
+
+        /**
+         * Called after the circuit of the key changed its state.
+         *
+         * @param key  circuit key, host by default
+         * @param from previous state
+         * @param to   new state
+         */
+        void onStateTransition(String key, State from, State to);
+    }
+
+    private final Function<URI, String> keyFunction;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final Set<Integer> failureStatusCodes;
+    private final List<StateListener> listeners;
+
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    private CircuitBreaker(Builder builder) {
+        this.keyFunction = builder.keyFunction;
+        this.windowSize = builder.windowSize;
+        this.minimumCalls = builder.minimumCalls;
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.slowCallRateThreshold = builder.slowCallRateThreshold;
+        this.slowCallNanos = builder.slowCallDuration.toNanos();
+        this.openNanos = builder.openDuration.toNanos();
+        this.halfOpenCalls = Math.min(builder.halfOpenCalls, builder.windowSize);
+        this.failureStatusCodes = Set.copyOf(builder.failureStatusCodes);
+        this.listeners = List.copyOf(builder.listeners);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Acquires permit to send request to the uri.
+     *
+     * @param uri request uri
+     * @return permit
+     * @throws RequestRejectedException if the circuit is open or half-open with all probes in flight
+     */
+    public Permit acquire(URI uri) {
+        var key = keyFunction.apply(uri);
+        return circuits.computeIfAbsent(key, Circuit::new).acquire();
+    }
+
+    /**
+     * Returns keys this circuit breaker has seen requests to.
+     *
+     * @return keys
+     */
+    public Set<String> getKeys() {
+        return Set.copyOf(circuits.keySet());
+    }
+
+    /**
+     * Returns state of the circuit. Open circuit is reported as open until a request moves it to half-open.
+     *
+     * @param key circuit key, host as returned by {@link URI#getAuthority()} by default
+     * @return state
+     */
+    public State getState(String key) {
+        var circuit = circuits.get(key);
+        return circuit == null ? State.CLOSED : circuit.state();
+    }
+
+    /**
+     * Returns share of failed requests among the recorded ones.
+     *
+     * @param key circuit key, host as returned by {@link URI#getAuthority()} by default
+     * @return failure rate between 0 and 1
+     */
+    public double getFailureRate(String key) {
+        var circuit = circuits.get(key);
+        return circuit == null ? 0 : circuit.failureRate();
+    }
+
+    /**
+     * Returns share of slow requests among the recorded ones.
+     *
+     * @param key circuit key, host as returned by {@link URI#getAuthority()} by default
+     * @return slow call rate between 0 and 1
+     */
+    public double getSlowCallRate(String key) {
+        var circuit = circuits.get(key);
+        return circuit == null ? 0 : circuit.slowCallRate();
+    }
+
+    /**
+     * Permission to send one request, should be released when response is received or request fails.
+     */
+    public final class Permit {
+
+        private final Circuit circuit;
+        private final long generation;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Circuit circuit, long generation) {
+            this.circuit = circuit;
+            this.generation = generation;
+        }
+
+        /**
+         * Releases this permit and records the outcome of the request. Requests rejected on the client side
+         * with {@link RequestRejectedException}, for example by a rate limiter, and requests cancelled by the caller
+         * before being sent, failed with {@link CancellationException}, are not recorded.
+         * Calling it more than once has no effect.
+         *
+         * @param response  received response or null if request failed
+         * @param throwable failure or null if response was received
+         */
+        public void release(HttpResponse<?> response, Throwable throwable) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            if (throwable instanceof RequestRejectedException || throwable instanceof CancellationException) {
+                circuit.cancel(generation);
+            } else {
+                boolean failed = throwable != null || failureStatusCodes.contains(response.statusCode());
+                boolean slow = System.nanoTime() - startNanos >= slowCallNanos;
+                circuit.record(generation, failed, slow);
+            }
+        }
+    }
+
+    private final class Circuit {
+
+        private static final byte FAILED = 1;
+        private static final byte SLOW = 2;
+
+        private final String key;
+        private final byte[] outcomes = new byte[windowSize];
+        private State state = State.CLOSED;
+        private long generation;
+        private long openedAt;
+        private int recorded;
+        private int position;
+        private int failures;
+        private int slowCalls;
+        private int probesInFlight;
+
+        private Circuit(String key) {
+            this.key = key;
+        }
+
+        private Permit acquire() {
+            State from = null;
+            Permit permit = null;
+            synchronized (this) {
+                if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+                    from = state;
+                    transitionTo(State.HALF_OPEN);
+                }
+                if (state == State.CLOSED) {
+                    permit = new Permit(this, generation);
+                } else if (state == State.HALF_OPEN && probesInFlight + recorded < halfOpenCalls) {
+                    probesInFlight++;
+                    permit = new Permit(this, generation);
+                }
+            }
+
+            if (from != null) {
+                notifyListeners(from, State.HALF_OPEN);
+            }
+            if (permit == null) {
+                throw new RequestRejectedException("Circuit breaker for " + key + " is open, request is not sent");
+            }
+            return permit;
+        }
+
+        private void record(long permitGeneration, boolean failed, boolean slow) {
+            State from;
+            State to;
+            synchronized (this) {
+                if (permitGeneration != generation) {
+                    // outcome of a request sent before the last transition
+                    return;
+                }
+                if (state == State.HALF_OPEN) {
+                    probesInFlight--;
+                }
+
+                if (recorded == windowSize) {
+                    byte evicted = outcomes[position];
+                    failures -= evicted & FAILED;
+                    slowCalls -= (evicted & SLOW) >> 1;
+                } else {
+                    recorded++;
+                }
+                outcomes[position] = (byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0));
+                failures += failed ? 1 : 0;
+                slowCalls += slow ? 1 : 0;
+                position = (position + 1) % windowSize;
+
+                from = state;
+                to = nextState();
+                if (to == from) {
+                    return;
+                }
+                transitionTo(to);
+            }
+            notifyListeners(from, to);
+        }
+
+        private synchronized void cancel(long permitGeneration) {
+            if (permitGeneration == generation && state == State.HALF_OPEN) {
+                probesInFlight--;
+            }
+        }
+
+        private State nextState() {
+            boolean exceeded = failures >= failureRateThreshold * recorded ||
+                    slowCalls >= slowCallRateThreshold * recorded;
+            if (state == State.CLOSED) {
+                return recorded >= minimumCalls && exceeded ? State.OPEN : State.CLOSED;
+            }
+            if (state == State.HALF_OPEN && recorded >= halfOpenCalls) {
+                return exceeded ? State.OPEN : State.CLOSED;
+            }
+            return state;
+        }
+
+        private void transitionTo(State newState) {
+            state = newState;
+            generation++;
+            openedAt = System.nanoTime();
+            probesInFlight = 0;
+            if (newState != State.OPEN) {
+                // rates that opened the circuit stay observable until it is probed
+                recorded = 0;
+                position = 0;
+                failures = 0;
+                slowCalls = 0;
+            }
+        }
+
+        private void notifyListeners(State from, State to) {
+            for (var listener : listeners) {
+                listener.onStateTransition(key, from, to);
+            }
+        }
+
+        private synchronized State state() {
+            return state;
+        }
+
+        private synchronized double failureRate() {
+            return recorded == 0 ? 0 : (double) failures / recorded;
+        }
+
+        private synchronized double slowCallRate() {
+            return recorded == 0 ? 0 : (double) slowCalls / recorded;
+        }
+    }
+
+    /**
+     * Builder for {@link CircuitBreaker}.
+     */
+    public static class Builder {
+        private Function<URI, String> keyFunction = URI::getAuthority;
+        private int windowSize = 100;
+        private int minimumCalls = 20;
+        private double failureRateThreshold = 0.5;
+        private double slowCallRateThreshold = 1.0;
+        private Duration slowCallDuration = Duration.ofSeconds(60);
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int halfOpenCalls = 5;
+        private final List<Integer> failureStatusCodes = new ArrayList<>(List.of(HttpStatus.INTERNAL_SERVER_ERROR,
+                HttpStatus.BAD_GATEWAY, HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.GATEWAY_TIMEOUT));
+        private final List<StateListener> listeners = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Sets function deriving circuit key from request uri, so circuits can be kept per route
+         * instead of per host, for example with {@code uri -> uri.getAuthority() + uri.getPath()}.
+         *
+         * @param keyFunction key function, {@link URI#getAuthority()} by default
+         * @return this builder
+         */
+        public Builder keyedBy(Function<URI, String> keyFunction) {
+            this.keyFunction = keyFunction;
+            return this;
+        }
+
+        /**
+         * Sets number of the most recent requests which outcomes are recorded.
+         *
+         * @param windowSize window size, 100 by default
+         * @return this builder
+         */
+        public Builder windowSize(int windowSize) {
+            this.windowSize = windowSize;
+            return this;
+        }
+
+        /**
+         * Sets number of requests to record before rates are compared to the thresholds.
+         *
+         * @param minimumCalls minimal number of requests, 20 by default
+         * @return this builder
+         */
+        public Builder minimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+            return this;
+        }
+
+        /**
+         * Sets share of failed requests at which the circuit opens.
+         *
+         * @param failureRateThreshold threshold between 0 and 1, 0.5 by default
+         * @return this builder
+         */
+        public Builder failureRateThreshold(double failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+            return this;
+        }
+
+        /**
+         * Sets share of slow requests at which the circuit opens and duration starting from which request is slow.
+         *
+         * @param slowCallRateThreshold threshold between 0 and 1, 1 by default
+         * @param slowCallDuration      duration of slow request, 60 seconds by default
+         * @return this builder
+         */
+        public Builder slowCallRateThreshold(double slowCallRateThreshold, Duration slowCallDuration) {
+            this.slowCallRateThreshold = slowCallRateThreshold;
+            this.slowCallDuration = slowCallDuration;
+            return this;
+        }
+
+        /**
+         * Sets how long the circuit stays open before letting probe requests through.
+         *
+         * @param openDuration open duration, 30 seconds by default
+         * @return this builder
+         */
+        public Builder openDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+            return this;
+        }
+
+        /**
+         * Sets number of probe requests let through while the circuit is half-open.
+         *
+         * @param halfOpenCalls number of probes, 5 by default
+         * @return this builder
+         */
+        public Builder halfOpenCalls(int halfOpenCalls) {
+            this.halfOpenCalls = halfOpenCalls;
+            return this;
+        }
+
+        /**
+         * Sets status codes responses with which are considered failed.
+         *
+         * @param statusCodes status codes, 500, 502, 503 and 504 by default
+         * @return this builder
+         */
+        public Builder failureStatusCodes(Integer... statusCodes) {
+            this.failureStatusCodes.clear();
+            this.failureStatusCodes.addAll(List.of(statusCodes));
+            return this;
+        }
+
+        /**
+         * Adds listener of circuit state transitions.
+         *
+         * @param listener listener
+         * @return this builder
+         */
+        public Builder onStateTransition(StateListener listener) {
+            this.listeners.add(listener);
+            return this;
+        }
+
+        public CircuitBreaker build() {
+            if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize || halfOpenCalls < 1) {
+                throw new IllegalStateException(String.format("Invalid circuit breaker: windowSize %d, " +
+                        "minimumCalls %d, halfOpenCalls %d", windowSize, minimumCalls, halfOpenCalls));
+            }
+            return new CircuitBreaker(this);
+        }
+    }
+}
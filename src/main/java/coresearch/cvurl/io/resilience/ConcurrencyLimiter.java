@@ -0,0 +1,457 @@
+package coresearch.cvurl.io.resilience;
+
+import coresearch.cvurl.io.constant.HttpStatus;
+import coresearch.cvurl.io.exception.RequestRejectedException;
+
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Adaptive limiter of concurrent requests per host, based on additive increase/multiplicative decrease (AIMD).
+ * Every host starts with the initial limit. The limit grows by one when a request completes within
+ * the latency tolerance of the fastest request of the recent latency windows while the limit is being used,
+ * and is multiplied by the backoff ratio when request fails, times out, is answered with 429 or 503,
+ * or is slower than tolerated. The baseline latency is taken from the last two windows only,
+ * so a short period of exceptionally fast responses doesn't make normal latency look like overload forever.
+ * Requests above the limit wait in a bounded queue, requests that don't fit into the queue are rejected
+ * with {@link RequestRejectedException}, waiters whose future is cancelled leave the queue.
+ * Hosts without requests in flight or queued for longer than the host idle timeout are forgotten,
+ * so the number of tracked hosts stays bounded by the hosts in recent use.
+ */
+public class ConcurrencyLimiter {
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueueSize;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final int latencyWindow;
+    private final long hostIdleTimeoutNanos;
+
+    private final Map<String, HostLimit> hostLimits = new ConcurrentHashMap<>();
+    private final AtomicLong lastExpiryNanos = new AtomicLong(System.nanoTime());
+
+    private ConcurrencyLimiter(Builder builder) {
+        this.initialLimit = builder.initialLimit;
+        this.minLimit = builder.minLimit;
+        this.maxLimit = builder.maxLimit;
+        this.maxQueueSize = builder.maxQueueSize;
+        this.backoffRatio = builder.backoffRatio;
+        this.latencyTolerance = builder.latencyTolerance;
+        this.latencyWindow = builder.latencyWindow;
+        this.hostIdleTimeoutNanos = builder.hostIdleTimeout.toNanos();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Acquires permit to send request to the host of the uri. Returned future completes
+     * when request is allowed to be sent, or completes exceptionally with {@link RequestRejectedException}
+     * if the queue of the host is full. Cancelling the returned future while it waits removes it from the queue.
+     *
+     * @param uri request uri
+     * @return future of the permit
+     */
+    public CompletableFuture<Permit> acquire(URI uri) {
+        expireIdleHosts();
+        while (true) {
+            var permit = hostLimit(uri).acquire();
+            if (permit != null) {
+                return permit;
+            }
+            // host limit expired concurrently, acquire from the new one
+        }
+    }
+
+    /**
+     * Acquires permit to send request to the host of the uri, blocking while request is queued.
+     *
+     * @param uri request uri
+     * @return permit
+     * @throws InterruptedException     if interrupted while waiting
+     * @throws RequestRejectedException if the queue of the host is full
+     */
+    public Permit acquireBlocking(URI uri) throws InterruptedException {
+        var permit = acquire(uri);
+        try {
+            return permit.get();
+        } catch (InterruptedException e) {
+            if (!permit.cancel(false) && !permit.isCompletedExceptionally()) {
+                // permit was granted concurrently with the interruption
+                permit.join().abandon();
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    /**
+     * Returns hosts this limiter has seen requests to and not yet forgotten as idle.
+     *
+     * @return hosts
+     */
+    public Set<String> getHosts() {
+        return Set.copyOf(hostLimits.keySet());
+    }
+
+    /**
+     * Returns current limit of concurrent requests to the host.
+     *
+     * @param host host, as returned by {@link URI#getAuthority()}
+     * @return current limit
+     */
+    public int getLimit(String host) {
+        var hostLimit = hostLimits.get(host);
+        return hostLimit == null ? initialLimit : hostLimit.limit();
+    }
+
+    /**
+     * Returns number of requests to the host in flight.
+     *
+     * @param host host, as returned by {@link URI#getAuthority()}
+     * @return number of requests in flight
+     */
+    public int getInFlight(String host) {
+        var hostLimit = hostLimits.get(host);
+        return hostLimit == null ? 0 : hostLimit.inFlight();
+    }
+
+    /**
+     * Returns number of requests to the host waiting for a permit.
+     *
+     * @param host host, as returned by {@link URI#getAuthority()}
+     * @return queue size
+     */
+    public int getQueueSize(String host) {
+        var hostLimit = hostLimits.get(host);
+        return hostLimit == null ? 0 : hostLimit.queueSize();
+    }
+
+    private HostLimit hostLimit(URI uri) {
+        return hostLimits.computeIfAbsent(uri.getAuthority(), HostLimit::new);
+    }
+
+    private void expireIdleHosts() {
+        long now = System.nanoTime();
+        long lastExpiry = lastExpiryNanos.get();
+        if (now - lastExpiry < hostIdleTimeoutNanos || !lastExpiryNanos.compareAndSet(lastExpiry, now)) {
+            return;
+        }
+        for (var hostLimit : hostLimits.values()) {
+            hostLimit.expireIfIdle(now);
+        }
+    }
+
+    /**
+     * Permission to send one request, should be released when response is received or request fails.
+     */
+    public final class Permit {
+
+        private final HostLimit hostLimit;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private long startNanos;
+
+        private Permit(HostLimit hostLimit) {
+            this.hostLimit = hostLimit;
+        }
+
+        /**
+         * Releases this permit and adjusts the limit of the host by the outcome of the request.
+         * Calling it more than once has no effect.
+         *
+         * @param response  received response or null if request failed
+         * @param throwable failure or null if response was received
+         */
+        public void release(HttpResponse<?> response, Throwable throwable) {
+            if (released.compareAndSet(false, true)) {
+                boolean dropped = throwable != null || isOverloaded(response);
+                hostLimit.release(System.nanoTime() - startNanos, dropped);
+            }
+        }
+
+        /**
+         * Releases this permit without sending request, for example when the request was cancelled
+         * before the permit was granted. The limit of the host is not adjusted.
+         * Calling it more than once, or after {@link #release(HttpResponse, Throwable)}, has no effect.
+         */
+        public void abandon() {
+            if (released.compareAndSet(false, true)) {
+                hostLimit.releaseUnused();
+            }
+        }
+
+        private boolean isOverloaded(HttpResponse<?> response) {
+            return response.statusCode() == HttpStatus.TOO_MANY_REQUESTS ||
+                    response.statusCode() == HttpStatus.SERVICE_UNAVAILABLE;
+        }
+    }
+
+    private final class HostLimit {
+
+        private final String host;
+        private final Queue<CompletableFuture<Permit>> queue = new ArrayDeque<>();
+        private double limit = initialLimit;
+        private long windowMinLatency = Long.MAX_VALUE;
+        private long previousWindowMinLatency = Long.MAX_VALUE;
+        private int windowSamples;
+        private int inFlight;
+        private long lastUsedNanos = System.nanoTime();
+        private boolean expired;
+
+        private HostLimit(String host) {
+            this.host = host;
+        }
+
+        /**
+         * Returns future of the permit, or null if this host limit has expired and must not be used.
+         */
+        private CompletableFuture<Permit> acquire() {
+            synchronized (this) {
+                if (expired) {
+                    return null;
+                }
+                lastUsedNanos = System.nanoTime();
+                if (inFlight < (int) limit) {
+                    inFlight++;
+                    return CompletableFuture.completedFuture(newPermit());
+                }
+                if (queue.size() < maxQueueSize) {
+                    var permit = new CompletableFuture<Permit>();
+                    queue.add(permit);
+                    permit.whenComplete((granted, throwable) -> {
+                        if (permit.isCancelled()) {
+                            removeWaiter(permit);
+                        }
+                    });
+                    return permit;
+                }
+            }
+            return CompletableFuture.failedFuture(new RequestRejectedException(
+                    "Too many concurrent requests to " + host + ", limit " + limit() + " reached and queue is full"));
+        }
+
+        private void release(long latency, boolean dropped) {
+            synchronized (this) {
+                int usedLimit = inFlight;
+                inFlight--;
+                lastUsedNanos = System.nanoTime();
+                adjustLimit(latency, dropped, usedLimit);
+            }
+            grantQueued();
+        }
+
+        private void releaseUnused() {
+            synchronized (this) {
+                inFlight--;
+                lastUsedNanos = System.nanoTime();
+            }
+            grantQueued();
+        }
+
+        private synchronized void removeWaiter(CompletableFuture<Permit> permit) {
+            queue.remove(permit);
+        }
+
+        private synchronized void expireIfIdle(long now) {
+            if (inFlight == 0 && queue.isEmpty() && now - lastUsedNanos >= hostIdleTimeoutNanos) {
+                expired = hostLimits.remove(host, this);
+            }
+        }
+
+        private void grantQueued() {
+            while (true) {
+                CompletableFuture<Permit> waiting;
+                synchronized (this) {
+                    if (inFlight >= (int) limit || queue.isEmpty()) {
+                        return;
+                    }
+                    inFlight++;
+                    waiting = queue.poll();
+                }
+                if (!waiting.complete(newPermit())) {
+                    // waiter was cancelled, give the permit to the next one
+                    synchronized (this) {
+                        inFlight--;
+                    }
+                }
+            }
+        }
+
+        private void adjustLimit(long latency, boolean dropped, int usedLimit) {
+            if (!dropped) {
+                recordLatency(latency);
+            }
+            long minLatency = Math.min(windowMinLatency, previousWindowMinLatency);
+            if (dropped || latency > minLatency * latencyTolerance) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (usedLimit * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+
+        private void recordLatency(long latency) {
+            windowMinLatency = Math.min(windowMinLatency, latency);
+            if (++windowSamples == latencyWindow) {
+                previousWindowMinLatency = windowMinLatency;
+                windowMinLatency = Long.MAX_VALUE;
+                windowSamples = 0;
+            }
+        }
+
+        private Permit newPermit() {
+            var permit = new Permit(this);
+            permit.startNanos = System.nanoTime();
+            return permit;
+        }
+
+        private synchronized int limit() {
+            return (int) limit;
+        }
+
+        private synchronized int inFlight() {
+            return inFlight;
+        }
+
+        private synchronized int queueSize() {
+            return queue.size();
+        }
+    }
+
+    /**
+     * Builder for {@link ConcurrencyLimiter}.
+     */
+    public static class Builder {
+        private int initialLimit = 20;
+        private int minLimit = 1;
+        private int maxLimit = 1000;
+        private int maxQueueSize = 100;
+        private double backoffRatio = 0.9;
+        private double latencyTolerance = 2.0;
+        private int latencyWindow = 100;
+        private Duration hostIdleTimeout = Duration.ofMinutes(5);
+
+        private Builder() {
+        }
+
+        /**
+         * Sets limit every host starts with.
+         *
+         * @param initialLimit initial limit, 20 by default
+         * @return this builder
+         */
+        public Builder initialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        /**
+         * Sets lowest limit, the limit is never decreased below it.
+         *
+         * @param minLimit minimal limit, 1 by default
+         * @return this builder
+         */
+        public Builder minLimit(int minLimit) {
+            this.minLimit = minLimit;
+            return this;
+        }
+
+        /**
+         * Sets highest limit, the limit is never increased above it.
+         *
+         * @param maxLimit maximal limit, 1000 by default
+         * @return this builder
+         */
+        public Builder maxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        /**
+         * Sets number of requests per host allowed to wait for a permit.
+         *
+         * @param maxQueueSize maximal queue size, 100 by default
+         * @return this builder
+         */
+        public Builder maxQueueSize(int maxQueueSize) {
+            this.maxQueueSize = maxQueueSize;
+            return this;
+        }
+
+        /**
+         * Sets ratio the limit is multiplied by on overload.
+         *
+         * @param backoffRatio ratio between 0 and 1, 0.9 by default
+         * @return this builder
+         */
+        public Builder backoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+            return this;
+        }
+
+        /**
+         * Sets how many times request may be slower than the fastest observed one
+         * before it's considered a sign of overload.
+         *
+         * @param latencyTolerance tolerance, 2 by default
+         * @return this builder
+         */
+        public Builder latencyTolerance(double latencyTolerance) {
+            this.latencyTolerance = latencyTolerance;
+            return this;
+        }
+
+        /**
+         * Sets number of successful requests per latency window. The fastest request of the current
+         * and the previous window is the baseline for the latency tolerance.
+         *
+         * @param latencyWindow number of requests, 100 by default
+         * @return this builder
+         */
+        public Builder latencyWindow(int latencyWindow) {
+            this.latencyWindow = latencyWindow;
+            return this;
+        }
+
+        /**
+         * Sets how long a host without requests in flight or queued is remembered. Forgotten host
+         * starts again with the initial limit.
+         *
+         * @param hostIdleTimeout idle timeout, 5 minutes by default
+         * @return this builder
+         */
+        public Builder hostIdleTimeout(Duration hostIdleTimeout) {
+            this.hostIdleTimeout = hostIdleTimeout;
+            return this;
+        }
+
+        public ConcurrencyLimiter build() {
+            if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+                throw new IllegalStateException(String.format(
+                        "Limits should satisfy 1 <= minLimit <= initialLimit <= maxLimit, got %d, %d, %d",
+                        minLimit, initialLimit, maxLimit));
+            }
+            if (maxQueueSize < 0 || backoffRatio <= 0 || backoffRatio >= 1 || latencyTolerance < 1 || latencyWindow < 1) {
+                throw new IllegalStateException("maxQueueSize should be non-negative, backoffRatio between 0 and 1 " +
+                        "and latencyTolerance and latencyWindow at least 1");
+            }
+            if (hostIdleTimeout == null || hostIdleTimeout.isNegative()) {
+                throw new IllegalStateException("hostIdleTimeout should be non-negative, got " + hostIdleTimeout);
+            }
+            return new ConcurrencyLimiter(this);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package coresearch.cvurl.io.resilience;
+
+import coresearch.cvurl.io.constant.HttpMethod;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static java.lang.String.format;
+
+/**
+ * Defines when a second, identical GET request is sent to cut tail latency. If no response arrives within
+ * the hedging delay, a hedge is sent and the first response wins, while the response of the other request
+ * is discarded. Delay is either fixed or derived from a percentile of recently observed latencies,
+ * in which case the fixed delay is used until enough latencies are observed.
+ * Hedges are drawn from a {@link RetryBudget}, so their fraction of all requests stays bounded.
+ */
+public class HedgingPolicy {
+
+    private static final int MIN_SAMPLES = 20;
+    private static final int RECALCULATION_INTERVAL = 32;
+
+    private final Duration delay;
+    private final Double percentile;
+    private final RetryBudget budget;
+    private final LatencyWindow latencies;
+
+    private volatile Duration percentileDelay;
+
+    private HedgingPolicy(Builder builder) {
+        this.delay = builder.delay;
+        this.percentile = builder.percentile;
+        this.budget = builder.budget;
+        this.latencies = new LatencyWindow(builder.windowSize);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Checks whether requests with the method are hedged.
+     *
+     * @param method request method
+     * @return whether request can be hedged
+     */
+    public boolean isHedgeable(String method) {
+        return HttpMethod.GET.name().equals(method);
+    }
+
+    /**
+     * Registers new hedgeable request in the budget. Should be called once per request, not per hedge.
+     */
+    public void onRequest() {
+        budget.deposit();
+    }
+
+    /**
+     * Returns how long to wait for the response before sending a hedge.
+     *
+     * @return hedging delay
+     */
+    public Duration getDelay() {
+        var current = percentileDelay;
+        return current != null ? current : delay;
+    }
+
+    /**
+     * Takes one hedge from the budget.
+     *
+     * @return whether hedge is allowed
+     */
+    public boolean tryHedge() {
+        return budget.tryWithdraw();
+    }
+
+    /**
+     * Records latency of a completed request, used to derive the hedging delay.
+     *
+     * @param latency observed latency
+     */
+    public void recordLatency(Duration latency) {
+        if (percentile == null) {
+            return;
+        }
+
+        long count = latencies.record(latency.toNanos());
+        if (count >= MIN_SAMPLES && (percentileDelay == null || count % RECALCULATION_INTERVAL == 0)) {
+            percentileDelay = Duration.ofNanos(latencies.percentile(percentile));
+        }
+    }
+
+    public RetryBudget getBudget() {
+        return budget;
+    }
+
+    /**
+     * Ring buffer of the most recent latencies.
+     */
+    private static class LatencyWindow {
+        private final AtomicLongArray samples;
+        private final AtomicLong count = new AtomicLong();
+
+        LatencyWindow(int size) {
+            this.samples = new AtomicLongArray(size);
+        }
+
+        long record(long nanos) {
+            long index = count.getAndIncrement();
+            samples.set((int) (index % samples.length()), nanos);
+            return index + 1;
+        }
+
+        long percentile(double percentile) {
+            int size = (int) Math.min(count.get(), samples.length());
+            var sorted = new long[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = samples.get(i);
+            }
+            Arrays.sort(sorted);
+            return sorted[Math.max(0, (int) Math.ceil(percentile * size) - 1)];
+        }
+    }
+
+    /**
+     * Builder for {@link HedgingPolicy}.
+     */
+    public static class Builder {
+        private Duration delay = Duration.ofMillis(100);
+        private Double percentile;
+        private int windowSize = 512;
+        private RetryBudget budget = RetryBudget.of(0.1, 10);
+
+        private Builder() {
+        }
+
+        /**
+         * Sets fixed delay before sending a hedge. When delay is derived from latencies,
+         * it is used until enough latencies are observed.
+         *
+         * @param delay hedging delay, 100 milliseconds by default
+         * @return this builder
+         */
+        public Builder delay(Duration delay) {
+            this.delay = delay;
+            return this;
+        }
+
+        /**
+         * Derives hedging delay from a percentile of recently observed latencies.
+         *
+         * @param percentile percentile between 0 and 1, like 0.95
+         * @return this builder
+         */
+        public Builder percentileDelay(double percentile) {
+            this.percentile = percentile;
+            return this;
+        }
+
+        /**
+         * Sets number of most recent latencies the percentile is calculated from.
+         *
+         * @param windowSize number of latencies, 512 by default
+         * @return this builder
+         */
+        public Builder windowSize(int windowSize) {
+            this.windowSize = windowSize;
+            return this;
+        }
+
+        /**
+         * Sets maximal fraction of requests that are hedged.
+         *
+         * @param ratio allowed number of hedges per request, 0.1 by default
+         * @return this builder
+         */
+        public Builder maxHedgeRatio(double ratio) {
+            this.budget = RetryBudget.of(ratio, 10);
+            return this;
+        }
+
+        /**
+         * Sets budget hedges are drawn from, for example to share it between policies.
+         *
+         * @param budget hedging budget
+         * @return this builder
+         */
+        public Builder budget(RetryBudget budget) {
+            this.budget = budget;
+            return this;
+        }
+
+        public HedgingPolicy build() {
+            if (delay.isNegative() || windowSize < 1 || (percentile != null && (percentile <= 0 || percentile > 1))) {
+                throw new IllegalStateException(format("Invalid hedging policy: delay %s, percentile %s, windowSize %d",
+                        delay, percentile, windowSize));
+            }
+            return new HedgingPolicy(this);
+        }
+    }
+}
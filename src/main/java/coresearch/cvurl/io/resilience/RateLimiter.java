@@ -0,0 +1,301 @@
+package coresearch.cvurl.io.resilience;
+
+import coresearch.cvurl.io.constant.HttpStatus;
+import coresearch.cvurl.io.exception.RequestRejectedException;
+import coresearch.cvurl.io.internal.util.RetryAfter;
+
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import static java.lang.String.format;
+
+/**
+ * Client-side rate limiter based on token buckets. Buckets are configured per path pattern, per host,
+ * or by default for every host, and the first of them matching the request uri in this order is used.
+ * Requests not matching any bucket are not limited. When response with status 429 or 503 carries
+ * Retry-After header, the bucket of the request is paused for the requested time.
+ * What happens to the request when bucket is empty is defined by {@link Mode}.
+ */
+public class RateLimiter {
+
+    /**
+     * Defines how requests wait for tokens.
+     */
+    public enum Mode {
+        /**
+         * Calling thread is blocked until token is available, for both synchronous and asynchronous requests,
+         * so code producing asynchronous requests is slowed down as well.
+         */
+        BLOCKING,
+        /**
+         * Synchronous requests block the calling thread, asynchronous requests are scheduled
+         * to be sent when token is available without blocking any thread.
+         */
+        DELAYED,
+        /**
+         * Requests are rejected with {@link RequestRejectedException} when there is no token available.
+         */
+        FAIL_FAST
+    }
+
+    private final Mode mode;
+    private final List<PathRule> pathRules;
+    private final Map<String, Rule> hostRules;
+    private final Rule defaultRule;
+
+    private final Map<Object, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private RateLimiter(Builder builder) {
+        this.mode = builder.mode;
+        this.pathRules = List.copyOf(builder.pathRules);
+        this.hostRules = Map.copyOf(builder.hostRules);
+        this.defaultRule = builder.defaultRule;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Takes a token to send request to the uri. Returned future completes when request may be sent,
+     * or completes exceptionally with {@link RequestRejectedException} in {@link Mode#FAIL_FAST} mode.
+     *
+     * @param uri request uri
+     * @return future completed when request may be sent
+     */
+    public CompletableFuture<Void> acquire(URI uri) {
+        var bucket = bucket(uri);
+        if (bucket == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        long waitNanos = bucket.reserve(mode == Mode.FAIL_FAST);
+        if (waitNanos < 0) {
+            return CompletableFuture.failedFuture(rejected(uri, bucket));
+        }
+        if (waitNanos == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (mode == Mode.DELAYED) {
+            return CompletableFuture.runAsync(() -> {
+            }, CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS));
+        }
+
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+            return CompletableFuture.completedFuture(null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Takes a token to send request to the uri, blocking until it's available.
+     *
+     * @param uri request uri
+     * @throws InterruptedException     if interrupted while waiting
+     * @throws RequestRejectedException if there is no token in {@link Mode#FAIL_FAST} mode
+     */
+    public void acquireBlocking(URI uri) throws InterruptedException {
+        var bucket = bucket(uri);
+        if (bucket == null) {
+            return;
+        }
+
+        long waitNanos = bucket.reserve(mode == Mode.FAIL_FAST);
+        if (waitNanos < 0) {
+            throw rejected(uri, bucket);
+        }
+        TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+
+    /**
+     * Pauses the bucket of the request if server asked to slow down with Retry-After header.
+     *
+     * @param uri      request uri
+     * @param response received response
+     */
+    public void onResponse(URI uri, HttpResponse<?> response) {
+        if (response.statusCode() != HttpStatus.TOO_MANY_REQUESTS && response.statusCode() != HttpStatus.SERVICE_UNAVAILABLE) {
+            return;
+        }
+        var bucket = bucket(uri);
+        if (bucket != null) {
+            RetryAfter.fromHeaders(response.headers()).ifPresent(delay -> bucket.pause(delay.toNanos()));
+        }
+    }
+
+    private TokenBucket bucket(URI uri) {
+        var path = uri.getPath() == null ? "" : uri.getPath();
+        for (PathRule pathRule : pathRules) {
+            if (pathRule.pattern.matcher(path).matches()) {
+                return buckets.computeIfAbsent(pathRule, key -> new TokenBucket(pathRule.rule));
+            }
+        }
+
+        var hostRule = hostRules.get(uri.getHost());
+        if (hostRule != null) {
+            return buckets.computeIfAbsent(hostRule, key -> new TokenBucket(hostRule));
+        }
+
+        if (defaultRule != null) {
+            return buckets.computeIfAbsent(uri.getAuthority(), key -> new TokenBucket(defaultRule));
+        }
+        return null;
+    }
+
+    private RequestRejectedException rejected(URI uri, TokenBucket bucket) {
+        return new RequestRejectedException(format("Rate limit of %s requests per second exceeded for %s",
+                bucket.rule.permitsPerSecond, uri));
+    }
+
+    /**
+     * Lock-free token bucket implemented as generic cell rate algorithm: instead of counting tokens it keeps
+     * theoretical arrival time of the next request, that moves forward by emission interval with every permit.
+     */
+    private static final class TokenBucket {
+
+        private final Rule rule;
+        private final long intervalNanos;
+        private final long burstNanos;
+        private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+        private TokenBucket(Rule rule) {
+            this.rule = rule;
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rule.permitsPerSecond);
+            this.burstNanos = intervalNanos * (rule.burst - 1);
+        }
+
+        /**
+         * Reserves permit.
+         *
+         * @param onlyIfAvailable whether to reserve only if permit is available right away
+         * @return nanos to wait before using the permit, or -1 if permit is not available and wasn't reserved
+         */
+        private long reserve(boolean onlyIfAvailable) {
+            while (true) {
+                long now = System.nanoTime();
+                long current = theoreticalArrival.get();
+                long start = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+                long waitNanos = Math.max(0, start - now - burstNanos);
+                if (onlyIfAvailable && waitNanos > 0) {
+                    return -1;
+                }
+                if (theoreticalArrival.compareAndSet(current, start + intervalNanos)) {
+                    return waitNanos;
+                }
+            }
+        }
+
+        private void pause(long nanos) {
+            long pausedUntil = System.nanoTime() + nanos + burstNanos;
+            theoreticalArrival.accumulateAndGet(pausedUntil,
+                    (current, paused) -> current == Long.MIN_VALUE || current - paused < 0 ? paused : current);
+        }
+    }
+
+    private static final class Rule {
+        private final double permitsPerSecond;
+        private final int burst;
+
+        private Rule(double permitsPerSecond, int burst) {
+            if (permitsPerSecond <= 0 || burst < 1) {
+                throw new IllegalArgumentException(format(
+                        "Rate should be positive and burst at least 1, got %s and %d", permitsPerSecond, burst));
+            }
+            this.permitsPerSecond = permitsPerSecond;
+            this.burst = burst;
+        }
+    }
+
+    private static final class PathRule {
+        private final Pattern pattern;
+        private final Rule rule;
+
+        private PathRule(Pattern pattern, Rule rule) {
+            this.pattern = pattern;
+            this.rule = rule;
+        }
+    }
+
+    /**
+     * Builder for {@link RateLimiter}.
+     */
+    public static class Builder {
+        private Mode mode = Mode.DELAYED;
+        private final List<PathRule> pathRules = new ArrayList<>();
+        private final Map<String, Rule> hostRules = new HashMap<>();
+        private Rule defaultRule;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets how requests wait for tokens.
+         *
+         * @param mode mode, {@link Mode#DELAYED} by default
+         * @return this builder
+         */
+        public Builder mode(Mode mode) {
+            this.mode = mode;
+            return this;
+        }
+
+        /**
+         * Adds bucket shared by all requests which path matches the regular expression.
+         * Path patterns are checked in the order they were added.
+         *
+         * @param pathRegex        regular expression the whole path should match
+         * @param permitsPerSecond sustained rate
+         * @param burst            number of requests allowed at once after idle period
+         * @return this builder
+         */
+        public Builder path(String pathRegex, double permitsPerSecond, int burst) {
+            pathRules.add(new PathRule(Pattern.compile(pathRegex), new Rule(permitsPerSecond, burst)));
+            return this;
+        }
+
+        /**
+         * Adds bucket for requests to the host.
+         *
+         * @param host             host name, as returned by {@link URI#getHost()}
+         * @param permitsPerSecond sustained rate
+         * @param burst            number of requests allowed at once after idle period
+         * @return this builder
+         */
+        public Builder host(String host, double permitsPerSecond, int burst) {
+            hostRules.put(host, new Rule(permitsPerSecond, burst));
+            return this;
+        }
+
+        /**
+         * Sets rate of separate bucket created for every host that doesn't match any other bucket.
+         *
+         * @param permitsPerSecond sustained rate
+         * @param burst            number of requests allowed at once after idle period
+         * @return this builder
+         */
+        public Builder perHost(double permitsPerSecond, int burst) {
+            this.defaultRule = new Rule(permitsPerSecond, burst);
+            return this;
+        }
+
+        public RateLimiter build() {
+            return new RateLimiter(this);
+        }
+    }
+}
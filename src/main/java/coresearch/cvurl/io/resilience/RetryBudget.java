@@ -0,0 +1,87 @@
+package coresearch.cvurl.io.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits retries to a ratio of requests, so retries can't multiply load on a failing upstream.
+ * Also bounds the fraction of requests hedged by {@link HedgingPolicy}.
+ * Every request deposits {@code ratio} of a retry into the budget and every retry withdraws one.
+ * The balance never exceeds {@code reserve} retries, which is also the initial balance, so a short burst
+ * of failures can be retried right away while sustained failures are retried at most at the ratio.
+ * Budget is lock-free and meant to be shared by all requests using the same {@link RetryPolicy}.
+ */
+public class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long deposit;
+    private final long maxBalance;
+    private final AtomicLong balance;
+
+    private RetryBudget(double ratio, int reserve) {
+        if (ratio < 0 || reserve < 0) {
+            throw new IllegalArgumentException("Ratio and reserve shouldn't be negative, got " + ratio + " and " + reserve);
+        }
+        this.deposit = Math.round(ratio * SCALE);
+        this.maxBalance = reserve * SCALE;
+        this.balance = new AtomicLong(maxBalance);
+    }
+
+    /**
+     * Creates budget.
+     *
+     * @param ratio   allowed number of retries per request, like 0.1 for one retry per ten requests
+     * @param reserve number of retries allowed regardless of the ratio when budget was not used recently
+     * @return new budget
+     */
+    public static RetryBudget of(double ratio, int reserve) {
+        return new RetryBudget(ratio, reserve);
+    }
+
+    /**
+     * Creates budget that doesn't limit retries.
+     *
+     * @return new budget
+     */
+    public static RetryBudget unlimited() {
+        return new RetryBudget(0, 0) {
+            @Override
+            public boolean tryWithdraw() {
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Registers new request.
+     */
+    public void deposit() {
+        balance.accumulateAndGet(deposit, (current, added) -> Math.min(maxBalance, current + added));
+    }
+
+    /**
+     * Takes one retry from the budget.
+     *
+     * @return whether retry is allowed
+     */
+    public boolean tryWithdraw() {
+        while (true) {
+            long current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns number of retries currently available.
+     *
+     * @return available retries
+     */
+    public long getAvailableRetries() {
+        return balance.get() / SCALE;
+    }
+}
@@ -0,0 +1,230 @@
+package coresearch.cvurl.io.resilience;
+
+import coresearch.cvurl.io.constant.HttpMethod;
+import coresearch.cvurl.io.constant.HttpStatus;
+import coresearch.cvurl.io.internal.util.RetryAfter;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.lang.String.format;
+
+/**
+ * Defines when and how soon failed requests are retried. Request is retried when it fails with one of
+ * the retryable exceptions or is answered with one of the retryable status codes, it has attempts left,
+ * its method is idempotent (unless retries of all methods are allowed) and {@link RetryBudget} allows it.
+ * Delay before n-th retry is chosen at random between zero and {@code initialBackoff * multiplier^(n-1)},
+ * capped by {@code maxBackoff} ("full jitter"). Retry-After header of the response is honoured, and
+ * request is not retried if server asks to wait longer than {@code maxBackoff}.
+ */
+public class RetryPolicy {
+
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of(HttpMethod.GET.name(), HttpMethod.PUT.name(),
+            HttpMethod.DELETE.name(), HttpMethod.OPTIONS.name(), HttpMethod.TRACE.name(), "HEAD");
+
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final double multiplier;
+    private final Set<Integer> retryableStatusCodes;
+    private final List<Class<? extends Throwable>> retryableExceptions;
+    private final boolean retryNonIdempotent;
+    private final RetryBudget budget;
+
+    private RetryPolicy(Builder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.initialBackoff = builder.initialBackoff;
+        this.maxBackoff = builder.maxBackoff;
+        this.multiplier = builder.multiplier;
+        this.retryableStatusCodes = Set.copyOf(builder.retryableStatusCodes);
+        this.retryableExceptions = List.copyOf(builder.retryableExceptions);
+        this.retryNonIdempotent = builder.retryNonIdempotent;
+        this.budget = builder.budget;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Registers new request in the retry budget. Should be called once per request, not per attempt.
+     */
+    public void onRequest() {
+        budget.deposit();
+    }
+
+    /**
+     * Decides whether request should be retried after the attempt.
+     *
+     * @param method    request method
+     * @param attempt   number of the completed attempt, starting from 1
+     * @param response  received response or null if attempt failed
+     * @param throwable failure or null if response was received
+     * @return delay before the next attempt, empty if request shouldn't be retried
+     */
+    public Optional<Duration> nextDelay(String method, int attempt, HttpResponse<?> response, Throwable throwable) {
+        if (attempt >= maxAttempts || !isRetryable(method) || !isRetryable(response, throwable)) {
+            return Optional.empty();
+        }
+
+        var delay = backoff(attempt);
+        if (response != null) {
+            var retryAfter = RetryAfter.fromHeaders(response.headers());
+            if (retryAfter.isPresent()) {
+                if (retryAfter.get().compareTo(maxBackoff) > 0) {
+                    return Optional.empty();
+                }
+                delay = retryAfter.get().compareTo(delay) > 0 ? retryAfter.get() : delay;
+            }
+        }
+
+        return budget.tryWithdraw() ? Optional.of(delay) : Optional.empty();
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public RetryBudget getBudget() {
+        return budget;
+    }
+
+    private boolean isRetryable(String method) {
+        return retryNonIdempotent || IDEMPOTENT_METHODS.contains(method);
+    }
+
+    private boolean isRetryable(HttpResponse<?> response, Throwable throwable) {
+        if (response != null) {
+            return retryableStatusCodes.contains(response.statusCode());
+        }
+        return throwable != null && retryableExceptions.stream().anyMatch(type -> type.isInstance(throwable));
+    }
+
+    private Duration backoff(int attempt) {
+        double ceiling = Math.min(maxBackoff.toNanos(), initialBackoff.toNanos() * Math.pow(multiplier, attempt - 1));
+        return Duration.ofNanos((long) (ThreadLocalRandom.current().nextDouble() * ceiling));
+    }
+
+    /**
+     * Builder for {@link RetryPolicy}.
+     */
+    public static class Builder {
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(100);
+        private Duration maxBackoff = Duration.ofSeconds(10);
+        private double multiplier = 2;
+        private final Set<Integer> retryableStatusCodes = new HashSet<>(Set.of(HttpStatus.TOO_MANY_REQUESTS,
+                HttpStatus.BAD_GATEWAY, HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.GATEWAY_TIMEOUT));
+        private final Set<Class<? extends Throwable>> retryableExceptions = new HashSet<>(Set.of(IOException.class));
+        private boolean retryNonIdempotent;
+        private RetryBudget budget = RetryBudget.of(0.1, 10);
+
+        private Builder() {
+        }
+
+        /**
+         * Sets maximal number of attempts, including the first one.
+         *
+         * @param maxAttempts number of attempts, 3 by default
+         * @return this builder
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Sets upper bound of the delay before the first retry.
+         *
+         * @param initialBackoff initial backoff, 100 milliseconds by default
+         * @return this builder
+         */
+        public Builder initialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+            return this;
+        }
+
+        /**
+         * Sets upper bound of the delay before any retry.
+         *
+         * @param maxBackoff maximal backoff, 10 seconds by default
+         * @return this builder
+         */
+        public Builder maxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        /**
+         * Sets factor the backoff grows by with every retry.
+         *
+         * @param multiplier multiplier, 2 by default
+         * @return this builder
+         */
+        public Builder multiplier(double multiplier) {
+            this.multiplier = multiplier;
+            return this;
+        }
+
+        /**
+         * Sets status codes responses with which are retried.
+         *
+         * @param statusCodes status codes, 429, 502, 503 and 504 by default
+         * @return this builder
+         */
+        public Builder retryOnStatus(Integer... statusCodes) {
+            this.retryableStatusCodes.clear();
+            this.retryableStatusCodes.addAll(List.of(statusCodes));
+            return this;
+        }
+
+        /**
+         * Sets exceptions, requests failed with which or their subclasses are retried.
+         *
+         * @param exceptions exception types, {@link IOException} by default
+         * @return this builder
+         */
+        @SafeVarargs
+        public final Builder retryOnExceptions(Class<? extends Throwable>... exceptions) {
+            this.retryableExceptions.clear();
+            this.retryableExceptions.addAll(List.of(exceptions));
+            return this;
+        }
+
+        /**
+         * Sets whether requests with non-idempotent methods, like POST and PATCH, are retried as well.
+         *
+         * @param retryNonIdempotent whether to retry non-idempotent requests, false by default
+         * @return this builder
+         */
+        public Builder retryNonIdempotent(boolean retryNonIdempotent) {
+            this.retryNonIdempotent = retryNonIdempotent;
+            return this;
+        }
+
+        /**
+         * Sets budget that limits ratio of retries to requests.
+         *
+         * @param budget budget, one retry per ten requests with reserve of ten retries by default
+         * @return this builder
+         */
+        public Builder budget(RetryBudget budget) {
+            this.budget = budget;
+            return this;
+        }
+
+        public RetryPolicy build() {
+            if (maxAttempts < 1 || multiplier < 1 || initialBackoff.isNegative() || maxBackoff.compareTo(initialBackoff) < 0) {
+                throw new IllegalStateException(format("Invalid retry policy: maxAttempts %d, multiplier %s, " +
+                        "initialBackoff %s, maxBackoff %s", maxAttempts, multiplier, initialBackoff, maxBackoff));
+            }
+            return new RetryPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package coresearch.cvurl.io.util;
+
+import coresearch.cvurl.io.internal.util.ZlibPool;
+import coresearch.cvurl.io.model.PoolMetrics;
+
+import static java.lang.String.format;
+
+/**
+ * Gives access to metrics of the pools of native zlib streams shared by compressed request and response bodies.
+ */
+public class CompressionPools {
+
+    /**
+     * Returns combined metrics of the inflater pools used to decode gzip and deflate response bodies.
+     *
+     * @return inflater pool metrics
+     */
+    public static PoolMetrics inflaterMetrics() {
+        return ZlibPool.INFLATERS.metrics().plus(ZlibPool.RAW_INFLATERS.metrics());
+    }
+
+    /**
+     * Returns metrics of the deflater pool used to compress request bodies.
+     *
+     * @return deflater pool metrics
+     */
+    public static PoolMetrics deflaterMetrics() {
+        return ZlibPool.RAW_DEFLATERS.metrics();
+    }
+
+    private CompressionPools() {
+        throw new IllegalStateException(format("Creating of class %s is forbidden", CompressionPools.class.getName()));
+    }
+}
@@ -0,0 +1,278 @@
+package coresearch.cvurl.io.util;
+
+import coresearch.cvurl.io.exception.ScatterGatherException;
+import coresearch.cvurl.io.internal.util.CancellingSubscriber;
+import coresearch.cvurl.io.model.Response;
+import coresearch.cvurl.io.model.SettledResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+import static java.lang.String.format;
+
+/**
+ * Combinators gathering responses of requests sent concurrently, like the same request sent to several replicas
+ * or a query sent to every shard, with an overall deadline. Once the result is decided, requests still in flight
+ * are cancelled, so their bodies are not mapped and stream bodies are closed when they arrive, and responses that
+ * are not part of the result are discarded, closing their stream bodies and cancelling their publisher bodies
+ * to release the connections.
+ */
+public class ScatterGather {
+
+    /**
+     * Returns the first response with 2xx status.
+     *
+     * @param responses responses of {@link coresearch.cvurl.io.request.Request} async methods
+     * @param deadline  time to wait for a successful response
+     * @param <T>       body type
+     * @return first successful response, failed with {@link ScatterGatherException} if every request failed
+     * or the deadline passed
+     */
+    public static <T> CompletableFuture<Response<T>> firstSuccessful(Collection<? extends CompletableFuture<Response<T>>> responses,
+                                                                    Duration deadline) {
+        return firstSuccessful(responses, Response::isSuccessful, deadline);
+    }
+
+    /**
+     * Returns the first response accepted by the predicate.
+     *
+     * @param responses  responses of {@link coresearch.cvurl.io.request.Request} async methods
+     * @param successful predicate of successful responses
+     * @param deadline   time to wait for a successful response
+     * @param <T>        body type
+     * @return first successful response, failed with {@link ScatterGatherException} if every request failed
+     * or the deadline passed
+     */
+    public static <T> CompletableFuture<Response<T>> firstSuccessful(Collection<? extends CompletableFuture<Response<T>>> responses,
+                                                                    Predicate<? super Response<T>> successful,
+                                                                    Duration deadline) {
+        var gathered = quorum(responses, 1, successful, deadline);
+        var first = gathered.thenApply(quorum -> quorum.get(0));
+        first.whenComplete((response, throwable) -> {
+            if (first.isCancelled()) {
+                gathered.cancel(true);
+            }
+        });
+        return first;
+    }
+
+    /**
+     * Returns the first {@code required} responses with 2xx status.
+     *
+     * @param responses responses of {@link coresearch.cvurl.io.request.Request} async methods
+     * @param required  number of successful responses required
+     * @param deadline  time to wait for the successful responses
+     * @param <T>       body type
+     * @return successful responses in completion order, failed with {@link ScatterGatherException} if too many
+     * requests failed or the deadline passed
+     */
+    public static <T> CompletableFuture<List<Response<T>>> quorum(Collection<? extends CompletableFuture<Response<T>>> responses,
+                                                                  int required, Duration deadline) {
+        return quorum(responses, required, Response::isSuccessful, deadline);
+    }
+
+    /**
+     * Returns the first {@code required} responses accepted by the predicate.
+     *
+     * @param responses  responses of {@link coresearch.cvurl.io.request.Request} async methods
+     * @param required   number of successful responses required
+     * @param successful predicate of successful responses
+     * @param deadline   time to wait for the successful responses
+     * @param <T>        body type
+     * @return successful responses in completion order, failed with {@link ScatterGatherException} if too many
+     * requests failed or the deadline passed
+     */
+    public static <T> CompletableFuture<List<Response<T>>> quorum(Collection<? extends CompletableFuture<Response<T>>> responses,
+                                                                  int required, Predicate<? super Response<T>> successful,
+                                                                  Duration deadline) {
+        var candidates = List.<CompletableFuture<Response<T>>>copyOf(responses);
+        if (required <= 0 || required > candidates.size()) {
+            throw new IllegalArgumentException(format("Required number of responses should be between 1 and %d, got %d",
+                    candidates.size(), required));
+        }
+
+        var decided = new CompletableFuture<List<Response<T>>>();
+        var quorum = new Quorum<>(decided, candidates.size(), required, successful);
+        for (var candidate : candidates) {
+            candidate.whenComplete(quorum::onComplete);
+        }
+        CompletableFuture.delayedExecutor(deadline.toNanos(), TimeUnit.NANOSECONDS)
+                .execute(quorum::onDeadline);
+        return settledBy(decided, (gathered, throwable) -> {
+            cancelPending(candidates);
+            if (throwable != null) {
+                quorum.discardAccepted();
+            }
+        });
+    }
+
+    /**
+     * Waits for all responses, capturing failures of the requests. Requests not completed before the deadline
+     * are cancelled and settled with {@link TimeoutException}.
+     *
+     * @param responses responses of {@link coresearch.cvurl.io.request.Request} async methods
+     * @param deadline  time to wait for the responses
+     * @param <T>       body type
+     * @return outcomes of the requests in the order of the responses, never failed
+     */
+    public static <T> CompletableFuture<List<SettledResponse<T>>> allSettled(Collection<? extends CompletableFuture<Response<T>>> responses,
+                                                                           Duration deadline) {
+        var candidates = List.<CompletableFuture<Response<T>>>copyOf(responses);
+        var decided = new CompletableFuture<List<SettledResponse<T>>>();
+        CompletableFuture.allOf(candidates.toArray(CompletableFuture[]::new))
+                .whenComplete((ignored, throwable) -> decided.complete(settle(candidates, deadline)));
+        CompletableFuture.delayedExecutor(deadline.toNanos(), TimeUnit.NANOSECONDS)
+                .execute(() -> {
+                    if (!decided.isDone()) {
+                        decided.complete(settle(candidates, deadline));
+                    }
+                });
+        return settledBy(decided, (settled, throwable) -> {
+            cancelPending(candidates);
+            for (int i = 0; settled != null && i < settled.size(); i++) {
+                if (settled.get(i).getResponse().isEmpty()) {
+                    candidates.get(i).thenAccept(ScatterGather::discard);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns a future completed after the cleanup of the decided one ran, so callers observe losers already
+     * cancelled, and cancelling it cancels the decided one too.
+     */
+    private static <R> CompletableFuture<R> settledBy(CompletableFuture<R> decided,
+                                                      BiConsumer<? super R, ? super Throwable> cleanup) {
+        var result = decided.whenComplete(cleanup);
+        result.whenComplete((value, throwable) -> {
+            if (result.isCancelled()) {
+                decided.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private static <T> List<SettledResponse<T>> settle(List<CompletableFuture<Response<T>>> candidates, Duration deadline) {
+        var settled = new ArrayList<SettledResponse<T>>(candidates.size());
+        for (var candidate : candidates) {
+            if (!candidate.isDone()) {
+                settled.add(new SettledResponse<>(null, new TimeoutException("Request didn't complete within " + deadline)));
+                continue;
+            }
+            try {
+                settled.add(new SettledResponse<>(candidate.join(), null));
+            } catch (CompletionException | CancellationException e) {
+                settled.add(new SettledResponse<>(null, unwrap(e)));
+            }
+        }
+        return settled;
+    }
+
+    private static void cancelPending(List<? extends CompletableFuture<?>> candidates) {
+        for (var candidate : candidates) {
+            if (!candidate.isDone()) {
+                candidate.cancel(true);
+            }
+        }
+    }
+
+    private static void discard(Response<?> response) {
+        if (response != null && response.getBody() instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) response.getBody()).close();
+            } catch (Exception e) {
+                // the body is not used anyway
+            }
+        } else if (response != null && response.getBody() instanceof Flow.Publisher) {
+            ((Flow.Publisher<?>) response.getBody()).subscribe(CancellingSubscriber.INSTANCE);
+        }
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+    }
+
+    /**
+     * Collects successful responses until enough of them arrive or success becomes impossible.
+     */
+    private static final class Quorum<T> {
+
+        private final CompletableFuture<List<Response<T>>> result;
+        private final int total;
+        private final int required;
+        private final Predicate<? super Response<T>> successful;
+        private final List<Response<T>> accepted = new ArrayList<>();
+        private final List<Throwable> failures = new ArrayList<>();
+        private int rejected;
+
+        private Quorum(CompletableFuture<List<Response<T>>> result, int total, int required,
+                       Predicate<? super Response<T>> successful) {
+            this.result = result;
+            this.total = total;
+            this.required = required;
+            this.successful = successful;
+        }
+
+        private synchronized void onComplete(Response<T> response, Throwable throwable) {
+            if (result.isDone()) {
+                discard(response);
+                return;
+            }
+
+            if (throwable == null) {
+                try {
+                    if (successful.test(response)) {
+                        accepted.add(response);
+                        if (accepted.size() == required) {
+                            result.complete(List.copyOf(accepted));
+                        }
+                        return;
+                    }
+                    rejected++;
+                } catch (RuntimeException e) {
+                    failures.add(e);
+                }
+                discard(response);
+            } else {
+                failures.add(unwrap(throwable));
+            }
+
+            if (failures.size() + rejected > total - required) {
+                result.completeExceptionally(failure(format("%d of %d requests failed and %d responses were rejected",
+                        failures.size(), total, rejected), null));
+            }
+        }
+
+        private synchronized void onDeadline() {
+            if (!result.isDone()) {
+                result.completeExceptionally(failure(format("Got %d of %d required responses before the deadline",
+                        accepted.size(), required), new TimeoutException()));
+            }
+        }
+
+        private synchronized void discardAccepted() {
+            accepted.forEach(ScatterGather::discard);
+            accepted.clear();
+        }
+
+        private ScatterGatherException failure(String message, Throwable cause) {
+            var exception = new ScatterGatherException(message, cause);
+            failures.forEach(exception::addSuppressed);
+            return exception;
+        }
+    }
+
+    private ScatterGather() {
+        throw new IllegalStateException(format("Creating of class %s is forbidden", ScatterGather.class.getName()));
+    }
+}
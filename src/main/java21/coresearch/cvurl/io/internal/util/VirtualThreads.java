@@ -0,0 +1,42 @@
+package coresearch.cvurl.io.internal.util;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.lang.String.format;
+
+/**
+ * Access to virtual threads. This is the Java 21 version packaged into META-INF/versions/21 of the multi-release jar.
+ */
+public final class VirtualThreads {
+
+    public static boolean isSupported() {
+        return true;
+    }
+
+    public static ExecutorService newExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("cvurl-virtual-", 0).factory());
+    }
+
+    /**
+     * Returns shared executor starting a virtual thread per task, used to run blocking calls.
+     *
+     * @return shared executor
+     */
+    public static Executor executor() {
+        return SharedExecutor.INSTANCE;
+    }
+
+    public static boolean isVirtual(Thread thread) {
+        return thread.isVirtual();
+    }
+
+    private static final class SharedExecutor {
+        private static final Executor INSTANCE = newExecutor();
+    }
+
+    private VirtualThreads() {
+        throw new IllegalStateException(format("Creating of class %s is forbidden", VirtualThreads.class.getName()));
+    }
+}
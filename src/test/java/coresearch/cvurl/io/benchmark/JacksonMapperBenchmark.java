@@ -0,0 +1,85 @@
+package coresearch.cvurl.io.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import coresearch.cvurl.io.helper.ObjectGenerator;
+import coresearch.cvurl.io.helper.model.User;
+import coresearch.cvurl.io.mapper.BodyType;
+import coresearch.cvurl.io.mapper.GenericMapper;
+import coresearch.cvurl.io.mapper.MapperFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares deserialization through {@link coresearch.cvurl.io.mapper.impl.JacksonMapper}, which caches
+ * readers per type, with resolving the type on every call as it was done before.
+ * Run with {@code main} method from test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonMapperBenchmark {
+
+    private static final BodyType<List<User>> USERS_TYPE = new BodyType<>() {};
+
+    private ObjectMapper objectMapper;
+    private GenericMapper genericMapper;
+    private byte[] user;
+    private byte[] users;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = new ObjectMapper();
+        genericMapper = MapperFactory.from(objectMapper);
+        user = objectMapper.writeValueAsBytes(ObjectGenerator.generateTestObject());
+        users = objectMapper.writeValueAsBytes(ObjectGenerator.generateListOfTestObjects());
+    }
+
+    @Benchmark
+    public User readClassWithObjectMapper() throws IOException {
+        return objectMapper.readValue(user, User.class);
+    }
+
+    @Benchmark
+    public User readClassWithGenericMapper() {
+        return genericMapper.readValue(user, User.class);
+    }
+
+    @Benchmark
+    public List<User> readBodyTypeResolvingTypeOnEachCall() throws IOException {
+        var bodyType = new BodyType<List<User>>() {};
+        return objectMapper.readValue(users, objectMapper.getTypeFactory().constructType(bodyType.getType()));
+    }
+
+    @Benchmark
+    public List<User> readBodyTypeWithGenericMapper() {
+        return genericMapper.readValue(users, new BodyType<List<User>>() {});
+    }
+
+    @Benchmark
+    public List<User> readBodyTypeConstantWithGenericMapper() {
+        return genericMapper.readValue(users, USERS_TYPE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JacksonMapperBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,202 @@
+package coresearch.cvurl.io.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DiskCacheStoreTest {
+
+    private static final int SEGMENT_BYTES = 4096;
+
+    private Path directory;
+
+    @BeforeEach
+    public void setUp(@TempDir Path directory) {
+        this.directory = directory;
+    }
+
+    @Test
+    public void storedEntryShouldBeReadFromMappedSegmentTest() {
+        //given
+        var store = new DiskCacheStore(directory, 4 * SEGMENT_BYTES, SEGMENT_BYTES);
+        var entry = entry("a", "body of a");
+
+        //when
+        store.put("a", entry);
+        var stored = store.get("a").orElseThrow();
+
+        //then
+        assertEquals("a", stored.getUri());
+        assertEquals(200, stored.getStatusCode());
+        assertEquals(List.of("max-age=60"), stored.getHeaders().get("Cache-Control"));
+        assertEquals(List.of("en"), stored.getVaryHeaders().get("Accept-Language"));
+        assertEquals(1, stored.getRequestTime());
+        assertEquals(2, stored.getResponseTime());
+        assertFalse(stored.getBodyBuffer().hasArray());
+        assertArrayEquals("body of a".getBytes(), stored.getBody());
+        assertFalse(store.get("b").isPresent());
+    }
+
+    @Test
+    public void entriesShouldBeRecoveredAfterRestartTest() {
+        //given
+        var store = new DiskCacheStore(directory, 4 * SEGMENT_BYTES, SEGMENT_BYTES);
+        store.put("a", entry("a", "first"));
+        store.put("a", entry("a", "second"));
+        store.put("b", entry("b", "b"));
+        store.remove("b");
+        store.close();
+
+        //when
+        var recovered = new DiskCacheStore(directory, 4 * SEGMENT_BYTES, SEGMENT_BYTES);
+
+        //then
+        assertArrayEquals("second".getBytes(), recovered.get("a").orElseThrow().getBody());
+        assertFalse(recovered.get("b").isPresent());
+        assertEquals(store.size(), recovered.size());
+    }
+
+    @Test
+    public void tornRecordShouldBeSkippedOnRecoveryTest() throws IOException {
+        //given
+        var store = new DiskCacheStore(directory, 4 * SEGMENT_BYTES, SEGMENT_BYTES);
+        store.put("a", entry("a", "complete"));
+        long completeSize = store.size();
+        store.put("b", entry("b", "torn"));
+        store.close();
+
+        try (var file = new RandomAccessFile(segmentFiles().get(0).toFile(), "rw")) {
+            file.seek(store.size() - 1);
+            file.write('x');
+        }
+
+        //when
+        var recovered = new DiskCacheStore(directory, 4 * SEGMENT_BYTES, SEGMENT_BYTES);
+        recovered.put("c", entry("c", "after crash"));
+
+        //then
+        assertTrue(recovered.get("a").isPresent());
+        assertFalse(recovered.get("b").isPresent());
+        assertArrayEquals("after crash".getBytes(), recovered.get("c").orElseThrow().getBody());
+        assertTrue(recovered.size() > completeSize);
+    }
+
+    @Test
+    public void oldestSegmentShouldBeCompactedOrEvictedToStayWithinSizeTest() throws IOException {
+        //given
+        var store = new DiskCacheStore(directory, 3 * SEGMENT_BYTES, SEGMENT_BYTES);
+        var body = "x".repeat(1000);
+
+        //when
+        store.put("kept", entry("kept", body));
+        for (int i = 0; i < 20; i++) {
+            store.put("replaced", entry("replaced", body + i));
+        }
+
+        //then
+        assertTrue(store.size() <= 3 * SEGMENT_BYTES);
+        assertTrue(store.getSegmentCount() <= 3);
+        assertEquals(store.getSegmentCount(), segmentFiles().size());
+        assertArrayEquals((body + 19).getBytes(), store.get("replaced").orElseThrow().getBody());
+        assertTrue(store.get("kept").isPresent());
+    }
+
+    @Test
+    public void entryLargerThanSegmentShouldNotBeStoredTest() {
+        //given
+        var store = new DiskCacheStore(directory, 4 * SEGMENT_BYTES, SEGMENT_BYTES);
+        store.put("a", entry("a", "small"));
+
+        //when
+        store.put("a", entry("a", "x".repeat(SEGMENT_BYTES)));
+
+        //then
+        assertFalse(store.get("a").isPresent());
+    }
+
+    @Test
+    public void strayFilesShouldBeSkippedOnRecoveryTest() throws IOException {
+        //given
+        var store = new DiskCacheStore(directory, 4 * SEGMENT_BYTES, SEGMENT_BYTES);
+        store.put("a", entry("a", "body of a"));
+        store.close();
+        Files.write(directory.resolve("segment-backup.cache"), new byte[]{1, 2, 3});
+
+        //when
+        var recovered = new DiskCacheStore(directory, 4 * SEGMENT_BYTES, SEGMENT_BYTES);
+
+        //then
+        assertArrayEquals("body of a".getBytes(), recovered.get("a").orElseThrow().getBody());
+        assertEquals(1, recovered.getSegmentCount());
+    }
+
+    @Test
+    public void concurrentWritesShouldAllBeStoredTest() throws InterruptedException {
+        //given
+        var store = new DiskCacheStore(directory, 1024 * SEGMENT_BYTES, SEGMENT_BYTES);
+        var threads = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 100; i++) {
+                    store.put(thread + "-" + i, entry(thread + "-" + i, "x".repeat(500) + i));
+                }
+            }));
+        }
+
+        //when
+        threads.forEach(Thread::start);
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        //then
+        for (int t = 0; t < 4; t++) {
+            for (int i = 0; i < 100; i++) {
+                assertArrayEquals(("x".repeat(500) + i).getBytes(), store.get(t + "-" + i).orElseThrow().getBody());
+            }
+        }
+        assertEquals(0, store.getEvictionCount());
+    }
+
+    @Test
+    public void promotedEntryShouldBeCopiedIntoHeapTest() {
+        //given
+        var memory = new MemoryCacheStore(1024 * 1024);
+        var store = new TieredCacheStore(memory, new DiskCacheStore(directory, 4 * SEGMENT_BYTES, SEGMENT_BYTES));
+        store.put("a", entry("a", "body of a"));
+        memory.remove("a");
+
+        //when
+        var promoted = store.get("a").orElseThrow();
+
+        //then
+        assertArrayEquals("body of a".getBytes(), promoted.getBody());
+        assertFalse(memory.get("a").orElseThrow().getBodyBuffer().isDirect());
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static CacheEntry entry(String uri, String body) {
+        return new CacheEntry(uri, 200, Map.of("Cache-Control", List.of("max-age=60")),
+                Map.of("Accept-Language", List.of("en")), body.getBytes(), 1, 2);
+    }
+}
@@ -0,0 +1,365 @@
+package coresearch.cvurl.io.cache;
+
+import coresearch.cvurl.io.constant.HttpHeader;
+import coresearch.cvurl.io.internal.response.CachedHttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HttpCacheTest {
+
+    private static final URI URI_1 = URI.create("http://localhost:8080/users");
+    private static final byte[] BODY = "users".getBytes();
+
+    private final MutableClock clock = new MutableClock();
+    private final HttpCache cache = HttpCache.builder()
+            .store(new MemoryCacheStore(1024 * 1024))
+            .clock(clock)
+            .refreshExecutor(Runnable::run)
+            .build();
+
+    @Test
+    public void freshResponseShouldBeServedFromCacheTest() {
+        //given
+        var request = get();
+        cache.onResponse(cache.lookup(request), response(request, 200, Map.of(HttpHeader.CACHE_CONTROL, "max-age=60")));
+
+        //when
+        clock.advance(Duration.ofSeconds(30));
+        var freshLookup = cache.lookup(request);
+        clock.advance(Duration.ofSeconds(31));
+        var staleLookup = cache.lookup(request);
+
+        //then
+        assertTrue(freshLookup.isHit());
+        assertArrayEquals(BODY, freshLookup.getResponse().orElseThrow().body());
+        assertFalse(staleLookup.isHit());
+        assertFalse(staleLookup.getResponse().isPresent());
+        assertSame(request, staleLookup.getRequestToSend());
+        assertEquals(1, cache.getStatistics().getHits());
+        assertEquals(2, cache.getStatistics().getMisses());
+    }
+
+    @Test
+    public void staleResponseWithValidatorsShouldBeRevalidatedTest() {
+        //given
+        var request = get();
+        cache.onResponse(cache.lookup(request), response(request, 200,
+                Map.of(HttpHeader.CACHE_CONTROL, "max-age=1", HttpHeader.ETAG, "\"v1\"")));
+        clock.advance(Duration.ofSeconds(2));
+
+        //when
+        var lookup = cache.lookup(request);
+        var conditionalRequest = lookup.getRequestToSend();
+        var response = cache.onResponse(lookup, response(conditionalRequest, 304,
+                Map.of(HttpHeader.CACHE_CONTROL, "max-age=60")));
+
+        //then
+        assertFalse(lookup.isHit());
+        assertEquals("\"v1\"", conditionalRequest.headers().firstValue(HttpHeader.IF_NONE_MATCH).orElseThrow());
+        assertEquals(200, response.statusCode());
+        assertArrayEquals(BODY, response.body());
+        assertTrue(cache.lookup(request).isHit());
+        assertEquals(1, cache.getStatistics().getRevalidations());
+        assertEquals(1, cache.getStatistics().getNotModified());
+    }
+
+    @Test
+    public void revalidatedEntryShouldShareHeapBodyTest() {
+        //given
+        var store = new MemoryCacheStore(1024 * 1024);
+        var revalidatingCache = HttpCache.builder().store(store).clock(clock).build();
+        var request = get();
+        revalidatingCache.onResponse(revalidatingCache.lookup(request), response(request, 200,
+                Map.of(HttpHeader.CACHE_CONTROL, "max-age=1", HttpHeader.ETAG, "\"v1\"")));
+        clock.advance(Duration.ofSeconds(2));
+
+        //when
+        var lookup = revalidatingCache.lookup(request);
+        revalidatingCache.onResponse(lookup, response(lookup.getRequestToSend(), 304,
+                Map.of(HttpHeader.CACHE_CONTROL, "max-age=60")));
+
+        //then
+        var entry = store.get(URI_1.toString()).orElseThrow();
+        assertArrayEquals(BODY, entry.getBody());
+        assertSame(entry.getBody(), entry.getBody());
+    }
+
+    @Test
+    public void noStoreResponseShouldNotBeCachedTest() {
+        //given
+        var request = get();
+
+        //when
+        cache.onResponse(cache.lookup(request), response(request, 200, Map.of(HttpHeader.CACHE_CONTROL, "no-store, max-age=60")));
+
+        //then
+        assertFalse(cache.lookup(request).isHit());
+        assertEquals(0, cache.getStatistics().getSize());
+    }
+
+    @Test
+    public void responseShouldOnlyBeServedForMatchingVaryHeadersTest() {
+        //given
+        var request = get(HttpHeader.ACCEPT_LANGUAGE, "en");
+        cache.onResponse(cache.lookup(request), response(request, 200,
+                Map.of(HttpHeader.CACHE_CONTROL, "max-age=60", HttpHeader.VARY, HttpHeader.ACCEPT_LANGUAGE)));
+
+        //when
+        var matching = cache.lookup(get(HttpHeader.ACCEPT_LANGUAGE, "en"));
+        var mismatching = cache.lookup(get(HttpHeader.ACCEPT_LANGUAGE, "de"));
+
+        //then
+        assertTrue(matching.isHit());
+        assertFalse(mismatching.isHit());
+    }
+
+    @Test
+    public void unsafeRequestShouldInvalidateStoredResponseTest() {
+        //given
+        var request = get();
+        cache.onResponse(cache.lookup(request), response(request, 200, Map.of(HttpHeader.CACHE_CONTROL, "max-age=60")));
+        var post = HttpRequest.newBuilder(URI_1).POST(HttpRequest.BodyPublishers.noBody()).build();
+
+        //when
+        cache.invalidate(post, response(post, 201, Map.of()));
+
+        //then
+        assertFalse(cache.lookup(request).isHit());
+    }
+
+    @Test
+    public void lastModifiedShouldGiveHeuristicFreshnessTest() {
+        //given
+        var request = get();
+        var now = clock.instant();
+        cache.onResponse(cache.lookup(request), response(request, 200, Map.of(
+                HttpHeader.DATE, httpDate(now),
+                HttpHeader.LAST_MODIFIED, httpDate(now.minus(Duration.ofHours(10))))));
+
+        //when
+        clock.advance(Duration.ofMinutes(59));
+        var fresh = cache.lookup(request).isHit();
+        clock.advance(Duration.ofMinutes(2));
+        var stale = cache.lookup(request);
+
+        //then
+        assertTrue(fresh);
+        assertFalse(stale.isHit());
+        assertTrue(stale.getRequestToSend().headers().firstValue(HttpHeader.IF_MODIFIED_SINCE).isPresent());
+    }
+
+    @Test
+    public void staleResponseShouldBeServedWhileRevalidatedOnceInBackgroundTest() {
+        //given
+        var request = get();
+        cache.onResponse(cache.lookup(request), response(request, 200, Map.of(
+                HttpHeader.CACHE_CONTROL, "max-age=1, stale-while-revalidate=60", HttpHeader.ETAG, "\"v1\"")));
+        clock.advance(Duration.ofSeconds(2));
+        var sentRequests = new ArrayList<HttpRequest>();
+        var pendingResponse = new CompletableFuture<HttpResponse<byte[]>>();
+
+        //when
+        var first = cache.lookup(request);
+        cache.revalidateInBackground(first, sent -> {
+            sentRequests.add(sent);
+            return pendingResponse;
+        });
+        var second = cache.lookup(request);
+        cache.revalidateInBackground(second, sent -> {
+            sentRequests.add(sent);
+            return pendingResponse;
+        });
+        pendingResponse.complete(response(sentRequests.get(0), 304, Map.of(HttpHeader.CACHE_CONTROL, "max-age=60")));
+        var afterRevalidation = cache.lookup(request);
+
+        //then
+        assertTrue(first.isHit());
+        assertTrue(first.isStale());
+        assertArrayEquals(BODY, first.getResponse().orElseThrow().body());
+        assertTrue(second.isStale());
+        assertEquals(1, sentRequests.size());
+        assertEquals("\"v1\"", sentRequests.get(0).headers().firstValue(HttpHeader.IF_NONE_MATCH).orElseThrow());
+        assertTrue(afterRevalidation.isHit());
+        assertFalse(afterRevalidation.isStale());
+        assertEquals(2, cache.getStatistics().getStaleHits());
+        assertEquals(1, cache.getStatistics().getNotModified());
+    }
+
+    @Test
+    public void rejectedRevalidationShouldNotBlockNextOneTest() {
+        //given
+        var rejecting = new AtomicBoolean();
+        var rejectingCache = HttpCache.builder()
+                .store(new MemoryCacheStore(1024 * 1024))
+                .clock(clock)
+                .refreshExecutor(task -> {
+                    if (rejecting.get()) {
+                        throw new RejectedExecutionException();
+                    }
+                    task.run();
+                })
+                .build();
+        var request = get();
+        rejectingCache.onResponse(rejectingCache.lookup(request), response(request, 200, Map.of(
+                HttpHeader.CACHE_CONTROL, "max-age=1, stale-while-revalidate=60", HttpHeader.ETAG, "\"v1\"")));
+        clock.advance(Duration.ofSeconds(2));
+        var sentRequests = new ArrayList<HttpRequest>();
+        var pendingResponse = new CompletableFuture<HttpResponse<byte[]>>();
+
+        //when
+        rejectingCache.revalidateInBackground(rejectingCache.lookup(request), sent -> {
+            sentRequests.add(sent);
+            return pendingResponse;
+        });
+        rejecting.set(true);
+        pendingResponse.complete(response(sentRequests.get(0), 304, Map.of(HttpHeader.CACHE_CONTROL, "max-age=60")));
+        rejecting.set(false);
+        rejectingCache.revalidateInBackground(rejectingCache.lookup(request), sent -> {
+            sentRequests.add(sent);
+            return new CompletableFuture<>();
+        });
+
+        //then
+        assertEquals(2, sentRequests.size());
+    }
+
+    @Test
+    public void closedCacheShouldNotRevalidateInBackgroundTest() {
+        //given
+        var closedCache = HttpCache.builder()
+                .store(new MemoryCacheStore(1024 * 1024))
+                .clock(clock)
+                .build();
+        var request = get();
+        closedCache.onResponse(closedCache.lookup(request), response(request, 200, Map.of(
+                HttpHeader.CACHE_CONTROL, "max-age=1, stale-while-revalidate=60", HttpHeader.ETAG, "\"v1\"")));
+        clock.advance(Duration.ofSeconds(2));
+        var sentRequests = new ArrayList<HttpRequest>();
+
+        //when
+        closedCache.close();
+        closedCache.revalidateInBackground(closedCache.lookup(request), sent -> {
+            sentRequests.add(sent);
+            return new CompletableFuture<>();
+        });
+
+        //then
+        assertTrue(sentRequests.isEmpty());
+    }
+
+    @Test
+    public void staleResponseShouldBeServedOnErrorWithinWindowTest() {
+        //given
+        var tolerantCache = HttpCache.builder()
+                .store(new MemoryCacheStore(1024 * 1024))
+                .clock(clock)
+                .staleIfError(Duration.ofMinutes(1))
+                .build();
+        var request = get();
+        tolerantCache.onResponse(tolerantCache.lookup(request), response(request, 200, Map.of(HttpHeader.CACHE_CONTROL, "max-age=1")));
+        clock.advance(Duration.ofSeconds(2));
+
+        //when
+        var lookup = tolerantCache.lookup(request);
+        var onServerError = tolerantCache.onResponse(lookup, response(request, 503, Map.of()));
+        var onFailure = tolerantCache.onError(lookup);
+        clock.advance(Duration.ofMinutes(1));
+        var afterWindow = tolerantCache.onError(tolerantCache.lookup(request));
+
+        //then
+        assertFalse(lookup.isHit());
+        assertEquals(200, onServerError.statusCode());
+        assertArrayEquals(BODY, onServerError.body());
+        assertTrue(onFailure.isPresent());
+        assertFalse(afterWindow.isPresent());
+        assertEquals(2, tolerantCache.getStatistics().getStaleIfErrorHits());
+    }
+
+    @Test
+    public void mustRevalidateResponseShouldNotBeServedStaleTest() {
+        //given
+        var tolerantCache = HttpCache.builder()
+                .store(new MemoryCacheStore(1024 * 1024))
+                .clock(clock)
+                .staleWhileRevalidate(Duration.ofMinutes(1))
+                .staleIfError(Duration.ofMinutes(1))
+                .build();
+        var request = get();
+        tolerantCache.onResponse(tolerantCache.lookup(request), response(request, 200,
+                Map.of(HttpHeader.CACHE_CONTROL, "max-age=1, must-revalidate")));
+        clock.advance(Duration.ofSeconds(2));
+
+        //when
+        var lookup = tolerantCache.lookup(request);
+
+        //then
+        assertFalse(lookup.isHit());
+        assertFalse(tolerantCache.onError(lookup).isPresent());
+    }
+
+    private static HttpRequest get(String... headers) {
+        var builder = HttpRequest.newBuilder(URI_1).GET();
+        for (int i = 0; i < headers.length; i += 2) {
+            builder.header(headers[i], headers[i + 1]);
+        }
+        return builder.build();
+    }
+
+    private HttpResponse<byte[]> response(HttpRequest request, int status, Map<String, String> headers) {
+        var headerValues = new HashMap<String, List<String>>();
+        headers.forEach((name, value) -> headerValues.put(name, List.of(value)));
+        var entry = new CacheEntry(request.uri().toString(), status, headerValues, Map.of(),
+                status == 304 ? new byte[0] : BODY, clock.millis(), clock.millis());
+        return CachedHttpResponse.of(entry, request);
+    }
+
+    private static String httpDate(Instant instant) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(instant.atZone(ZoneOffset.UTC));
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant = Instant.parse("2020-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package coresearch.cvurl.io.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MemoryCacheStoreTest {
+
+    @Test
+    public void leastRecentlyUsedEntryShouldBeEvictedWhenSizeIsExceededTest() {
+        //given
+        var store = new MemoryCacheStore(250);
+        store.put("a", entry("a", 100));
+        store.put("b", entry("b", 100));
+
+        //when
+        store.get("a");
+        store.put("c", entry("c", 100));
+
+        //then
+        assertTrue(store.get("a").isPresent());
+        assertFalse(store.get("b").isPresent());
+        assertTrue(store.get("c").isPresent());
+        assertEquals(1, store.getEvictionCount());
+        assertEquals(202, store.size());
+    }
+
+    @Test
+    public void replacedEntryShouldUpdateSizeTest() {
+        //given
+        var store = new MemoryCacheStore(1000);
+        store.put("a", entry("a", 100));
+
+        //when
+        store.put("a", entry("a", 50));
+
+        //then
+        assertEquals(51, store.size());
+        store.remove("a");
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void entryHeavierThanStoreShouldNotBeStoredTest() {
+        //given
+        var store = new MemoryCacheStore(100);
+        store.put("a", entry("a", 10));
+
+        //when
+        store.put("a", entry("a", 200));
+
+        //then
+        assertFalse(store.get("a").isPresent());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void concurrentAccessShouldKeepSizeWithinBoundTest() {
+        //given
+        var store = new MemoryCacheStore(10_000);
+
+        //when
+        var writers = IntStream.range(0, 8)
+                .mapToObj(thread -> CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        var key = String.format("%d-%04d", thread, i);
+                        store.put(key, entry(key, 100));
+                        store.get(String.format("%d-%04d", thread, i / 2));
+                    }
+                }))
+                .collect(Collectors.toList());
+        writers.forEach(CompletableFuture::join);
+
+        //then
+        assertTrue(store.size() <= 10_000);
+        assertEquals(8 * 1000 * 106 - store.size(), store.getEvictionCount() * 106);
+    }
+
+    @Test
+    public void nonPositiveSizeShouldBeRejectedTest() {
+        assertThrows(IllegalArgumentException.class, () -> new MemoryCacheStore(0));
+    }
+
+    private static CacheEntry entry(String uri, int bodySize) {
+        return new CacheEntry(uri, 200, Map.of(), Map.of(), new byte[bodySize], 0, 0);
+    }
+}
@@ -0,0 +1,46 @@
+package coresearch.cvurl.io.internal.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.zip.Inflater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ZlibPoolTest {
+
+    @Test
+    public void releasedInstanceShouldBeReusedTest() {
+        //given
+        var pool = new ZlibPool<>(() -> new Inflater(true), Inflater::reset, Inflater::end, 1);
+        var inflater = pool.acquire();
+
+        //when
+        pool.release(inflater);
+        var reused = pool.acquire();
+
+        //then
+        assertSame(inflater, reused);
+        assertEquals(1, pool.metrics().getHits());
+        assertEquals(1, pool.metrics().getMisses());
+    }
+
+    @Test
+    public void instancesAboveCapacityShouldNotBeKeptTest() {
+        //given
+        var pool = new ZlibPool<>(() -> new Inflater(true), Inflater::reset, Inflater::end, 1);
+        var first = pool.acquire();
+        var second = pool.acquire();
+
+        //when
+        pool.release(first);
+        pool.release(second);
+
+        //then
+        assertNotSame(first, second);
+        assertEquals(1, pool.metrics().getIdle());
+        assertEquals(2, pool.metrics().getMisses());
+        assertSame(first, pool.acquire());
+    }
+}
@@ -0,0 +1,100 @@
+package coresearch.cvurl.io.mapper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import coresearch.cvurl.io.exception.MappingException;
+import coresearch.cvurl.io.helper.ObjectGenerator;
+import coresearch.cvurl.io.helper.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class GenericMapperTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final GenericMapper mapper = new StringOnlyMapper();
+
+    @Test
+    public void defaultArrayElementsParserShouldBufferWholeArrayTest() throws JsonProcessingException {
+        //given
+        List<User> expected = ObjectGenerator.generateListOfTestObjects();
+        byte[] jsonBytes = OBJECT_MAPPER.writeValueAsBytes(expected);
+
+        //when
+        List<User> actual;
+        try (var stream = mapper.readValues(new ByteArrayInputStream(jsonBytes), User.class)) {
+            actual = stream.collect(Collectors.toList());
+        }
+
+        //then
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void defaultArrayElementsParserOnNullShouldThrowMappingExceptionTest() {
+        //given
+        var parser = mapper.createArrayElementsParser(User.class);
+
+        //when
+        parser.parse(ByteBuffer.wrap("null".getBytes()));
+
+        //then
+        assertThrows(MappingException.class, parser::complete);
+    }
+
+    @Test
+    public void closingStreamShouldIgnoreFailureToCloseBodyTest() {
+        //given
+        var body = new ByteArrayInputStream("[]".getBytes()) {
+            @Override
+            public void close() throws IOException {
+                throw new IOException("already closed");
+            }
+        };
+
+        //when
+        var stream = mapper.readValues(body, User.class);
+
+        //then
+        assertEquals(0, stream.count());
+        stream.close();
+    }
+
+    private static class StringOnlyMapper extends GenericMapper {
+
+        @Override
+        public <T> T readValue(String value, Class<T> valueType) {
+            try {
+                return OBJECT_MAPPER.readValue(value, valueType);
+            } catch (IOException e) {
+                throw new MappingException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public <T> T readValue(String value, BodyType<T> valueType) {
+            try {
+                return OBJECT_MAPPER.readValue(value, OBJECT_MAPPER.constructType(valueType.getType()));
+            } catch (IOException e) {
+                throw new MappingException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public String writeValue(Object value) {
+            try {
+                return OBJECT_MAPPER.writeValueAsString(value);
+            } catch (JsonProcessingException e) {
+                throw new MappingException(e.getMessage(), e);
+            }
+        }
+    }
+}
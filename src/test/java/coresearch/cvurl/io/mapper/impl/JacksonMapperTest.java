@@ -3,12 +3,23 @@ package coresearch.cvurl.io.mapper.impl;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import coresearch.cvurl.io.exception.MappingException;
 import coresearch.cvurl.io.helper.ObjectGenerator;
 import coresearch.cvurl.io.helper.model.User;
+import coresearch.cvurl.io.mapper.BodyType;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class JacksonMapperTest {
 
@@ -33,6 +44,18 @@ public class JacksonMapperTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void writeValueAsBytesTest() throws JsonProcessingException {
+
+        User user = ObjectGenerator.generateTestObject();
+
+        byte[] actual = jacksonMapper.writeValueAsBytes(user);
+
+        byte[] expected = new ObjectMapper().writeValueAsBytes(user);
+
+        assertArrayEquals(expected, actual);
+    }
+
     @Test
     public void readValueTest() throws JsonProcessingException {
 
@@ -45,4 +68,152 @@ public class JacksonMapperTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void readValueWithReusedBodyTypeTest() throws JsonProcessingException {
+
+        List<User> expected = ObjectGenerator.generateListOfTestObjects();
+        BodyType<List<User>> bodyType = new BodyType<>() {};
+
+        String jsonString = new ObjectMapper().writeValueAsString(expected);
+
+        assertEquals(expected, jacksonMapper.readValue(jsonString, bodyType));
+        assertEquals(expected, jacksonMapper.readValue(jsonString.getBytes(), bodyType));
+    }
+
+    @Test
+    public void readValueFromBytesTest() throws JsonProcessingException {
+
+        User expected = ObjectGenerator.generateTestObject();
+
+        byte[] jsonBytes = new ObjectMapper().writeValueAsBytes(expected);
+
+        User actual = jacksonMapper.readValue(jsonBytes, User.class);
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void readValueFromByteBufferTest() throws JsonProcessingException {
+
+        User expected = ObjectGenerator.generateTestObject();
+
+        byte[] jsonBytes = new ObjectMapper().writeValueAsBytes(expected);
+        ByteBuffer directBuffer = ByteBuffer.allocateDirect(jsonBytes.length).put(jsonBytes).flip();
+
+        assertEquals(expected, jacksonMapper.readValue(ByteBuffer.wrap(jsonBytes), User.class));
+        assertEquals(expected, jacksonMapper.readValue(directBuffer, User.class));
+    }
+
+    @Test
+    public void readValueFromInputStreamTest() throws JsonProcessingException {
+
+        User expected = ObjectGenerator.generateTestObject();
+
+        byte[] jsonBytes = new ObjectMapper().writeValueAsBytes(expected);
+
+        User actual = jacksonMapper.readValue(new ByteArrayInputStream(jsonBytes), User.class);
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void readValuesTest() throws JsonProcessingException {
+
+        List<User> expected = ObjectGenerator.generateListOfTestObjects();
+
+        byte[] jsonBytes = new ObjectMapper().writeValueAsBytes(expected);
+
+        List<User> actual = jacksonMapper.readValues(new ByteArrayInputStream(jsonBytes), User.class)
+                .collect(Collectors.toList());
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void arrayElementsParserWithSplitChunksTest() throws JsonProcessingException {
+
+        List<User> expected = ObjectGenerator.generateListOfTestObjects();
+
+        byte[] jsonBytes = new ObjectMapper().writeValueAsBytes(expected);
+
+        for (int split = 0; split <= jsonBytes.length; split++) {
+            var parser = jacksonMapper.createArrayElementsParser(User.class);
+            List<User> actual = new ArrayList<>(parser.parse(ByteBuffer.wrap(jsonBytes, 0, split)));
+            actual.addAll(parser.parse(ByteBuffer.wrap(jsonBytes, split, jsonBytes.length - split)));
+            actual.addAll(parser.complete());
+
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void arrayElementsParserOnNotArrayShouldThrowMappingExceptionTest() throws JsonProcessingException {
+
+        byte[] jsonBytes = new ObjectMapper().writeValueAsBytes(ObjectGenerator.generateTestObject());
+
+        var parser = jacksonMapper.createArrayElementsParser(User.class);
+
+        assertThrows(MappingException.class, () -> parser.parse(ByteBuffer.wrap(jsonBytes)));
+    }
+
+    @Test
+    public void arrayElementsParserWithTrailingWhitespaceChunksTest() throws JsonProcessingException {
+
+        List<User> expected = ObjectGenerator.generateListOfTestObjects();
+
+        byte[] jsonBytes = (new ObjectMapper().writeValueAsString(expected) + " \r\n").getBytes();
+
+        var parser = jacksonMapper.createArrayElementsParser(User.class);
+        List<User> actual = new ArrayList<>(parser.parse(ByteBuffer.wrap(jsonBytes)));
+        actual.addAll(parser.parse(ByteBuffer.wrap(" \n".getBytes())));
+        actual.addAll(parser.complete());
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void arrayElementsParserOnTrailingContentShouldThrowMappingExceptionTest() throws JsonProcessingException {
+
+        byte[] jsonBytes = new ObjectMapper().writeValueAsBytes(ObjectGenerator.generateListOfTestObjects());
+
+        for (String trailing : List.of(" {}", "]", "garbage", "1")) {
+            var parser = jacksonMapper.createArrayElementsParser(User.class);
+            parser.parse(ByteBuffer.wrap(jsonBytes));
+
+            assertThrows(MappingException.class, () -> {
+                parser.parse(ByteBuffer.wrap(trailing.getBytes()));
+                parser.complete();
+            });
+        }
+    }
+
+    @Test
+    public void readLineValuesTest() throws JsonProcessingException {
+
+        List<User> expected = ObjectGenerator.generateListOfTestObjects();
+
+        var objectMapper = new ObjectMapper();
+        var ndJson = new StringBuilder();
+        for (User user : expected) {
+            ndJson.append(objectMapper.writeValueAsString(user)).append("\r\n\n");
+        }
+
+        List<User> actual = jacksonMapper.readLineValues(new ByteArrayInputStream(ndJson.toString().getBytes()), User.class)
+                .collect(Collectors.toList());
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void lineValuesParserWithoutTrailingLineFeedTest() throws JsonProcessingException {
+
+        User expected = ObjectGenerator.generateTestObject();
+
+        byte[] jsonBytes = new ObjectMapper().writeValueAsBytes(expected);
+
+        var parser = jacksonMapper.createLineValuesParser(User.class);
+
+        assertTrue(parser.parse(ByteBuffer.wrap(jsonBytes)).isEmpty());
+        assertEquals(List.of(expected), parser.complete());
+    }
 }
@@ -1,9 +1,13 @@
 package coresearch.cvurl.io.model;
 
+import coresearch.cvurl.io.cache.HttpCache;
+import coresearch.cvurl.io.cache.MemoryCacheStore;
 import coresearch.cvurl.io.constant.HttpClientMode;
 import coresearch.cvurl.io.internal.configuration.RequestConfiguration;
 import coresearch.cvurl.io.mapper.MapperFactory;
 import coresearch.cvurl.io.mapper.impl.JacksonMapper;
+import coresearch.cvurl.io.resilience.HedgingPolicy;
+import coresearch.cvurl.io.resilience.RetryPolicy;
 import coresearch.cvurl.io.utils.MockHttpClient;
 import coresearch.cvurl.io.utils.MockProxySelector;
 import org.junit.jupiter.api.Test;
@@ -18,6 +22,7 @@ import java.time.Duration;
 import java.util.Arrays;
 import java.util.Optional;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -158,6 +163,29 @@ public class ConfigurationTest {
                 configuration.getGlobalRequestConfiguration(), resultConfiguration.getGlobalRequestConfiguration()));
     }
 
+    @Test
+    public void preconfiguredBuilderShouldKeepRequestPropertiesTest() {
+        //given
+        var retryPolicy = RetryPolicy.builder().build();
+        var hedgingPolicy = HedgingPolicy.builder().build();
+        var configuration = Configuration.builder()
+                .acceptCompressed(true)
+                .compressBody(1024)
+                .retryPolicy(retryPolicy)
+                .hedgingPolicy(hedgingPolicy)
+                .build();
+
+        //when
+        var resultConfiguration = configuration.preconfiguredBuilder().build();
+
+        //then
+        var requestConfiguration = resultConfiguration.getGlobalRequestConfiguration();
+        assertTrue(requestConfiguration.isAcceptCompressed());
+        assertEquals(Optional.of(1024L), requestConfiguration.getCompressBodyThreshold());
+        assertSame(retryPolicy, requestConfiguration.getRetryPolicy().orElseThrow());
+        assertSame(hedgingPolicy, requestConfiguration.getHedgingPolicy().orElseThrow());
+    }
+
     @Test
     public void setLogEnabledIsMutableTest() {
         //given
@@ -198,6 +226,27 @@ public class ConfigurationTest {
         assertEquals(configuration.getGlobalRequestConfiguration().isLogEnabled(), logEnabled);
     }
 
+    @Test
+    public void closeShouldCloseCacheStoreTest() {
+        //given
+        var closed = new AtomicBoolean();
+        var store = new MemoryCacheStore(1024) {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+        var conf = Configuration.builder()
+                .httpCache(HttpCache.builder().store(store).build())
+                .build();
+
+        //when
+        conf.close();
+
+        //then
+        assertTrue(closed.get());
+    }
+
     private boolean httpClientsEquals(HttpClient client1, HttpClient client2) {
         return optionalsEqual(client1.authenticator(), client2.authenticator()) &&
                 optionalsEqual(client1.connectTimeout(), client2.connectTimeout()) &&
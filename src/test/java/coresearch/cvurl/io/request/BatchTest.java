@@ -0,0 +1,207 @@
+package coresearch.cvurl.io.request;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.http.Fault;
+import coresearch.cvurl.io.constant.BatchOrder;
+import coresearch.cvurl.io.constant.HttpStatus;
+import coresearch.cvurl.io.exception.BatchExecutionException;
+import coresearch.cvurl.io.model.BatchResult;
+import coresearch.cvurl.io.model.Response;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BatchTest extends AbstractRequestTest {
+
+    private static final String BATCH_ENDPOINT = "/batch/";
+
+    @Test
+    public void orderedBatchShouldBoundConcurrencyAndKeepOrderTest() {
+        //given
+        stubItems(50);
+        var inFlight = new AtomicInteger();
+        var maxInFlight = new AtomicInteger();
+
+        //when
+        List<BatchResult<String>> results;
+        var batch = cvurl.batch(requests(20), request -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return body(request).whenComplete((body, error) -> inFlight.decrementAndGet());
+        }).parallelism(4);
+        try (var stream = batch.stream()) {
+            results = stream.collect(Collectors.toList());
+        }
+
+        //then
+        assertEquals(20, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertEquals("item-" + i, results.get(i).getValue().orElseThrow());
+        }
+        assertTrue(maxInFlight.get() <= 4);
+        var statistics = batch.getStatistics();
+        assertEquals(20, statistics.getSubmitted());
+        assertEquals(20, statistics.getSucceeded());
+        assertEquals(0, statistics.getFailed());
+        assertTrue(statistics.getMinDuration().compareTo(statistics.getMaxDuration()) <= 0);
+        assertTrue(statistics.getElapsed().compareTo(statistics.getMaxDuration()) >= 0);
+    }
+
+    @Test
+    public void completionOrderBatchShouldDeliverFastResultsFirstTest() {
+        //given
+        stubItems(0);
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(BATCH_ENDPOINT + 0))
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.OK).withBody("item-0").withFixedDelay(500)));
+
+        //when
+        List<BatchResult<String>> results;
+        try (var stream = cvurl.batch(requests(5), this::body).parallelism(5).order(BatchOrder.COMPLETION).stream()) {
+            results = stream.collect(Collectors.toList());
+        }
+
+        //then
+        assertEquals(5, results.size());
+        assertNotEquals(0, results.get(0).getIndex());
+        assertEquals(0, results.get(4).getIndex());
+    }
+
+    @Test
+    public void failedRequestsShouldBeCapturedInResultsTest() {
+        //given
+        stubItems(0);
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(BATCH_ENDPOINT + 2))
+                .willReturn(WireMock.aResponse().withFault(Fault.RANDOM_DATA_THEN_CLOSE)));
+
+        //when
+        var batch = cvurl.batch(requests(5), this::body).parallelism(2);
+        List<BatchResult<String>> results;
+        try (var stream = batch.stream()) {
+            results = stream.collect(Collectors.toList());
+        }
+
+        //then
+        assertEquals(5, results.size());
+        assertFalse(results.get(2).isSuccessful());
+        assertTrue(results.get(2).getError().orElseThrow() instanceof IOException);
+        assertEquals("item-3", results.get(3).getValue().orElseThrow());
+        assertEquals(4, batch.getStatistics().getSucceeded());
+        assertEquals(1, batch.getStatistics().getFailed());
+    }
+
+    @Test
+    public void fatalErrorShouldAbortLazilyConsumedBatchTest() {
+        //given
+        wiremock.stubFor(WireMock.get(WireMock.urlPathMatching(BATCH_ENDPOINT + ".*"))
+                .willReturn(WireMock.aResponse().withFault(Fault.RANDOM_DATA_THEN_CLOSE)));
+        var created = new AtomicInteger();
+        var endless = Stream.generate(() -> cvurl.get(itemUrl(created.getAndIncrement())).create());
+
+        //when
+        var batch = cvurl.batch(endless, this::body)
+                .parallelism(3)
+                .failFast(IOException.class::isInstance);
+        var stream = batch.stream();
+
+        //then
+        var exception = assertThrows(BatchExecutionException.class, () -> stream.forEach(result -> { }));
+        assertTrue(exception.getCause() instanceof IOException);
+        stream.close();
+        assertTrue(created.get() <= 4);
+        assertTrue(batch.getStatistics().getFailed() >= 1);
+    }
+
+    @Test
+    public void publisherShouldDeliverResultsOnDemandTest() {
+        //given
+        stubItems(0);
+        var results = new ArrayList<BatchResult<String>>();
+        var done = new CompletableFuture<Void>();
+
+        //when
+        cvurl.batch(requests(6), this::body).parallelism(2).publisher().subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(BatchResult<String> item) {
+                results.add(item);
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(null);
+            }
+        });
+        done.join();
+
+        //then
+        assertEquals(List.of("item-0", "item-1", "item-2", "item-3", "item-4", "item-5"),
+                results.stream().map(result -> result.getValue().orElseThrow()).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void batchShouldBeExecutedOnlyOnceTest() {
+        //given
+        stubItems(0);
+        var batch = cvurl.batch(requests(1), this::body);
+        try (var stream = batch.stream()) {
+            stream.count();
+        }
+
+        //when
+        var stream = batch.stream();
+
+        //then
+        var exception = assertThrows(BatchExecutionException.class, stream::count);
+        assertTrue(exception.getCause() instanceof IllegalStateException);
+    }
+
+    private CompletionStage<String> body(Request request) {
+        return request.asyncAsString().thenApply(Response::getBody);
+    }
+
+    private List<Request> requests(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> cvurl.get(itemUrl(i)).create())
+                .collect(Collectors.toList());
+    }
+
+    private void stubItems(int delay) {
+        for (int i = 0; i < 20; i++) {
+            wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(BATCH_ENDPOINT + i))
+                    .willReturn(WireMock.aResponse().withStatus(HttpStatus.OK).withBody("item-" + i).withFixedDelay(delay)));
+        }
+    }
+
+    private static String itemUrl(int index) {
+        return format(URL_PATTERN, PORT, BATCH_ENDPOINT + index);
+    }
+}
@@ -5,6 +5,7 @@ import com.github.tomakehurst.wiremock.client.WireMock;
 import coresearch.cvurl.io.helper.ObjectGenerator;
 import coresearch.cvurl.io.helper.model.User;
 import coresearch.cvurl.io.model.Response;
+import coresearch.cvurl.io.constant.HttpContentEncoding;
 import coresearch.cvurl.io.constant.HttpHeader;
 import coresearch.cvurl.io.constant.HttpStatus;
 import coresearch.cvurl.io.constant.MIMEType;
@@ -341,4 +342,58 @@ public class CVurlPostRequestTest extends AbstractRequestTest {
         assertTrue(response.isSuccessful());
         assertEquals(HttpStatus.OK, response.status());
     }
+
+    @Test
+    public void sendPOST_CompressedBodyAboveThresholdTest() {
+
+        //given
+        String body = "Test body for test ".repeat(100);
+        String url = String.format(URL_PATTERN, PORT, TEST_ENDPOINT);
+
+        //when
+        wiremock.stubFor(WireMock.post(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK)));
+
+        Response<String> response = cvurl.post(url)
+                .compressBody(1024)
+                .body(body)
+                .asString()
+                .orElseThrow(RuntimeException::new);
+
+        //then
+        var requests = WireMock.findAll(WireMock.postRequestedFor(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .withHeader(HttpHeader.CONTENT_ENCODING, WireMock.equalTo(HttpContentEncoding.GZIP)));
+
+        assertEquals(1, requests.size());
+        assertEquals(body, requests.get(0).getBodyAsString());
+        assertEquals(HttpStatus.OK, response.status());
+    }
+
+    @Test
+    public void sendPOST_NotCompressedBodyBelowThresholdTest() {
+
+        //given
+        String body = "Test body for test";
+        String url = String.format(URL_PATTERN, PORT, TEST_ENDPOINT);
+
+        //when
+        wiremock.stubFor(WireMock.post(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .withRequestBody(WireMock.equalTo(body))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK)));
+
+        Response<String> response = cvurl.post(url)
+                .compressBody(1024)
+                .body(body)
+                .asString()
+                .orElseThrow(RuntimeException::new);
+
+        //then
+        WireMock.verify(WireMock.exactly(1),
+                WireMock.postRequestedFor(WireMock.urlEqualTo(TEST_ENDPOINT))
+                        .withoutHeader(HttpHeader.CONTENT_ENCODING));
+
+        assertEquals(HttpStatus.OK, response.status());
+    }
 }
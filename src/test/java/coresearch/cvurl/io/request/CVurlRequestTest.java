@@ -3,13 +3,20 @@ package coresearch.cvurl.io.request;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.http.Fault;
+import coresearch.cvurl.io.cache.DiskCacheStore;
+import coresearch.cvurl.io.cache.HttpCache;
+import coresearch.cvurl.io.cache.MemoryCacheStore;
+import coresearch.cvurl.io.cache.TieredCacheStore;
 import coresearch.cvurl.io.constant.*;
+import coresearch.cvurl.io.exception.MappingException;
 import coresearch.cvurl.io.exception.RequestExecutionException;
+import coresearch.cvurl.io.exception.RequestRejectedException;
 import coresearch.cvurl.io.exception.ResponseMappingException;
 import coresearch.cvurl.io.exception.UnexpectedResponseException;
 import coresearch.cvurl.io.helper.ObjectGenerator;
 import coresearch.cvurl.io.helper.model.User;
 import coresearch.cvurl.io.internal.configuration.RequestConfiguration;
+import coresearch.cvurl.io.internal.util.VirtualThreads;
 import coresearch.cvurl.io.mapper.BodyType;
 import coresearch.cvurl.io.mapper.GenericMapper;
 import coresearch.cvurl.io.mapper.MapperFactory;
@@ -17,10 +24,16 @@ import coresearch.cvurl.io.model.Configuration;
 import coresearch.cvurl.io.model.Response;
 import coresearch.cvurl.io.multipart.MultipartBody;
 import coresearch.cvurl.io.multipart.Part;
+import coresearch.cvurl.io.resilience.CircuitBreaker;
+import coresearch.cvurl.io.resilience.ConcurrencyLimiter;
+import coresearch.cvurl.io.resilience.HedgingPolicy;
+import coresearch.cvurl.io.resilience.RateLimiter;
+import coresearch.cvurl.io.resilience.RetryPolicy;
 import coresearch.cvurl.io.utils.MockHttpClient;
 import coresearch.cvurl.io.utils.Resources;
 import org.apache.http.HttpHeaders;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
@@ -32,23 +45,34 @@ import java.net.*;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.GZIPOutputStream;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
 import static java.lang.String.format;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 
 public class CVurlRequestTest extends AbstractRequestTest {
 
     private static final String EMPTY_STRING = "";
+    private static final String CACHED_BODY = "cached body";
     private static final String MULTIPART_BODY_TEST_JSON = "multipart-body-test.json";
     private static final String MULTIPART_HEADER_TEMPLATE = "multipart/%s;boundary=%s";
     public static final String BODY_AS_INPUT_STREAM_TXT = "body-as-input-stream-test.txt";
@@ -97,6 +121,28 @@ public class CVurlRequestTest extends AbstractRequestTest {
         assertEquals(user, resultUser);
     }
 
+    @Test
+    public void asObjectShouldDecodeBodyWithDeclaredCharsetTest() throws JsonProcessingException {
+        //given
+        User user = new User("Zo\u00eb M\u00fcller", 30);
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withHeader(HttpHeader.CONTENT_TYPE, "application/json; charset=ISO-8859-1")
+                        .withBody(mapper.writeValueAsString(user).getBytes(StandardCharsets.ISO_8859_1))));
+
+        //when
+        User resultUser = cvurl.get(url)
+                .asObject(User.class, HttpStatus.OK)
+                .orElseThrow(RuntimeException::new);
+        User asyncResultUser = cvurl.get(url).asyncAsObject(User.class).join();
+
+        //then
+        assertEquals(user, resultUser);
+        assertEquals(user, asyncResultUser);
+    }
+
     @Test
     public void asyncAsStringTest() throws ExecutionException, InterruptedException {
 
@@ -528,7 +574,7 @@ public class CVurlRequestTest extends AbstractRequestTest {
         var body = "Test body";
 
         wiremock.stubFor(WireMock.post(WireMock.urlEqualTo(TEST_ENDPOINT))
-                .withHeader(HttpHeader.ACCEPT_ENCODING, equalTo(HttpContentEncoding.GZIP))
+                .withHeader(HttpHeader.ACCEPT_ENCODING, equalTo(HttpContentEncoding.ACCEPTED))
                 .willReturn(WireMock.aResponse()
                         .withBody(compressWithGZIP(body))
                         .withHeader(HttpHeader.CONTENT_ENCODING, HttpContentEncoding.GZIP)));
@@ -547,7 +593,7 @@ public class CVurlRequestTest extends AbstractRequestTest {
         var body = "Test body";
 
         wiremock.stubFor(WireMock.post(WireMock.urlEqualTo(TEST_ENDPOINT))
-                .withHeader(HttpHeader.ACCEPT_ENCODING, equalTo(HttpContentEncoding.GZIP))
+                .withHeader(HttpHeader.ACCEPT_ENCODING, equalTo(HttpContentEncoding.ACCEPTED))
                 .willReturn(WireMock.aResponse()
                         .withBody(compressWithGZIP(body))
                         .withHeader(HttpHeader.CONTENT_ENCODING, HttpContentEncoding.GZIP)));
@@ -560,6 +606,122 @@ public class CVurlRequestTest extends AbstractRequestTest {
         assertEquals(body, new String(response.getBody().readAllBytes()));
     }
 
+    @Test
+    public void gzipEncodedResponseBodyAsObjectTest() throws IOException {
+        //given
+        User user = ObjectGenerator.generateTestObject();
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .withHeader(HttpHeader.ACCEPT_ENCODING, equalTo(HttpContentEncoding.ACCEPTED))
+                .willReturn(WireMock.aResponse()
+                        .withBody(compressWithGZIP(mapper.writeValueAsString(user)))
+                        .withHeader(HttpHeader.CONTENT_ENCODING, HttpContentEncoding.GZIP)));
+
+        //when
+        User resultUser = cvurl.get(url).acceptCompressed().asObject(User.class);
+
+        //then
+        assertEquals(user, resultUser);
+    }
+
+    @Test
+    public void gzipEncodedResponseBodyAsyncAsPublisherTest() throws IOException, ExecutionException, InterruptedException {
+        //given
+        List<User> users = ObjectGenerator.generateListOfTestObjects();
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .withHeader(HttpHeader.ACCEPT_ENCODING, equalTo(HttpContentEncoding.ACCEPTED))
+                .willReturn(WireMock.aResponse()
+                        .withBody(compressWithGZIP(mapper.writeValueAsString(users)))
+                        .withHeader(HttpHeader.CONTENT_ENCODING, HttpContentEncoding.GZIP)));
+
+        //when
+        List<User> resultUsers = collect(cvurl.get(url).acceptCompressed().asyncAsPublisher(User.class)).get();
+
+        //then
+        assertEquals(users, resultUsers);
+    }
+
+    @Test
+    public void gzipEncodedResponseBodyAsyncAsByteBufferPublisherTest() throws IOException {
+        //given
+        var body = "Test body ".repeat(10_000);
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .withHeader(HttpHeader.ACCEPT_ENCODING, equalTo(HttpContentEncoding.ACCEPTED))
+                .willReturn(WireMock.aResponse()
+                        .withBody(compressWithGZIP(body))
+                        .withHeader(HttpHeader.CONTENT_ENCODING, HttpContentEncoding.GZIP)));
+
+        //when
+        var response = cvurl.get(url).acceptCompressed().asyncAsPublisher().join();
+        var chunks = collect(response.getBody()).join();
+
+        //then
+        assertEquals(HttpStatus.OK, response.status());
+        assertEquals(body, toString(chunks));
+    }
+
+    @Test
+    public void corruptedGzipEncodedResponseBodyAsStreamTest() throws IOException {
+        //given
+        byte[] compressed = compressWithGZIP("Test body");
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse()
+                        .withBody(Arrays.copyOf(compressed, compressed.length - 4))
+                        .withHeader(HttpHeader.CONTENT_ENCODING, HttpContentEncoding.GZIP)));
+
+        //when
+        var response = cvurl.get(url).acceptCompressed().asStream().orElseThrow(RuntimeException::new);
+
+        //then
+        assertThrows(IOException.class, () -> response.getBody().readAllBytes());
+    }
+
+    @Test
+    public void stackedEncodedResponseBodyAsStringTest() throws IOException {
+        //given
+        var body = "Test body";
+        var deflated = new ByteArrayOutputStream();
+        try (var deflaterOutputStream = new DeflaterOutputStream(deflated)) {
+            deflaterOutputStream.write(compressWithGZIP(body));
+        }
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse()
+                        .withBody(deflated.toByteArray())
+                        .withHeader(HttpHeader.CONTENT_ENCODING, "gzip, deflate")));
+
+        //when
+        var response = cvurl.get(url).acceptCompressed().asString().orElseThrow(RuntimeException::new);
+
+        //then
+        assertEquals(body, response.getBody());
+    }
+
+    @Test
+    public void gzipEncodedResponseBodyAsStringUsesContentTypeCharsetTest() throws IOException {
+        //given
+        var body = "Ça va très bien";
+        var compressed = new ByteArrayOutputStream();
+        try (var gzipOutputStream = new GZIPOutputStream(compressed)) {
+            gzipOutputStream.write(body.getBytes(StandardCharsets.ISO_8859_1));
+        }
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse()
+                        .withBody(compressed.toByteArray())
+                        .withHeader(HttpHeader.CONTENT_TYPE, "text/plain; charset=ISO-8859-1")
+                        .withHeader(HttpHeader.CONTENT_ENCODING, HttpContentEncoding.GZIP)));
+
+        //when
+        var response = cvurl.get(url).acceptCompressed().asString().orElseThrow(RuntimeException::new);
+
+        //then
+        assertEquals(body, response.getBody());
+    }
+
     @Test
     public void responseWithUnknownEncodingWithAcceptCompressedAsStringTest() throws IOException {
         //given
@@ -767,9 +929,9 @@ public class CVurlRequestTest extends AbstractRequestTest {
     }
 
     @Test
-    public void asObjectWithGenericBodyTypeWithNestedGenericsTest() throws JsonProcessingException {
+    public void asObjectStreamTest() throws JsonProcessingException {
         //given
-        Set<List<User>> users = Set.of(ObjectGenerator.generateListOfTestObjects());
+        List<User> users = ObjectGenerator.generateListOfTestObjects();
 
         wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
                 .willReturn(WireMock.aResponse()
@@ -777,14 +939,18 @@ public class CVurlRequestTest extends AbstractRequestTest {
                         .withBody(mapper.writeValueAsString(users))));
 
         //when
-        Set<List<User>> resultUsers = cvurl.get(url).asObject(new BodyType<>() {});
+        List<User> resultUsers;
+        try (Stream<User> stream = cvurl.get(url).asObjectStream(User.class)) {
+            resultUsers = stream.collect(Collectors.toList());
+        }
 
         //then
         assertEquals(users, resultUsers);
     }
 
     @Test
-    public void asObjectWithStatusCodeWithGenericBodyTypeTest() throws JsonProcessingException {
+    public void asyncAsPublisherTest() throws JsonProcessingException, ExecutionException, InterruptedException {
+        //given
         List<User> users = ObjectGenerator.generateListOfTestObjects();
 
         wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
@@ -792,109 +958,964 @@ public class CVurlRequestTest extends AbstractRequestTest {
                         .withStatus(HttpStatus.OK)
                         .withBody(mapper.writeValueAsString(users))));
 
-        List<User> resultUsers = cvurl.get(url)
-                .asObject(new BodyType<List<User>>() {}, HttpStatus.OK)
-                .orElseThrow(RuntimeException::new);
+        //when
+        List<User> resultUsers = collect(cvurl.get(url).asyncAsPublisher(User.class)).get();
 
+        //then
         assertEquals(users, resultUsers);
     }
 
     @Test
-    public void asyncAsObjectWithGenericBodyTypeTest() throws JsonProcessingException, ExecutionException, InterruptedException {
+    public void asyncAsPublisherOnUnparseableBodyTest() throws InterruptedException {
         //given
-        List<User> users = ObjectGenerator.generateListOfTestObjects();
-        boolean[] isThenApplyInvoked = {false};
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withBody("not a json array")));
+
+        //when
+        var result = collect(cvurl.get(url).asyncAsPublisher(User.class));
+
+        //then
+        var exception = assertThrows(ExecutionException.class, result::get);
+        assertTrue(exception.getCause() instanceof MappingException);
+    }
 
+    @Test
+    public void asObjectStreamWithNullElementShouldThrowMappingExceptionTest() {
+        //given
         wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
                 .willReturn(WireMock.aResponse()
                         .withStatus(HttpStatus.OK)
-                        .withBody(mapper.writeValueAsString(users))));
+                        .withBody("[1,null,2]")));
 
         //when
-        List<User> resultUsers = cvurl.get(url).asyncAsObject(new BodyType<List<User>>() {})
-                .thenApply(res ->
-                {
-                    isThenApplyInvoked[0] = true;
-                    return res;
-                })
-                .get();
+        var exception = assertThrows(MappingException.class, () -> {
+            try (Stream<Integer> stream = cvurl.get(url).asObjectStream(Integer.class)) {
+                stream.forEach(element -> {
+                });
+            }
+        });
 
         //then
-        assertTrue(isThenApplyInvoked[0]);
-        assertEquals(users, resultUsers);
+        assertTrue(exception.getMessage().contains("index 1"));
     }
 
     @Test
-    public void asyncAsObjectWithStatusCodeWithGenericBodyTypeTest() throws JsonProcessingException, ExecutionException, InterruptedException {
+    public void asyncAsPublisherWithNullElementShouldFailWithMappingExceptionTest() {
         //given
-        List<User> users = ObjectGenerator.generateListOfTestObjects();
-        boolean[] isThenApplyInvoked = {false};
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withBody("[1,null,2]")));
+
+        //when
+        var result = collect(cvurl.get(url).asyncAsPublisher(Integer.class));
+
+        //then
+        var exception = assertThrows(ExecutionException.class, result::get);
+        assertTrue(exception.getCause() instanceof MappingException);
+        assertTrue(exception.getCause().getMessage().contains("index 1"));
+    }
+
+    @Test
+    public void requestAboveConcurrencyLimitShouldBeRejectedTest() {
+        //given
+        var limitedCVurl = new CVurl(Configuration.builder()
+                .concurrencyLimiter(ConcurrencyLimiter.builder().initialLimit(1).maxQueueSize(0).build())
+                .build());
 
         wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
                 .willReturn(WireMock.aResponse()
                         .withStatus(HttpStatus.OK)
-                        .withBody(mapper.writeValueAsString(users))));
+                        .withFixedDelay(300)));
 
-        List<User> resultUsers = cvurl.get(url).asyncAsObject(new BodyType<List<User>>() {}, HttpStatus.OK)
-                .thenApply(res ->
-                {
-                    isThenApplyInvoked[0] = true;
-                    return res;
-                })
-                .get();
+        //when
+        var first = limitedCVurl.get(url).asyncAsString();
+        var second = limitedCVurl.get(url).asyncAsString();
 
-        assertTrue(isThenApplyInvoked[0]);
-        assertEquals(users, resultUsers);
+        //then
+        assertEquals(HttpStatus.OK, first.join().status());
+        var exception = assertThrows(CompletionException.class, second::join);
+        assertTrue(exception.getCause() instanceof RequestRejectedException);
+        assertEquals(0, limitedCVurl.getConfiguration().getConcurrencyLimiter().orElseThrow()
+                .getInFlight("localhost:" + PORT));
     }
 
     @Test
-    public void asObjectWithGenericBodyTypeOnUnparseableBodyShouldThrowResponseMappingExceptionTest() {
+    public void cancelledRequestWaitingForConcurrencyPermitShouldNotBeSentTest() {
         //given
-        var body = "not a json string";
+        var concurrencyLimiter = ConcurrencyLimiter.builder().initialLimit(1).maxQueueSize(1).build();
+        var limitedCVurl = new CVurl(Configuration.builder().concurrencyLimiter(concurrencyLimiter).build());
+
         wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
                 .willReturn(WireMock.aResponse()
                         .withStatus(HttpStatus.OK)
-                        .withBody(body)));
+                        .withFixedDelay(300)));
 
         //when
-        ResponseMappingException responseMappingException = assertThrows(ResponseMappingException.class,
-                () -> cvurl.get(url).asObject(new BodyType<List<User>>() {}));
+        var first = limitedCVurl.get(url).asyncAsString();
+        var second = limitedCVurl.get(url).asyncAsString();
+        second.cancel(true);
 
         //then
-        assertEquals(HttpStatus.OK, responseMappingException.getResponse().status());
-        assertEquals(body, responseMappingException.getResponse().getBody());
+        assertEquals(0, concurrencyLimiter.getQueueSize("localhost:" + PORT));
+        assertEquals(HttpStatus.OK, first.join().status());
+        assertEquals(0, concurrencyLimiter.getInFlight("localhost:" + PORT));
+        wiremock.verify(1, WireMock.getRequestedFor(WireMock.urlEqualTo(TEST_ENDPOINT)));
     }
 
     @Test
-    public void overwritingGlobalRequestConfigurationTest() {
+    public void rateLimitedBucketShouldBePausedByRetryAfterTest() {
         //given
-        var cVurl = new CVurl(Configuration.builderWithDefaultHttpClient()
-                .requestTimeout(Duration.ofSeconds(1))
-                .acceptCompressed(false)
-                .logEnabled(false)
+        var limitedCVurl = new CVurl(Configuration.builder()
+                .rateLimiter(RateLimiter.builder().mode(RateLimiter.Mode.FAIL_FAST).perHost(100, 10).build())
                 .build());
 
-        var timeout = Duration.ofSeconds(15);
-        var acceptCompressed = true;
-        var logEnabled = true;
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.TOO_MANY_REQUESTS)
+                        .withHeader(HttpHeader.RETRY_AFTER, "60")));
 
         //when
-        Request request = cvurl.get(url)
-                .requestTimeout(timeout)
-                .acceptCompressed(acceptCompressed)
-                .logEnabled(logEnabled)
-                .create();
+        var response = limitedCVurl.get(url).asString().orElseThrow();
+        var rejected = limitedCVurl.get(url).asyncAsString();
 
         //then
-        var requestConfiguration = getRequestConfiguration((CVurlRequest) request);
-        assertEquals(requestConfiguration.getRequestTimeout()
-                .orElseThrow(() -> new IllegalStateException("No request timeout, it should be set")), timeout);
-        assertEquals(requestConfiguration.isAcceptCompressed(), acceptCompressed);
-        assertEquals(requestConfiguration.isLogEnabled(), logEnabled);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.status());
+        var exception = assertThrows(CompletionException.class, rejected::join);
+        assertTrue(exception.getCause() instanceof RequestRejectedException);
+        WireMock.verify(WireMock.exactly(1), WireMock.getRequestedFor(WireMock.urlEqualTo(TEST_ENDPOINT)));
     }
 
-    private HttpClient httpClient = HttpClient.newHttpClient();
-    private GenericMapper genericMapper = MapperFactory.createDefault();
+    @Test
+    @SuppressWarnings("removal")
+    public void derivedSingletoneConfigurationShouldOutliveOriginalTest() {
+        //given
+        var original = Configuration.builder()
+                .httpClientMode(HttpClientMode.SINGLETONE)
+                .clientName("derived-client")
+                .build();
+        var derivedCVurl = new CVurl(MapperFactory.createDefault(), original);
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.OK).withBody("derived")));
+
+        //when
+        original.close();
+        var response = derivedCVurl.get(url).asString().orElseThrow();
+
+        //then
+        assertEquals("derived", response.getBody());
+        assertSame(HttpClientMode.SINGLETONE, derivedCVurl.getConfiguration().getHttpClientMode());
+        derivedCVurl.getConfiguration().close();
+    }
+
+    @Test
+    public void blockingRequestWithVirtualThreadsTest() {
+        assumeTrue(VirtualThreads.isSupported());
+
+        //given
+        var configuration = Configuration.builder().virtualThreads(true).build();
+        var virtualCVurl = new CVurl(configuration);
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.OK).withBody("virtual")));
+
+        //when
+        var response = virtualCVurl.get(url).asString().orElseThrow();
+
+        //then
+        assertTrue(configuration.isVirtualThreads());
+        assertEquals("virtual", response.getBody());
+    }
+
+    @Test
+    public void failedIdempotentRequestShouldBeRetriedTest() {
+        //given
+        var retryingCVurl = new CVurl(Configuration.builder()
+                .retryPolicy(RetryPolicy.builder().initialBackoff(Duration.ofMillis(10)).build())
+                .build());
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .inScenario("retry").whenScenarioStateIs(STARTED)
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.SERVICE_UNAVAILABLE))
+                .willSetStateTo("recovered"));
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .inScenario("retry").whenScenarioStateIs("recovered")
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.OK).withBody("recovered")));
+
+        //when
+        var response = retryingCVurl.get(url).asString().orElseThrow();
+
+        //then
+        assertEquals(HttpStatus.OK, response.status());
+        assertEquals("recovered", response.getBody());
+        WireMock.verify(WireMock.exactly(2), WireMock.getRequestedFor(WireMock.urlEqualTo(TEST_ENDPOINT)));
+    }
+
+    @Test
+    public void failedAsyncRequestShouldBeRetriedUntilAttemptsAreExhaustedTest() {
+        //given
+        var retryingCVurl = new CVurl(Configuration.builder()
+                .retryPolicy(RetryPolicy.builder().maxAttempts(3).initialBackoff(Duration.ofMillis(10)).build())
+                .build());
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse().withFault(Fault.RANDOM_DATA_THEN_CLOSE)));
+
+        //when
+        var response = retryingCVurl.get(url).asyncAsString();
+
+        //then
+        var exception = assertThrows(CompletionException.class, response::join);
+        assertTrue(exception.getCause() instanceof IOException);
+        WireMock.verify(WireMock.exactly(3), WireMock.getRequestedFor(WireMock.urlEqualTo(TEST_ENDPOINT)));
+    }
+
+    @Test
+    public void nonIdempotentRequestShouldNotBeRetriedTest() {
+        //given
+        wiremock.stubFor(WireMock.post(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.SERVICE_UNAVAILABLE)));
+
+        //when
+        var response = cvurl.post(url)
+                .retryPolicy(RetryPolicy.builder().initialBackoff(Duration.ofMillis(10)).build())
+                .asString()
+                .orElseThrow();
+
+        //then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.status());
+        WireMock.verify(WireMock.exactly(1), WireMock.postRequestedFor(WireMock.urlEqualTo(TEST_ENDPOINT)));
+    }
+
+    @Test
+    public void slowRequestShouldBeHedgedTest() {
+        //given
+        var hedgingCVurl = new CVurl(Configuration.builder()
+                .hedgingPolicy(HedgingPolicy.builder().delay(Duration.ofMillis(100)).build())
+                .build());
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .inScenario("hedge").whenScenarioStateIs(STARTED)
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.OK).withBody("slow").withFixedDelay(3000))
+                .willSetStateTo("hedged"));
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .inScenario("hedge").whenScenarioStateIs("hedged")
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.OK).withBody("fast")));
+
+        //when
+        long start = System.nanoTime();
+        var response = hedgingCVurl.get(url).asString().orElseThrow();
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        //then
+        assertEquals("fast", response.getBody());
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(2)) < 0);
+        WireMock.verify(WireMock.exactly(2), WireMock.getRequestedFor(WireMock.urlEqualTo(TEST_ENDPOINT)));
+    }
+
+    @Test
+    public void fastRequestShouldNotBeHedgedTest() {
+        //given
+        var hedgingCVurl = new CVurl(Configuration.builder()
+                .hedgingPolicy(HedgingPolicy.builder().delay(Duration.ofSeconds(2)).build())
+                .build());
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.OK).withBody("fast")));
+
+        //when
+        var response = hedgingCVurl.get(url).asyncAsString().join();
+
+        //then
+        assertEquals("fast", response.getBody());
+        WireMock.verify(WireMock.exactly(1), WireMock.getRequestedFor(WireMock.urlEqualTo(TEST_ENDPOINT)));
+    }
+
+    @Test
+    public void openCircuitShouldRejectRequestsWithoutSendingThemTest() {
+        //given
+        var circuitBreaker = CircuitBreaker.builder().windowSize(2).minimumCalls(2).build();
+        var protectedCVurl = new CVurl(Configuration.builder()
+                .circuitBreaker(circuitBreaker)
+                .build());
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.SERVICE_UNAVAILABLE)));
+
+        //when
+        protectedCVurl.get(url).asString().orElseThrow();
+        protectedCVurl.get(url).asyncAsString().join();
+        var rejected = protectedCVurl.get(url).asyncAsString();
+
+        //then
+        var exception = assertThrows(CompletionException.class, rejected::join);
+        assertTrue(exception.getCause() instanceof RequestRejectedException);
+        assertThrows(RequestRejectedException.class, () -> protectedCVurl.get(url).asObject(String.class));
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState("localhost:" + PORT));
+        WireMock.verify(WireMock.exactly(2), WireMock.getRequestedFor(WireMock.urlEqualTo(TEST_ENDPOINT)));
+    }
+
+    @Test
+    public void identicalConcurrentGetRequestsShouldBeCoalescedTest() throws JsonProcessingException {
+        //given
+        var coalescer = new RequestCoalescer();
+        var coalescingCVurl = new CVurl(Configuration.builder()
+                .requestCoalescer(coalescer)
+                .build());
+        User user = ObjectGenerator.generateTestObject();
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withBody(mapper.writeValueAsString(user))
+                        .withFixedDelay(500)));
+
+        //when
+        var futures = new ArrayList<CompletableFuture<User>>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(coalescingCVurl.get(url).asyncAsObject(User.class));
+        }
+        var users = futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+
+        //then
+        users.forEach(resultUser -> assertEquals(user, resultUser));
+        assertNotSame(users.get(0), users.get(1));
+        assertEquals(4, coalescer.getCoalescedCount());
+        WireMock.verify(WireMock.exactly(1), WireMock.getRequestedFor(WireMock.urlEqualTo(TEST_ENDPOINT)));
+    }
+
+    @Test
+    public void postRequestsShouldNotBeCoalescedTest() {
+        //given
+        var coalescingCVurl = new CVurl(Configuration.builder()
+                .requestCoalescer(new RequestCoalescer())
+                .build());
+
+        wiremock.stubFor(WireMock.post(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.OK).withFixedDelay(300)));
+
+        //when
+        var first = coalescingCVurl.post(url).asyncAsString();
+        var second = coalescingCVurl.post(url).asyncAsString();
+        CompletableFuture.allOf(first, second).join();
+
+        //then
+        WireMock.verify(WireMock.exactly(2), WireMock.postRequestedFor(WireMock.urlEqualTo(TEST_ENDPOINT)));
+    }
+
+    @Test
+    public void freshCachedResponseShouldBeServedWithoutNetworkTest() throws JsonProcessingException {
+        //given
+        var cache = HttpCache.inMemory(1024 * 1024);
+        var cachingCVurl = new CVurl(Configuration.builder()
+                .httpCache(cache)
+                .build());
+        User user = ObjectGenerator.generateTestObject();
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withHeader(HttpHeader.CACHE_CONTROL, "max-age=60")
+                        .withBody(mapper.writeValueAsString(user))));
+
+        //when
+        var first = cachingCVurl.get(url).asObject(User.class);
+        var second = cachingCVurl.get(url).asyncAsObject(User.class).join();
+        var third = cachingCVurl.get(url).asString().orElseThrow();
+
+        //then
+        assertEquals(user, first);
+        assertEquals(user, second);
+        assertEquals(mapper.writeValueAsString(user), third.getBody());
+        assertEquals(HttpStatus.OK, third.status());
+        assertEquals(2, cache.getStatistics().getHits());
+        WireMock.verify(WireMock.exactly(1), WireMock.getRequestedFor(WireMock.urlEqualTo(TEST_ENDPOINT)));
+    }
+
+    @Test
+    public void freshCachedResponseShouldBeServedAsByteBufferPublisherTest() {
+        //given
+        var cache = HttpCache.inMemory(1024 * 1024);
+        var cachingCVurl = new CVurl(Configuration.builder()
+                .httpCache(cache)
+                .build());
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withHeader(HttpHeader.CACHE_CONTROL, "max-age=60")
+                        .withBody(CACHED_BODY)));
+        cachingCVurl.get(url).asString().orElseThrow();
+
+        //when
+        var response = cachingCVurl.get(url).asyncAsPublisher().join();
+
+        //then
+        assertEquals(CACHED_BODY, toString(collect(response.getBody()).join()));
+        assertEquals(1, cache.getStatistics().getHits());
+        WireMock.verify(WireMock.exactly(1), WireMock.getRequestedFor(WireMock.urlEqualTo(TEST_ENDPOINT)));
+    }
+
+    @Test
+    public void staleCachedResponseShouldBeRevalidatedTest() {
+        //given
+        var cache = HttpCache.inMemory(1024 * 1024);
+        var cachingCVurl = new CVurl(Configuration.builder()
+                .httpCache(cache)
+                .build());
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .inScenario("revalidation").whenScenarioStateIs(STARTED)
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withHeader(HttpHeader.CACHE_CONTROL, "no-cache")
+                        .withHeader(HttpHeader.ETAG, "\"v1\"")
+                        .withBody(CACHED_BODY))
+                .willSetStateTo("cached"));
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .inScenario("revalidation").whenScenarioStateIs("cached")
+                .withHeader(HttpHeader.IF_NONE_MATCH, WireMock.equalTo("\"v1\""))
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.NOT_MODIFIED)));
+
+        //when
+        var first = cachingCVurl.get(url).asString().orElseThrow();
+        var second = cachingCVurl.get(url).asyncAsString().join();
+
+        //then
+        assertEquals(CACHED_BODY, first.getBody());
+        assertEquals(CACHED_BODY, second.getBody());
+        assertEquals(HttpStatus.OK, second.status());
+        assertEquals(1, cache.getStatistics().getNotModified());
+        WireMock.verify(WireMock.exactly(2), WireMock.getRequestedFor(WireMock.urlEqualTo(TEST_ENDPOINT)));
+    }
+
+    @Test
+    public void noStoreResponseShouldNotBeCachedTest() {
+        //given
+        var cachingCVurl = new CVurl(Configuration.builder()
+                .httpCache(HttpCache.inMemory(1024 * 1024))
+                .build());
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withHeader(HttpHeader.CACHE_CONTROL, "no-store, max-age=60")
+                        .withBody(CACHED_BODY)));
+
+        //when
+        cachingCVurl.get(url).asString().orElseThrow();
+        cachingCVurl.get(url).asString().orElseThrow();
+
+        //then
+        WireMock.verify(WireMock.exactly(2), WireMock.getRequestedFor(WireMock.urlEqualTo(TEST_ENDPOINT)));
+    }
+
+    @Test
+    public void unsafeRequestShouldInvalidateCachedResponseTest() {
+        //given
+        var cachingCVurl = new CVurl(Configuration.builder()
+                .httpCache(HttpCache.inMemory(1024 * 1024))
+                .build());
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withHeader(HttpHeader.CACHE_CONTROL, "max-age=60")
+                        .withBody(CACHED_BODY)));
+        wiremock.stubFor(WireMock.put(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.NO_CONTENT)));
+
+        //when
+        cachingCVurl.get(url).asString().orElseThrow();
+        cachingCVurl.put(url).asString().orElseThrow();
+        cachingCVurl.get(url).asString().orElseThrow();
+
+        //then
+        WireMock.verify(WireMock.exactly(2), WireMock.getRequestedFor(WireMock.urlEqualTo(TEST_ENDPOINT)));
+    }
+
+    @Test
+    public void diskCachedResponseShouldBeServedAfterRestartTest(@TempDir Path cacheDirectory) throws IOException {
+        //given
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withHeader(HttpHeader.CACHE_CONTROL, "max-age=60")
+                        .withBody(CACHED_BODY)));
+
+        var store = new DiskCacheStore(cacheDirectory, 1024 * 1024);
+        new CVurl(Configuration.builder()
+                .httpCache(HttpCache.builder().store(store).build())
+                .build())
+                .get(url).asString().orElseThrow();
+        store.close();
+
+        //when
+        var restartedCVurl = new CVurl(Configuration.builder()
+                .httpCache(HttpCache.builder()
+                        .store(new TieredCacheStore(new MemoryCacheStore(1024), new DiskCacheStore(cacheDirectory, 1024 * 1024)))
+                        .build())
+                .build());
+        var stream = restartedCVurl.get(url).asStream().orElseThrow();
+        var string = restartedCVurl.get(url).asyncAsString().join();
+
+        //then
+        try (var body = stream.getBody()) {
+            assertEquals(CACHED_BODY, new String(body.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals(HttpStatus.OK, stream.status());
+        assertEquals(CACHED_BODY, string.getBody());
+        WireMock.verify(WireMock.exactly(1), WireMock.getRequestedFor(WireMock.urlEqualTo(TEST_ENDPOINT)));
+    }
+
+    @Test
+    public void staleResponseShouldBeServedWhileRefreshedInBackgroundTest() throws InterruptedException {
+        //given
+        var store = new MemoryCacheStore(1024 * 1024);
+        var cachingCVurl = new CVurl(Configuration.builder()
+                .httpCache(HttpCache.builder().store(store).build())
+                .build());
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .inScenario("refresh").whenScenarioStateIs(STARTED)
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withHeader(HttpHeader.CACHE_CONTROL, "max-age=0, stale-while-revalidate=60")
+                        .withBody("v1"))
+                .willSetStateTo("refreshed"));
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .inScenario("refresh").whenScenarioStateIs("refreshed")
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withHeader(HttpHeader.CACHE_CONTROL, "max-age=60")
+                        .withBody("v2")
+                        .withFixedDelay(300)));
+
+        //when
+        var first = cachingCVurl.get(url).asString().orElseThrow();
+        var stale = cachingCVurl.get(url).asyncAsString().join();
+        for (int i = 0; i < 50 && !"v2".equals(new String(store.get(url).orElseThrow().getBody())); i++) {
+            Thread.sleep(50);
+        }
+        var refreshed = cachingCVurl.get(url).asString().orElseThrow();
+
+        //then
+        assertEquals("v1", first.getBody());
+        assertEquals("v1", stale.getBody());
+        assertEquals("v2", refreshed.getBody());
+        WireMock.verify(WireMock.exactly(2), WireMock.getRequestedFor(WireMock.urlEqualTo(TEST_ENDPOINT)));
+    }
+
+    @Test
+    public void staleResponseShouldBeServedWhenServerFailsTest() {
+        //given
+        var cachingCVurl = new CVurl(Configuration.builder()
+                .httpCache(HttpCache.builder()
+                        .store(new MemoryCacheStore(1024 * 1024))
+                        .staleIfError(Duration.ofMinutes(1))
+                        .build())
+                .build());
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .inScenario("failure").whenScenarioStateIs(STARTED)
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withHeader(HttpHeader.CACHE_CONTROL, "max-age=0")
+                        .withBody(CACHED_BODY))
+                .willSetStateTo("unavailable"));
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .inScenario("failure").whenScenarioStateIs("unavailable")
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.SERVICE_UNAVAILABLE))
+                .willSetStateTo("broken"));
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .inScenario("failure").whenScenarioStateIs("broken")
+                .willReturn(WireMock.aResponse().withFault(Fault.RANDOM_DATA_THEN_CLOSE)));
+
+        //when
+        cachingCVurl.get(url).asString().orElseThrow();
+        var onServerError = cachingCVurl.get(url).asString().orElseThrow();
+        var onFailure = cachingCVurl.get(url).asyncAsString().join();
+
+        //then
+        assertEquals(HttpStatus.OK, onServerError.status());
+        assertEquals(CACHED_BODY, onServerError.getBody());
+        assertEquals(CACHED_BODY, onFailure.getBody());
+        WireMock.verify(WireMock.exactly(3), WireMock.getRequestedFor(WireMock.urlEqualTo(TEST_ENDPOINT)));
+    }
+
+    @Test
+    public void asNdJsonStreamTest() throws JsonProcessingException {
+        //given
+        List<User> users = ObjectGenerator.generateListOfTestObjects();
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withHeader(HttpHeader.CONTENT_TYPE, MIMEType.APPLICATION_NDJSON)
+                        .withBody(toNdJson(users))));
+
+        //when
+        List<User> resultUsers;
+        try (Stream<User> stream = cvurl.get(url).asNdJsonStream(User.class)) {
+            resultUsers = stream.collect(Collectors.toList());
+        }
+
+        //then
+        assertEquals(users, resultUsers);
+    }
+
+    @Test
+    public void asyncAsNdJsonPublisherTest() throws JsonProcessingException, ExecutionException, InterruptedException {
+        //given
+        List<User> users = ObjectGenerator.generateListOfTestObjects();
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withHeader(HttpHeader.CONTENT_TYPE, MIMEType.APPLICATION_NDJSON)
+                        .withBody(toNdJson(users))));
+
+        //when
+        List<User> resultUsers = collect(cvurl.get(url).asyncAsNdJsonPublisher(User.class)).get();
+
+        //then
+        assertEquals(users, resultUsers);
+    }
+
+    @Test
+    public void asNdJsonStreamWithNullLineShouldThrowMappingExceptionTest() {
+        //given
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withHeader(HttpHeader.CONTENT_TYPE, MIMEType.APPLICATION_NDJSON)
+                        .withBody("1\nnull\n2\n")));
+
+        //when
+        var exception = assertThrows(MappingException.class, () -> {
+            try (Stream<Integer> stream = cvurl.get(url).asNdJsonStream(Integer.class)) {
+                stream.forEach(value -> {
+                });
+            }
+        });
+
+        //then
+        assertTrue(exception.getMessage().contains("index 1"));
+    }
+
+    @Test
+    public void asyncAsNdJsonPublisherWithNullLineShouldFailWithMappingExceptionTest() {
+        //given
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withHeader(HttpHeader.CONTENT_TYPE, MIMEType.APPLICATION_NDJSON)
+                        .withBody("1\nnull\n2\n")));
+
+        //when
+        var result = collect(cvurl.get(url).asyncAsNdJsonPublisher(Integer.class));
+
+        //then
+        var exception = assertThrows(ExecutionException.class, result::get);
+        assertTrue(exception.getCause() instanceof MappingException);
+        assertTrue(exception.getCause().getMessage().contains("index 1"));
+    }
+
+    @Test
+    public void sendWithNdJsonStreamBodyTest() throws JsonProcessingException {
+        //given
+        List<User> users = ObjectGenerator.generateListOfTestObjects();
+
+        wiremock.stubFor(WireMock.post(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .withHeader(HttpHeader.CONTENT_TYPE, equalTo(MIMEType.APPLICATION_NDJSON))
+                .withRequestBody(equalTo(toNdJson(users)))
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.OK)));
+
+        //when
+        var response = cvurl.post(url).body(users.stream()).asyncAsString().join();
+
+        //then
+        assertEquals(HttpStatus.OK, response.status());
+    }
+
+    @Test
+    public void resendingNdJsonStreamBodyShouldFailTest() throws JsonProcessingException {
+        //given
+        List<User> users = ObjectGenerator.generateListOfTestObjects();
+
+        wiremock.stubFor(WireMock.post(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .withRequestBody(equalTo(toNdJson(users)))
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.OK)));
+
+        var request = cvurl.post(url).body(users.stream()).create();
+        request.asyncAsString().join();
+
+        //when
+        var response = request.asyncAsString();
+
+        //then
+        var exception = assertThrows(CompletionException.class, response::join);
+        assertTrue(Stream.iterate(exception, Objects::nonNull, Throwable::getCause)
+                .anyMatch(IllegalStateException.class::isInstance));
+        WireMock.verify(WireMock.exactly(1), WireMock.postRequestedFor(WireMock.urlEqualTo(TEST_ENDPOINT)));
+    }
+
+    @Test
+    public void ndJsonStreamBodyShouldNotBeRetriedTest() {
+        //given
+        List<User> users = ObjectGenerator.generateListOfTestObjects();
+
+        wiremock.stubFor(WireMock.post(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.SERVICE_UNAVAILABLE)));
+
+        //when
+        var response = cvurl.post(url)
+                .body(users.stream())
+                .retryPolicy(RetryPolicy.builder().retryNonIdempotent(true).initialBackoff(Duration.ofMillis(10)).build())
+                .asyncAsString()
+                .join();
+
+        //then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.status());
+        WireMock.verify(WireMock.exactly(1), WireMock.postRequestedFor(WireMock.urlEqualTo(TEST_ENDPOINT)));
+    }
+
+    @Test
+    public void sendWithNdJsonPublisherBodyTest() throws JsonProcessingException, InterruptedException {
+        //given
+        List<User> users = ObjectGenerator.generateListOfTestObjects();
+        var publisher = new SubmissionPublisher<User>();
+
+        wiremock.stubFor(WireMock.post(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .withHeader(HttpHeader.CONTENT_TYPE, equalTo(MIMEType.APPLICATION_NDJSON))
+                .withRequestBody(equalTo(toNdJson(users)))
+                .willReturn(WireMock.aResponse().withStatus(HttpStatus.OK)));
+
+        //when
+        var responseFuture = cvurl.post(url).body(publisher).asyncAsString();
+        while (publisher.getNumberOfSubscribers() == 0) {
+            Thread.sleep(10);
+        }
+        users.forEach(publisher::submit);
+        publisher.close();
+
+        //then
+        assertEquals(HttpStatus.OK, responseFuture.join().status());
+    }
+
+    @Test
+    public void asObjectWithGenericBodyTypeWithNestedGenericsTest() throws JsonProcessingException {
+        //given
+        Set<List<User>> users = Set.of(ObjectGenerator.generateListOfTestObjects());
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withBody(mapper.writeValueAsString(users))));
+
+        //when
+        Set<List<User>> resultUsers = cvurl.get(url).asObject(new BodyType<>() {});
+
+        //then
+        assertEquals(users, resultUsers);
+    }
+
+    @Test
+    public void asObjectWithStatusCodeWithGenericBodyTypeTest() throws JsonProcessingException {
+        List<User> users = ObjectGenerator.generateListOfTestObjects();
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withBody(mapper.writeValueAsString(users))));
+
+        List<User> resultUsers = cvurl.get(url)
+                .asObject(new BodyType<List<User>>() {}, HttpStatus.OK)
+                .orElseThrow(RuntimeException::new);
+
+        assertEquals(users, resultUsers);
+    }
+
+    @Test
+    public void asyncAsObjectWithGenericBodyTypeTest() throws JsonProcessingException, ExecutionException, InterruptedException {
+        //given
+        List<User> users = ObjectGenerator.generateListOfTestObjects();
+        boolean[] isThenApplyInvoked = {false};
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withBody(mapper.writeValueAsString(users))));
+
+        //when
+        List<User> resultUsers = cvurl.get(url).asyncAsObject(new BodyType<List<User>>() {})
+                .thenApply(res ->
+                {
+                    isThenApplyInvoked[0] = true;
+                    return res;
+                })
+                .get();
+
+        //then
+        assertTrue(isThenApplyInvoked[0]);
+        assertEquals(users, resultUsers);
+    }
+
+    @Test
+    public void asyncAsObjectWithStatusCodeWithGenericBodyTypeTest() throws JsonProcessingException, ExecutionException, InterruptedException {
+        //given
+        List<User> users = ObjectGenerator.generateListOfTestObjects();
+        boolean[] isThenApplyInvoked = {false};
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withBody(mapper.writeValueAsString(users))));
+
+        List<User> resultUsers = cvurl.get(url).asyncAsObject(new BodyType<List<User>>() {}, HttpStatus.OK)
+                .thenApply(res ->
+                {
+                    isThenApplyInvoked[0] = true;
+                    return res;
+                })
+                .get();
+
+        assertTrue(isThenApplyInvoked[0]);
+        assertEquals(users, resultUsers);
+    }
+
+    @Test
+    public void asObjectWithGenericBodyTypeOnUnparseableBodyShouldThrowResponseMappingExceptionTest() {
+        //given
+        var body = "not a json string";
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withBody(body)));
+
+        //when
+        ResponseMappingException responseMappingException = assertThrows(ResponseMappingException.class,
+                () -> cvurl.get(url).asObject(new BodyType<List<User>>() {}));
+
+        //then
+        assertEquals(HttpStatus.OK, responseMappingException.getResponse().status());
+        assertEquals(body, responseMappingException.getResponse().getBody());
+    }
+
+    @Test
+    public void overwritingGlobalRequestConfigurationTest() {
+        //given
+        var cVurl = new CVurl(Configuration.builderWithDefaultHttpClient()
+                .requestTimeout(Duration.ofSeconds(1))
+                .acceptCompressed(false)
+                .logEnabled(false)
+                .build());
+
+        var timeout = Duration.ofSeconds(15);
+        var acceptCompressed = true;
+        var logEnabled = true;
+
+        //when
+        Request request = cvurl.get(url)
+                .requestTimeout(timeout)
+                .acceptCompressed(acceptCompressed)
+                .logEnabled(logEnabled)
+                .create();
+
+        //then
+        var requestConfiguration = getRequestConfiguration((CVurlRequest) request);
+        assertEquals(requestConfiguration.getRequestTimeout()
+                .orElseThrow(() -> new IllegalStateException("No request timeout, it should be set")), timeout);
+        assertEquals(requestConfiguration.isAcceptCompressed(), acceptCompressed);
+        assertEquals(requestConfiguration.isLogEnabled(), logEnabled);
+    }
+
+    private HttpClient httpClient = HttpClient.newHttpClient();
+    private GenericMapper genericMapper = MapperFactory.createDefault();
+
+    private String toNdJson(List<User> users) throws JsonProcessingException {
+        var ndJson = new StringBuilder();
+        for (User user : users) {
+            ndJson.append(mapper.writeValueAsString(user)).append('\n');
+        }
+        return ndJson.toString();
+    }
+
+    @Test
+    public void requestInFlightShouldCompleteAfterItsConfigurationIsCollectedTest() throws Exception {
+        //given
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withBody("Test body")
+                        .withFixedDelay(1000)));
+        int registered = HttpClientRegistry.size();
+        var response = sendWithUnreferencedConfiguration();
+
+        //when
+        for (int i = 0; i < 50 && HttpClientRegistry.size() > registered; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        //then
+        assertEquals(registered, HttpClientRegistry.size());
+        assertEquals("Test body", response.get(5, TimeUnit.SECONDS).getBody());
+    }
+
+    private CompletableFuture<Response<String>> sendWithUnreferencedConfiguration() {
+        var configuration = Configuration.builder()
+                .httpClientMode(HttpClientMode.SINGLETONE)
+                .clientName("unreferenced-client")
+                .build();
+        return new CVurl(configuration).get(url).asyncAsString();
+    }
+
+    private <T> CompletableFuture<List<T>> collect(Flow.Publisher<T> publisher) {
+        var result = new CompletableFuture<List<T>>();
+        publisher.subscribe(new Flow.Subscriber<T>() {
+            private final List<T> items = new ArrayList<>();
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(T item) {
+                items.add(item);
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                result.complete(items);
+            }
+        });
+        return result;
+    }
+
+    private static String toString(List<List<ByteBuffer>> chunks) {
+        var out = new ByteArrayOutputStream();
+        for (List<ByteBuffer> list : chunks) {
+            for (ByteBuffer chunk : list) {
+                var bytes = new byte[chunk.remaining()];
+                chunk.get(bytes);
+                out.writeBytes(bytes);
+            }
+        }
+        return out.toString();
+    }
 
     private byte[] compressWithGZIP(String str) throws IOException {
         var out = new ByteArrayOutputStream();
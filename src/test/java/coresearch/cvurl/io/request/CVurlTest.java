@@ -1,13 +1,18 @@
 package coresearch.cvurl.io.request;
 
 import coresearch.cvurl.io.constant.HttpClientMode;
+import coresearch.cvurl.io.internal.util.VirtualThreads;
 import coresearch.cvurl.io.mapper.MapperFactory;
 import coresearch.cvurl.io.model.Configuration;
 import org.junit.jupiter.api.Test;
 
 import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public class CVurlTest {
 
@@ -39,6 +44,113 @@ public class CVurlTest {
         assertSame(getHttpClient(cvurl1), getHttpClient(cvurl2));
     }
 
+    @Test
+    public void createCVurlWithSingletoneHttpClientAndDifferentPropertiesTest() {
+        //given
+        var configuration1 = Configuration.builder().httpClientMode(HttpClientMode.SINGLETONE)
+                .connectTimeout(Duration.ofSeconds(1)).build();
+        var configuration2 = Configuration.builder().httpClientMode(HttpClientMode.SINGLETONE)
+                .connectTimeout(Duration.ofSeconds(2)).build();
+
+        //when
+        var cvurl1 = new CVurl(configuration1);
+        var cvurl2 = new CVurl(configuration2);
+
+        //then
+        assertNotSame(getHttpClient(cvurl1), getHttpClient(cvurl2));
+        assertEquals(Duration.ofSeconds(2), getHttpClient(cvurl2).connectTimeout().orElseThrow());
+    }
+
+    @Test
+    public void createCVurlWithNamedSingletoneHttpClientTest() {
+        //given
+        var configuration1 = Configuration.builder().httpClientMode(HttpClientMode.SINGLETONE)
+                .clientName("named-client").build();
+        var configuration2 = Configuration.builder().httpClientMode(HttpClientMode.SINGLETONE)
+                .clientName("named-client").build();
+
+        //when
+        var cvurl1 = new CVurl(configuration1);
+        var cvurl2 = new CVurl(configuration2);
+
+        //then
+        assertSame(getHttpClient(cvurl1), getHttpClient(cvurl2));
+    }
+
+    @Test
+    public void closeLastSingletoneConfigurationShouldShutDownHttpClientTest() {
+        //given
+        var configuration1 = Configuration.builder().httpClientMode(HttpClientMode.SINGLETONE)
+                .clientName("closed-client").build();
+        var configuration2 = Configuration.builder().httpClientMode(HttpClientMode.SINGLETONE)
+                .clientName("closed-client").build();
+        var executor = (ExecutorService) configuration1.getHttpClient().executor().orElseThrow();
+
+        //when
+        configuration1.close();
+        boolean shutDownWhileShared = executor.isShutdown();
+        configuration2.close();
+        var configuration3 = Configuration.builder().httpClientMode(HttpClientMode.SINGLETONE)
+                .clientName("closed-client").build();
+
+        //then
+        assertFalse(shutDownWhileShared);
+        assertTrue(executor.isShutdown());
+        assertNotSame(configuration1.getHttpClient(), configuration3.getHttpClient());
+        configuration3.close();
+    }
+
+    @Test
+    public void createCVurlWithPooledHttpClientTest() {
+        //given
+        var configuration = Configuration.builder()
+                .httpClientMode(HttpClientMode.POOLED)
+                .poolSize(3)
+                .build();
+
+        //when
+        var cvurl = new CVurl(configuration);
+
+        //then
+        var httpClient = getHttpClient(cvurl);
+        assertTrue(httpClient instanceof PooledHttpClient);
+        assertEquals(3, ((PooledHttpClient) httpClient).size());
+    }
+
+    @Test
+    public void createPooledConfigurationWithPredefinedHttpClientShouldThrowISE() {
+        //given
+        var builder = Configuration.builder(HttpClient.newHttpClient()).httpClientMode(HttpClientMode.POOLED);
+
+        //then
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+
+    @Test
+    public void virtualThreadsOnUnsupportedRuntimeShouldThrowISETest() {
+        assumeFalse(VirtualThreads.isSupported());
+
+        //given
+        var builder = Configuration.builder();
+
+        //then
+        assertThrows(IllegalStateException.class, () -> builder.virtualThreads(true));
+    }
+
+    @Test
+    public void createCVurlWithVirtualThreadsTest() {
+        assumeTrue(VirtualThreads.isSupported());
+
+        //given
+        var configuration = Configuration.builder().virtualThreads(true).build();
+
+        //when
+        var cvurl = new CVurl(configuration);
+
+        //then
+        assertTrue(getHttpClient(cvurl).executor().isPresent());
+    }
+
     @Test
     public void createCVurlWithNullConfigShouldThrowNPE() {
         //given
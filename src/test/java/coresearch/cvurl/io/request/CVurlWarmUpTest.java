@@ -0,0 +1,110 @@
+package coresearch.cvurl.io.request;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import coresearch.cvurl.io.constant.HttpClientMode;
+import coresearch.cvurl.io.constant.HttpStatus;
+import coresearch.cvurl.io.exception.MappingException;
+import coresearch.cvurl.io.helper.model.User;
+import coresearch.cvurl.io.mapper.impl.JacksonMapper;
+import coresearch.cvurl.io.model.Configuration;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CVurlWarmUpTest extends AbstractRequestTest {
+
+    private static final String ORIGIN = String.format(URL_PATTERN, PORT, "");
+    private static final String UNREACHABLE_ORIGIN = "http://localhost:1";
+
+    @Test
+    public void warmUpTest() {
+        //given
+        wiremock.stubFor(WireMock.options(WireMock.anyUrl())
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.NO_CONTENT)));
+
+        //when
+        var result = cvurl.warmUp(List.of(ORIGIN), User.class);
+
+        //then
+        WireMock.verify(WireMock.exactly(1), WireMock.optionsRequestedFor(WireMock.anyUrl()));
+
+        assertTrue(result.isSuccessful());
+        assertEquals(List.of(ORIGIN), result.getWarmedUpOrigins());
+        assertFalse(result.getDuration().isNegative());
+    }
+
+    @Test
+    public void warmUpWithUnreachableOriginTest() {
+        //when
+        var result = cvurl.warmUp(List.of(ORIGIN, UNREACHABLE_ORIGIN));
+
+        //then
+        assertFalse(result.isSuccessful());
+        assertEquals(List.of(ORIGIN), result.getWarmedUpOrigins());
+        assertTrue(result.getFailedOrigins().containsKey(UNREACHABLE_ORIGIN));
+    }
+
+    @Test
+    public void warmUpWithInvalidOriginsTest() {
+        //given
+        wiremock.stubFor(WireMock.options(WireMock.anyUrl())
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.NO_CONTENT)));
+
+        //when
+        var result = cvurl.warmUp(List.of("not an origin", "ftp://localhost", ORIGIN));
+
+        //then
+        assertFalse(result.isSuccessful());
+        assertEquals(List.of(ORIGIN), result.getWarmedUpOrigins());
+        assertTrue(result.getFailedOrigins().get("not an origin") instanceof IllegalArgumentException);
+        assertTrue(result.getFailedOrigins().get("ftp://localhost") instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void warmUpWithFailingBodyTypeTest() {
+        //given
+        wiremock.stubFor(WireMock.options(WireMock.anyUrl())
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.NO_CONTENT)));
+        var failingCVurl = new CVurl(Configuration.builder()
+                .genericMapper(new JacksonMapper(new ObjectMapper()) {
+                    @Override
+                    public void warmUp(Class<?> valueType) {
+                        throw new MappingException("No serializer for " + valueType.getName(), null);
+                    }
+                })
+                .build());
+
+        //when
+        var result = failingCVurl.warmUp(List.of(ORIGIN), User.class);
+
+        //then
+        assertFalse(result.isSuccessful());
+        assertEquals(List.of(ORIGIN), result.getWarmedUpOrigins());
+        assertTrue(result.getFailedBodyTypes().get(User.class) instanceof MappingException);
+    }
+
+    @Test
+    public void warmUpPooledClientTest() {
+        //given
+        var pooledCVurl = new CVurl(Configuration.builder()
+                .httpClientMode(HttpClientMode.POOLED)
+                .poolSize(3)
+                .build());
+
+        //when
+        var result = pooledCVurl.warmUp(List.of(ORIGIN));
+
+        //then
+        WireMock.verify(WireMock.exactly(3), WireMock.optionsRequestedFor(WireMock.anyUrl()));
+
+        assertTrue(result.isSuccessful());
+    }
+}
@@ -0,0 +1,47 @@
+package coresearch.cvurl.io.request;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import coresearch.cvurl.io.constant.HttpStatus;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PooledHttpClientTest extends AbstractRequestTest {
+
+    @Test
+    public void requestsInFlightShouldBeTrackedTest() {
+        //given
+        var httpClient = PooledHttpClient.of(2, HttpClient::newHttpClient);
+        var request = HttpRequest.newBuilder(URI.create(String.format(URL_PATTERN, PORT, TEST_ENDPOINT))).build();
+
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(TEST_ENDPOINT))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withFixedDelay(300)));
+
+        //when
+        var first = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        var second = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        int inFlight = httpClient.inFlight();
+        CompletableFuture.allOf(first, second).join();
+
+        //then
+        assertEquals(2, inFlight);
+        assertEquals(0, httpClient.inFlight());
+        assertEquals(HttpStatus.OK, first.join().statusCode());
+        assertEquals(HttpStatus.OK, second.join().statusCode());
+    }
+
+    @Test
+    public void createPoolWithNonPositiveSizeShouldThrowIAETest() {
+        //then
+        assertThrows(IllegalArgumentException.class, () -> PooledHttpClient.of(0, HttpClient::newHttpClient));
+    }
+}
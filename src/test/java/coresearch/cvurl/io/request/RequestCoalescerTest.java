@@ -0,0 +1,110 @@
+package coresearch.cvurl.io.request;
+
+import coresearch.cvurl.io.utils.MockHttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RequestCoalescerTest {
+
+    private static final HttpRequest REQUEST = HttpRequest.newBuilder(URI.create("http://host/users")).build();
+
+    @Test
+    public void identicalConcurrentRequestsShouldBeSentOnceTest() {
+        //given
+        var coalescer = new RequestCoalescer();
+        var sent = new AtomicInteger();
+        var response = new CompletableFuture<HttpResponse<String>>();
+
+        //when
+        var first = coalescer.coalesce(REQUEST, "string", UnaryOperator.identity(), () -> {
+            sent.incrementAndGet();
+            return response;
+        });
+        var second = coalescer.coalesce(REQUEST, "string", UnaryOperator.<String>identity(), () -> {
+            sent.incrementAndGet();
+            return response;
+        });
+        var inFlight = coalescer.getInFlight();
+        response.complete(MockHttpResponse.create());
+
+        //then
+        assertEquals(1, sent.get());
+        assertEquals(1, inFlight);
+        assertEquals(1, coalescer.getCoalescedCount());
+        assertEquals(0, coalescer.getInFlight());
+        assertSame(response.join(), first.join());
+        assertNotSame(response.join(), second.join());
+    }
+
+    @Test
+    public void requestsWithDifferentHeadersOrBodyKindsShouldNotBeCoalescedTest() {
+        //given
+        var coalescer = new RequestCoalescer();
+        var authorized = HttpRequest.newBuilder(REQUEST.uri()).header("Authorization", "token").build();
+        var sent = new AtomicInteger();
+
+        //when
+        coalescer.coalesce(REQUEST, "string", UnaryOperator.<String>identity(), () -> pending(sent));
+        coalescer.coalesce(authorized, "string", UnaryOperator.<String>identity(), () -> pending(sent));
+        coalescer.coalesce(REQUEST, "bytes", UnaryOperator.<String>identity(), () -> pending(sent));
+
+        //then
+        assertEquals(3, sent.get());
+        assertEquals(3, coalescer.getInFlight());
+    }
+
+    @Test
+    public void completedRequestShouldNotBeReusedTest() {
+        //given
+        var coalescer = new RequestCoalescer();
+        var sent = new AtomicInteger();
+
+        //when
+        coalescer.coalesce(REQUEST, "string", UnaryOperator.<String>identity(), () -> {
+            sent.incrementAndGet();
+            return CompletableFuture.completedFuture(MockHttpResponse.create());
+        }).join();
+        coalescer.coalesce(REQUEST, "string", UnaryOperator.<String>identity(), () -> pending(sent));
+
+        //then
+        assertEquals(2, sent.get());
+    }
+
+    @Test
+    public void failureShouldBePropagatedToAllCallersTest() {
+        //given
+        var coalescer = new RequestCoalescer();
+        var response = new CompletableFuture<HttpResponse<String>>();
+
+        //when
+        var first = coalescer.coalesce(REQUEST, "string", UnaryOperator.identity(), () -> response);
+        var second = coalescer.coalesce(REQUEST, "string", UnaryOperator.<String>identity(), () -> response);
+        response.completeExceptionally(new IOException("connection reset"));
+
+        //then
+        var firstException = assertThrows(CompletionException.class, first::join);
+        var secondException = assertThrows(CompletionException.class, second::join);
+        assertTrue(firstException.getCause() instanceof IOException);
+        assertTrue(secondException.getCause() instanceof IOException);
+        assertEquals(0, coalescer.getInFlight());
+    }
+
+    private static CompletableFuture<HttpResponse<String>> pending(AtomicInteger sent) {
+        sent.incrementAndGet();
+        return new CompletableFuture<>();
+    }
+}
@@ -0,0 +1,96 @@
+package coresearch.cvurl.io.request.handler;
+
+import coresearch.cvurl.io.internal.util.ZlibPool;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Flow;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DecodingBodySubscriberTest {
+
+    @Test
+    public void cancelledBodyShouldReleaseInflaterTest() throws IOException {
+        //given
+        ZlibPool.RAW_INFLATERS.release(ZlibPool.RAW_INFLATERS.acquire());
+        int idle = ZlibPool.RAW_INFLATERS.metrics().getIdle();
+
+        byte[] compressed = compress(randomContent(100_000));
+        var upstream = new RecordingSubscription();
+        var subscriber = new DecodingBodySubscriber<>(
+                HttpResponse.BodySubscribers.fromSubscriber(new CancellingOnFirstChunkSubscriber()),
+                new GzipContentDecoder());
+
+        //when
+        subscriber.onSubscribe(upstream);
+        subscriber.onNext(List.of(ByteBuffer.wrap(Arrays.copyOf(compressed, compressed.length / 2))));
+
+        //then
+        assertTrue(upstream.cancelled);
+        assertEquals(idle, ZlibPool.RAW_INFLATERS.metrics().getIdle());
+    }
+
+    private byte[] randomContent(int size) {
+        byte[] content = new byte[size];
+        var random = new Random(42);
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) ('a' + random.nextInt(4));
+        }
+        return content;
+    }
+
+    private byte[] compress(byte[] content) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write(content);
+        }
+        return out.toByteArray();
+    }
+
+    private static class RecordingSubscription implements Flow.Subscription {
+
+        private boolean cancelled;
+
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+    private static class CancellingOnFirstChunkSubscriber implements Flow.Subscriber<List<ByteBuffer>> {
+
+        private Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> item) {
+            subscription.cancel();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
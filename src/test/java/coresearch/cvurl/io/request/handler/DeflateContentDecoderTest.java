@@ -0,0 +1,97 @@
+package coresearch.cvurl.io.request.handler;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DeflateContentDecoderTest {
+
+    private static final byte[] CONTENT = "Test body Test body Test body".getBytes();
+
+    @Test
+    public void decodeZlibWrappedTest() throws IOException {
+        //given
+        var decoder = new DeflateContentDecoder();
+        var decoded = new ByteArrayOutputStream();
+
+        //when
+        for (byte value : deflate(CONTENT, false)) {
+            decoded.write(toByteArray(decoder.decode(ByteBuffer.wrap(new byte[]{value}))));
+        }
+        decoder.finish();
+
+        //then
+        assertArrayEquals(CONTENT, decoded.toByteArray());
+    }
+
+    @Test
+    public void decodeRawDeflateTest() throws IOException {
+        //given
+        var decoder = new DeflateContentDecoder();
+
+        //when
+        var decoded = decoder.decode(ByteBuffer.wrap(deflate(CONTENT, true)));
+        decoder.finish();
+
+        //then
+        assertArrayEquals(CONTENT, toByteArray(decoded));
+    }
+
+    @Test
+    public void truncatedContentShouldThrowZipExceptionTest() throws IOException {
+        //given
+        byte[] compressed = deflate(CONTENT, false);
+        var decoder = new DeflateContentDecoder();
+
+        //when
+        decoder.decode(ByteBuffer.wrap(compressed, 0, compressed.length / 2));
+
+        //then
+        assertThrows(ZipException.class, decoder::finish);
+    }
+
+    @Test
+    public void decodeStackedEncodingsTest() throws IOException {
+        //given
+        var gzipped = new ByteArrayOutputStream();
+        try (var gzipOutputStream = new GZIPOutputStream(gzipped)) {
+            gzipOutputStream.write(CONTENT);
+        }
+        var decoder = new ChainedContentDecoder(List.of(new DeflateContentDecoder(), new GzipContentDecoder()));
+
+        //when
+        var decoded = decoder.decode(ByteBuffer.wrap(deflate(gzipped.toByteArray(), false)));
+        decoder.finish();
+
+        //then
+        assertArrayEquals(CONTENT, toByteArray(decoded));
+    }
+
+    private byte[] deflate(byte[] content, boolean raw) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var deflaterOutputStream = new DeflaterOutputStream(out, new Deflater(Deflater.DEFAULT_COMPRESSION, raw))) {
+            deflaterOutputStream.write(content);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] toByteArray(List<ByteBuffer> buffers) {
+        var out = new ByteArrayOutputStream();
+        for (ByteBuffer buffer : buffers) {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            out.writeBytes(bytes);
+        }
+        return out.toByteArray();
+    }
+}
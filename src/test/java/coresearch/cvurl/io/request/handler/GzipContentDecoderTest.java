@@ -0,0 +1,137 @@
+package coresearch.cvurl.io.request.handler;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class GzipContentDecoderTest {
+
+    @Test
+    public void decodeInSingleChunkTest() throws IOException {
+        //given
+        byte[] content = randomContent(100_000);
+        var decoder = new GzipContentDecoder();
+
+        //when
+        var decoded = decoder.decode(ByteBuffer.wrap(compress(content)));
+        decoder.finish();
+
+        //then
+        assertArrayEquals(content, toByteArray(decoded));
+    }
+
+    @Test
+    public void decodeByteByByteTest() throws IOException {
+        //given
+        byte[] content = randomContent(10_000);
+        byte[] compressed = compress(content);
+        var decoder = new GzipContentDecoder();
+        var decoded = new ByteArrayOutputStream();
+
+        //when
+        for (byte value : compressed) {
+            decoded.write(toByteArray(decoder.decode(ByteBuffer.wrap(new byte[]{value}))));
+        }
+        decoder.finish();
+
+        //then
+        assertArrayEquals(content, decoded.toByteArray());
+    }
+
+    @Test
+    public void decodeHeaderWithOptionalFieldsTest() throws IOException {
+        //given
+        byte[] content = "Test body".getBytes();
+        byte[] compressed = compress(content);
+        var withName = new ByteArrayOutputStream();
+        withName.write(compressed, 0, 3);
+        withName.write(compressed[3] | 8 | 16);
+        withName.write(compressed, 4, 6);
+        withName.write("name.txt\0comment\0".getBytes());
+        withName.write(compressed, 10, compressed.length - 10);
+        var decoder = new GzipContentDecoder();
+
+        //when
+        var decoded = decoder.decode(ByteBuffer.wrap(withName.toByteArray()));
+        decoder.finish();
+
+        //then
+        assertArrayEquals(content, toByteArray(decoded));
+    }
+
+    @Test
+    public void decodeMultiMemberTest() throws IOException {
+        //given
+        byte[] first = "first ".getBytes();
+        byte[] second = "second".getBytes();
+        var compressed = new ByteArrayOutputStream();
+        compressed.write(compress(first));
+        compressed.write(compress(second));
+        var decoder = new GzipContentDecoder();
+
+        //when
+        var decoded = decoder.decode(ByteBuffer.wrap(compressed.toByteArray()));
+        decoder.finish();
+
+        //then
+        assertArrayEquals("first second".getBytes(), toByteArray(decoded));
+    }
+
+    @Test
+    public void truncatedContentShouldThrowZipExceptionTest() throws IOException {
+        //given
+        byte[] compressed = compress(randomContent(1000));
+        var decoder = new GzipContentDecoder();
+
+        //when
+        decoder.decode(ByteBuffer.wrap(compressed, 0, compressed.length - 4));
+
+        //then
+        assertThrows(ZipException.class, decoder::finish);
+    }
+
+    @Test
+    public void notGzipContentShouldThrowZipExceptionTest() {
+        //given
+        var decoder = new GzipContentDecoder();
+
+        //then
+        assertThrows(ZipException.class, () -> decoder.decode(ByteBuffer.wrap("not gzip".getBytes())));
+    }
+
+    private byte[] randomContent(int size) {
+        var random = new Random(size);
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) ('a' + random.nextInt(8));
+        }
+        return content;
+    }
+
+    private byte[] compress(byte[] content) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var gzipOutputStream = new GZIPOutputStream(out)) {
+            gzipOutputStream.write(content);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] toByteArray(List<ByteBuffer> buffers) {
+        var out = new ByteArrayOutputStream();
+        for (ByteBuffer buffer : buffers) {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            out.writeBytes(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,113 @@
+package coresearch.cvurl.io.request.handler;
+
+import coresearch.cvurl.io.mapper.IncrementalParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParsingBodySubscriberTest {
+
+    @Test
+    public void failureShouldBeSignalledWithoutOutstandingDemandTest() {
+        //given
+        var downstream = new RecordingSubscriber();
+        var subscriber = new ParsingBodySubscriber<>(downstream, new CharactersParser());
+        var failure = new IOException("connection reset");
+
+        //when
+        downstream.onSubscribe(subscriber);
+        subscriber.onSubscribe(new NoOpSubscription());
+        subscriber.onNext(List.of(ByteBuffer.wrap("abc".getBytes(StandardCharsets.UTF_8))));
+        subscriber.onError(failure);
+
+        //then
+        assertEquals(List.of("a"), downstream.items);
+        assertSame(failure, downstream.error);
+        assertTrue(subscriber.getBody().toCompletableFuture().isCompletedExceptionally());
+    }
+
+    @Test
+    public void nonPositiveRequestShouldSignalErrorAndCancelUpstreamTest() {
+        //given
+        var downstream = new RecordingSubscriber();
+        var subscriber = new ParsingBodySubscriber<>(downstream, new CharactersParser());
+        var upstream = new NoOpSubscription();
+
+        //when
+        downstream.onSubscribe(subscriber);
+        subscriber.onSubscribe(upstream);
+        subscriber.onNext(List.of(ByteBuffer.wrap("abc".getBytes(StandardCharsets.UTF_8))));
+        subscriber.onComplete();
+        subscriber.request(0);
+
+        //then
+        assertEquals(List.of("a"), downstream.items);
+        assertTrue(downstream.error instanceof IllegalArgumentException);
+        assertTrue(upstream.cancelled);
+    }
+
+    private static class CharactersParser implements IncrementalParser<String> {
+
+        @Override
+        public List<String> parse(ByteBuffer chunk) {
+            var characters = new ArrayList<String>();
+            while (chunk.hasRemaining()) {
+                characters.add(String.valueOf((char) chunk.get()));
+            }
+            return characters;
+        }
+
+        @Override
+        public List<String> complete() {
+            return List.of();
+        }
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<String> {
+
+        private final List<String> items = new ArrayList<>();
+        private Throwable error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(String item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    private static class NoOpSubscription implements Flow.Subscription {
+
+        private boolean cancelled;
+
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
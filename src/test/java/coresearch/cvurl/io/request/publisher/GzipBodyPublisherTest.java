@@ -0,0 +1,145 @@
+package coresearch.cvurl.io.request.publisher;
+
+import coresearch.cvurl.io.internal.util.ZlibPool;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GzipBodyPublisherTest {
+
+    @Test
+    public void compressedBodyShouldBeReadableWithGzipInputStreamTest() throws Exception {
+        //given
+        byte[] body = IntStream.range(0, 10_000)
+                .mapToObj(i -> "{\"id\":" + i + "}")
+                .collect(Collectors.joining("\n"))
+                .getBytes();
+        List<byte[]> chunks = new ArrayList<>();
+        for (int i = 0; i < body.length; i += 1000) {
+            chunks.add(Arrays.copyOfRange(body, i, Math.min(i + 1000, body.length)));
+        }
+        var publisher = new GzipBodyPublisher(HttpRequest.BodyPublishers.ofByteArrays(chunks));
+
+        //when
+        byte[] compressed = collect(publisher).get();
+
+        //then
+        assertEquals(-1, publisher.contentLength());
+        assertTrue(compressed.length < body.length);
+        assertArrayEquals(body, gunzip(compressed));
+    }
+
+    @Test
+    public void emptyBodyShouldBeCompressedToEmptyGzipStreamTest() throws Exception {
+        //given
+        var publisher = new GzipBodyPublisher(HttpRequest.BodyPublishers.ofByteArray(new byte[0]));
+
+        //when
+        byte[] compressed = collect(publisher).get();
+
+        //then
+        assertArrayEquals(new byte[0], gunzip(compressed));
+    }
+
+    @Test
+    public void cancelledBodyShouldReleaseDeflaterTest() {
+        //given
+        ZlibPool.RAW_DEFLATERS.release(ZlibPool.RAW_DEFLATERS.acquire());
+        int idle = ZlibPool.RAW_DEFLATERS.metrics().getIdle();
+
+        List<byte[]> chunks = IntStream.range(0, 100)
+                .mapToObj(i -> ("{\"id\":" + i + "}").getBytes())
+                .collect(Collectors.toList());
+        var publisher = new GzipBodyPublisher(HttpRequest.BodyPublishers.ofByteArrays(chunks));
+        var received = new AtomicInteger();
+
+        //when
+        publisher.subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                if (received.incrementAndGet() == 2) {
+                    subscription.cancel();
+                    subscription.cancel();
+                } else {
+                    subscription.request(1);
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+
+        //then
+        assertEquals(2, received.get());
+        assertEquals(idle, ZlibPool.RAW_DEFLATERS.metrics().getIdle());
+    }
+
+    private CompletableFuture<byte[]> collect(Flow.Publisher<ByteBuffer> publisher) {
+        var result = new CompletableFuture<byte[]>();
+        publisher.subscribe(new Flow.Subscriber<>() {
+            private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                byte[] bytes = new byte[item.remaining()];
+                item.get(bytes);
+                out.writeBytes(bytes);
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                result.complete(out.toByteArray());
+            }
+        });
+        return result;
+    }
+
+    private byte[] gunzip(byte[] compressed) throws IOException {
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package coresearch.cvurl.io.resilience;
+
+import coresearch.cvurl.io.exception.RequestRejectedException;
+import coresearch.cvurl.io.utils.MockHttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CircuitBreakerTest {
+
+    private static final URI URI_1 = URI.create("http://host-1:8080/users");
+    private static final URI URI_2 = URI.create("http://host-2:8080/users");
+    private static final String HOST_1 = "host-1:8080";
+    private static final String HOST_2 = "host-2:8080";
+
+    @Test
+    public void circuitShouldOpenWhenFailureRateReachesThresholdTest() {
+        //given
+        var circuitBreaker = CircuitBreaker.builder()
+                .windowSize(10)
+                .minimumCalls(4)
+                .failureRateThreshold(0.5)
+                .build();
+
+        //when
+        fail(circuitBreaker, URI_1);
+        succeed(circuitBreaker, URI_1);
+        fail(circuitBreaker, URI_1);
+        var stateBeforeMinimumCalls = circuitBreaker.getState(HOST_1);
+        fail(circuitBreaker, URI_1);
+
+        //then
+        assertEquals(CircuitBreaker.State.CLOSED, stateBeforeMinimumCalls);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState(HOST_1));
+        assertThrows(RequestRejectedException.class, () -> circuitBreaker.acquire(URI_1));
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(HOST_2));
+        circuitBreaker.acquire(URI_2);
+    }
+
+    @Test
+    public void successfulRequestsShouldKeepCircuitClosedTest() {
+        //given
+        var circuitBreaker = CircuitBreaker.builder()
+                .windowSize(4)
+                .minimumCalls(4)
+                .failureRateThreshold(0.6)
+                .build();
+
+        //when
+        for (int i = 0; i < 10; i++) {
+            fail(circuitBreaker, URI_1);
+            succeed(circuitBreaker, URI_1);
+            succeed(circuitBreaker, URI_1);
+        }
+
+        //then
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(HOST_1));
+    }
+
+    @Test
+    public void circuitShouldOpenWhenSlowCallRateReachesThresholdTest() throws InterruptedException {
+        //given
+        var circuitBreaker = CircuitBreaker.builder()
+                .windowSize(2)
+                .minimumCalls(2)
+                .slowCallRateThreshold(1.0, Duration.ofMillis(10))
+                .build();
+
+        //when
+        var first = circuitBreaker.acquire(URI_1);
+        var second = circuitBreaker.acquire(URI_1);
+        Thread.sleep(20);
+        first.release(MockHttpResponse.create(), null);
+        second.release(null, new IOException());
+
+        //then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState(HOST_1));
+        assertEquals(1.0, circuitBreaker.getSlowCallRate(HOST_1));
+    }
+
+    @Test
+    public void halfOpenCircuitShouldCloseAfterSuccessfulProbesTest() throws InterruptedException {
+        //given
+        var transitions = new ArrayList<String>();
+        var circuitBreaker = CircuitBreaker.builder()
+                .windowSize(2)
+                .minimumCalls(2)
+                .openDuration(Duration.ofMillis(50))
+                .halfOpenCalls(2)
+                .onStateTransition((key, from, to) -> transitions.add(from + "->" + to))
+                .build();
+        fail(circuitBreaker, URI_1);
+        fail(circuitBreaker, URI_1);
+
+        //when
+        Thread.sleep(60);
+        var firstProbe = circuitBreaker.acquire(URI_1);
+        var secondProbe = circuitBreaker.acquire(URI_1);
+        assertThrows(RequestRejectedException.class, () -> circuitBreaker.acquire(URI_1));
+        firstProbe.release(MockHttpResponse.create(), null);
+        secondProbe.release(MockHttpResponse.create(), null);
+
+        //then
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(HOST_1));
+        assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), transitions);
+    }
+
+    @Test
+    public void halfOpenCircuitShouldOpenAgainAfterFailedProbesTest() throws InterruptedException {
+        //given
+        var circuitBreaker = CircuitBreaker.builder()
+                .windowSize(2)
+                .minimumCalls(2)
+                .openDuration(Duration.ofMillis(50))
+                .halfOpenCalls(1)
+                .build();
+        fail(circuitBreaker, URI_1);
+        fail(circuitBreaker, URI_1);
+
+        //when
+        Thread.sleep(60);
+        fail(circuitBreaker, URI_1);
+
+        //then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState(HOST_1));
+        assertThrows(RequestRejectedException.class, () -> circuitBreaker.acquire(URI_1));
+    }
+
+    @Test
+    public void circuitsShouldBeKeyedByRouteTest() {
+        //given
+        var circuitBreaker = CircuitBreaker.builder()
+                .keyedBy(uri -> uri.getAuthority() + uri.getPath())
+                .windowSize(1)
+                .minimumCalls(1)
+                .build();
+
+        //when
+        fail(circuitBreaker, URI_1);
+
+        //then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState(HOST_1 + "/users"));
+        circuitBreaker.acquire(URI.create("http://host-1:8080/orders"));
+    }
+
+    private static void fail(CircuitBreaker circuitBreaker, URI uri) {
+        circuitBreaker.acquire(uri).release(null, new IOException());
+    }
+
+    private static void succeed(CircuitBreaker circuitBreaker, URI uri) {
+        circuitBreaker.acquire(uri).release(MockHttpResponse.create(), null);
+    }
+}
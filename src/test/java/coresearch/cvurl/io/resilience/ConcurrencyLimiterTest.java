@@ -0,0 +1,170 @@
+package coresearch.cvurl.io.resilience;
+
+import coresearch.cvurl.io.exception.RequestRejectedException;
+import coresearch.cvurl.io.utils.MockHttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrencyLimiterTest {
+
+    private static final URI URI_1 = URI.create("http://host-1:8080/path");
+    private static final URI URI_2 = URI.create("http://host-2:8080/path");
+    private static final String HOST_1 = "host-1:8080";
+
+    @Test
+    public void requestsAboveLimitShouldBeQueuedTest() {
+        //given
+        var limiter = ConcurrencyLimiter.builder().initialLimit(1).maxQueueSize(1).build();
+        var first = limiter.acquire(URI_1).join();
+
+        //when
+        var queued = limiter.acquire(URI_1);
+        var otherHost = limiter.acquire(URI_2);
+
+        //then
+        assertFalse(queued.isDone());
+        assertTrue(otherHost.isDone());
+        assertEquals(1, limiter.getInFlight(HOST_1));
+        assertEquals(1, limiter.getQueueSize(HOST_1));
+
+        first.release(null, new IOException());
+        assertTrue(queued.isDone());
+        assertEquals(0, limiter.getQueueSize(HOST_1));
+    }
+
+    @Test
+    public void requestsAboveQueueSizeShouldBeRejectedTest() {
+        //given
+        var limiter = ConcurrencyLimiter.builder().initialLimit(1).maxQueueSize(0).build();
+        limiter.acquire(URI_1).join();
+
+        //when
+        var rejected = limiter.acquire(URI_1);
+
+        //then
+        var exception = assertThrows(CompletionException.class, rejected::join);
+        assertTrue(exception.getCause() instanceof RequestRejectedException);
+    }
+
+    @Test
+    public void failedRequestShouldDecreaseLimitTest() {
+        //given
+        var limiter = ConcurrencyLimiter.builder().initialLimit(10).backoffRatio(0.5).build();
+        var permit = limiter.acquire(URI_1).join();
+
+        //when
+        permit.release(null, new IOException());
+
+        //then
+        assertEquals(5, limiter.getLimit(HOST_1));
+        assertEquals(0, limiter.getInFlight(HOST_1));
+    }
+
+    @Test
+    public void limitShouldRecoverWhenLatencyReturnsToNormalAfterFastPeriodTest() throws InterruptedException {
+        //given
+        var limiter = ConcurrencyLimiter.builder()
+                .initialLimit(10)
+                .backoffRatio(0.5)
+                .latencyTolerance(3)
+                .latencyWindow(5)
+                .build();
+        limiter.acquire(URI_1).join().release(MockHttpResponse.create(), null);
+
+        //when
+        for (int i = 0; i < 4; i++) {
+            sendWithLatency(limiter, 20);
+        }
+        int limitAfterFastPeriod = limiter.getLimit(HOST_1);
+        for (int i = 0; i < 10; i++) {
+            sendWithLatency(limiter, 20);
+        }
+
+        //then
+        assertEquals(1, limitAfterFastPeriod);
+        assertTrue(limiter.getLimit(HOST_1) > 1);
+    }
+
+    @Test
+    public void cancelledWaiterShouldNotHoldPermitTest() {
+        //given
+        var limiter = ConcurrencyLimiter.builder().initialLimit(1).minLimit(1).build();
+        var first = limiter.acquire(URI_1).join();
+        var cancelled = limiter.acquire(URI_1);
+        var waiting = limiter.acquire(URI_1);
+
+        //when
+        cancelled.cancel(false);
+        first.release(null, new IOException());
+
+        //then
+        assertTrue(waiting.isDone());
+        assertEquals(1, limiter.getInFlight(HOST_1));
+    }
+
+    @Test
+    public void cancelledWaiterShouldLeaveQueueTest() {
+        //given
+        var limiter = ConcurrencyLimiter.builder().initialLimit(1).maxQueueSize(1).build();
+        limiter.acquire(URI_1).join();
+        var cancelled = limiter.acquire(URI_1);
+
+        //when
+        cancelled.cancel(false);
+        var queued = limiter.acquire(URI_1);
+
+        //then
+        assertFalse(queued.isCompletedExceptionally());
+        assertEquals(1, limiter.getQueueSize(HOST_1));
+    }
+
+    @Test
+    public void idleHostShouldBeForgottenTest() {
+        //given
+        var limiter = ConcurrencyLimiter.builder().hostIdleTimeout(Duration.ZERO).build();
+        limiter.acquire(URI_1).join().release(MockHttpResponse.create(), null);
+        var inFlight = limiter.acquire(URI_2).join();
+
+        //when
+        limiter.acquire(URI_2).join().release(MockHttpResponse.create(), null);
+
+        //then
+        assertEquals(Set.of("host-2:8080"), limiter.getHosts());
+        assertEquals(1, limiter.getInFlight("host-2:8080"));
+        inFlight.release(MockHttpResponse.create(), null);
+    }
+
+    @Test
+    public void invalidLatencyWindowShouldThrowISETest() {
+        //given
+        var builder = ConcurrencyLimiter.builder().latencyWindow(0);
+
+        //then
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+
+    @Test
+    public void invalidLimitsShouldThrowISETest() {
+        //given
+        var builder = ConcurrencyLimiter.builder().initialLimit(10).maxLimit(5);
+
+        //then
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+
+    private static void sendWithLatency(ConcurrencyLimiter limiter, long millis) throws InterruptedException {
+        var permit = limiter.acquire(URI_1).join();
+        Thread.sleep(millis);
+        permit.release(MockHttpResponse.create(), null);
+    }
+}
@@ -0,0 +1,99 @@
+package coresearch.cvurl.io.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HedgingPolicyTest {
+
+    @Test
+    public void onlyGetRequestsShouldBeHedgedTest() {
+        //given
+        var policy = HedgingPolicy.builder().build();
+
+        //when, then
+        assertTrue(policy.isHedgeable("GET"));
+        assertFalse(policy.isHedgeable("PUT"));
+        assertFalse(policy.isHedgeable("POST"));
+    }
+
+    @Test
+    public void fixedDelayShouldBeUsedUntilEnoughLatenciesAreObservedTest() {
+        //given
+        var policy = HedgingPolicy.builder()
+                .delay(Duration.ofMillis(50))
+                .percentileDelay(0.95)
+                .build();
+
+        //when
+        for (int i = 0; i < 10; i++) {
+            policy.recordLatency(Duration.ofMillis(500));
+        }
+
+        //then
+        assertEquals(Duration.ofMillis(50), policy.getDelay());
+    }
+
+    @Test
+    public void delayShouldBeDerivedFromPercentileOfObservedLatenciesTest() {
+        //given
+        var policy = HedgingPolicy.builder()
+                .percentileDelay(0.95)
+                .windowSize(64)
+                .build();
+
+        //when
+        for (int i = 1; i <= 64; i++) {
+            policy.recordLatency(Duration.ofMillis(i));
+        }
+
+        //then
+        assertEquals(Duration.ofMillis(61), policy.getDelay());
+    }
+
+    @Test
+    public void fixedDelayShouldNotChangeWithLatenciesTest() {
+        //given
+        var policy = HedgingPolicy.builder().delay(Duration.ofMillis(30)).build();
+
+        //when
+        for (int i = 0; i < 100; i++) {
+            policy.recordLatency(Duration.ofSeconds(1));
+        }
+
+        //then
+        assertEquals(Duration.ofMillis(30), policy.getDelay());
+    }
+
+    @Test
+    public void hedgesShouldBeLimitedByRatioTest() {
+        //given
+        var policy = HedgingPolicy.builder().budget(RetryBudget.of(0.5, 1)).build();
+
+        //when
+        boolean first = policy.tryHedge();
+        boolean exhausted = policy.tryHedge();
+        policy.onRequest();
+        policy.onRequest();
+        boolean afterTwoRequests = policy.tryHedge();
+
+        //then
+        assertTrue(first);
+        assertFalse(exhausted);
+        assertTrue(afterTwoRequests);
+    }
+
+    @Test
+    public void invalidPolicyShouldNotBeBuiltTest() {
+        //given
+        var builder = HedgingPolicy.builder().percentileDelay(1.5);
+
+        //when, then
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+}
@@ -0,0 +1,121 @@
+package coresearch.cvurl.io.resilience;
+
+import coresearch.cvurl.io.constant.HttpHeader;
+import coresearch.cvurl.io.constant.HttpStatus;
+import coresearch.cvurl.io.exception.RequestRejectedException;
+import coresearch.cvurl.io.utils.MockHttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RateLimiterTest {
+
+    private static final URI USERS_URI = URI.create("http://host-1/users/1");
+    private static final URI ORDERS_URI = URI.create("http://host-1/orders/1");
+    private static final URI OTHER_HOST_URI = URI.create("http://host-2/orders/1");
+
+    @Test
+    public void requestsAboveBurstShouldBeRejectedInFailFastModeTest() {
+        //given
+        var limiter = RateLimiter.builder()
+                .mode(RateLimiter.Mode.FAIL_FAST)
+                .host("host-1", 1, 2)
+                .build();
+
+        //when
+        limiter.acquire(ORDERS_URI).join();
+        limiter.acquire(ORDERS_URI).join();
+        var rejected = limiter.acquire(ORDERS_URI);
+
+        //then
+        var exception = assertThrows(CompletionException.class, rejected::join);
+        assertTrue(exception.getCause() instanceof RequestRejectedException);
+    }
+
+    @Test
+    public void pathRuleShouldTakePrecedenceOverHostRuleTest() {
+        //given
+        var limiter = RateLimiter.builder()
+                .mode(RateLimiter.Mode.FAIL_FAST)
+                .path("/users/.*", 1, 1)
+                .host("host-1", 100, 100)
+                .build();
+
+        //when
+        limiter.acquire(USERS_URI).join();
+        var rejected = limiter.acquire(USERS_URI);
+        var allowed = limiter.acquire(ORDERS_URI);
+
+        //then
+        assertTrue(rejected.isCompletedExceptionally());
+        assertFalse(allowed.isCompletedExceptionally());
+    }
+
+    @Test
+    public void requestsWithoutMatchingBucketShouldNotBeLimitedTest() {
+        //given
+        var limiter = RateLimiter.builder()
+                .mode(RateLimiter.Mode.FAIL_FAST)
+                .host("host-1", 1, 1)
+                .build();
+
+        //when
+        limiter.acquire(OTHER_HOST_URI).join();
+        var second = limiter.acquire(OTHER_HOST_URI);
+
+        //then
+        assertFalse(second.isCompletedExceptionally());
+    }
+
+    @Test
+    public void requestsAboveBurstShouldBeDelayedInDelayedModeTest() throws Exception {
+        //given
+        var limiter = RateLimiter.builder()
+                .mode(RateLimiter.Mode.DELAYED)
+                .perHost(10, 1)
+                .build();
+
+        //when
+        limiter.acquire(ORDERS_URI).join();
+        var delayed = limiter.acquire(ORDERS_URI);
+
+        //then
+        assertFalse(delayed.isDone());
+        delayed.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void farFutureRetryAfterShouldPauseBucketTest() {
+        //given
+        var limiter = RateLimiter.builder()
+                .mode(RateLimiter.Mode.FAIL_FAST)
+                .host("host-1", 100, 100)
+                .build();
+        var response = MockHttpResponse.create();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.setHeaders(HttpHeaders.of(Map.of(HttpHeader.RETRY_AFTER, List.of(String.valueOf(Long.MAX_VALUE))),
+                (name, value) -> true));
+
+        //when
+        limiter.onResponse(ORDERS_URI, response);
+        var rejected = limiter.acquire(ORDERS_URI);
+
+        //then
+        assertTrue(rejected.isCompletedExceptionally());
+    }
+
+    @Test
+    public void nonPositiveRateShouldThrowIAETest() {
+        //then
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.builder().perHost(0, 1));
+    }
+}
@@ -0,0 +1,151 @@
+package coresearch.cvurl.io.resilience;
+
+import coresearch.cvurl.io.exception.RequestRejectedException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RetryPolicyTest {
+
+    @Test
+    public void idempotentRequestShouldBeRetriedOnRetryableExceptionTest() {
+        //given
+        var policy = RetryPolicy.builder().build();
+
+        //when
+        var delay = policy.nextDelay("GET", 1, null, new HttpTimeoutException("timeout"));
+
+        //then
+        assertTrue(delay.isPresent());
+    }
+
+    @Test
+    public void nonIdempotentRequestShouldNotBeRetriedByDefaultTest() {
+        //given
+        var policy = RetryPolicy.builder().build();
+        var permissivePolicy = RetryPolicy.builder().retryNonIdempotent(true).build();
+
+        //when
+        var delay = policy.nextDelay("POST", 1, null, new IOException());
+        var permissiveDelay = permissivePolicy.nextDelay("POST", 1, null, new IOException());
+
+        //then
+        assertFalse(delay.isPresent());
+        assertTrue(permissiveDelay.isPresent());
+    }
+
+    @Test
+    public void nonRetryableExceptionShouldNotBeRetriedTest() {
+        //given
+        var policy = RetryPolicy.builder().build();
+
+        //when
+        var delay = policy.nextDelay("GET", 1, null, new RequestRejectedException("rejected"));
+
+        //then
+        assertFalse(delay.isPresent());
+    }
+
+    @Test
+    public void requestShouldNotBeRetriedAfterLastAttemptTest() {
+        //given
+        var policy = RetryPolicy.builder().maxAttempts(2).build();
+
+        //when
+        var firstDelay = policy.nextDelay("GET", 1, null, new IOException());
+        var secondDelay = policy.nextDelay("GET", 2, null, new IOException());
+
+        //then
+        assertTrue(firstDelay.isPresent());
+        assertFalse(secondDelay.isPresent());
+    }
+
+    @Test
+    public void delayShouldBeJitteredBelowExponentialBackoffTest() {
+        //given
+        var policy = RetryPolicy.builder()
+                .maxAttempts(10)
+                .initialBackoff(Duration.ofMillis(100))
+                .maxBackoff(Duration.ofMillis(300))
+                .budget(RetryBudget.unlimited())
+                .build();
+
+        for (int i = 0; i < 100; i++) {
+            //when
+            var firstDelay = policy.nextDelay("GET", 1, null, new IOException()).orElseThrow();
+            var fifthDelay = policy.nextDelay("GET", 5, null, new IOException()).orElseThrow();
+
+            //then
+            assertTrue(firstDelay.compareTo(Duration.ofMillis(100)) <= 0);
+            assertTrue(fifthDelay.compareTo(Duration.ofMillis(300)) <= 0);
+            assertFalse(fifthDelay.isNegative());
+        }
+    }
+
+    @Test
+    public void budgetShouldLimitRetriesToRatioOfRequestsTest() {
+        //given
+        var budget = RetryBudget.of(0.5, 2);
+
+        //when
+        boolean firstReserved = budget.tryWithdraw();
+        boolean secondReserved = budget.tryWithdraw();
+        boolean exhausted = budget.tryWithdraw();
+        budget.deposit();
+        boolean afterOneRequest = budget.tryWithdraw();
+        budget.deposit();
+        budget.deposit();
+        boolean afterTwoRequests = budget.tryWithdraw();
+
+        //then
+        assertTrue(firstReserved);
+        assertTrue(secondReserved);
+        assertFalse(exhausted);
+        assertFalse(afterOneRequest);
+        assertTrue(afterTwoRequests);
+    }
+
+    @Test
+    public void budgetBalanceShouldNotExceedReserveTest() {
+        //given
+        var budget = RetryBudget.of(1, 3);
+
+        //when
+        for (int i = 0; i < 100; i++) {
+            budget.deposit();
+        }
+
+        //then
+        assertEquals(3, budget.getAvailableRetries());
+    }
+
+    @Test
+    public void exhaustedBudgetShouldPreventRetryTest() {
+        //given
+        var policy = RetryPolicy.builder().budget(RetryBudget.of(0, 1)).build();
+
+        //when
+        var firstDelay = policy.nextDelay("GET", 1, null, new IOException());
+        var secondDelay = policy.nextDelay("GET", 1, null, new IOException());
+
+        //then
+        assertTrue(firstDelay.isPresent());
+        assertFalse(secondDelay.isPresent());
+    }
+
+    @Test
+    public void invalidPolicyShouldNotBeBuiltTest() {
+        //given
+        var builder = RetryPolicy.builder().initialBackoff(Duration.ofSeconds(1)).maxBackoff(Duration.ofMillis(1));
+
+        //when, then
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+}
@@ -0,0 +1,155 @@
+package coresearch.cvurl.io.util;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.http.Fault;
+import coresearch.cvurl.io.constant.HttpStatus;
+import coresearch.cvurl.io.exception.ScatterGatherException;
+import coresearch.cvurl.io.model.Response;
+import coresearch.cvurl.io.request.AbstractRequestTest;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ScatterGatherTest extends AbstractRequestTest {
+
+    private static final Duration DEADLINE = Duration.ofSeconds(5);
+
+    @Test
+    public void firstSuccessfulShouldReturnFastestReplicaAndCancelOthersTest() {
+        //given
+        stub("/fast", HttpStatus.OK, "fast", 0);
+        stub("/broken", HttpStatus.INTERNAL_SERVER_ERROR, "broken", 0);
+        var slow = new CompletableFuture<Response<String>>();
+
+        //when
+        var response = ScatterGather.firstSuccessful(List.of(asString("/broken"), slow, asString("/fast")), DEADLINE).join();
+
+        //then
+        assertEquals("fast", response.getBody());
+        assertTrue(slow.isCancelled());
+    }
+
+    @Test
+    public void firstSuccessfulShouldFailWhenEveryRequestFailsTest() {
+        //given
+        stub("/broken", HttpStatus.SERVICE_UNAVAILABLE, "broken", 0);
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo("/fault"))
+                .willReturn(WireMock.aResponse().withFault(Fault.RANDOM_DATA_THEN_CLOSE)));
+
+        //when
+        var result = ScatterGather.firstSuccessful(List.of(asString("/broken"), asString("/fault")), DEADLINE);
+
+        //then
+        var exception = assertThrows(CompletionException.class, result::join);
+        assertTrue(exception.getCause() instanceof ScatterGatherException);
+        assertEquals(1, exception.getCause().getSuppressed().length);
+        assertTrue(exception.getCause().getSuppressed()[0] instanceof IOException);
+    }
+
+    @Test
+    public void quorumShouldCompleteWithRequiredNumberOfResponsesTest() {
+        //given
+        stub("/a", HttpStatus.OK, "a", 0);
+        stub("/b", HttpStatus.OK, "b", 0);
+        var slow = new CompletableFuture<Response<String>>();
+
+        //when
+        var responses = ScatterGather.quorum(List.of(asString("/a"), slow, asString("/b")), 2, DEADLINE).join();
+
+        //then
+        assertEquals(List.of("a", "b"), responses.stream().map(Response::getBody).sorted().collect(Collectors.toList()));
+        assertTrue(slow.isCancelled());
+    }
+
+    @Test
+    public void quorumShouldFailAsSoonAsItCannotBeReachedTest() {
+        //given
+        stub("/a", HttpStatus.OK, "a", 0);
+        stub("/broken", HttpStatus.INTERNAL_SERVER_ERROR, "broken", 0);
+        var slow = new CompletableFuture<Response<String>>();
+
+        //when
+        var result = ScatterGather.quorum(List.of(asString("/a"), asString("/broken"), slow), 3, DEADLINE);
+
+        //then
+        var exception = assertThrows(CompletionException.class, result::join);
+        assertTrue(exception.getCause() instanceof ScatterGatherException);
+        assertTrue(slow.isCancelled());
+    }
+
+    @Test
+    public void deadlineShouldFailQuorumAndDiscardAcceptedStreamsTest() throws IOException {
+        //given
+        stub("/a", HttpStatus.OK, "a", 0);
+        stub("/slow", HttpStatus.OK, "slow", 2000);
+        var fast = asStream("/a");
+
+        //when
+        var result = ScatterGather.quorum(List.of(fast, asStream("/slow")), 2, Duration.ofMillis(300));
+
+        //then
+        var exception = assertThrows(CompletionException.class, result::join);
+        assertTrue(exception.getCause() instanceof ScatterGatherException);
+        assertTrue(exception.getCause().getCause() instanceof TimeoutException);
+        var body = fast.join().getBody();
+        assertThrows(IOException.class, () -> body.read(new byte[16]));
+    }
+
+    @Test
+    public void allSettledShouldReportEveryOutcomeInInputOrderTest() {
+        //given
+        stub("/a", HttpStatus.OK, "a", 0);
+        stub("/broken", HttpStatus.INTERNAL_SERVER_ERROR, "broken", 0);
+        stub("/slow", HttpStatus.OK, "slow", 2000);
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo("/fault"))
+                .willReturn(WireMock.aResponse().withFault(Fault.RANDOM_DATA_THEN_CLOSE)));
+
+        //when
+        var settled = ScatterGather.allSettled(
+                List.of(asString("/a"), asString("/broken"), asString("/fault"), asString("/slow")),
+                Duration.ofMillis(500)).join();
+
+        //then
+        assertEquals(4, settled.size());
+        assertEquals("a", settled.get(0).getResponse().orElseThrow().getBody());
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, settled.get(1).getResponse().orElseThrow().status());
+        assertTrue(settled.get(2).getError().orElseThrow() instanceof IOException);
+        assertFalse(settled.get(3).isSuccessful());
+        assertTrue(settled.get(3).getError().orElseThrow() instanceof TimeoutException);
+    }
+
+    @Test
+    public void quorumLargerThanNumberOfRequestsShouldBeRejectedTest() {
+        //given
+        var responses = List.of(CompletableFuture.<Response<String>>completedFuture(null));
+
+        //when, then
+        assertThrows(IllegalArgumentException.class, () -> ScatterGather.quorum(responses, 2, DEADLINE));
+    }
+
+    private CompletableFuture<Response<String>> asString(String path) {
+        return cvurl.get(format(URL_PATTERN, PORT, path)).asyncAsString();
+    }
+
+    private CompletableFuture<Response<InputStream>> asStream(String path) {
+        return cvurl.get(format(URL_PATTERN, PORT, path)).asyncAsStream();
+    }
+
+    private void stub(String path, int status, String body, int delay) {
+        wiremock.stubFor(WireMock.get(WireMock.urlEqualTo(path))
+                .willReturn(WireMock.aResponse().withStatus(status).withBody(body).withFixedDelay(delay)));
+    }
+}
@@ -10,6 +10,7 @@ import java.util.Optional;
 
 public class MockHttpResponse implements HttpResponse<String> {
 
+    private int statusCode;
     private URI uri;
     private HttpHeaders headers;
     private HttpRequest httpRequest;
@@ -26,7 +27,7 @@ public class MockHttpResponse implements HttpResponse<String> {
 
     @Override
     public int statusCode() {
-        return 0;
+        return statusCode;
     }
 
     @Override
@@ -64,6 +65,10 @@ public class MockHttpResponse implements HttpResponse<String> {
         return version;
     }
 
+    public void setStatusCode(int statusCode) {
+        this.statusCode = statusCode;
+    }
+
     public void setUri(URI uri) {
         this.uri = uri;
     }